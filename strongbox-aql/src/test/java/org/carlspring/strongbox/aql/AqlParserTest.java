@@ -2,9 +2,11 @@ package org.carlspring.strongbox.aql;
 
 import org.carlspring.strongbox.aql.grammar.AqlQueryParser;
 import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.criteria.QueryParserException;
 import org.carlspring.strongbox.data.criteria.Selector;
+import org.carlspring.strongbox.data.service.support.search.PagingCursor;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 
 import java.util.ArrayList;
@@ -197,6 +199,34 @@ public class AqlParserTest
                 );
     }
 
+    @Test
+    public void testKeysetQuery()
+    {
+        String query = "storage:storage-common-proxies +repository:carlspring";
+
+        Selector<ArtifactEntry> selector = new AqlQueryParser(query).parseQuery();
+
+        Paginator paginator = new Paginator();
+        paginator.setSkip(12);
+        paginator.setLimit(25);
+        paginator.setProperty("artifactCoordinates.path");
+        paginator.setAfter(PagingCursor.of("org/carlspring/strongbox"));
+        selector.with(paginator);
+
+        OQueryTemplate<Object, ArtifactEntry> queryTemplate = new OQueryTemplate<>(null);
+
+        String sqlQuery = queryTemplate.calculateQueryString(selector);
+
+        logger.debug(String.format("Query [%s] parse result:\n[%s]", query, sqlQuery));
+
+        // The page starts after the cursor, instead of skipping the previous pages.
+        assertThat(sqlQuery).startsWith("SELECT * FROM ArtifactEntry WHERE (")
+                            .endsWith(") AND artifactCoordinates.path > :paginatorAfter " +
+                                      "ORDER BY artifactCoordinates.path ASC " +
+                                      "LIMIT 25")
+                            .doesNotContain("SKIP");
+    }
+
     @Test
     public void testInvalidQuery()
     {
@@ -0,0 +1,139 @@
+package org.carlspring.strongbox.service;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Snapshot of the connection lease time and queue wait histograms of the remote repository connection pool.
+ */
+@Immutable
+public class ConnectionPoolMetrics
+{
+
+    private final Histogram leaseTime;
+
+    private final Histogram queueWait;
+
+    public ConnectionPoolMetrics(Histogram leaseTime,
+                                 Histogram queueWait)
+    {
+        this.leaseTime = leaseTime;
+        this.queueWait = queueWait;
+    }
+
+    /**
+     * @return how long the connections were held by the requests, from the lease to the release
+     */
+    public Histogram getLeaseTime()
+    {
+        return leaseTime;
+    }
+
+    /**
+     * @return how long the requests waited for a connection to be leased from the pool
+     */
+    public Histogram getQueueWait()
+    {
+        return queueWait;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("[leaseTime: %s; queueWait: %s]", leaseTime, queueWait);
+    }
+
+    @Immutable
+    public static class Histogram
+    {
+
+        private final long[] bucketBoundsMillis;
+
+        private final long[] bucketCounts;
+
+        private final long count;
+
+        private final long sumMillis;
+
+        /**
+         * @param bucketBoundsMillis
+         *            inclusive upper bounds of the buckets, the last one being {@link Long#MAX_VALUE}
+         * @param bucketCounts
+         *            number of the values in each bucket
+         */
+        public Histogram(long[] bucketBoundsMillis,
+                         long[] bucketCounts,
+                         long sumMillis)
+        {
+            this.bucketBoundsMillis = bucketBoundsMillis.clone();
+            this.bucketCounts = bucketCounts.clone();
+            this.count = Arrays.stream(bucketCounts).sum();
+            this.sumMillis = sumMillis;
+        }
+
+        public long[] getBucketBoundsMillis()
+        {
+            return bucketBoundsMillis.clone();
+        }
+
+        public long[] getBucketCounts()
+        {
+            return bucketCounts.clone();
+        }
+
+        public long getCount()
+        {
+            return count;
+        }
+
+        public long getSumMillis()
+        {
+            return sumMillis;
+        }
+
+        public double getMeanMillis()
+        {
+            return count == 0 ? 0 : (double) sumMillis / count;
+        }
+
+        /**
+         * @param percentile
+         *            from 0 to 100
+         * @return upper bound of the bucket which contains the given percentile, `0` if there are no values
+         */
+        public long getPercentileMillis(double percentile)
+        {
+            if (count == 0)
+            {
+                return 0;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+            long seen = 0;
+            for (int i = 0; i < bucketCounts.length; i++)
+            {
+                seen += bucketCounts[i];
+                if (seen >= rank)
+                {
+                    return bucketBoundsMillis[i];
+                }
+            }
+
+            return bucketBoundsMillis[bucketBoundsMillis.length - 1];
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("count: %s, mean: %.1fms, p50: %sms, p95: %sms, p99: %sms",
+                                 count,
+                                 getMeanMillis(),
+                                 getPercentileMillis(50),
+                                 getPercentileMillis(95),
+                                 getPercentileMillis(99));
+        }
+
+    }
+
+}
@@ -27,5 +27,7 @@ public interface ProxyRepositoryConnectionPoolConfigurationService
 
     PoolStats getPoolStats(String repository);
 
+    ConnectionPoolMetrics getPoolMetrics(String repository);
+
     void shutdown();
 }
@@ -0,0 +1,246 @@
+package org.carlspring.strongbox.service.impl;
+
+import org.carlspring.strongbox.service.ConnectionPoolMetrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link PoolingHttpClientConnectionManager} which records the lease time and the queue wait of every remote, and
+ * sizes the pool of every remote by the observed load, between the configured number of connections and the given
+ * ceiling. <br>
+ * The connections which came without the `Keep-Alive` timeout from the remote are kept alive for the default time
+ * instead of infinitely.
+ */
+class AdaptivePoolingHttpClientConnectionManager
+        extends PoolingHttpClientConnectionManager
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePoolingHttpClientConnectionManager.class);
+
+    /**
+     * Spare connections over the average number of the leased ones.
+     */
+    private static final double HEADROOM = 1.25;
+
+    private final Map<HttpRoute, RouteMetrics> routeMetrics = new ConcurrentHashMap<>();
+
+    private final Map<HttpRoute, Integer> configuredMaxPerRoute = new ConcurrentHashMap<>();
+
+    private final Map<HttpClientConnection, Lease> leases = new ConcurrentHashMap<>();
+
+    private final long defaultKeepAliveMillis;
+
+    private final long slowQueueWaitNanos;
+
+    private volatile int maxPerRouteCeiling;
+
+    private long lastAdjustmentTime = System.nanoTime();
+
+    AdaptivePoolingHttpClientConnectionManager(long defaultKeepAliveMillis,
+                                               long slowQueueWaitMillis,
+                                               int maxPerRouteCeiling)
+    {
+        this.defaultKeepAliveMillis = defaultKeepAliveMillis;
+        this.slowQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(slowQueueWaitMillis);
+        this.maxPerRouteCeiling = maxPerRouteCeiling;
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route,
+                                               Object state)
+    {
+        ConnectionRequest connectionRequest = super.requestConnection(route, state);
+        RouteMetrics metrics = routeMetrics.computeIfAbsent(route, r -> new RouteMetrics());
+
+        return new ConnectionRequest()
+        {
+
+            @Override
+            public HttpClientConnection get(long timeout,
+                                            TimeUnit timeUnit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException
+            {
+                long start = System.nanoTime();
+                HttpClientConnection connection = null;
+                try
+                {
+                    connection = connectionRequest.get(timeout, timeUnit);
+                }
+                finally
+                {
+                    long now = System.nanoTime();
+                    metrics.queueWait(now - start, slowQueueWaitNanos);
+                    if (connection != null)
+                    {
+                        leases.put(connection, new Lease(metrics, now));
+                    }
+                }
+
+                return connection;
+            }
+
+            @Override
+            public boolean cancel()
+            {
+                return connectionRequest.cancel();
+            }
+
+        };
+    }
+
+    @Override
+    public void releaseConnection(HttpClientConnection managedConnection,
+                                  Object state,
+                                  long keepAlive,
+                                  TimeUnit timeUnit)
+    {
+        Lease lease = leases.remove(managedConnection);
+        if (lease != null)
+        {
+            lease.metrics.released(System.nanoTime() - lease.start);
+        }
+
+        if (keepAlive <= 0)
+        {
+            keepAlive = defaultKeepAliveMillis;
+            timeUnit = TimeUnit.MILLISECONDS;
+        }
+
+        super.releaseConnection(managedConnection, state, keepAlive, timeUnit);
+    }
+
+    /**
+     * Sets the configured number of connections of the remote, which the pool never shrinks below.
+     */
+    void setConfiguredMaxPerRoute(HttpRoute route,
+                                  int max)
+    {
+        configuredMaxPerRoute.put(route, max);
+        setMaxPerRoute(route, max);
+    }
+
+    void setMaxPerRouteCeiling(int maxPerRouteCeiling)
+    {
+        this.maxPerRouteCeiling = maxPerRouteCeiling;
+    }
+
+    ConnectionPoolMetrics getMetrics(HttpRoute route)
+    {
+        RouteMetrics metrics = routeMetrics.computeIfAbsent(route, r -> new RouteMetrics());
+
+        return new ConnectionPoolMetrics(metrics.leaseTime.snapshot(), metrics.queueWait.snapshot());
+    }
+
+    /**
+     * Resizes the pool of every remote which was used since the previous adjustment.
+     */
+    synchronized void adjustMaxPerRoute()
+    {
+        long now = System.nanoTime();
+        long windowNanos = Math.max(1, now - lastAdjustmentTime);
+        lastAdjustmentTime = now;
+
+        routeMetrics.forEach((route, metrics) -> {
+            long leaseNanos = metrics.windowLeaseNanos.sumThenReset();
+            long slowQueueWaits = metrics.windowSlowQueueWaits.getAndSet(0);
+
+            int current = getMaxPerRoute(route);
+            int floor = configuredMaxPerRoute.getOrDefault(route, getDefaultMaxPerRoute());
+            int ceiling = Math.max(floor, maxPerRouteCeiling);
+            int leased = getStats(route).getLeased();
+
+            int target = adjustedMaxPerRoute(current, floor, ceiling, leased, (double) leaseNanos / windowNanos,
+                                             slowQueueWaits > 0);
+            if (target != current)
+            {
+                logger.debug("Resizing the connection pool of [{}] from [{}] to [{}].", route, current, target);
+                setMaxPerRoute(route, target);
+            }
+        });
+    }
+
+    /**
+     * @param concurrency
+     *            average number of the connections leased during the period (Little's law: the total lease time
+     *            over the length of the period)
+     * @param slowQueueWaits
+     *            whether the requests waited too long for the connections during the period
+     */
+    static int adjustedMaxPerRoute(int current,
+                                   int floor,
+                                   int ceiling,
+                                   int leased,
+                                   double concurrency,
+                                   boolean slowQueueWaits)
+    {
+        int target = Math.max(leased, (int) Math.ceil(concurrency * HEADROOM));
+        if (slowQueueWaits)
+        {
+            target = Math.max(target, current + Math.max(1, current / 2));
+        }
+
+        target = Math.min(ceiling, Math.max(floor, target));
+
+        // Grow at once, shrink one connection at a time.
+        return target >= current ? target : Math.max(target, current - 1);
+    }
+
+    private static class RouteMetrics
+    {
+
+        private final TimingsHistogram leaseTime = new TimingsHistogram();
+
+        private final TimingsHistogram queueWait = new TimingsHistogram();
+
+        private final LongAdder windowLeaseNanos = new LongAdder();
+
+        private final AtomicLong windowSlowQueueWaits = new AtomicLong();
+
+        void queueWait(long nanos,
+                       long slowQueueWaitNanos)
+        {
+            queueWait.record(nanos);
+            if (nanos > slowQueueWaitNanos)
+            {
+                windowSlowQueueWaits.incrementAndGet();
+            }
+        }
+
+        void released(long leaseNanos)
+        {
+            leaseTime.record(leaseNanos);
+            windowLeaseNanos.add(leaseNanos);
+        }
+
+    }
+
+    private static class Lease
+    {
+
+        private final RouteMetrics metrics;
+
+        private final long start;
+
+        Lease(RouteMetrics metrics,
+              long start)
+        {
+            this.metrics = metrics;
+            this.start = start;
+        }
+
+    }
+
+}
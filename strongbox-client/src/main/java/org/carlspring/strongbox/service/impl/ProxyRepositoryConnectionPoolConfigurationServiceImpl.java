@@ -13,9 +13,9 @@ import org.apache.http.HttpHost;
 import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.pool.PoolStats;
 
+import org.carlspring.strongbox.service.ConnectionPoolMetrics;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
 
 import org.glassfish.jersey.apache.connector.ApacheClientProperties;
@@ -39,7 +39,9 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
     private static final Logger LOGGER = LoggerFactory.getLogger(
             ProxyRepositoryConnectionPoolConfigurationServiceImpl.class);
 
-    private PoolingHttpClientConnectionManager poolingHttpClientConnectionManager;
+    private static final String REST_CLIENT_LOGGER = "org.carlspring.strongbox.RestClient";
+
+    private AdaptivePoolingHttpClientConnectionManager poolingHttpClientConnectionManager;
     private IdleConnectionMonitorThread idleConnectionMonitorThread;
 
     @Value("${pool.maxConnections:200}")
@@ -48,17 +50,32 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
     private int defaultMaxPerRoute;
     @Value("${pool.idleConnectionsTimeoutInSeconds:60}")
     private int idleConnectionsTimeoutInSeconds;
+    @Value("${pool.keepAliveTimeoutInSeconds:30}")
+    private int keepAliveTimeoutInSeconds;
+    @Value("${pool.validateAfterInactivityInMillis:2000}")
+    private int validateAfterInactivityInMillis;
+    @Value("${pool.adaptive.enabled:true}")
+    private boolean adaptive;
+    @Value("${pool.adaptive.maxConnectionsPerRoute:20}")
+    private int maxConnectionsPerRoute;
+    @Value("${pool.adaptive.slowQueueWaitInMillis:50}")
+    private int slowQueueWaitInMillis;
 
     @PostConstruct
     public void init()
     {
-        poolingHttpClientConnectionManager = new PoolingHttpClientConnectionManager();
+        poolingHttpClientConnectionManager = new AdaptivePoolingHttpClientConnectionManager(
+                TimeUnit.SECONDS.toMillis(keepAliveTimeoutInSeconds),
+                slowQueueWaitInMillis,
+                maxConnectionsPerRoute);
         poolingHttpClientConnectionManager.setMaxTotal(maxTotal); //TODO value that depends on number of threads?
         poolingHttpClientConnectionManager.setDefaultMaxPerRoute(defaultMaxPerRoute);
+        poolingHttpClientConnectionManager.setValidateAfterInactivity(validateAfterInactivityInMillis);
 
-        // thread for monitoring unused connections
+        // thread for monitoring unused connections, and for resizing the pools of the remotes
         idleConnectionMonitorThread =
-                new IdleConnectionMonitorThread(poolingHttpClientConnectionManager, idleConnectionsTimeoutInSeconds);
+                new IdleConnectionMonitorThread(poolingHttpClientConnectionManager, idleConnectionsTimeoutInSeconds,
+                                                adaptive);
         idleConnectionMonitorThread.setDaemon(true);
         idleConnectionMonitorThread.start();
     }
@@ -78,16 +95,23 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
         // property to prevent closing connection manager when client is closed
         config.property(ApacheClientProperties.CONNECTION_MANAGER_SHARED, true);
 
-        java.util.logging.Logger logger = java.util.logging.Logger.getLogger("org.carlspring.strongbox.RestClient");
-
         // TODO set basic authentication here instead of setting it always in client?
         /* CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
         credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(username, password));
         config.property(ApacheClientProperties.CREDENTIALS_PROVIDER, credentialsProvider); */
 
-        return ClientBuilder.newBuilder()
-                            .register(new LoggingFeature(logger, Verbosity.PAYLOAD_TEXT))
-                            .withConfig(config)
+        ClientBuilder clientBuilder = ClientBuilder.newBuilder();
+
+        // The requests are only logged if asked for, as the payload logging buffers the entities.
+        Logger restClientLogger = LoggerFactory.getLogger(REST_CLIENT_LOGGER);
+        if (restClientLogger.isDebugEnabled())
+        {
+            Verbosity verbosity = restClientLogger.isTraceEnabled() ? Verbosity.PAYLOAD_TEXT : Verbosity.HEADERS_ONLY;
+            clientBuilder.register(new LoggingFeature(java.util.logging.Logger.getLogger(REST_CLIENT_LOGGER),
+                                                      verbosity));
+        }
+
+        return clientBuilder.withConfig(config)
                             .build();
     }
 
@@ -125,7 +149,7 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
         if (max > 0)
         {
             HttpRoute httpRoute = getHttpRouteFromRepository(repository);
-            poolingHttpClientConnectionManager.setMaxPerRoute(httpRoute, max);
+            poolingHttpClientConnectionManager.setConfiguredMaxPerRoute(httpRoute, max);
         }
         else
         {
@@ -146,6 +170,13 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
         return poolingHttpClientConnectionManager.getStats(httpRoute);
     }
 
+    @Override
+    public ConnectionPoolMetrics getPoolMetrics(String repository)
+    {
+        HttpRoute httpRoute = getHttpRouteFromRepository(repository);
+        return poolingHttpClientConnectionManager.getMetrics(httpRoute);
+    }
+
     @Override
     public void shutdown()
     {
@@ -195,18 +226,22 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
             extends Thread
     {
 
-        private PoolingHttpClientConnectionManager poolingHttpClientConnectionManager;
+        private AdaptivePoolingHttpClientConnectionManager poolingHttpClientConnectionManager;
 
         private volatile boolean shutdown;
 
         private int idleConnectionsTimeout;
 
-        IdleConnectionMonitorThread(PoolingHttpClientConnectionManager poolingHttpClientConnectionManager,
-                                    int idleConnectionsTimeout)
+        private boolean adaptive;
+
+        IdleConnectionMonitorThread(AdaptivePoolingHttpClientConnectionManager poolingHttpClientConnectionManager,
+                                    int idleConnectionsTimeout,
+                                    boolean adaptive)
         {
             super();
             this.poolingHttpClientConnectionManager = poolingHttpClientConnectionManager;
             this.idleConnectionsTimeout = idleConnectionsTimeout;
+            this.adaptive = adaptive;
         }
 
         @Override
@@ -222,6 +257,10 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
                         poolingHttpClientConnectionManager.closeExpiredConnections();
                         poolingHttpClientConnectionManager.closeIdleConnections(idleConnectionsTimeout,
                                                                                 TimeUnit.SECONDS);
+                        if (adaptive)
+                        {
+                            poolingHttpClientConnectionManager.adjustMaxPerRoute();
+                        }
                     }
                 }
             }
@@ -0,0 +1,47 @@
+package org.carlspring.strongbox.service.impl;
+
+import org.carlspring.strongbox.service.ConnectionPoolMetrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram of the durations, with the fixed buckets from 1ms to 1min.
+ */
+class TimingsHistogram
+{
+
+    static final long[] BUCKET_BOUNDS_MILLIS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000,
+                                                 60000, Long.MAX_VALUE };
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length);
+
+    private final LongAdder sumMillis = new LongAdder();
+
+    void record(long nanos)
+    {
+        long millis = TimeUnit.NANOSECONDS.toMillis(Math.max(0, nanos));
+
+        int bucket = 0;
+        while (millis > BUCKET_BOUNDS_MILLIS[bucket])
+        {
+            bucket++;
+        }
+
+        bucketCounts.incrementAndGet(bucket);
+        sumMillis.add(millis);
+    }
+
+    ConnectionPoolMetrics.Histogram snapshot()
+    {
+        long[] counts = new long[bucketCounts.length()];
+        for (int i = 0; i < counts.length; i++)
+        {
+            counts[i] = bucketCounts.get(i);
+        }
+
+        return new ConnectionPoolMetrics.Histogram(BUCKET_BOUNDS_MILLIS, counts, sumMillis.sum());
+    }
+
+}
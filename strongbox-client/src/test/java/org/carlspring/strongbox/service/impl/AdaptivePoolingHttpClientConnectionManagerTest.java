@@ -0,0 +1,65 @@
+package org.carlspring.strongbox.service.impl;
+
+import org.carlspring.strongbox.service.ConnectionPoolMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptivePoolingHttpClientConnectionManagerTest
+{
+
+    @Test
+    public void testPoolGrowsWithLoadUpToCeiling()
+    {
+        // 8 connections leased on average
+        assertThat(AdaptivePoolingHttpClientConnectionManager.adjustedMaxPerRoute(5, 5, 20, 5, 8, false))
+                .isEqualTo(10);
+        assertThat(AdaptivePoolingHttpClientConnectionManager.adjustedMaxPerRoute(5, 5, 20, 5, 100, false))
+                .isEqualTo(20);
+
+        // requests waiting for the connections
+        assertThat(AdaptivePoolingHttpClientConnectionManager.adjustedMaxPerRoute(10, 5, 20, 10, 1, true))
+                .isEqualTo(15);
+        assertThat(AdaptivePoolingHttpClientConnectionManager.adjustedMaxPerRoute(18, 5, 20, 18, 1, true))
+                .isEqualTo(20);
+    }
+
+    @Test
+    public void testPoolShrinksGraduallyDownToConfiguredSize()
+    {
+        assertThat(AdaptivePoolingHttpClientConnectionManager.adjustedMaxPerRoute(10, 5, 20, 0, 0, false))
+                .isEqualTo(9);
+        assertThat(AdaptivePoolingHttpClientConnectionManager.adjustedMaxPerRoute(5, 5, 20, 0, 0, false))
+                .isEqualTo(5);
+
+        // never below the connections which are still leased
+        assertThat(AdaptivePoolingHttpClientConnectionManager.adjustedMaxPerRoute(10, 5, 20, 10, 0, false))
+                .isEqualTo(10);
+    }
+
+    @Test
+    public void testHistogramPercentiles()
+    {
+        TimingsHistogram histogram = new TimingsHistogram();
+        for (int i = 0; i < 90; i++)
+        {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+        }
+        for (int i = 0; i < 10; i++)
+        {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(150));
+        }
+
+        ConnectionPoolMetrics.Histogram snapshot = histogram.snapshot();
+
+        assertThat(snapshot.getCount()).isEqualTo(100);
+        assertThat(snapshot.getMeanMillis()).isEqualTo(17.7);
+        assertThat(snapshot.getPercentileMillis(50)).isEqualTo(5);
+        assertThat(snapshot.getPercentileMillis(90)).isEqualTo(5);
+        assertThat(snapshot.getPercentileMillis(95)).isEqualTo(200);
+        assertThat(new TimingsHistogram().snapshot().getPercentileMillis(99)).isEqualTo(0);
+    }
+
+}
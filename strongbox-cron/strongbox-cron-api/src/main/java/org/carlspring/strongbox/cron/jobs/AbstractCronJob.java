@@ -7,8 +7,10 @@ import org.carlspring.strongbox.cron.services.JobManager;
 import org.carlspring.strongbox.event.cron.CronTaskEventListenerRegistry;
 
 import javax.inject.Inject;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import com.google.common.collect.ImmutableSet;
 import org.quartz.DisallowConcurrentExecution;
@@ -96,6 +98,15 @@ public abstract class AbstractCronJob
 
     }
 
+    /**
+     * Exposes the statistics of the current execution through the {@link JobManager}.
+     */
+    protected void registerStatistics(CronTaskConfigurationDto configuration,
+                                      Supplier<Map<String, Object>> statistics)
+    {
+        manager.registerJobStatistics(configuration.getUuid().toString(), statistics);
+    }
+
     @Override
     public void interrupt()
     {
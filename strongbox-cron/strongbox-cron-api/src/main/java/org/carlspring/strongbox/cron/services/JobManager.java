@@ -4,6 +4,7 @@ import org.carlspring.strongbox.cron.config.JobExecutionListener;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * @author Kate Novik.
@@ -31,4 +32,22 @@ public interface JobManager
                                    JobExecutionListener executionListener);
 
     Optional<JobExecutionListener> getJobExecutionListener(String jobName);
+
+    /**
+     * Register the statistics (progress, throughput etc.) of the job, the supplier is called every time the statistics
+     * requested, so the job can provide the actual values while it's executing.
+     *
+     * @param jobName    job's name type String
+     * @param statistics job's statistics supplier
+     */
+    void registerJobStatistics(String jobName,
+                               Supplier<Map<String, Object>> statistics);
+
+    /**
+     * Get statistics of the last job execution
+     *
+     * @param jobName job's name type String
+     * @return job's statistics, if the job has any
+     */
+    Optional<Map<String, Object>> getJobStatistics(String jobName);
 }
@@ -6,6 +6,8 @@ import org.carlspring.strongbox.cron.services.JobManager;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import org.springframework.stereotype.Component;
 
@@ -21,10 +23,13 @@ public class JobManagerImpl
 
     private final Map<String, Boolean> executedJobs;
 
+    private final Map<String, Supplier<Map<String, Object>>> jobStatistics;
+
     public JobManagerImpl()
     {
         listenerRegistry = new HashMap<>();
         executedJobs = new HashMap<>();
+        jobStatistics = new ConcurrentHashMap<>();
     }
 
     public synchronized void addExecutedJob(String jobName,
@@ -61,4 +66,26 @@ public class JobManagerImpl
         return Optional.ofNullable(listenerRegistry.get(jobName));
     }
 
+    @Override
+    public void registerJobStatistics(String jobName,
+                                      Supplier<Map<String, Object>> statistics)
+    {
+        if (jobName == null)
+        {
+            throw new IllegalArgumentException("Cannot define a null value for jobName!");
+        }
+        if (statistics == null)
+        {
+            throw new IllegalArgumentException("Cannot define a null value for statistics");
+        }
+
+        jobStatistics.put(jobName, statistics);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> getJobStatistics(String jobName)
+    {
+        return Optional.ofNullable(jobStatistics.get(jobName)).map(Supplier::get);
+    }
+
 }
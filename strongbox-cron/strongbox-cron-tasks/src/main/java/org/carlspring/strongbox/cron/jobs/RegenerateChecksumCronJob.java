@@ -4,6 +4,7 @@ import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.cron.domain.CronTaskConfigurationDto;
 import org.carlspring.strongbox.cron.jobs.fields.*;
 import org.carlspring.strongbox.services.ChecksumService;
+import org.carlspring.strongbox.services.support.ChecksumRegenerationStatistics;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 
@@ -56,25 +57,37 @@ public class RegenerateChecksumCronJob
         /**
          * The values of forceRegeneration are:
          * - true  - to re-write existing checksum and to regenerate missing checksum,
-         * - false - to regenerate missing checksum only
+         * - false - to regenerate missing and outdated (older than the artifact) checksum only
          */
         boolean forceRegeneration = Boolean.valueOf(config.getProperty(PROPERTY_FORCE_REGENERATION));
 
-        if (storageId == null)
+        ChecksumRegenerationStatistics statistics = new ChecksumRegenerationStatistics();
+        registerStatistics(config, statistics::toMap);
+
+        statistics.start();
+        try
         {
-            Map<String, Storage> storages = getStorages();
-            for (String storage : storages.keySet())
+            if (storageId == null)
             {
-                regenerateRepositoriesChecksum(storage, forceRegeneration);
+                Map<String, Storage> storages = getStorages();
+                for (String storage : storages.keySet())
+                {
+                    regenerateRepositoriesChecksum(storage, forceRegeneration, statistics);
+                }
+            }
+            else if (repositoryId == null)
+            {
+                regenerateRepositoriesChecksum(storageId, forceRegeneration, statistics);
+            }
+            else
+            {
+                checksumService.regenerateChecksum(storageId, repositoryId, basePath, forceRegeneration, statistics);
             }
         }
-        else if (repositoryId == null)
-        {
-            regenerateRepositoriesChecksum(storageId, forceRegeneration);
-        }
-        else
+        finally
         {
-            checksumService.regenerateChecksum(storageId, repositoryId, basePath, forceRegeneration);
+            statistics.stop();
+            logger.info(String.format("Checksum regeneration completed: %s", statistics));
         }
     }
 
@@ -94,18 +107,20 @@ public class RegenerateChecksumCronJob
      *
      * @param storageId         path of storage
      * @param forceRegeneration true - to re-write existing checksum and to regenerate missing checksum,
-     *                          false - to regenerate missing checksum only
+     *                          false - to regenerate missing and outdated checksum only
+     * @param statistics        the progress of the regeneration
      * @throws IOException
      */
     private void regenerateRepositoriesChecksum(String storageId,
-                                                boolean forceRegeneration)
+                                                boolean forceRegeneration,
+                                                ChecksumRegenerationStatistics statistics)
             throws IOException
     {
         Map<String, ? extends Repository> repositories = getRepositories(storageId);
 
         for (String repositoryId : repositories.keySet())
         {
-            checksumService.regenerateChecksum(storageId, repositoryId, null, forceRegeneration);
+            checksumService.regenerateChecksum(storageId, repositoryId, null, forceRegeneration, statistics);
         }
     }
 
@@ -0,0 +1,133 @@
+package org.carlspring.strongbox.cron.jobs;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.cron.domain.CronTaskConfigurationDto;
+import org.carlspring.strongbox.cron.jobs.fields.*;
+import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Backfills the "last version" entries of the existing artifact groups, so
+ * that subsequent deployments don't need to load the whole group.
+ */
+public class UpdateArtifactGroupsLastVersionCronJob
+        extends JavaCronJob
+{
+
+    private static final String PROPERTY_STORAGE_ID = "storageId";
+
+    private static final String PROPERTY_REPOSITORY_ID = "repositoryId";
+
+    private static final String PROPERTY_BATCH_SIZE = "batchSize";
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final Set<CronJobField> FIELDS = ImmutableSet.of(
+            new CronJobStorageIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_STORAGE_ID)))),
+            new CronJobRepositoryIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_REPOSITORY_ID)))),
+            new CronJobIntegerTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_BATCH_SIZE))));
+
+    @Inject
+    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Override
+    public void executeTask(CronTaskConfigurationDto config)
+            throws Throwable
+    {
+        String storageId = config.getProperty(PROPERTY_STORAGE_ID);
+        String repositoryId = config.getProperty(PROPERTY_REPOSITORY_ID);
+        String batchSizeText = config.getProperty(PROPERTY_BATCH_SIZE);
+
+        int batchSize = DEFAULT_BATCH_SIZE;
+        if (batchSizeText != null)
+        {
+            try
+            {
+                batchSize = Integer.parseInt(batchSizeText);
+            }
+            catch (NumberFormatException ex)
+            {
+                logger.error("Invalid integer value [" + batchSizeText +
+                             "] of 'batchSize' property. Cron job won't be fired.", ex);
+                return;
+            }
+        }
+
+        if (storageId == null)
+        {
+            for (String storage : getStorages().keySet())
+            {
+                updateRepositories(storage, batchSize);
+            }
+        }
+        else if (repositoryId == null)
+        {
+            updateRepositories(storageId, batchSize);
+        }
+        else
+        {
+            updateRepository(storageId, repositoryId, batchSize);
+        }
+    }
+
+    @Override
+    public CronJobDefinition getCronJobDefinition()
+    {
+        return CronJobDefinition.newBuilder()
+                                .jobClass(UpdateArtifactGroupsLastVersionCronJob.class.getName())
+                                .name("Update Artifact Groups Last Version Cron Job")
+                                .description("Update Artifact Groups Last Version Cron Job")
+                                .fields(FIELDS)
+                                .build();
+    }
+
+    private void updateRepositories(String storageId,
+                                    int batchSize)
+    {
+        Map<String, ? extends Repository> repositories = getStorages().get(storageId).getRepositories();
+        for (String repositoryId : repositories.keySet())
+        {
+            updateRepository(storageId, repositoryId, batchSize);
+        }
+    }
+
+    private void updateRepository(String storageId,
+                                  String repositoryId,
+                                  int batchSize)
+    {
+        long total = 0;
+        long count;
+        do
+        {
+            // Every batch is processed within separate transaction.
+            count = repositoryArtifactIdGroupService.updateLastVersionEntries(storageId,
+                                                                             repositoryId,
+                                                                             new PagingCriteria((int) total,
+                                                                                                batchSize));
+            total += count;
+        }
+        while (count == batchSize);
+
+        logger.info(String.format("Updated [%s] artifact groups of [%s:%s].", total, storageId, repositoryId));
+    }
+
+    private Map<String, Storage> getStorages()
+    {
+        return configurationManager.getConfiguration().getStorages();
+    }
+
+}
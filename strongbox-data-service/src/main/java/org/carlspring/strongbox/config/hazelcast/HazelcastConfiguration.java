@@ -63,6 +63,74 @@ public class HazelcastConfiguration
     @Value("${cacheManagerConfiguration.caches.tags.evictionPolicy:LFU}")
     public EvictionPolicy tagsEvictionPolicy;
 
+    @Value("${cacheManagerConfiguration.caches.checksums.maxSizeLimit:10000}")
+    public int checksumsMaxSizeLimit;
+
+    @Value("${cacheManagerConfiguration.caches.checksums.maxIdleSeconds:60}")
+    public int checksumsMaxIdleSeconds;
+
+    public MapConfig checksumsCacheConfig(String name)
+    {
+        return newDefaultMapConfig(name,
+                                   checksumsMaxSizeLimit,
+                                   MaxSizeConfig.MaxSizePolicy.PER_NODE,
+                                   EvictionPolicy.LRU).setMaxIdleSeconds(checksumsMaxIdleSeconds);
+    }
+
+    @Value("${cacheManagerConfiguration.caches.artifactEntryIds.maxSizeLimit:100000}")
+    public int artifactEntryIdsMaxSizeLimit;
+
+    @Value("${cacheManagerConfiguration.caches.artifactEntryIds.nearCacheSize:10000}")
+    public int artifactEntryIdsNearCacheSize;
+
+    @Value("${cacheManagerConfiguration.caches.artifactEntryIds.maxIdleSeconds:3600}")
+    public int artifactEntryIdsMaxIdleSeconds;
+
+    /**
+     * Every node reads the entries through its local near cache, the near cache entries are invalidated as soon as
+     * the distributed entry changed or removed.
+     */
+    public MapConfig artifactEntryIdsCacheConfig(String name)
+    {
+        return newDefaultMapConfig(name,
+                                   artifactEntryIdsMaxSizeLimit,
+                                   MaxSizeConfig.MaxSizePolicy.PER_NODE,
+                                   EvictionPolicy.LRU).setMaxIdleSeconds(artifactEntryIdsMaxIdleSeconds)
+                                                      .setNearCacheConfig(new NearCacheConfig().setCacheLocalEntries(true)
+                                                                                               .setInvalidateOnChange(true)
+                                                                                               .setMaxIdleSeconds(artifactEntryIdsMaxIdleSeconds)
+                                                                                               .setEvictionConfig(new EvictionConfig().setMaximumSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+                                                                                                                                      .setEvictionPolicy(EvictionPolicy.LRU)
+                                                                                                                                      .setSize(artifactEntryIdsNearCacheSize)));
+    }
+
+    @Value("${cacheManagerConfiguration.caches.groupMemberPathMisses.maxSizeLimit:100000}")
+    public int groupMemberPathMissesMaxSizeLimit;
+
+    @Value("${cacheManagerConfiguration.caches.groupMemberPathMisses.nearCacheSize:10000}")
+    public int groupMemberPathMissesNearCacheSize;
+
+    @Value("${cacheManagerConfiguration.caches.groupMemberPathMisses.timeToLiveSeconds:30}")
+    public int groupMemberPathMissesTimeToLiveSeconds;
+
+    /**
+     * The negative lookups should be short living, so the artifacts which appeared within the remote repositories
+     * become visible through the group soon.
+     */
+    public MapConfig groupMemberPathMissesCacheConfig(String name)
+    {
+        return newDefaultMapConfig(name,
+                                   groupMemberPathMissesMaxSizeLimit,
+                                   MaxSizeConfig.MaxSizePolicy.PER_NODE,
+                                   EvictionPolicy.LRU).setTimeToLiveSeconds(groupMemberPathMissesTimeToLiveSeconds)
+                                                      .setNearCacheConfig(new NearCacheConfig().setCacheLocalEntries(true)
+                                                                                               .setInvalidateOnChange(true)
+                                                                                               .setTimeToLiveSeconds(groupMemberPathMissesTimeToLiveSeconds)
+                                                                                               .setEvictionConfig(new EvictionConfig().setMaximumSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+                                                                                                                                      .setEvictionPolicy(EvictionPolicy.LRU)
+                                                                                                                                      .setSize(groupMemberPathMissesNearCacheSize)));
+    }
+
     public static MapConfig newDefaultMapConfig(String name,
                                                 int maxSize,
                                                 MaxSizeConfig.MaxSizePolicy maxSizePolicy,
@@ -127,6 +195,9 @@ public class HazelcastConfiguration
                                                                             tagsMaxSizeLimit,
                                                                             tagsMaxSizePolicy,
                                                                             tagsEvictionPolicy))
+                                          .addMapConfig(checksumsCacheConfig(CacheName.Artifact.CHECKSUMS))
+                                          .addMapConfig(artifactEntryIdsCacheConfig(CacheName.Artifact.ARTIFACT_ENTRY_IDS))
+                                          .addMapConfig(groupMemberPathMissesCacheConfig(CacheName.Repository.GROUP_MEMBER_PATH_MISSES))
                                           .addMapConfig(authenticationCacheConfig(CacheName.User.AUTHENTICATIONS));
         config.setGroupConfig(new GroupConfig(groupConfigName, groupConfigPassword));
         config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(enableMulticastConfig);
@@ -15,6 +15,10 @@ public final class CacheName
 
         public static final String TAGS = "tags";
 
+        public static final String CHECKSUMS = "checksums";
+
+        public static final String ARTIFACT_ENTRY_IDS = "artifactEntryIds";
+
     }
 
     public static final class Repository
@@ -22,6 +26,8 @@ public final class CacheName
 
         public static final String REMOTE_REPOSITORY_ALIVENESS = "remoteRepositoryAliveness";
 
+        public static final String GROUP_MEMBER_PATH_MISSES = "groupMemberPathMisses";
+
     }
 
 
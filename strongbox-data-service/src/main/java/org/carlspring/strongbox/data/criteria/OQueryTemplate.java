@@ -25,6 +25,8 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
 {
     private static final Logger logger = LoggerFactory.getLogger(OQueryTemplate.class);
 
+    private static final String AFTER_PARAMETER_NAME = "paginatorAfter";
+
     protected EntityManager entityManager;
 
     public OQueryTemplate()
@@ -50,6 +52,12 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         OSQLSynchQuery<T> oQuery = new OSQLSynchQuery<>(sQuery);
         Map<String, Object> parameterMap = exposeParameterMap(s.getPredicate());
 
+        Paginator paginator = s.getPaginator();
+        if (paginator != null && paginator.getAfter() != null)
+        {
+            parameterMap.put(AFTER_PARAMETER_NAME, paginator.getAfter().getValue(0));
+        }
+
         logger.debug(String.format("Executing SQL query:%n\t[%s]%nWith parameters:%n\t[%s]", sQuery, parameterMap));
 
         Object result = getEmDelegate().command(oQuery)
@@ -108,15 +116,27 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         }
 
         sb.append(" WHERE ");
-        sb.append(predicateToken(p, 0));
 
         Paginator paginator = selector.getPaginator();
+        if (paginator != null && paginator.getAfter() != null)
+        {
+            sb.append("(").append(predicateToken(p, 0)).append(")");
+            sb.append(String.format(" AND %s %s :%s",
+                                    paginator.getProperty(),
+                                    Paginator.Order.DESC.equals(paginator.getOrder()) ? "<" : ">",
+                                    AFTER_PARAMETER_NAME));
+        }
+        else
+        {
+            sb.append(predicateToken(p, 0));
+        }
+
         if (paginator != null && paginator.getProperty() != null && !paginator.getProperty().trim().isEmpty())
         {
             sb.append(String.format(" ORDER BY %s %s", paginator.getProperty(), paginator.getOrder()));
         }
 
-        if (paginator != null && paginator.getSkip() > 0)
+        if (paginator != null && paginator.getSkip() > 0 && !paginator.isKeyset())
         {
             sb.append(String.format(" SKIP %s", paginator.getSkip()));
         }
@@ -240,6 +260,8 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
             return " >=";            
         case LIKE:
             return " LIKE ";
+        case IN:
+            return " IN ";
         case CONTAINS:
             return " CONTAINS ";
         case IS_NULL:
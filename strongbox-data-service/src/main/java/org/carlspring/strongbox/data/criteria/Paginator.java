@@ -1,5 +1,7 @@
 package org.carlspring.strongbox.data.criteria;
 
+import org.carlspring.strongbox.data.service.support.search.PagingCursor;
+
 public class Paginator
 {
 
@@ -11,6 +13,13 @@ public class Paginator
     private String property;
     private Order order = Order.ASC;
 
+    /**
+     * The keyset pages are ordered by the {@link #getProperty()}, which should be unique, and start right after the
+     * {@link #getAfter()} value instead of skipping the previous pages.
+     */
+    private boolean keyset;
+    private PagingCursor after;
+
     public Integer getSkip()
     {
         return skip == null ? Integer.valueOf(0) : skip;
@@ -51,6 +60,29 @@ public class Paginator
         this.order = order;
     }
 
+    public boolean isKeyset()
+    {
+        return keyset || after != null;
+    }
+
+    public void setKeyset(boolean keyset)
+    {
+        this.keyset = keyset;
+    }
+
+    /**
+     * @return the {@link #getProperty()} value of the last entry of the previous keyset page
+     */
+    public PagingCursor getAfter()
+    {
+        return after;
+    }
+
+    public void setAfter(PagingCursor after)
+    {
+        this.after = after;
+    }
+
     public static enum Order
     {
         ASC, DESC;
@@ -3,6 +3,9 @@ package org.carlspring.strongbox.data.service;
 import org.carlspring.strongbox.data.domain.GenericEntity;
 import org.carlspring.strongbox.data.service.impl.EntityServiceRegistry;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.data.service.support.search.PagingCursor;
+import org.carlspring.strongbox.data.service.support.search.Sort.Direction;
+import org.carlspring.strongbox.data.service.support.search.Sort.Order;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -335,7 +338,12 @@ public abstract class CommonCrudService<T extends GenericEntity>
 
         queryBuilder.append(String.format(" ORDER BY %s", pagingCriteria.getSort()));
 
-        if (pagingCriteria.getSkip() > 0)
+        if (pagingCriteria.isKeyset())
+        {
+            // The record identity makes the sort key unique, so that the keyset pages don't skip the equal entries.
+            queryBuilder.append(", @rid ASC");
+        }
+        else if (pagingCriteria.getSkip() > 0)
         {
             queryBuilder.append(String.format(" SKIP %s", pagingCriteria.getSkip()));
         }
@@ -345,6 +353,90 @@ public abstract class CommonCrudService<T extends GenericEntity>
         }
     }
 
+    /**
+     * Returns the condition of the entries which follow the {@link PagingCriteria#getAfter()} cursor, and puts its
+     * parameters into the given map. <br>
+     * The `null` values are ordered before the others, like OrientDB does.
+     *
+     * @return the condition to be added to the `WHERE` clause, or `null` if there is no cursor
+     */
+    protected String seekCondition(PagingCriteria pagingCriteria,
+                                   Map<String, Object> parameterMap)
+    {
+        PagingCursor after = pagingCriteria.getAfter();
+        if (after == null)
+        {
+            return null;
+        }
+
+        List<Order> orders = new ArrayList<>(pagingCriteria.getSort().getOrders());
+        orders.add(Order.asc("@rid"));
+        if (after.size() != orders.size())
+        {
+            throw new IllegalArgumentException(String.format("Cursor [%s] doesn't match the sort [%s].",
+                                                             after,
+                                                             pagingCriteria.getSort()));
+        }
+
+        List<String> disjuncts = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++)
+        {
+            Order order = orders.get(i);
+            Object value = i == orders.size() - 1 ? new ORecordId((String) after.getValue(i)) : after.getValue(i);
+            String parameterName = "after" + i;
+
+            String greater;
+            if (Direction.DESC.equals(order.getDirection()))
+            {
+                greater = value == null ? null : String.format("(%1$s < :%2$s OR %1$s IS NULL)",
+                                                               order.getProperty(),
+                                                               parameterName);
+            }
+            else
+            {
+                greater = value == null ? String.format("%s IS NOT NULL", order.getProperty())
+                                        : String.format("%s > :%s", order.getProperty(), parameterName);
+            }
+
+            if (greater != null)
+            {
+                StringBuilder disjunct = new StringBuilder();
+                for (int j = 0; j < i; j++)
+                {
+                    disjunct.append(after.getValue(j) == null ? String.format("%s IS NULL", orders.get(j).getProperty())
+                                                              : String.format("%s = :after%s",
+                                                                              orders.get(j).getProperty(),
+                                                                              j))
+                            .append(" AND ");
+                }
+                disjuncts.add(disjunct.append(greater).toString());
+            }
+
+            if (value != null)
+            {
+                parameterMap.put(parameterName, value);
+            }
+        }
+
+        return disjuncts.stream().collect(Collectors.joining(") OR (", "((", "))"));
+    }
+
+    @Override
+    public PagingCursor cursorOf(T entity,
+                                 PagingCriteria pagingCriteria)
+    {
+        ODocument record = getDelegate().getRecordByUserObject(entity, false);
+
+        List<Object> values = pagingCriteria.getSort()
+                                            .getOrders()
+                                            .stream()
+                                            .map(o -> record.field(o.getProperty()))
+                                            .collect(Collectors.toCollection(ArrayList::new));
+        values.add(record.getIdentity().toString());
+
+        return PagingCursor.of(values);
+    }
+
     /**
      * We can get an internal OrientDB transaction API with this, which can be
      * needed to execute some OrientDB queries,
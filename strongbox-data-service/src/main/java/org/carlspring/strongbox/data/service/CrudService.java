@@ -5,6 +5,8 @@ import java.util.List;
 import java.util.Optional;
 
 import org.carlspring.strongbox.data.domain.GenericEntity;
+import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.data.service.support.search.PagingCursor;
 
 /**
  * Copy of {@link org.springframework.data.repository.CrudRepository} from API functions set point of view.
@@ -38,4 +40,10 @@ public interface CrudService<T extends GenericEntity, ID extends Serializable>
 
     Class<T> getEntityClass();
 
+    /**
+     * @return the cursor of the entity, which the next keyset page should start after
+     */
+    PagingCursor cursorOf(T entity,
+                          PagingCriteria pagingCriteria);
+
 }
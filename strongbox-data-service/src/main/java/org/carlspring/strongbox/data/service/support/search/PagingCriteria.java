@@ -1,10 +1,16 @@
 package org.carlspring.strongbox.data.service.support.search;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import java.util.Objects;
 
 /**
+ * Either skips the previous pages, or seeks the page right after the {@link #getAfter()} cursor (keyset pagination).
+ * <br>
+ * The keyset pages are ordered by the {@link #getSort()} and then by the record identities, so the deep pages cost
+ * the same as the first one, and the entries removed while paging don't shift the next pages.
+ *
  * @author Przemyslaw Fusik
  */
 @Immutable
@@ -19,21 +25,55 @@ public class PagingCriteria
 
     private final Sort sort;
 
+    private final boolean keyset;
+
+    private final PagingCursor after;
+
     public PagingCriteria(final int skip,
                           final int limit,
                           @Nonnull final Sort sort)
+    {
+        this(skip, limit, sort, false, null);
+    }
+
+    public PagingCriteria(final int skip,
+                          final int limit)
+    {
+        this(skip, limit, Sort.byUuid());
+    }
+
+    private PagingCriteria(final int skip,
+                           final int limit,
+                           @Nonnull final Sort sort,
+                           final boolean keyset,
+                           final PagingCursor after)
     {
         Objects.requireNonNull(sort, "Sort cannot be null");
 
         this.skip = skip;
         this.limit = limit;
         this.sort = sort;
+        this.keyset = keyset;
+        this.after = after;
     }
 
-    public PagingCriteria(final int skip,
-                          final int limit)
+    /**
+     * @return the first keyset page, the next ones are {@link #after(PagingCursor)} it
+     */
+    public static PagingCriteria seek(final int limit,
+                                      @Nonnull final Sort sort)
     {
-        this(skip, limit, Sort.byUuid());
+        return new PagingCriteria(0, limit, sort, true, null);
+    }
+
+    /**
+     * @return the keyset page which follows the entry with the given cursor
+     */
+    public PagingCriteria after(@Nonnull final PagingCursor cursor)
+    {
+        Objects.requireNonNull(cursor, "Cursor cannot be null");
+
+        return new PagingCriteria(0, limit, sort, true, cursor);
     }
 
     public int getSkip()
@@ -51,4 +91,18 @@ public class PagingCriteria
     {
         return sort;
     }
+
+    public boolean isKeyset()
+    {
+        return keyset;
+    }
+
+    /**
+     * @return the cursor of the last entry of the previous keyset page, `null` for the first page
+     */
+    @Nullable
+    public PagingCursor getAfter()
+    {
+        return after;
+    }
 }
@@ -0,0 +1,238 @@
+package org.carlspring.strongbox.data.service.support.search;
+
+import javax.annotation.concurrent.Immutable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The sort key of the last entry of a page, so that the next page can be looked up right after it, instead of
+ * skipping all the previous pages. <br>
+ * The cursor is passed to the clients as an opaque token (see {@link #toToken()}), which they send back to get the
+ * next page.
+ */
+@Immutable
+public class PagingCursor
+{
+
+    private static final byte NULL = 0;
+
+    private static final byte STRING = 1;
+
+    private static final byte INTEGER = 2;
+
+    private static final byte LONG = 3;
+
+    private static final byte DATE = 4;
+
+    private static final byte BOOLEAN = 5;
+
+    private final List<Object> values;
+
+    private PagingCursor(List<Object> values)
+    {
+        this.values = Collections.unmodifiableList(values);
+    }
+
+    /**
+     * @param values the sort key values, in the sort order; `String`, `Integer`, `Long`, `Date`, `Boolean` or `null`
+     */
+    public static PagingCursor of(Object... values)
+    {
+        return of(Arrays.asList(values));
+    }
+
+    public static PagingCursor of(List<?> values)
+    {
+        List<Object> result = new ArrayList<>(values.size());
+        for (Object value : values)
+        {
+            if (value != null && typeOf(value) == NULL)
+            {
+                throw new IllegalArgumentException(String.format("Unsupported cursor value type [%s].",
+                                                                 value.getClass().getName()));
+            }
+
+            result.add(value);
+        }
+
+        return new PagingCursor(result);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static PagingCursor fromToken(String token)
+    {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token))))
+        {
+            int size = in.readUnsignedByte();
+            List<Object> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++)
+            {
+                values.add(readValue(in));
+            }
+            if (in.read() != -1)
+            {
+                throw new IllegalArgumentException("Unexpected trailing bytes.");
+            }
+
+            return new PagingCursor(values);
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException(String.format("Invalid paging token [%s].", token), e);
+        }
+    }
+
+    public List<Object> getValues()
+    {
+        return values;
+    }
+
+    public Object getValue(int index)
+    {
+        return values.get(index);
+    }
+
+    public int size()
+    {
+        return values.size();
+    }
+
+    /**
+     * @return URL safe representation of the cursor
+     */
+    public String toToken()
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes))
+        {
+            out.writeByte(values.size());
+            for (Object value : values)
+            {
+                writeValue(out, value);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    private static byte typeOf(Object value)
+    {
+        if (value instanceof String)
+        {
+            return STRING;
+        }
+        if (value instanceof Integer)
+        {
+            return INTEGER;
+        }
+        if (value instanceof Long)
+        {
+            return LONG;
+        }
+        if (value instanceof Date)
+        {
+            return DATE;
+        }
+        if (value instanceof Boolean)
+        {
+            return BOOLEAN;
+        }
+
+        return NULL;
+    }
+
+    private static void writeValue(DataOutputStream out,
+                                   Object value)
+            throws IOException
+    {
+        byte type = value == null ? NULL : typeOf(value);
+        out.writeByte(type);
+        switch (type)
+        {
+            case STRING:
+                out.writeUTF((String) value);
+                break;
+            case INTEGER:
+                out.writeInt((Integer) value);
+                break;
+            case LONG:
+                out.writeLong((Long) value);
+                break;
+            case DATE:
+                out.writeLong(((Date) value).getTime());
+                break;
+            case BOOLEAN:
+                out.writeBoolean((Boolean) value);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static Object readValue(DataInputStream in)
+            throws IOException
+    {
+        byte type = in.readByte();
+        switch (type)
+        {
+            case NULL:
+                return null;
+            case STRING:
+                return in.readUTF();
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case DATE:
+                return new Date(in.readLong());
+            case BOOLEAN:
+                return in.readBoolean();
+            default:
+                throw new IllegalArgumentException(String.format("Unknown value type [%s].", type));
+        }
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass())
+        {
+            return false;
+        }
+
+        return values.equals(((PagingCursor) o).values);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(values);
+    }
+
+    @Override
+    public String toString()
+    {
+        return values.toString();
+    }
+
+}
@@ -12,6 +12,26 @@ public class RepositoryEventListenerRegistry
 {
 
 
+    public void dispatchRemoteAvailableEvent(String storageId,
+                                             String repositoryId)
+    {
+        RepositoryEvent event = new RepositoryEvent(storageId,
+                                                    repositoryId,
+                                                    RepositoryEventTypeEnum.EVENT_REPOSITORY_REMOTE_AVAILABLE.getType());
+
+        dispatchEvent(event);
+    }
+
+    public void dispatchRemoteUnavailableEvent(String storageId,
+                                               String repositoryId)
+    {
+        RepositoryEvent event = new RepositoryEvent(storageId,
+                                                    repositoryId,
+                                                    RepositoryEventTypeEnum.EVENT_REPOSITORY_REMOTE_UNAVAILABLE.getType());
+
+        dispatchEvent(event);
+    }
+
     public void dispatchEmptyTrashEvent(String storageId,
                                         String repositoryId)
     {
@@ -28,15 +28,11 @@ public enum RepositoryEventTypeEnum
 
     /**
      * Occurs when a proxy repository's remote host has become unreachable.
-     *
-     * TODO: Not yet implemented.
      */
     EVENT_REPOSITORY_REMOTE_UNAVAILABLE(5),
 
     /**
      * Occurs when a proxy repository's remote host has become reachable.
-     *
-     * TODO: Not yet implemented.
      */
     EVENT_REPOSITORY_REMOTE_AVAILABLE(6),
 
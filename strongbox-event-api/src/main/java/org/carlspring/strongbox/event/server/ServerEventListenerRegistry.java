@@ -11,4 +11,11 @@ public class ServerEventListenerRegistry
         extends AbstractEventListenerRegistry
 {
 
+    public void dispatchConfigurationChangedEvent()
+    {
+        ServerEvent event = new ServerEvent(ServerEventTypeEnum.EVENT_SERVER_CONFIGURATION_CHANGED.getType());
+
+        dispatchEvent(event);
+    }
+
 }
@@ -4,16 +4,12 @@ import static java.util.stream.Collectors.toSet;
 
 import java.io.Serializable;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Set;
 
 import javax.annotation.concurrent.Immutable;
 
-import org.apache.commons.lang.StringUtils;
 import org.carlspring.strongbox.users.dto.AccessModel;
 import org.carlspring.strongbox.users.dto.AccessModelDto;
-import org.carlspring.strongbox.users.dto.PathPrivileges;
-import org.carlspring.strongbox.users.dto.RepositoryPrivileges;
 import org.carlspring.strongbox.users.dto.StoragePrivileges;
 import org.carlspring.strongbox.users.dto.StoragePrivilegesDto;
 
@@ -31,11 +27,13 @@ public class AccessModelData
     
     private final Set<StoragePrivilegesData> storageAuthorities;
 
+    private transient volatile PathPrivilegesIndex pathPrivilegesIndex;
 
     public AccessModelData(AccessModelDto delegate)
     {
         this.storageAuthorities = immuteStorages(delegate.getStorageAuthorities());
         this.apiAuthorities = ImmutableSet.copyOf(delegate.getApiAuthorities());
+        this.pathPrivilegesIndex = new PathPrivilegesIndex(storageAuthorities);
     }
 
     private Set<StoragePrivilegesData> immuteStorages(final Set<StoragePrivilegesDto> source)
@@ -60,46 +58,19 @@ public class AccessModelData
     @Override
     public Set<Privileges> getPathAuthorities(String url)
     {
-        return getPathAuthorities(url, getStorageAuthorities());
+        PathPrivilegesIndex index = pathPrivilegesIndex;
+        if (index == null)
+        {
+            // Deserialized instance.
+            pathPrivilegesIndex = index = new PathPrivilegesIndex(storageAuthorities);
+        }
+
+        return index.getPathAuthorities(url);
     }
-    
+
     public static Set<Privileges> getPathAuthorities(String url, Set<? extends StoragePrivileges> storages)
     {
-        String normalizedUrl = StringUtils.chomp(url, "/");
-
-        Set<Privileges> privileges = new HashSet<>();
-        for (final StoragePrivileges storage : storages)
-        {
-            String storageKey = "/storages/" + storage.getStorageId();
-            if (!normalizedUrl.startsWith(storageKey))
-            {
-                continue;
-            }
-            for (RepositoryPrivileges repository : storage.getRepositoryPrivileges())
-            {
-                String repositoryKey = storageKey + "/" + repository.getRepositoryId();
-                if (!normalizedUrl.startsWith(repositoryKey))
-                {
-                    continue;
-                }
-                privileges.addAll(repository.getRepositoryPrivileges());
-                for (PathPrivileges pathPrivilege : repository.getPathPrivileges())
-                {
-                    String normalizedPath = StringUtils.chomp(pathPrivilege.getPath(), "/");
-                    String pathKey = repositoryKey + "/" + normalizedPath;
-
-                    if (!normalizedUrl.startsWith(pathKey))
-                    {
-                        continue;
-                    }
-                    if (normalizedUrl.equals(pathKey) || pathPrivilege.isWildcard())
-                    {
-                        privileges.addAll(pathPrivilege.getPrivileges());
-                    }
-                }
-            }
-        }
-        return privileges;
+        return new PathPrivilegesIndex(storages).getPathAuthorities(url);
     }
-    
+
 }
@@ -0,0 +1,235 @@
+package org.carlspring.strongbox.users.domain;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.carlspring.strongbox.users.dto.PathPrivileges;
+import org.carlspring.strongbox.users.dto.RepositoryPrivileges;
+import org.carlspring.strongbox.users.dto.StoragePrivileges;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Prefix trie of the storage, repository and path privileges (`storageId`, `repositoryId` and path segments), which
+ * is built once for the access model. <br>
+ * Every node holds the resulting privileges for the URL which ends at this node, and for the URL which goes beneath
+ * it, so the lookup just walks the URL segments and doesn't allocate anything.
+ */
+@Immutable
+public class PathPrivilegesIndex
+{
+
+    private static final String STORAGES_ROOT = "/storages/";
+
+    private final Node root;
+
+    public PathPrivilegesIndex(Set<? extends StoragePrivileges> storages)
+    {
+        NodeBuilder rootBuilder = new NodeBuilder();
+        for (StoragePrivileges storage : storages)
+        {
+            NodeBuilder storageBuilder = rootBuilder.child(storage.getStorageId());
+            for (RepositoryPrivileges repository : storage.getRepositoryPrivileges())
+            {
+                NodeBuilder repositoryBuilder = storageBuilder.child(repository.getRepositoryId());
+                repositoryBuilder.exact.addAll(repository.getRepositoryPrivileges());
+                repositoryBuilder.beneath.addAll(repository.getRepositoryPrivileges());
+
+                for (PathPrivileges pathPrivilege : repository.getPathPrivileges())
+                {
+                    add(repositoryBuilder, pathPrivilege);
+                }
+            }
+        }
+
+        root = rootBuilder.build(EnumSet.noneOf(Privileges.class));
+    }
+
+    private void add(NodeBuilder repositoryBuilder,
+                     PathPrivileges pathPrivilege)
+    {
+        String path = pathPrivilege.getPath();
+        if (path.endsWith("/"))
+        {
+            path = path.substring(0, path.length() - 1);
+        }
+
+        if (path.isEmpty())
+        {
+            // `repositoryId/` can only be matched by the paths within the repository.
+            if (pathPrivilege.isWildcard())
+            {
+                repositoryBuilder.beneath.addAll(pathPrivilege.getPrivileges());
+            }
+
+            return;
+        }
+
+        NodeBuilder pathBuilder = repositoryBuilder;
+        for (String segment : path.split("/", -1))
+        {
+            pathBuilder = pathBuilder.child(segment);
+        }
+
+        pathBuilder.exact.addAll(pathPrivilege.getPrivileges());
+        if (pathPrivilege.isWildcard())
+        {
+            pathBuilder.beneath.addAll(pathPrivilege.getPrivileges());
+        }
+    }
+
+    /**
+     * @param url
+     *            the request URL, like `/storages/{storageId}/{repositoryId}/{path}`
+     * @return the privileges of the repository, and the privileges of the paths which are equal to the URL or the
+     *         wildcard paths which contain it
+     */
+    public Set<Privileges> getPathAuthorities(String url)
+    {
+        int end = url.endsWith("/") ? url.length() - 1 : url.length();
+        if (end <= STORAGES_ROOT.length() || !url.startsWith(STORAGES_ROOT))
+        {
+            return Collections.emptySet();
+        }
+
+        Node node = root;
+        for (int start = STORAGES_ROOT.length(); ; )
+        {
+            int next = url.indexOf('/', start);
+            if (next < 0 || next > end)
+            {
+                next = end;
+            }
+
+            Node child = node.child(url, start, next);
+            if (child == null)
+            {
+                return node.beneath;
+            }
+            if (next == end)
+            {
+                return child.exact;
+            }
+
+            node = child;
+            start = next + 1;
+        }
+    }
+
+    private static class NodeBuilder
+    {
+
+        private final Map<String, NodeBuilder> children = new LinkedHashMap<>();
+
+        private final Set<Privileges> exact = EnumSet.noneOf(Privileges.class);
+
+        private final Set<Privileges> beneath = EnumSet.noneOf(Privileges.class);
+
+        NodeBuilder child(String segment)
+        {
+            return children.computeIfAbsent(segment, s -> new NodeBuilder());
+        }
+
+        /**
+         * @param inherited
+         *            the privileges granted by the parent nodes to all the paths beneath them
+         */
+        Node build(Set<Privileges> inherited)
+        {
+            Set<Privileges> exactResult = EnumSet.copyOf(inherited);
+            exactResult.addAll(exact);
+
+            Set<Privileges> beneathResult = EnumSet.copyOf(inherited);
+            beneathResult.addAll(beneath);
+
+            String[] keys = new String[tableSize(children.size())];
+            Node[] nodes = new Node[keys.length];
+            for (Map.Entry<String, NodeBuilder> entry : children.entrySet())
+            {
+                String key = entry.getKey();
+                int i = key.hashCode() & (keys.length - 1);
+                while (keys[i] != null)
+                {
+                    i = (i + 1) & (keys.length - 1);
+                }
+
+                keys[i] = key;
+                nodes[i] = entry.getValue().build(beneathResult);
+            }
+
+            return new Node(keys, nodes, Sets.immutableEnumSet(exactResult), Sets.immutableEnumSet(beneathResult));
+        }
+
+        private static int tableSize(int size)
+        {
+            int result = 1;
+            while (result < size * 2)
+            {
+                result <<= 1;
+            }
+
+            return result;
+        }
+
+    }
+
+    /**
+     * Open addressing hash table of the child segments, so the children can be looked up by the URL region, without
+     * extracting the segment strings.
+     */
+    private static class Node
+    {
+
+        private final String[] keys;
+
+        private final Node[] nodes;
+
+        private final Set<Privileges> exact;
+
+        private final Set<Privileges> beneath;
+
+        Node(String[] keys,
+             Node[] nodes,
+             Set<Privileges> exact,
+             Set<Privileges> beneath)
+        {
+            this.keys = keys;
+            this.nodes = nodes;
+            this.exact = exact;
+            this.beneath = beneath;
+        }
+
+        Node child(String url,
+                   int start,
+                   int end)
+        {
+            int length = end - start;
+
+            // Same as `String.hashCode()` of the segment.
+            int hash = 0;
+            for (int i = start; i < end; i++)
+            {
+                hash = 31 * hash + url.charAt(i);
+            }
+
+            int mask = keys.length - 1;
+            for (int i = hash & mask; keys[i] != null; i = (i + 1) & mask)
+            {
+                String key = keys[i];
+                if (key.length() == length && url.regionMatches(start, key, 0, length))
+                {
+                    return nodes[i];
+                }
+            }
+
+            return null;
+        }
+
+    }
+
+}
@@ -0,0 +1,125 @@
+package org.carlspring.strongbox.users.domain;
+
+import org.carlspring.strongbox.users.dto.PathPrivilegesDto;
+import org.carlspring.strongbox.users.dto.RepositoryPrivilegesDto;
+import org.carlspring.strongbox.users.dto.StoragePrivilegesDto;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PathPrivilegesIndexTest
+{
+
+    private static final int PATH_RULES = 2000;
+
+    @Test
+    public void testRepositoryAndPathPrivileges()
+    {
+        RepositoryPrivilegesDto repository = repository("releases", Privileges.ARTIFACTS_VIEW);
+        repository.getPathPrivileges().add(path("org/carlspring/", false, Privileges.ARTIFACTS_RESOLVE));
+        repository.getPathPrivileges().add(path("com/carlspring", true, Privileges.ARTIFACTS_DEPLOY));
+
+        PathPrivilegesIndex index = index(storage("storage0", repository));
+
+        assertThat(index.getPathAuthorities("/storages/storage0")).isEmpty();
+        assertThat(index.getPathAuthorities("/storages/storage0/releases/")).containsOnly(Privileges.ARTIFACTS_VIEW);
+        assertThat(index.getPathAuthorities("/storages/storage0/releases/org/carlspring"))
+                .containsOnly(Privileges.ARTIFACTS_VIEW, Privileges.ARTIFACTS_RESOLVE);
+        assertThat(index.getPathAuthorities("/storages/storage0/releases/org/carlspring/strongbox/1.0"))
+                .containsOnly(Privileges.ARTIFACTS_VIEW);
+        assertThat(index.getPathAuthorities("/storages/storage0/releases/com/carlspring/strongbox/1.0"))
+                .containsOnly(Privileges.ARTIFACTS_VIEW, Privileges.ARTIFACTS_DEPLOY);
+        assertThat(index.getPathAuthorities("/storages/storage1/releases/com/carlspring")).isEmpty();
+        assertThat(index.getPathAuthorities("/api/configuration")).isEmpty();
+    }
+
+    @Test
+    public void testPrefixesMatchWholeSegments()
+    {
+        RepositoryPrivilegesDto repository = repository("releases");
+        repository.getPathPrivileges().add(path("org/carlspring", true, Privileges.ARTIFACTS_RESOLVE));
+
+        PathPrivilegesIndex index = index(storage("storage0", repository));
+
+        assertThat(index.getPathAuthorities("/storages/storage0/releases/org/carlspring-foo")).isEmpty();
+        assertThat(index.getPathAuthorities("/storages/storage01/releases/org/carlspring")).isEmpty();
+        assertThat(index.getPathAuthorities("/storages/storage0/releases-foo/org/carlspring")).isEmpty();
+    }
+
+    @Test
+    public void testRepositoryRootWildcard()
+    {
+        RepositoryPrivilegesDto repository = repository("releases");
+        repository.getPathPrivileges().add(path("", true, Privileges.ARTIFACTS_RESOLVE));
+
+        PathPrivilegesIndex index = index(storage("storage0", repository));
+
+        assertThat(index.getPathAuthorities("/storages/storage0/releases")).isEmpty();
+        assertThat(index.getPathAuthorities("/storages/storage0/releases/org")).containsOnly(
+                Privileges.ARTIFACTS_RESOLVE);
+    }
+
+    @Test
+    public void testManyPathRules()
+    {
+        RepositoryPrivilegesDto repository = repository("releases");
+        for (int i = 0; i < PATH_RULES; i++)
+        {
+            repository.getPathPrivileges().add(path(String.format("org/group%s/artifact%s", i % 100, i),
+                                                    i % 2 == 0,
+                                                    i % 3 == 0 ? Privileges.ARTIFACTS_DEPLOY :
+                                                    Privileges.ARTIFACTS_RESOLVE));
+        }
+
+        PathPrivilegesIndex index = index(storage("storage0", repository));
+
+        for (int i = 0; i < PATH_RULES; i++)
+        {
+            String url = String.format("/storages/storage0/releases/org/group%s/artifact%s/1.0", i % 100, i);
+            Set<Privileges> expected = i % 2 != 0 ? EnumSet.noneOf(Privileges.class) :
+                                       EnumSet.of(i % 3 == 0 ? Privileges.ARTIFACTS_DEPLOY :
+                                                  Privileges.ARTIFACTS_RESOLVE);
+
+            assertThat(index.getPathAuthorities(url)).isEqualTo(expected);
+        }
+    }
+
+    private PathPrivilegesIndex index(StoragePrivilegesDto storage)
+    {
+        return new PathPrivilegesIndex(Collections.singleton(new StoragePrivilegesData(storage)));
+    }
+
+    private StoragePrivilegesDto storage(String storageId,
+                                         RepositoryPrivilegesDto repository)
+    {
+        StoragePrivilegesDto storage = new StoragePrivilegesDto(storageId);
+        storage.getRepositoryPrivileges().add(repository);
+
+        return storage;
+    }
+
+    private RepositoryPrivilegesDto repository(String repositoryId,
+                                               Privileges... privileges)
+    {
+        RepositoryPrivilegesDto repository = new RepositoryPrivilegesDto(repositoryId);
+        Collections.addAll(repository.getRepositoryPrivileges(), privileges);
+
+        return repository;
+    }
+
+    private PathPrivilegesDto path(String path,
+                                   boolean wildcard,
+                                   Privileges privilege)
+    {
+        PathPrivilegesDto pathPrivileges = new PathPrivilegesDto(path);
+        pathPrivileges.setWildcard(wildcard);
+        pathPrivileges.getPrivileges().add(privilege);
+
+        return pathPrivileges;
+    }
+
+}
@@ -0,0 +1,158 @@
+package org.carlspring.strongbox.artifact.archive;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Set;
+
+import org.apache.commons.io.output.ProxyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lists the TAR archive entries while the archive is being stored, so that it's not read once more after it has been
+ * stored. <br>
+ * Failing to list the archive doesn't fail the write, the listing is just not available then.
+ */
+public class ArchiveListingOutputStream
+        extends ProxyOutputStream
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveListingOutputStream.class);
+
+    private final TarEntryNamesOutputStream tarEntryNames = new TarEntryNamesOutputStream();
+
+    /**
+     * Receives the archive bytes, `null` once closed.
+     */
+    private OutputStream listing;
+
+    private boolean failed;
+
+    private ArchiveListingOutputStream(OutputStream out,
+                                       boolean gzipped)
+    {
+        super(out);
+
+        this.listing = gzipped ? new GzipInflatingOutputStream(tarEntryNames) : tarEntryNames;
+    }
+
+    /**
+     * @return `true` if the archive can be listed while being stored
+     */
+    public static boolean supports(RepositoryPath path)
+    {
+        return TarGzArchiveListingFunction.INSTANCE.supports(path) ||
+               TarArchiveListingFunction.INSTANCE.supports(path);
+    }
+
+    /**
+     * @return the stream which lists the archive while writing it to the given one, or the given stream itself if
+     *         the archive can't be listed this way
+     */
+    public static OutputStream decorate(RepositoryPath path,
+                                        OutputStream out)
+    {
+        if (TarGzArchiveListingFunction.INSTANCE.supports(path))
+        {
+            return new ArchiveListingOutputStream(out, true);
+        }
+        if (TarArchiveListingFunction.INSTANCE.supports(path))
+        {
+            return new ArchiveListingOutputStream(out, false);
+        }
+
+        return out;
+    }
+
+    /**
+     * @return the archive entry names, or `null` if the archive couldn't be listed
+     */
+    public Set<String> getFilenames()
+    {
+        return failed ? null : tarEntryNames.getEntryNames();
+    }
+
+    @Override
+    public void write(int b)
+            throws IOException
+    {
+        super.write(b);
+        list(new byte[]{ (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b)
+            throws IOException
+    {
+        super.write(b);
+        list(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b,
+                      int off,
+                      int len)
+            throws IOException
+    {
+        super.write(b, off, len);
+        list(b, off, len);
+    }
+
+    private void list(byte[] b,
+                      int off,
+                      int len)
+    {
+        if (listing == null || tarEntryNames.isFinished())
+        {
+            return;
+        }
+
+        try
+        {
+            listing.write(b, off, len);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.debug("Unable to list the archive entries.", e);
+
+            failed = true;
+            closeListing();
+        }
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        try
+        {
+            super.close();
+        }
+        finally
+        {
+            closeListing();
+        }
+    }
+
+    private void closeListing()
+    {
+        if (listing == null)
+        {
+            return;
+        }
+
+        try
+        {
+            listing.close();
+        }
+        catch (IOException e)
+        {
+            logger.debug("Failed to close the archive listing.", e);
+        }
+
+        listing = null;
+    }
+
+}
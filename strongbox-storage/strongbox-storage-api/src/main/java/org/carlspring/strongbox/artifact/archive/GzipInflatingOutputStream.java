@@ -0,0 +1,221 @@
+package org.carlspring.strongbox.artifact.archive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Inflates the GZIP bytes written to it into the target {@link OutputStream}, unlike
+ * {@link java.util.zip.GZIPInputStream} which has to pull them. Only the first GZIP member is inflated, the trailer
+ * and the rest of the bytes are ignored.
+ */
+public class GzipInflatingOutputStream
+        extends OutputStream
+{
+
+    private static final int HEADER_LENGTH = 10;
+
+    private static final int FHCRC = 2;
+
+    private static final int FEXTRA = 4;
+
+    private static final int FNAME = 8;
+
+    private static final int FCOMMENT = 16;
+
+    private final OutputStream target;
+
+    private final Inflater inflater = new Inflater(true);
+
+    private final byte[] buffer = new byte[8 * 1024];
+
+    private final byte[] header = new byte[HEADER_LENGTH];
+
+    private int headerLength;
+
+    /**
+     * The optional header fields still to be read, as the `FEXTRA`, `FNAME`, `FCOMMENT` and `FHCRC` flags.
+     */
+    private int pendingFields;
+
+    private int extraLengthBytes;
+
+    private int extraLength;
+
+    private int skip;
+
+    private boolean inflating;
+
+    private boolean finished;
+
+    public GzipInflatingOutputStream(OutputStream target)
+    {
+        this.target = target;
+    }
+
+    @Override
+    public void write(int b)
+            throws IOException
+    {
+        write(new byte[]{ (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b,
+                      int off,
+                      int len)
+            throws IOException
+    {
+        while (len > 0 && !finished)
+        {
+            int n;
+            if (inflating)
+            {
+                n = inflate(b, off, len);
+            }
+            else if (headerLength < HEADER_LENGTH)
+            {
+                n = Math.min(HEADER_LENGTH - headerLength, len);
+                System.arraycopy(b, off, header, headerLength, n);
+                headerLength += n;
+                if (headerLength == HEADER_LENGTH)
+                {
+                    readHeader();
+                }
+            }
+            else
+            {
+                n = readOptionalField(b, off, len);
+            }
+
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void readHeader()
+            throws IOException
+    {
+        if ((header[0] & 0xFF) != 0x1f || (header[1] & 0xFF) != 0x8b || header[2] != 8)
+        {
+            throw new ZipException("Not in GZIP format.");
+        }
+
+        pendingFields = header[3] & (FEXTRA | FNAME | FCOMMENT | FHCRC);
+        inflating = pendingFields == 0;
+    }
+
+    /**
+     * @return number of the bytes consumed
+     */
+    private int readOptionalField(byte[] b,
+                                  int off,
+                                  int len)
+    {
+        int n = 0;
+        if ((pendingFields & FEXTRA) != 0)
+        {
+            if (extraLengthBytes < 2)
+            {
+                extraLength |= (b[off] & 0xFF) << (8 * extraLengthBytes++);
+                if (extraLengthBytes == 2)
+                {
+                    skip = extraLength;
+                    pendingFields &= skip == 0 ? ~FEXTRA : ~0;
+                }
+
+                return 1;
+            }
+
+            n = Math.min(skip, len);
+            skip -= n;
+            if (skip == 0)
+            {
+                pendingFields &= ~FEXTRA;
+            }
+        }
+        else if ((pendingFields & (FNAME | FCOMMENT)) != 0)
+        {
+            // Zero terminated strings.
+            int field = (pendingFields & FNAME) != 0 ? FNAME : FCOMMENT;
+            while (n < len && b[off + n] != 0)
+            {
+                n++;
+            }
+            if (n < len)
+            {
+                n++;
+                pendingFields &= ~field;
+            }
+        }
+        else
+        {
+            if (skip == 0)
+            {
+                skip = 2;
+            }
+
+            n = Math.min(skip, len);
+            skip -= n;
+            if (skip == 0)
+            {
+                pendingFields &= ~FHCRC;
+            }
+        }
+
+        inflating = pendingFields == 0;
+
+        return n;
+    }
+
+    /**
+     * @return number of the bytes consumed
+     */
+    private int inflate(byte[] b,
+                        int off,
+                        int len)
+            throws IOException
+    {
+        inflater.setInput(b, off, len);
+        try
+        {
+            while (true)
+            {
+                int n = inflater.inflate(buffer);
+                if (n > 0)
+                {
+                    target.write(buffer, 0, n);
+                }
+                if (inflater.finished())
+                {
+                    finished = true;
+
+                    return len - inflater.getRemaining();
+                }
+                if (inflater.needsDictionary())
+                {
+                    throw new ZipException("Unexpected GZIP dictionary.");
+                }
+                if (n == 0 && inflater.needsInput())
+                {
+                    return len;
+                }
+            }
+        }
+        catch (DataFormatException e)
+        {
+            throw new ZipException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        inflater.end();
+        target.close();
+    }
+
+}
@@ -0,0 +1,340 @@
+package org.carlspring.strongbox.artifact.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Collects the TAR entry names from the archive bytes written to it, so the archive can be listed while it's being
+ * stored. Only the headers are parsed, the entries data is skipped. Supports the POSIX (ustar and PAX) and the GNU
+ * long names.
+ */
+public class TarEntryNamesOutputStream
+        extends OutputStream
+{
+
+    private static final int BLOCK_SIZE = 512;
+
+    private static final int MAX_EXTENDED_HEADER_SIZE = 1024 * 1024;
+
+    private final Set<String> entryNames = new HashSet<>();
+
+    private final byte[] header = new byte[BLOCK_SIZE];
+
+    private int headerLength;
+
+    /**
+     * The entry data, or the padding, still to be skipped.
+     */
+    private long skip;
+
+    /**
+     * Type of the extended header being collected (GNU long name or PAX), `0` if none.
+     */
+    private byte extendedHeaderType;
+
+    private ByteArrayOutputStream extendedHeader;
+
+    private long extendedHeaderRemaining;
+
+    /**
+     * The name of the next entry, from the extended header.
+     */
+    private String nextEntryName;
+
+    private boolean finished;
+
+    /**
+     * @return the names of the entries so far
+     */
+    public Set<String> getEntryNames()
+    {
+        return entryNames;
+    }
+
+    /**
+     * @return `true` if the end of archive has been reached
+     */
+    public boolean isFinished()
+    {
+        return finished;
+    }
+
+    @Override
+    public void write(int b)
+            throws IOException
+    {
+        write(new byte[]{ (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b,
+                      int off,
+                      int len)
+            throws IOException
+    {
+        while (len > 0 && !finished)
+        {
+            int n;
+            if (extendedHeaderRemaining > 0)
+            {
+                n = (int) Math.min(extendedHeaderRemaining, len);
+                extendedHeader.write(b, off, n);
+                extendedHeaderRemaining -= n;
+                if (extendedHeaderRemaining == 0)
+                {
+                    readExtendedHeader();
+                }
+            }
+            else if (skip > 0)
+            {
+                n = (int) Math.min(skip, len);
+                skip -= n;
+            }
+            else
+            {
+                n = Math.min(BLOCK_SIZE - headerLength, len);
+                System.arraycopy(b, off, header, headerLength, n);
+                headerLength += n;
+                if (headerLength == BLOCK_SIZE)
+                {
+                    headerLength = 0;
+                    readHeader();
+                }
+            }
+
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void readHeader()
+            throws IOException
+    {
+        if (isZeroBlock())
+        {
+            finished = true;
+            return;
+        }
+
+        verifyChecksum();
+
+        long size = parseNumber(124, 12);
+        long padding = (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE;
+        byte type = header[156];
+        switch (type)
+        {
+            // GNU long name, and PAX headers
+            case 'L':
+            case 'x':
+            case 'X':
+                if (size > MAX_EXTENDED_HEADER_SIZE)
+                {
+                    throw new IOException(String.format("Too large extended header [%s].", size));
+                }
+
+                extendedHeaderType = type;
+                extendedHeader = new ByteArrayOutputStream((int) size);
+                extendedHeaderRemaining = size;
+                // Skipped once the extended header is collected.
+                skip = padding;
+                if (size == 0)
+                {
+                    readExtendedHeader();
+                }
+
+                return;
+
+            // GNU long link name, and PAX global headers
+            case 'K':
+            case 'g':
+                skip = size + padding;
+
+                return;
+
+            default:
+                entryNames.add(nextEntryName != null ? nextEntryName : parseName());
+                nextEntryName = null;
+                skip = isDataEntry(type) ? size + padding : 0;
+        }
+    }
+
+    /**
+     * The links, directories, character or block devices and FIFOs have no data, whatever the size is.
+     */
+    private boolean isDataEntry(byte type)
+    {
+        return type != '1' && type != '2' && type != '3' && type != '4' && type != '5' && type != '6';
+    }
+
+    private void readExtendedHeader()
+            throws IOException
+    {
+        byte[] data = extendedHeader.toByteArray();
+        if (extendedHeaderType == 'L')
+        {
+            nextEntryName = cString(data, 0, data.length);
+        }
+        else
+        {
+            String path = parsePaxPath(data);
+            if (path != null)
+            {
+                nextEntryName = path;
+            }
+        }
+
+        extendedHeader = null;
+        extendedHeaderType = 0;
+    }
+
+    /**
+     * PAX records are `length key=value\n`, where the length is the length of the whole record in bytes.
+     */
+    private String parsePaxPath(byte[] data)
+            throws IOException
+    {
+        String result = null;
+        for (int offset = 0; offset < data.length; )
+        {
+            int space = offset;
+            while (space < data.length && data[space] != ' ')
+            {
+                space++;
+            }
+
+            int length;
+            try
+            {
+                length = Integer.parseInt(new String(data, offset, space - offset, StandardCharsets.US_ASCII));
+            }
+            catch (NumberFormatException e)
+            {
+                throw new IOException("Invalid PAX header record.", e);
+            }
+            if (length <= space - offset || offset + length > data.length)
+            {
+                throw new IOException("Invalid PAX header record.");
+            }
+
+            // Without the trailing new line.
+            String record = new String(data, space + 1, offset + length - space - 2, StandardCharsets.UTF_8);
+            if (record.startsWith("path="))
+            {
+                result = record.substring("path=".length());
+            }
+
+            offset += length;
+        }
+
+        return result;
+    }
+
+    private String parseName()
+    {
+        String name = cString(header, 0, 100);
+
+        // POSIX ustar archives may keep the beginning of the long names in the prefix field.
+        if (header[257] == 'u' && header[258] == 's' && header[259] == 't' && header[260] == 'a' &&
+            header[261] == 'r' && header[262] == 0)
+        {
+            String prefix = cString(header, 345, 155);
+            if (!prefix.isEmpty())
+            {
+                name = prefix + "/" + name;
+            }
+        }
+
+        return name;
+    }
+
+    private boolean isZeroBlock()
+    {
+        for (byte b : header)
+        {
+            if (b != 0)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * The checksum is the sum of the header bytes, with the checksum field itself taken as spaces. Some archivers
+     * sum the signed bytes.
+     */
+    private void verifyChecksum()
+            throws IOException
+    {
+        long unsignedSum = 0;
+        long signedSum = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++)
+        {
+            byte b = i >= 148 && i < 156 ? (byte) ' ' : header[i];
+            unsignedSum += b & 0xFF;
+            signedSum += b;
+        }
+
+        long checksum = parseNumber(148, 8);
+        if (checksum != unsignedSum && checksum != signedSum)
+        {
+            throw new IOException("Invalid TAR header checksum.");
+        }
+    }
+
+    /**
+     * Parses the octal number, or the GNU base-256 one for the large values.
+     */
+    private long parseNumber(int offset,
+                             int length)
+            throws IOException
+    {
+        long result = 0;
+        if ((header[offset] & 0x80) != 0)
+        {
+            result = header[offset] & 0x7F;
+            for (int i = offset + 1; i < offset + length; i++)
+            {
+                result = (result << 8) | (header[i] & 0xFF);
+            }
+
+            return result;
+        }
+
+        int i = offset;
+        int end = offset + length;
+        while (i < end && (header[i] == ' ' || header[i] == 0))
+        {
+            i++;
+        }
+        for (; i < end && header[i] != ' ' && header[i] != 0; i++)
+        {
+            if (header[i] < '0' || header[i] > '7')
+            {
+                throw new IOException("Invalid TAR header number.");
+            }
+            result = (result << 3) + (header[i] - '0');
+        }
+
+        return result;
+    }
+
+    private static String cString(byte[] data,
+                                  int offset,
+                                  int length)
+    {
+        int end = offset;
+        while (end < offset + length && data[end] != 0)
+        {
+            end++;
+        }
+
+        return new String(data, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+}
@@ -5,14 +5,19 @@ import org.carlspring.strongbox.providers.io.RepositoryPath;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Set;
+import java.util.zip.ZipException;
 
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
 
 /**
+ * Lists the entries from the central directory of the archive, see {@link ZipCentralDirectoryReader}. The archives
+ * without a valid central directory (like the truncated or the self-extracting ones) are read sequentially.
+ *
  * @author Przemyslaw Fusik
  */
 public enum ZipArchiveListingFunction
@@ -24,6 +29,19 @@ public enum ZipArchiveListingFunction
     @Override
     public Set<String> listFilenames(final RepositoryPath path)
             throws IOException
+    {
+        try (SeekableByteChannel channel = Files.newByteChannel(path))
+        {
+            return ZipCentralDirectoryReader.readEntryNames(channel);
+        }
+        catch (ZipException e)
+        {
+            return listFilenamesSequentially(path);
+        }
+    }
+
+    private Set<String> listFilenamesSequentially(final RepositoryPath path)
+            throws IOException
     {
         try (InputStream is = Files.newInputStream(path);
              BufferedInputStream bis = new BufferedInputStream(is);
@@ -0,0 +1,193 @@
+package org.carlspring.strongbox.artifact.archive;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipException;
+
+/**
+ * Lists the ZIP archive entries by reading only the end of central directory record and the central directory, so
+ * the size of the archive doesn't matter. Supports ZIP64 archives.
+ */
+public final class ZipCentralDirectoryReader
+{
+
+    private static final int EOCD_SIGNATURE = 0x06054b50;
+
+    private static final int EOCD_LENGTH = 22;
+
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+    private static final int ZIP64_EOCD_LOCATOR_SIGNATURE = 0x07064b50;
+
+    private static final int ZIP64_EOCD_LOCATOR_LENGTH = 20;
+
+    private static final int ZIP64_EOCD_SIGNATURE = 0x06064b50;
+
+    private static final int ZIP64_EOCD_LENGTH = 56;
+
+    private static final int CENTRAL_FILE_HEADER_SIGNATURE = 0x02014b50;
+
+    private static final int CENTRAL_FILE_HEADER_LENGTH = 46;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ZipCentralDirectoryReader()
+    {
+    }
+
+    /**
+     * @throws ZipException
+     *             if the end of central directory record or the central directory are missing or malformed
+     */
+    public static Set<String> readEntryNames(SeekableByteChannel channel)
+            throws IOException
+    {
+        long size = channel.size();
+        if (size < EOCD_LENGTH)
+        {
+            throw new ZipException("The end of central directory record is missing.");
+        }
+
+        int tailLength = (int) Math.min(size, EOCD_LENGTH + MAX_COMMENT_LENGTH);
+        long tailPosition = size - tailLength;
+        ByteBuffer tail = read(channel, tailPosition, tailLength);
+
+        int eocd = tailLength - EOCD_LENGTH;
+        while (eocd >= 0 && tail.getInt(eocd) != EOCD_SIGNATURE)
+        {
+            eocd--;
+        }
+        if (eocd < 0)
+        {
+            throw new ZipException("The end of central directory record is missing.");
+        }
+
+        long centralDirectorySize = tail.getInt(eocd + 12) & 0xFFFFFFFFL;
+        long centralDirectoryOffset = tail.getInt(eocd + 16) & 0xFFFFFFFFL;
+
+        long eocdPosition = tailPosition + eocd;
+        if (eocdPosition >= ZIP64_EOCD_LOCATOR_LENGTH)
+        {
+            ByteBuffer locator = read(channel, eocdPosition - ZIP64_EOCD_LOCATOR_LENGTH, ZIP64_EOCD_LOCATOR_LENGTH);
+            if (locator.getInt(0) == ZIP64_EOCD_LOCATOR_SIGNATURE)
+            {
+                long zip64EocdPosition = locator.getLong(8);
+                if (zip64EocdPosition < 0 || zip64EocdPosition + ZIP64_EOCD_LENGTH > eocdPosition)
+                {
+                    throw new ZipException("Invalid ZIP64 end of central directory locator.");
+                }
+
+                ByteBuffer zip64Eocd = read(channel, zip64EocdPosition, ZIP64_EOCD_LENGTH);
+                if (zip64Eocd.getInt(0) != ZIP64_EOCD_SIGNATURE)
+                {
+                    throw new ZipException("The ZIP64 end of central directory record is missing.");
+                }
+
+                centralDirectorySize = zip64Eocd.getLong(40);
+                centralDirectoryOffset = zip64Eocd.getLong(48);
+            }
+        }
+
+        if (centralDirectoryOffset < 0 || centralDirectorySize < 0 ||
+            centralDirectoryOffset + centralDirectorySize > eocdPosition)
+        {
+            throw new ZipException("Invalid central directory location.");
+        }
+
+        channel.position(centralDirectoryOffset);
+
+        // Not closed, as it would close the channel.
+        InputStream centralDirectory = new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+
+        Set<String> result = new HashSet<>();
+        byte[] header = new byte[CENTRAL_FILE_HEADER_LENGTH];
+        ByteBuffer headerBuffer = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN);
+        for (long position = 0; position < centralDirectorySize; )
+        {
+            readFully(centralDirectory, header, CENTRAL_FILE_HEADER_LENGTH);
+            if (headerBuffer.getInt(0) != CENTRAL_FILE_HEADER_SIGNATURE)
+            {
+                throw new ZipException("Invalid central directory file header.");
+            }
+
+            int nameLength = headerBuffer.getShort(28) & 0xFFFF;
+            int extraLength = headerBuffer.getShort(30) & 0xFFFF;
+            int commentLength = headerBuffer.getShort(32) & 0xFFFF;
+
+            byte[] name = new byte[nameLength];
+            readFully(centralDirectory, name, nameLength);
+            result.add(new String(name, StandardCharsets.UTF_8));
+
+            skipFully(centralDirectory, extraLength + commentLength);
+
+            position += CENTRAL_FILE_HEADER_LENGTH + nameLength + extraLength + commentLength;
+        }
+
+        return result;
+    }
+
+    private static ByteBuffer read(SeekableByteChannel channel,
+                                   long position,
+                                   int length)
+            throws IOException
+    {
+        ByteBuffer result = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+
+        channel.position(position);
+        while (result.hasRemaining())
+        {
+            if (channel.read(result) < 0)
+            {
+                throw new EOFException();
+            }
+        }
+        result.flip();
+
+        return result;
+    }
+
+    private static void readFully(InputStream in,
+                                  byte[] b,
+                                  int length)
+            throws IOException
+    {
+        for (int offset = 0; offset < length; )
+        {
+            int n = in.read(b, offset, length - offset);
+            if (n < 0)
+            {
+                throw new EOFException();
+            }
+            offset += n;
+        }
+    }
+
+    private static void skipFully(InputStream in,
+                                  long length)
+            throws IOException
+    {
+        for (long remaining = length; remaining > 0; )
+        {
+            long n = in.skip(remaining);
+            if (n <= 0)
+            {
+                if (in.read() < 0)
+                {
+                    throw new EOFException();
+                }
+                n = 1;
+            }
+            remaining -= n;
+        }
+    }
+
+}
@@ -0,0 +1,181 @@
+package org.carlspring.strongbox.artifact.coordinates;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The lower cased `coordinate=value` terms of the {@link ArtifactCoordinates}, which are stored and indexed along
+ * with the artifact entries, so the case insensitive coordinate searches can look the entries up by the index
+ * instead of scanning them all. <br>
+ * The non strict search values without a wildcard match the coordinate values which contain them, and can't use the
+ * index. The values with a wildcard are patterns, where `*` matches any characters, so the explicit `prefix*`
+ * patterns are looked up by the index (`groupId=org.carlspring*`).
+ */
+public final class ArtifactCoordinatesSearchTerms
+{
+
+    public static final char WILDCARD = '*';
+
+    /**
+     * The `LIKE` wildcard, which was used by the non strict searches before.
+     */
+    private static final char LIKE_WILDCARD = '%';
+
+    /**
+     * Greater than any character of the indexed terms, so `[term, term + MAX_CHAR]` is the range of the terms starting
+     * with `term`.
+     */
+    private static final char MAX_CHAR = '\uffff';
+
+    private ArtifactCoordinatesSearchTerms()
+    {
+    }
+
+    public static Set<String> of(ArtifactCoordinates coordinates)
+    {
+        return of(coordinates == null ? null : coordinates.getCoordinates());
+    }
+
+    public static Set<String> of(Map<String, String> coordinates)
+    {
+        if (coordinates == null)
+        {
+            return Collections.emptySet();
+        }
+
+        Set<String> result = new LinkedHashSet<>();
+        coordinates.entrySet()
+                   .stream()
+                   .filter(e -> e.getValue() != null)
+                   .forEach(e -> result.add(term(e.getKey(), e.getValue())));
+
+        return result;
+    }
+
+    public static String term(String coordinate,
+                              String value)
+    {
+        return coordinate + "=" + value.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Plans how the coordinate value is matched: by an index key, a range of the index keys, or by scanning the
+     * entries if the value is matched as a substring, or the pattern starts with a wildcard.
+     */
+    public static Match match(String coordinate,
+                              String value,
+                              boolean strict)
+    {
+        String lowerCaseValue = value.toLowerCase(Locale.ENGLISH);
+        if (strict)
+        {
+            String term = term(coordinate, lowerCaseValue);
+
+            return new Match(term, term, true, lowerCaseValue, true);
+        }
+
+        String pattern = lowerCaseValue.replace(LIKE_WILDCARD, WILDCARD);
+        int wildcard = pattern.indexOf(WILDCARD);
+        if (wildcard < 0)
+        {
+            return new Match(null, null, false, LIKE_WILDCARD + pattern + LIKE_WILDCARD, false);
+        }
+
+        String likePattern = pattern.replace(WILDCARD, LIKE_WILDCARD);
+        if (wildcard == 0)
+        {
+            return new Match(null, null, false, likePattern, false);
+        }
+
+        String prefix = term(coordinate, pattern.substring(0, wildcard));
+
+        // `prefix*` is matched by the index range itself.
+        boolean prefixOnly = wildcard == pattern.length() - 1;
+
+        return new Match(prefix, prefix + MAX_CHAR, false, likePattern, prefixOnly);
+    }
+
+    public static class Match
+    {
+
+        private final String fromKey;
+
+        private final String toKey;
+
+        private final boolean strict;
+
+        private final String value;
+
+        private final boolean precise;
+
+        private Match(String fromKey,
+                      String toKey,
+                      boolean strict,
+                      String value,
+                      boolean precise)
+        {
+            this.fromKey = fromKey;
+            this.toKey = toKey;
+            this.strict = strict;
+            this.value = value;
+            this.precise = precise;
+        }
+
+        /**
+         * @return `false` if the matching entries can't be looked up by the index
+         */
+        public boolean isIndexed()
+        {
+            return fromKey != null;
+        }
+
+        /**
+         * @return `true` if the index keys are the single term, `false` if they are the range of terms
+         */
+        public boolean isKey()
+        {
+            return fromKey != null && fromKey.equals(toKey);
+        }
+
+        public String getFromKey()
+        {
+            return fromKey;
+        }
+
+        public String getToKey()
+        {
+            return toKey;
+        }
+
+        /**
+         * @return `true` if the coordinate value should be equal to the {@link #getValue()}, `false` if it should be
+         *         `LIKE` it
+         */
+        public boolean isStrict()
+        {
+            return strict;
+        }
+
+        /**
+         * @return the lower cased coordinate value, or the `LIKE` pattern of it
+         */
+        public String getValue()
+        {
+            return value;
+        }
+
+        /**
+         * @return `true` if the entries looked up by the index match the value, `false` if they should be
+         *         filtered by the value as well
+         */
+        public boolean isPrecise()
+        {
+            return precise;
+        }
+
+    }
+
+}
@@ -2,13 +2,18 @@ package org.carlspring.strongbox.config;
 
 import org.carlspring.strongbox.booters.StorageBooter;
 import org.carlspring.strongbox.booters.TempDirBooter;
+import org.carlspring.strongbox.data.CacheName;
 import org.carlspring.strongbox.storage.checksum.ChecksumCacheManager;
 import org.carlspring.strongbox.storage.validation.ArtifactCoordinatesValidator;
 
 import javax.inject.Inject;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import com.hazelcast.core.HazelcastInstance;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -34,12 +39,28 @@ public class StorageApiConfig
     @Inject
     private List<ArtifactCoordinatesValidator> versionValidators;
 
-    @Bean
-    ChecksumCacheManager checksumCacheManager()
+    @Value("${cacheManagerConfiguration.caches.checksums.distributed:false}")
+    private boolean distributedChecksums;
+
+    @Value("${cacheManagerConfiguration.caches.checksums.maxSizeLimit:10000}")
+    private long checksumsMaxSizeLimit;
+
+    @Value("${cacheManagerConfiguration.caches.checksums.maxIdleSeconds:60}")
+    private long checksumsMaxIdleSeconds;
+
+    @Value("${cacheManagerConfiguration.caches.checksums.expiredCheckIntervalSeconds:60}")
+    private long checksumsExpiredCheckIntervalSeconds;
+
+    @Bean(destroyMethod = "stopMonitor")
+    ChecksumCacheManager checksumCacheManager(HazelcastInstance hazelcastInstance)
     {
-        ChecksumCacheManager checksumCacheManager = new ChecksumCacheManager();
-        checksumCacheManager.setCachedChecksumExpiredCheckInterval(300000);
-        checksumCacheManager.setCachedChecksumLifetime(60000);
+        long cachedChecksumLifetime = TimeUnit.SECONDS.toMillis(checksumsMaxIdleSeconds);
+
+        ChecksumCacheManager checksumCacheManager = distributedChecksums
+                ? new ChecksumCacheManager(hazelcastInstance.getMap(CacheName.Artifact.CHECKSUMS), cachedChecksumLifetime)
+                : new ChecksumCacheManager(checksumsMaxSizeLimit, cachedChecksumLifetime);
+        checksumCacheManager.setCachedChecksumExpiredCheckInterval(TimeUnit.SECONDS.toMillis(checksumsExpiredCheckIntervalSeconds));
+        checksumCacheManager.startMonitor();
 
         return checksumCacheManager;
     }
@@ -44,6 +44,11 @@ public class ConfigurationManager implements StoragesConfigurationManager
         return configurationService.getConfiguration();
     }
 
+    public long getConfigurationVersion()
+    {
+        return configurationService.getConfigurationVersion();
+    }
+
     public URI getBaseUri()
     {
         try
@@ -3,6 +3,7 @@ package org.carlspring.strongbox.domain;
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.coordinates.AbstractArtifactCoordinates;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinatesSearchTerms;
 import org.carlspring.strongbox.data.domain.GenericEntity;
 
 import javax.persistence.CascadeType;
@@ -10,7 +11,6 @@ import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
-import javax.persistence.Transient;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Optional;
@@ -37,6 +37,17 @@ public class ArtifactEntry
                            CascadeType.REFRESH })
     private AbstractArtifactCoordinates artifactCoordinates;
 
+    /**
+     * Indexed copy of the {@link #artifactCoordinates}, see {@link ArtifactCoordinatesSearchTerms}.
+     */
+    private Set<String> coordinateSearchTerms;
+
+    /**
+     * Indexed copy of the {@link #artifactCoordinates} path, along with the storage and repository IDs, so that the
+     * keyset pages seek it without following the coordinates links.
+     */
+    private String artifactPath;
+
     @ManyToMany(targetEntity = ArtifactTagEntry.class)
     private Set<ArtifactTag> tagSet;
 
@@ -87,6 +98,23 @@ public class ArtifactEntry
     public void setArtifactCoordinates(ArtifactCoordinates artifactCoordinates)
     {
         this.artifactCoordinates = (AbstractArtifactCoordinates) artifactCoordinates;
+        setCoordinateSearchTerms(ArtifactCoordinatesSearchTerms.of(artifactCoordinates));
+        setArtifactPath(artifactCoordinates == null ? null : artifactCoordinates.toPath());
+    }
+
+    public Set<String> getCoordinateSearchTerms()
+    {
+        return coordinateSearchTerms = Optional.ofNullable(coordinateSearchTerms).orElse(new HashSet<>());
+    }
+
+    protected void setCoordinateSearchTerms(Set<String> coordinateSearchTerms)
+    {
+        this.coordinateSearchTerms = new HashSet<>(coordinateSearchTerms);
+    }
+
+    protected void setArtifactPath(String artifactPath)
+    {
+        this.artifactPath = artifactPath;
     }
 
     public Set<ArtifactTag> getTagSet()
@@ -169,7 +197,6 @@ public class ArtifactEntry
         this.artifactArchiveListing = artifactArchiveListing;
     }
 
-    @Transient
     public String getArtifactPath()
     {
         return Optional.of(getArtifactCoordinates())
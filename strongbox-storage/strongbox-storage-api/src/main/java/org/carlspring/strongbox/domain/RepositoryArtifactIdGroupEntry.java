@@ -1,6 +1,10 @@
 package org.carlspring.strongbox.domain;
 
+import javax.annotation.Nonnull;
 import javax.persistence.Entity;
+import javax.persistence.ManyToMany;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * @author Przemyslaw Fusik
@@ -13,6 +17,15 @@ public class RepositoryArtifactIdGroupEntry
     private String storageId;
     private String repositoryId;
 
+    /**
+     * Entries of the latest version within the group (all the files of the
+     * version, for example <code>pom</code> and <code>jar</code>), which are
+     * tagged with {@link ArtifactTagEntry#LAST_VERSION}. This allows to update
+     * the latest version without loading all the group entries.
+     */
+    @ManyToMany(targetEntity = ArtifactEntry.class)
+    private Set<ArtifactEntry> lastVersionEntries = new HashSet<>();
+
     public RepositoryArtifactIdGroupEntry()
     {
     }
@@ -51,4 +64,15 @@ public class RepositoryArtifactIdGroupEntry
         return getName();
     }
 
+    @Nonnull
+    public Set<ArtifactEntry> getLastVersionEntries()
+    {
+        return lastVersionEntries = lastVersionEntries != null ? lastVersionEntries : new HashSet<>();
+    }
+
+    public void setLastVersionEntries(Set<ArtifactEntry> lastVersionEntries)
+    {
+        this.lastVersionEntries = lastVersionEntries;
+    }
+
 }
@@ -5,19 +5,23 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.inject.Inject;
 
 import org.apache.commons.io.output.CountingOutputStream;
 import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
+import org.carlspring.strongbox.artifact.archive.ArchiveListingOutputStream;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.configuration.Configuration;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.criteria.Selector;
+import org.carlspring.strongbox.domain.ArtifactArchiveListing;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
@@ -229,6 +233,24 @@ public abstract class AbstractRepositoryProvider implements RepositoryProvider,
         artifactEntry.getChecksums().clear();
         artifactEntry.getChecksums().putAll(los.getDigestMap());
 
+        ArchiveListingOutputStream alos = StreamUtils.findSource(ArchiveListingOutputStream.class, ctx.getStream());
+        Set<String> archiveFilenames = alos != null ? alos.getFilenames() : null;
+        ArtifactArchiveListing artifactArchiveListing = artifactEntry.getArtifactArchiveListing();
+        if (archiveFilenames != null && !archiveFilenames.isEmpty())
+        {
+            if (artifactArchiveListing == null)
+            {
+                artifactArchiveListing = new ArtifactArchiveListing();
+                artifactEntry.setArtifactArchiveListing(artifactArchiveListing);
+            }
+            artifactArchiveListing.setFilenames(archiveFilenames);
+        }
+        else if (alos != null && artifactArchiveListing != null)
+        {
+            // The previous listing is stale, the archive will be listed by the layout provider.
+            artifactArchiveListing.setFilenames(Collections.emptySet());
+        }
+
         RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storage.getId(), repository.getId(), coordinates.getId());
         repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, artifactEntry);
     }
@@ -0,0 +1,59 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock acquisition counters, used to monitor the {@link RepositoryPathLock}
+ * contention.
+ */
+public class LockWaitStatistics
+{
+
+    private final LongAdder lockCount = new LongAdder();
+
+    private final LongAdder waitTimeNanos = new LongAdder();
+
+    private final LongAccumulator maxWaitTimeNanos = new LongAccumulator(Math::max, 0);
+
+    void record(long waitNanos)
+    {
+        lockCount.increment();
+        waitTimeNanos.add(waitNanos);
+        maxWaitTimeNanos.accumulate(waitNanos);
+    }
+
+    public long getLockCount()
+    {
+        return lockCount.sum();
+    }
+
+    public long getWaitTime(TimeUnit unit)
+    {
+        return unit.convert(waitTimeNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxWaitTime(TimeUnit unit)
+    {
+        return unit.convert(maxWaitTimeNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    public long getAverageWaitTime(TimeUnit unit)
+    {
+        long count = getLockCount();
+
+        return count == 0 ? 0 : unit.convert(waitTimeNanos.sum() / count, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("locks-[%s]; wait-[%sms]; avg-wait-[%sms]; max-wait-[%sms]",
+                             getLockCount(),
+                             getWaitTime(TimeUnit.MILLISECONDS),
+                             getAverageWaitTime(TimeUnit.MILLISECONDS),
+                             getMaxWaitTime(TimeUnit.MILLISECONDS));
+    }
+
+}
@@ -1,9 +1,11 @@
 package org.carlspring.strongbox.providers.io;
 
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryData;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -16,6 +18,12 @@ public class RepositoryFileSystemRegistry
 
     private Map<String, LayoutFileSystemFactory> fileSystemFactoryMap = new HashMap<>();
 
+    /**
+     * The {@link LayoutFileSystem} (and its {@link LayoutFileSystemProvider}) is built once per repository
+     * configuration version, instead of creating the new prototype beans on every path resolution.
+     */
+    private final Map<String, CachedFileSystem> fileSystemMap = new ConcurrentHashMap<>();
+
     @Autowired(required = false)
     public void setFileSystemProviderFactories(Map<String, LayoutFileSystemProviderFactory> factories)
     {
@@ -51,4 +59,87 @@ public class RepositoryFileSystemRegistry
     {
         return fileSystemProviderFactoryMap.get(r.getLayout());
     }
+
+    /**
+     * Returns the repository file system, which is built only once per repository and configuration version. <br>
+     * The repositories read from an earlier configuration version get their own file systems, as well as the
+     * repositories, which weren't read from the server configuration, unless it's the same repository instance.
+     */
+    public LayoutFileSystem lookupRepositoryFileSystem(Repository r)
+    {
+        if (r.getStorage() == null)
+        {
+            return lookupRepositoryFileSystemFactory(r).create(r);
+        }
+
+        String key = r.getStorage().getId() + ":" + r.getId();
+        Long configurationVersion = r instanceof RepositoryData ? ((RepositoryData) r).getConfigurationVersion()
+                : null;
+
+        CachedFileSystem cached = fileSystemMap.get(key);
+        if (cached != null && cached.matches(r, configurationVersion))
+        {
+            return cached.fileSystem;
+        }
+
+        LayoutFileSystem fileSystem = lookupRepositoryFileSystemFactory(r).create(r);
+
+        CachedFileSystem candidate = new CachedFileSystem(fileSystem, configurationVersion);
+        fileSystemMap.compute(key, (k, c) -> candidate.replaces(c) ? candidate : c);
+
+        return fileSystem;
+    }
+
+    /**
+     * Drops all the cached file systems, should be called when the configuration changed.
+     */
+    public void invalidate()
+    {
+        fileSystemMap.clear();
+    }
+
+    private static class CachedFileSystem
+    {
+
+        private final LayoutFileSystem fileSystem;
+
+        /**
+         * `null` for the repositories, which weren't read from the server configuration.
+         */
+        private final Long configurationVersion;
+
+        private CachedFileSystem(LayoutFileSystem fileSystem,
+                                 Long configurationVersion)
+        {
+            this.fileSystem = fileSystem;
+            this.configurationVersion = configurationVersion;
+        }
+
+        private boolean matches(Repository r,
+                                Long version)
+        {
+            if (configurationVersion == null || version == null)
+            {
+                return fileSystem.getRepository() == r;
+            }
+
+            return configurationVersion.equals(version);
+        }
+
+        /**
+         * The file system of the repository read from the server configuration is never replaced with the one of an
+         * earlier configuration version, or of a repository, which wasn't read from the server configuration.
+         */
+        private boolean replaces(CachedFileSystem cached)
+        {
+            if (cached == null || cached.configurationVersion == null)
+            {
+                return true;
+            }
+
+            return configurationVersion != null && configurationVersion > cached.configurationVersion;
+        }
+
+    }
+
 }
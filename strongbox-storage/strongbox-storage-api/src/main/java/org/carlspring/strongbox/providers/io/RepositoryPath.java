@@ -17,9 +17,12 @@ import java.nio.file.WatchEvent.Kind;
 import java.nio.file.WatchEvent.Modifier;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import org.apache.commons.io.FilenameUtils;
 
@@ -42,7 +45,11 @@ public class RepositoryPath
 
     protected ArtifactEntry artifactEntry;
 
-    protected Map<RepositoryFileAttributeType, Object> cachedAttributes = new HashMap<>();
+    /**
+     * Immutable snapshot of the already resolved {@link RepositoryFileAttributeType} values, the attributes without
+     * value are cached as {@link Optional#empty()}.
+     */
+    private volatile Map<RepositoryFileAttributeType, Optional<Object>> cachedAttributes = Collections.emptyMap();
 
     protected URI uri;
 
@@ -65,6 +72,33 @@ public class RepositoryPath
         return artifactEntry;
     }
 
+    Map<RepositoryFileAttributeType, Optional<Object>> getCachedAttributes()
+    {
+        return cachedAttributes;
+    }
+
+    synchronized Map<RepositoryFileAttributeType, Optional<Object>> cacheAttributes(Set<RepositoryFileAttributeType> attributeTypes,
+                                                                                    Map<RepositoryFileAttributeType, Object> attributes)
+    {
+        Map<RepositoryFileAttributeType, Optional<Object>> result = new EnumMap<>(RepositoryFileAttributeType.class);
+        result.putAll(cachedAttributes);
+        for (RepositoryFileAttributeType attributeType : attributeTypes)
+        {
+            result.put(attributeType, Optional.ofNullable(attributes.get(attributeType)));
+        }
+
+        return cachedAttributes = Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Drops the cached {@link RepositoryFileAttributeType} values, so they will be resolved again on next access.
+     * Should be called when the path content was changed or removed.
+     */
+    public void invalidateAttributes()
+    {
+        cachedAttributes = Collections.emptyMap();
+    }
+
     public LayoutFileSystem getFileSystem()
     {
         return fileSystem;
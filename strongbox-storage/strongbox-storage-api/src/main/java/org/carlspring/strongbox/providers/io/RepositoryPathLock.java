@@ -4,7 +4,9 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
@@ -12,14 +14,21 @@ import javax.inject.Inject;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
+import com.google.common.collect.MapMaker;
 import com.hazelcast.core.HazelcastInstance;
 
 import ca.thoughtwire.lock.DistributedLockService;
 
 /**
+ * Provides the {@link ReadWriteLock}s for the {@link RepositoryPath}s. <br>
+ * Every lock is local (in-JVM) first, and escalates to the distributed
+ * (Hazelcast) lock only for the writes, or for the reads when clustering
+ * enabled. See {@link TieredReadWriteLock}.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -30,17 +39,40 @@ public class RepositoryPathLock
 
     private DistributedLockService lockService;
 
+    /**
+     * Local locks are held weakly, so they are released as soon as nobody uses
+     * them. There is exactly one lock per name (no striping), because nested
+     * locks on different names could deadlock on a shared stripe.
+     */
+    private final ConcurrentMap<String, ReadWriteLock> localLocks = new MapMaker().weakValues().makeMap();
+
+    private final LockWaitStatistics localLockStatistics = new LockWaitStatistics();
+
+    private final LockWaitStatistics distributedLockStatistics = new LockWaitStatistics();
+
+    @Value("${cacheManagerConfiguration.enableMulticastConfig:false}")
+    private boolean clustered;
+
     @Inject
     public void setHazelcastInstance(HazelcastInstance hazelcastInstance)
     {
         lockService = DistributedLockService.newHazelcastLockService(hazelcastInstance);
     }
 
+    /**
+     * The returned locks don't support
+     * {@link java.util.concurrent.locks.Lock#newCondition()}: awaiting on a
+     * local condition would keep holding the distributed lock, so the thread
+     * to signal it could never take the lock.
+     */
     public ReadWriteLock lock(final @Nonnull RepositoryPath repositoryPath) throws IOException
     {
         return lock(repositoryPath, null);
     }
 
+    /**
+     * @see #lock(RepositoryPath)
+     */
     public ReadWriteLock lock(final @Nonnull RepositoryPath repositoryPath,
                               String id) throws IOException
     {
@@ -50,7 +82,21 @@ public class RepositoryPathLock
                                   .orElseGet(() -> lock.toString());
         logger.debug(String.format("Get lock for [%s]", lock));
         
-        return lockService.getReentrantReadWriteLock(lockName);
+        return new TieredReadWriteLock(localLocks.computeIfAbsent(lockName, k -> new ReentrantReadWriteLock()),
+                                       () -> lockService.getReentrantReadWriteLock(lockName),
+                                       clustered,
+                                       localLockStatistics,
+                                       distributedLockStatistics);
+    }
+
+    public LockWaitStatistics getLocalLockStatistics()
+    {
+        return localLockStatistics;
+    }
+
+    public LockWaitStatistics getDistributedLockStatistics()
+    {
+        return distributedLockStatistics;
     }
 
     private URI getLock(final @Nonnull RepositoryPath repositoryPath) throws IOException
@@ -33,9 +33,7 @@ public class RepositoryPathResolver
     {
         Objects.requireNonNull(repository, "Repository should be provided");
 
-        LayoutFileSystemFactory fileSystemFactory = fileSystemRegistry.lookupRepositoryFileSystemFactory(repository);
-
-        return fileSystemFactory.create(repository).getRootDirectory();
+        return fileSystemRegistry.lookupRepositoryFileSystem(repository).getRootDirectory();
     }
 
     public RepositoryPath resolve(String storageId,
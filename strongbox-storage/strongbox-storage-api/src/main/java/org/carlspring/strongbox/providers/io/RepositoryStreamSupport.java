@@ -3,7 +3,14 @@ package org.carlspring.strongbox.providers.io;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Optional;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -32,6 +39,8 @@ public class RepositoryStreamSupport
     
     private static final Logger logger = LoggerFactory.getLogger(RepositoryStreamSupport.class);
 
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
     private RepositoryStreamContext ctx = new RepositoryStreamContext();
 
     protected final ReadWriteLock lockSource;
@@ -217,16 +226,134 @@ public class RepositoryStreamSupport
             }
         }
 
+        private long transferredBytes;
+
+        private SeekableByteChannel channel;
+
+        private ByteBuffer buffer;
+
         @Override
         protected void beforeRead(int n)
             throws IOException
         {
-            if (((CountingInputStream) in).getByteCount() == 0)
+            if (getByteCount() == 0)
             {
                 callback.onBeforeRead((RepositoryStreamReadContext) ctx);
             }
         }
 
+        public long getByteCount()
+        {
+            return ((CountingInputStream) in).getByteCount() + transferredBytes;
+        }
+
+        /**
+         * Transfers the rest of the file content directly from the underlying
+         * {@link SeekableByteChannel} into the target channel, bypassing the
+         * stream decorators (digests, byte ranges etc.).
+         * 
+         * @param target
+         * @return the number of transferred bytes
+         * @throws IOException
+         */
+        public long transferTo(WritableByteChannel target)
+            throws IOException
+        {
+            return transferTo(((CountingInputStream) in).getByteCount(), Long.MAX_VALUE, target);
+        }
+
+        /**
+         * Transfers up to <code>count</code> bytes of the file content,
+         * starting at the given <code>position</code>, into the target
+         * channel. Skipped bytes are not read at all. <br>
+         * If both the source and the target are {@link FileChannel} or
+         * {@link SelectableChannel}, then the transfer will be done by the OS
+         * (sendfile), otherwise the content is copied with large direct buffer
+         * writes.
+         * 
+         * @param position
+         * @param count
+         * @param target
+         * @return the number of transferred bytes
+         * @throws IOException
+         */
+        public long transferTo(long position,
+                               long count,
+                               WritableByteChannel target)
+            throws IOException
+        {
+            beforeRead(1);
+
+            SeekableByteChannel source = getChannel();
+            long length = Math.min(count, Math.max(source.size() - position, 0));
+
+            long result = 0;
+            if (source instanceof FileChannel
+                    && (target instanceof FileChannel || target instanceof SelectableChannel))
+            {
+                long n;
+                while (result < length
+                        && (n = ((FileChannel) source).transferTo(position + result, length - result, target)) > 0)
+                {
+                    result += n;
+                }
+            }
+            else
+            {
+                result = copy(source, position, length, target);
+            }
+            transferredBytes += result;
+
+            return result;
+        }
+
+        private long copy(SeekableByteChannel source,
+                          long position,
+                          long length,
+                          WritableByteChannel target)
+            throws IOException
+        {
+            if (buffer == null)
+            {
+                buffer = ByteBuffer.allocateDirect(TRANSFER_BUFFER_SIZE);
+            }
+
+            source.position(position);
+
+            long result = 0;
+            while (result < length)
+            {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), length - result));
+
+                int n = source.read(buffer);
+                if (n == -1)
+                {
+                    break;
+                }
+
+                buffer.flip();
+                while (buffer.hasRemaining())
+                {
+                    target.write(buffer);
+                }
+                result += n;
+            }
+
+            return result;
+        }
+
+        private SeekableByteChannel getChannel()
+            throws IOException
+        {
+            if (channel == null)
+            {
+                channel = Files.newByteChannel(getContext().getPath(), StandardOpenOption.READ);
+            }
+
+            return channel;
+        }
+
         @Override
         public void close()
             throws IOException
@@ -234,7 +361,11 @@ public class RepositoryStreamSupport
             try
             {
                 super.close();
-                if (((CountingInputStream) in).getByteCount() > 0) 
+                if (channel != null)
+                {
+                    channel.close();
+                }
+                if (getByteCount() > 0) 
                 {
                     callback.onAfterRead((RepositoryStreamReadContext) ctx);
                 }
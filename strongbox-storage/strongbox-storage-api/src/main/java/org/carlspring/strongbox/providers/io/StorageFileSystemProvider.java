@@ -25,7 +25,6 @@ import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.FileAttributeView;
 import java.nio.file.spi.FileSystemProvider;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
@@ -170,6 +169,8 @@ public abstract class StorageFileSystemProvider
         throws IOException
     {
         getTarget().createDirectory(unwrap(dir), attrs);
+
+        invalidateAttributes(dir);
     }
 
     public void delete(Path path)
@@ -310,6 +311,7 @@ public abstract class StorageFileSystemProvider
         if (!repository.isTrashEnabled() || RepositoryFiles.isTrash(repositoryPath))
         {
             Files.deleteIfExists(repositoryPath.getTarget());
+            repositoryPath.invalidateAttributes();
 
             return;
         }
@@ -319,6 +321,7 @@ public abstract class StorageFileSystemProvider
         Files.move(repositoryPath.getTarget(),
                    trashPath.getTarget(),
                    StandardCopyOption.REPLACE_EXISTING);
+        repositoryPath.invalidateAttributes();
 
         if (force && repository.allowsForceDeletion())
         {
@@ -341,6 +344,7 @@ public abstract class StorageFileSystemProvider
             return;
         }
 
+        path.invalidateAttributes();
         if (!Files.isDirectory(trashPath.getTarget()))
         {
             Files.move(trashPath.getTarget(), path.getTarget(), StandardCopyOption.REPLACE_EXISTING);
@@ -374,6 +378,7 @@ public abstract class StorageFileSystemProvider
             Files.delete(path.getTarget());
         }
         Files.move(tempPath.getTarget(), path.getTarget(), StandardCopyOption.ATOMIC_MOVE);
+        path.invalidateAttributes();
 
         //path.artifactEntry = tempPath.artifactEntry;
 
@@ -457,6 +462,8 @@ public abstract class StorageFileSystemProvider
         throws IOException
     {
         getTarget().copy(unwrap(source), unwrap(target), options);
+
+        invalidateAttributes(target);
     }
 
     public void move(Path source,
@@ -465,6 +472,9 @@ public abstract class StorageFileSystemProvider
         throws IOException
     {
         getTarget().move(unwrap(source), unwrap(target), options);
+
+        invalidateAttributes(source);
+        invalidateAttributes(target);
     }
 
     public boolean isSameFile(Path path,
@@ -519,9 +529,7 @@ public abstract class StorageFileSystemProvider
         }
 
         RepositoryFileAttributes repositoryFileAttributes = new RepositoryFileAttributes(targetAttributes,
-                getRepositoryFileAttributes((RepositoryPath) path,
-                                            RepositoryFiles.parseAttributes("*")
-                                                           .toArray(new RepositoryFileAttributeType[] {})));
+                readRepositoryFileAttributes((RepositoryPath) path, RepositoryFiles.parseAttributes("*")));
 
         return (A) repositoryFileAttributes;
     }
@@ -548,33 +556,8 @@ public abstract class StorageFileSystemProvider
             }
         }
 
-        Set<RepositoryFileAttributeType> targetRepositoryAttributes = new HashSet<>(
-                RepositoryFiles.parseAttributes(attributes));
-
-        final Map<RepositoryFileAttributeType, Object> repositoryFileAttributes = new HashMap<>();
-        for (Iterator<RepositoryFileAttributeType> iterator = targetRepositoryAttributes.iterator(); iterator.hasNext();)
-        {
-            RepositoryFileAttributeType repositoryFileAttributeType = iterator.next();
-            Optional.ofNullable(repositoryPath.cachedAttributes.get(repositoryFileAttributeType))
-                    .ifPresent(v -> {
-                        repositoryFileAttributes.put(repositoryFileAttributeType, v);
-                        iterator.remove();
-                    });
-
-        }
-        if (!targetRepositoryAttributes.isEmpty())
-        {
-            Map<RepositoryFileAttributeType, Object> newAttributes = getRepositoryFileAttributes(repositoryPath,
-                                                                                                 targetRepositoryAttributes.toArray(new RepositoryFileAttributeType[targetRepositoryAttributes.size()]));
-            newAttributes.entrySet()
-                         .stream()
-                         .forEach(e -> {
-                             repositoryFileAttributes.put(e.getKey(),
-                                                          e.getValue());
-                             repositoryPath.cachedAttributes.put(e.getKey(),
-                                                                 e.getValue());
-                         });
-        }
+        Map<RepositoryFileAttributeType, Object> repositoryFileAttributes = readRepositoryFileAttributes(repositoryPath,
+                                                                                                     RepositoryFiles.parseAttributes(attributes));
 
         result.putAll(repositoryFileAttributes.entrySet()
                                               .stream()
@@ -585,6 +568,36 @@ public abstract class StorageFileSystemProvider
         return result;
     }
 
+    /**
+     * Resolves the requested attributes through the {@link RepositoryPath} attributes snapshot, so every attribute is
+     * computed by the layout only once per path instance (until the path content changed).
+     */
+    protected Map<RepositoryFileAttributeType, Object> readRepositoryFileAttributes(RepositoryPath repositoryPath,
+                                                                                    Set<RepositoryFileAttributeType> attributeTypes)
+        throws IOException
+    {
+        Map<RepositoryFileAttributeType, Optional<Object>> cachedAttributes = repositoryPath.getCachedAttributes();
+
+        Set<RepositoryFileAttributeType> missingAttributes = attributeTypes.stream()
+                                                                           .filter(a -> !cachedAttributes.containsKey(a))
+                                                                           .collect(Collectors.toSet());
+        Map<RepositoryFileAttributeType, Optional<Object>> snapshot = cachedAttributes;
+        if (!missingAttributes.isEmpty())
+        {
+            Map<RepositoryFileAttributeType, Object> newAttributes = getRepositoryFileAttributes(repositoryPath,
+                                                                                                 missingAttributes.toArray(new RepositoryFileAttributeType[missingAttributes.size()]));
+            snapshot = repositoryPath.cacheAttributes(missingAttributes, newAttributes);
+        }
+
+        Map<RepositoryFileAttributeType, Object> result = new HashMap<>();
+        for (RepositoryFileAttributeType attributeType : attributeTypes)
+        {
+            snapshot.get(attributeType).ifPresent(v -> result.put(attributeType, v));
+        }
+
+        return result;
+    }
+
     protected abstract Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryRelativePath,
                                                                                             RepositoryFileAttributeType... attributeTypes)
         throws IOException;
@@ -598,6 +611,14 @@ public abstract class StorageFileSystemProvider
         getTarget().setAttribute(unwrap(path), attribute, value, options);
     }
 
+    private void invalidateAttributes(Path path)
+    {
+        if (path instanceof RepositoryPath)
+        {
+            ((RepositoryPath) path).invalidateAttributes();
+        }
+    }
+
     protected Path unwrap(Path path)
     {
         return path instanceof RepositoryPath ? ((RepositoryPath) path).getTarget() : path;
@@ -650,12 +671,14 @@ public abstract class StorageFileSystemProvider
         }
     }
 
-    
-    private class TempOutputStream extends ProxyOutputStream
+
+    public class TempOutputStream extends ProxyOutputStream
     {
 
         private TempRepositoryPath path;
 
+        private boolean aborted;
+
         public TempOutputStream(TempRepositoryPath path,
                                 OpenOption... options)
             throws IOException
@@ -665,6 +688,22 @@ public abstract class StorageFileSystemProvider
             this.path = path;
         }
 
+        /**
+         * Marks the stream as failed, so the temporary file will be removed on
+         * {@link #close()} instead of being moved into the original location.
+         */
+        public void abort()
+        {
+            logger.debug(String.format("Aborting [%s]", path.getTarget()));
+
+            aborted = true;
+        }
+
+        public boolean isAborted()
+        {
+            return aborted;
+        }
+
         @Override
         public void close()
             throws IOException
@@ -673,8 +712,11 @@ public abstract class StorageFileSystemProvider
 
             try
             {
-                moveFromTemporaryDirectory(path);
-            } 
+                if (!aborted)
+                {
+                    moveFromTemporaryDirectory(path);
+                }
+            }
             finally
             {
                 if (Files.exists(path))
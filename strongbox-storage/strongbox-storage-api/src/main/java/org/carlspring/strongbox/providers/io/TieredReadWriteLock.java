@@ -0,0 +1,209 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Supplier;
+
+import com.google.common.base.Suppliers;
+
+/**
+ * {@link ReadWriteLock} which takes the local (in-JVM) lock first, and then
+ * escalates to the distributed lock only when it's needed: for the write
+ * locks, or for the read locks when clustering enabled. <br>
+ * The distributed lock instance is created lazily, so the plain reads on a
+ * single node don't touch the cluster at all.
+ */
+class TieredReadWriteLock implements ReadWriteLock
+{
+
+    private final ReadWriteLock localLock;
+
+    private final Supplier<ReadWriteLock> distributedLock;
+
+    private final boolean clustered;
+
+    private final LockWaitStatistics localLockStatistics;
+
+    private final LockWaitStatistics distributedLockStatistics;
+
+    TieredReadWriteLock(ReadWriteLock localLock,
+                        Supplier<ReadWriteLock> distributedLock,
+                        boolean clustered,
+                        LockWaitStatistics localLockStatistics,
+                        LockWaitStatistics distributedLockStatistics)
+    {
+        this.localLock = localLock;
+        this.distributedLock = Suppliers.memoize(distributedLock::get);
+        this.clustered = clustered;
+        this.localLockStatistics = localLockStatistics;
+        this.distributedLockStatistics = distributedLockStatistics;
+    }
+
+    @Override
+    public Lock readLock()
+    {
+        return new TieredLock(localLock.readLock(), clustered ? () -> distributedLock.get().readLock() : null);
+    }
+
+    @Override
+    public Lock writeLock()
+    {
+        return new TieredLock(localLock.writeLock(), () -> distributedLock.get().writeLock());
+    }
+
+    private class TieredLock implements Lock
+    {
+
+        private final Lock local;
+
+        private final Supplier<Lock> distributed;
+
+        private TieredLock(Lock local,
+                           Supplier<Lock> distributed)
+        {
+            this.local = local;
+            this.distributed = distributed == null ? null : Suppliers.memoize(distributed::get);
+        }
+
+        @Override
+        public void lock()
+        {
+            long start = System.nanoTime();
+            local.lock();
+            localLockStatistics.record(System.nanoTime() - start);
+
+            if (distributed == null)
+            {
+                return;
+            }
+
+            start = System.nanoTime();
+            try
+            {
+                distributed.get().lock();
+            }
+            catch (RuntimeException e)
+            {
+                local.unlock();
+
+                throw e;
+            }
+            distributedLockStatistics.record(System.nanoTime() - start);
+        }
+
+        @Override
+        public void lockInterruptibly()
+            throws InterruptedException
+        {
+            long start = System.nanoTime();
+            local.lockInterruptibly();
+            localLockStatistics.record(System.nanoTime() - start);
+
+            if (distributed == null)
+            {
+                return;
+            }
+
+            start = System.nanoTime();
+            try
+            {
+                distributed.get().lockInterruptibly();
+            }
+            catch (InterruptedException | RuntimeException e)
+            {
+                local.unlock();
+
+                throw e;
+            }
+            distributedLockStatistics.record(System.nanoTime() - start);
+        }
+
+        @Override
+        public boolean tryLock()
+        {
+            if (!local.tryLock())
+            {
+                return false;
+            }
+            if (distributed == null)
+            {
+                return true;
+            }
+
+            boolean result = false;
+            try
+            {
+                result = distributed.get().tryLock();
+            }
+            finally
+            {
+                if (!result)
+                {
+                    local.unlock();
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        public boolean tryLock(long time,
+                               TimeUnit unit)
+            throws InterruptedException
+        {
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            if (!local.tryLock(time, unit))
+            {
+                return false;
+            }
+            if (distributed == null)
+            {
+                return true;
+            }
+
+            boolean result = false;
+            try
+            {
+                result = distributed.get().tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+            finally
+            {
+                if (!result)
+                {
+                    local.unlock();
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        public void unlock()
+        {
+            try
+            {
+                if (distributed != null)
+                {
+                    distributed.get().unlock();
+                }
+            }
+            finally
+            {
+                local.unlock();
+            }
+        }
+
+        /**
+         * Not supported, see {@link RepositoryPathLock#lock(RepositoryPath)}.
+         */
+        @Override
+        public Condition newCondition()
+        {
+            throw new UnsupportedOperationException("The repository path locks don't support conditions.");
+        }
+
+    }
+
+}
@@ -7,6 +7,7 @@ import java.nio.file.Files;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -16,6 +17,7 @@ import javax.inject.Inject;
 import org.apache.commons.codec.digest.MessageDigestAlgorithms;
 import org.carlspring.strongbox.artifact.ArtifactGroup;
 import org.carlspring.strongbox.artifact.archive.ArchiveListingFunction;
+import org.carlspring.strongbox.artifact.archive.ArchiveListingOutputStream;
 import org.carlspring.strongbox.artifact.archive.Bzip2ArchiveListingFunction;
 import org.carlspring.strongbox.artifact.archive.CompositeArchiveListingFunction;
 import org.carlspring.strongbox.artifact.archive.TarArchiveListingFunction;
@@ -23,6 +25,8 @@ import org.carlspring.strongbox.artifact.archive.TarGzArchiveListingFunction;
 import org.carlspring.strongbox.artifact.archive.ZipArchiveListingFunction;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.domain.ArtifactArchiveListing;
+import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 import org.carlspring.strongbox.providers.datastore.StorageProviderRegistry;
 import org.carlspring.strongbox.providers.io.LayoutFileSystem;
@@ -208,8 +212,18 @@ public abstract class AbstractLayoutProvider<T extends ArtifactCoordinates>
     }
 
     @Override
+    /**
+     * The TAR and TAR.GZ archives, which were listed while they were stored (see
+     * {@link ArchiveListingOutputStream}), are not read again.
+     */
     public Set<String> listArchiveFilenames(final RepositoryPath repositoryPath)
     {
+        Set<String> storedFilenames = getStoredArchiveFilenames(repositoryPath);
+        if (!storedFilenames.isEmpty())
+        {
+            return storedFilenames;
+        }
+
         if (ARCHIVE_LISTING_FUNCTION.supports(repositoryPath))
         {
             try
@@ -225,6 +239,31 @@ public abstract class AbstractLayoutProvider<T extends ArtifactCoordinates>
         return Collections.emptySet();
     }
 
+    private Set<String> getStoredArchiveFilenames(final RepositoryPath repositoryPath)
+    {
+        if (!ArchiveListingOutputStream.supports(repositoryPath))
+        {
+            return Collections.emptySet();
+        }
+
+        try
+        {
+            ArtifactArchiveListing artifactArchiveListing = Optional.ofNullable(repositoryPath.getArtifactEntry())
+                                                                    .map(ArtifactEntry::getArtifactArchiveListing)
+                                                                    .orElse(null);
+            if (artifactArchiveListing != null && artifactArchiveListing.getFilenames() != null)
+            {
+                return artifactArchiveListing.getFilenames();
+            }
+        }
+        catch (IOException e)
+        {
+            logger.debug(String.format("Unable to get the stored archive listing of [%s].", repositoryPath), e);
+        }
+
+        return Collections.emptySet();
+    }
+
     @Override
     public Set<ArtifactGroup> getArtifactGroups(RepositoryPath path)
             throws IOException
@@ -3,20 +3,24 @@ package org.carlspring.strongbox.providers.layout;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.nio.file.spi.FileSystemProvider;
 import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
 import org.carlspring.commons.io.reloading.FSReloadableInputStreamHandler;
 import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
+import org.carlspring.strongbox.artifact.archive.ArchiveListingOutputStream;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.event.repository.RepositoryEventListenerRegistry;
@@ -26,7 +30,7 @@ import org.carlspring.strongbox.io.LayoutOutputStream;
 import org.carlspring.strongbox.io.LazyInputStream;
 import org.carlspring.strongbox.io.LazyOutputStream;
 import org.carlspring.strongbox.io.LazyOutputStream.OutputStreamSupplier;
-import org.carlspring.strongbox.io.StreamUtils;
+import org.carlspring.strongbox.io.MultipleDigestEngine;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -35,6 +39,7 @@ import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.storage.ArtifactResolutionException;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.util.MessageDigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -138,7 +143,11 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
 
             try
             {
-                return decorateStream((RepositoryPath) path, super.newOutputStream(path, options));
+                RepositoryPath repositoryPath = (RepositoryPath) path;
+
+                return ArchiveListingOutputStream.decorate(repositoryPath,
+                                                           decorateStream(repositoryPath,
+                                                                          super.newOutputStream(path, options)));
             }
             catch (NoSuchAlgorithmException e)
             {
@@ -174,68 +183,72 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
         return result;
     }
     
-    public void storeChecksum(RepositoryPath basePath,
-                              boolean forceRegeneration)
+    /**
+     * Calculates and stores the checksums of the given file. Unless forced, only the missing checksums, or those older
+     * than the file itself, are stored, and the file is not read at all if all its checksums are up to date.
+     *
+     * @return the number of bytes digested, or `-1` if the checksums were up to date
+     */
+    public long writeChecksum(RepositoryPath path,
+                              boolean force)
             throws IOException
     {
-        Files.walk(basePath)
-             .filter(p -> !Files.isDirectory(p))
-             .filter(p -> {
-                 try
-                 {
-                     return !Boolean.TRUE.equals(RepositoryFiles.isChecksum((RepositoryPath) p));
-                 }
-                 catch (IOException e)
-                 {
-                     logger.error(String.format("Failed to read attributes for [%s]", p), e);
-                 }
-                 return false;
-             })
-             .forEach(p -> {
-                 try
-                 {
-                     writeChecksum((RepositoryPath) p, forceRegeneration);
-                 }
-                 catch (IOException e)
-                 {
-                     logger.error(String.format("Failed to write checksum for [%s]", p), e);
-                 }
-             });
-    }
+        Set<String> digestAlgorithmSet = path.getFileSystem().getDigestAlgorithmSet();
+        FileTime lastModifiedTime = Files.getLastModifiedTime(path);
+
+        Set<String> targetAlgorithmSet = digestAlgorithmSet.stream()
+                                                           .filter(a -> force
+                                                                   || !isChecksumUpToDate(getChecksumPath(path, a),
+                                                                                          lastModifiedTime))
+                                                           .collect(Collectors.toSet());
+        if (targetAlgorithmSet.isEmpty())
+        {
+            return -1;
+        }
 
-    
-    protected void writeChecksum(RepositoryPath path,
-                                 boolean force)
-            throws IOException
-    {
-        try (InputStream is = newInputStream(path))
+        Map<String, String> checksums;
+        long size;
+        try (SeekableByteChannel channel = Files.newByteChannel(path))
+        {
+            MultipleDigestEngine digestEngine = new MultipleDigestEngine(targetAlgorithmSet);
+            size = digestEngine.update(channel);
+
+            checksums = digestEngine.digest(MessageDigestUtils::convertToHexadecimalString);
+        }
+        catch (NoSuchAlgorithmException e)
         {
-            byte[] buffer = new byte[1024];
-            while (is.read(buffer) > 0)
+            throw new IOException(e);
+        }
+
+        checksums.forEach((algorithm, checksum) -> {
+            RepositoryPath checksumPath = getChecksumPath(path, algorithm);
+            try
             {
-                //calculate checksum while reading the stream
+                Files.write(checksumPath, checksum.getBytes());
             }
-            Set<String> digestAlgorithmSet = path.getFileSystem().getDigestAlgorithmSet();
-            digestAlgorithmSet.stream()
-                              .forEach(p ->
-                                       {
-                                           String checksum = StreamUtils.findSource(LayoutInputStream.class, is)
-                                                                        .getMessageDigestAsHexadecimalString(p);
-                                           RepositoryPath checksumPath = getChecksumPath(path, p);
-                                           if (Files.exists(checksumPath) && !force)
-                                           {
-                                               return;
-                                           }
-                                           try
-                                           {
-                                               Files.write(checksumPath, checksum.getBytes());
-                                           }
-                                           catch (IOException e)
-                                           {
-                                               logger.error(String.format("Failed to write checksum for [%s]",
-                                                                          checksumPath.toString()), e);
-                                           }
-                                       });
+            catch (IOException e)
+            {
+                logger.error(String.format("Failed to write checksum for [%s]",
+                                           checksumPath.toString()), e);
+            }
+        });
+
+        return size;
+    }
+
+    private boolean isChecksumUpToDate(RepositoryPath checksumPath,
+                                       FileTime lastModifiedTime)
+    {
+        try
+        {
+            return Files.exists(checksumPath)
+                    && Files.getLastModifiedTime(checksumPath).compareTo(lastModifiedTime) >= 0;
+        }
+        catch (IOException e)
+        {
+            logger.warn(String.format("Failed to read attributes for [%s]", checksumPath), e);
+
+            return false;
         }
     }
 
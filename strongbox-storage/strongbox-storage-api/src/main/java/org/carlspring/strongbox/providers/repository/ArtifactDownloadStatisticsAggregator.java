@@ -0,0 +1,466 @@
+package org.carlspring.strongbox.providers.repository;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.orientechnologies.common.concur.ONeedRetryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Write-behind aggregator of the artifact downloads. <br>
+ * The downloads are counted in memory (a striped {@link LongAdder} per artifact), without any locks or
+ * transactions, and the accumulated {@link ArtifactEntry#getDownloadCount()} and {@link ArtifactEntry#getLastUsed()}
+ * updates are written into the database in batches, every `flushIntervalSeconds` or every `flushThreshold`
+ * downloads, whatever comes first, and on shutdown.
+ */
+@Component
+public class ArtifactDownloadStatisticsAggregator
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactDownloadStatisticsAggregator.class);
+
+    private static final int MAX_RETRY = 10;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${strongbox.artifact.downloadStatistics.flushIntervalSeconds:10}")
+    private int flushIntervalSeconds;
+
+    @Value("${strongbox.artifact.downloadStatistics.flushThreshold:1000}")
+    private long flushThreshold;
+
+    @Value("${strongbox.artifact.downloadStatistics.batchSize:100}")
+    private int batchSize;
+
+    private final ConcurrentMap<String, DownloadCounter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * The counters removed from {@link #counters} during the previous flush. Some download could still increment
+     * them right after the removal, so they are flushed once more before being dropped.
+     */
+    private List<DownloadCounter> retiredCounters = new ArrayList<>();
+
+    private final LongAdder pendingDownloads = new LongAdder();
+
+    /**
+     * Time of the oldest download which was not flushed yet, `0` if there are no such downloads.
+     */
+    private final AtomicLong pendingSince = new AtomicLong();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final LongAdder flushedDownloads = new LongAdder();
+
+    private final LongAdder failedFlushes = new LongAdder();
+
+    private volatile long lastFlushTime;
+
+    private volatile long lastFlushDuration;
+
+    private ScheduledExecutorService executor;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("artifact-download-statistics")
+                                                                .setDaemon(true)
+                                                                .build();
+        executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        executor.scheduleWithFixedDelay(this::flushQuietly,
+                                        flushIntervalSeconds,
+                                        flushIntervalSeconds,
+                                        TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy()
+        throws InterruptedException
+    {
+        executor.shutdown();
+        executor.awaitTermination(flushIntervalSeconds, TimeUnit.SECONDS);
+
+        flush();
+    }
+
+    public void downloaded(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        Repository repository = repositoryPath.getRepository();
+
+        downloaded(repository.getStorage().getId(), repository.getId(), RepositoryFiles.relativizePath(repositoryPath));
+    }
+
+    public void downloaded(String storageId,
+                           String repositoryId,
+                           String path)
+    {
+        String key = storageId + ":" + repositoryId + ":" + path;
+
+        DownloadCounter counter = counters.get(key);
+        if (counter == null)
+        {
+            counter = counters.computeIfAbsent(key, k -> new DownloadCounter(key, storageId, repositoryId, path));
+        }
+
+        long now = System.currentTimeMillis();
+        counter.downloaded(now);
+        pendingDownloads.increment();
+        pendingSince.compareAndSet(0, now);
+
+        if (pendingDownloads.sum() >= flushThreshold && executor != null && flushScheduled.compareAndSet(false, true))
+        {
+            executor.execute(this::flushQuietly);
+        }
+    }
+
+    private void flushQuietly()
+    {
+        try
+        {
+            flush();
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to flush artifact download statistics.", e);
+        }
+    }
+
+    /**
+     * Writes all the downloads counted so far into the database. The downloads which failed to be written are kept
+     * and written with the next flush.
+     */
+    public synchronized void flush()
+    {
+        flushScheduled.set(false);
+
+        long startTime = System.currentTimeMillis();
+        long since = pendingSince.getAndSet(0);
+
+        List<DownloadCounter> retired = new ArrayList<>();
+        List<DownloadDelta> deltas = new ArrayList<>();
+        for (DownloadCounter counter : retiredCounters)
+        {
+            counter.delta().ifPresent(deltas::add);
+        }
+        for (DownloadCounter counter : counters.values())
+        {
+            DownloadDelta delta = counter.delta().orElse(null);
+            if (delta != null)
+            {
+                deltas.add(delta);
+            }
+            else if (counters.remove(counter.key, counter))
+            {
+                // Nothing downloaded since the previous flush.
+                retired.add(counter);
+            }
+        }
+
+        boolean failed = false;
+        for (int i = 0; i < deltas.size(); i += batchSize)
+        {
+            List<DownloadDelta> batch = deltas.subList(i, Math.min(i + batchSize, deltas.size()));
+            try
+            {
+                writeWithRetry(batch);
+            }
+            catch (Exception e)
+            {
+                failed = true;
+                failedFlushes.increment();
+                logger.error(String.format("Failed to flush [%s] artifact download statistics.", batch.size()), e);
+
+                continue;
+            }
+
+            for (DownloadDelta delta : batch)
+            {
+                delta.counter.flushed(delta);
+                pendingDownloads.add(-delta.downloads);
+                flushedDownloads.add(delta.downloads);
+            }
+        }
+
+        if (failed)
+        {
+            // Keep the failed downloads lag, as well as their counters.
+            pendingSince.accumulateAndGet(since, (a, b) -> a == 0 ? b : Math.min(a, b));
+            for (DownloadCounter counter : retiredCounters)
+            {
+                if (!counter.isPending())
+                {
+                    continue;
+                }
+
+                DownloadCounter current = counters.putIfAbsent(counter.key, counter);
+                if (current != null)
+                {
+                    // The artifact was downloaded again since its counter was retired.
+                    counter.mergeInto(current);
+                    retired.add(counter);
+                }
+            }
+        }
+        retiredCounters = retired;
+
+        lastFlushTime = System.currentTimeMillis();
+        lastFlushDuration = lastFlushTime - startTime;
+
+        if (!deltas.isEmpty())
+        {
+            logger.debug(String.format("Flushed artifact download statistics: %s", this));
+        }
+    }
+
+    private void writeWithRetry(List<DownloadDelta> batch)
+        throws InterruptedException
+    {
+        for (int i = 1; i <= MAX_RETRY; i++)
+        {
+            try
+            {
+                new TransactionTemplate(transactionManager).execute(t -> {
+                    batch.forEach(this::write);
+
+                    return null;
+                });
+
+                return;
+            }
+            catch (ONeedRetryException e)
+            {
+                if (i >= MAX_RETRY)
+                {
+                    throw e;
+                }
+
+                logger.debug(String.format("Retry artifact download statistics flush, attempt [%s].", i));
+            }
+
+            Thread.sleep(10);
+        }
+    }
+
+    private void write(DownloadDelta delta)
+    {
+        DownloadCounter counter = delta.counter;
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(counter.storageId,
+                                                                           counter.repositoryId,
+                                                                           counter.path);
+        if (artifactEntry == null)
+        {
+            logger.debug(String.format("Artifact [%s] not found, skip download statistics.", counter.key));
+
+            return;
+        }
+
+        // The stored count is an integer, so it's saturated instead of being overflowed.
+        long downloadCount = Optional.ofNullable(artifactEntry.getDownloadCount()).orElse(0) + delta.downloads;
+        artifactEntry.setDownloadCount((int) Math.min(downloadCount, Integer.MAX_VALUE));
+
+        Date lastUsed = artifactEntry.getLastUsed();
+        if (lastUsed == null || lastUsed.getTime() < delta.lastUsed)
+        {
+            artifactEntry.setLastUsed(new Date(delta.lastUsed));
+        }
+
+        artifactEntryService.save(artifactEntry);
+    }
+
+    public long getPendingDownloads()
+    {
+        return pendingDownloads.sum();
+    }
+
+    public long getFlushedDownloads()
+    {
+        return flushedDownloads.sum();
+    }
+
+    public long getFailedFlushes()
+    {
+        return failedFlushes.sum();
+    }
+
+    /**
+     * @return how long the oldest not flushed download is waiting to be written into the database, in milliseconds
+     */
+    public long getFlushLag()
+    {
+        long since = pendingSince.get();
+
+        return since == 0 ? 0 : System.currentTimeMillis() - since;
+    }
+
+    public long getLastFlushTime()
+    {
+        return lastFlushTime;
+    }
+
+    public long getLastFlushDuration()
+    {
+        return lastFlushDuration;
+    }
+
+    public void setFlushIntervalSeconds(int flushIntervalSeconds)
+    {
+        this.flushIntervalSeconds = flushIntervalSeconds;
+    }
+
+    public void setFlushThreshold(long flushThreshold)
+    {
+        this.flushThreshold = flushThreshold;
+    }
+
+    public void setBatchSize(int batchSize)
+    {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("pending-[%s]; flushed-[%s]; failed-flushes-[%s]; lag-[%s]ms; last-flush-duration-[%s]ms",
+                             getPendingDownloads(),
+                             getFlushedDownloads(),
+                             getFailedFlushes(),
+                             getFlushLag(),
+                             getLastFlushDuration());
+    }
+
+    private static class DownloadCounter
+    {
+
+        private final String key;
+
+        private final String storageId;
+
+        private final String repositoryId;
+
+        private final String path;
+
+        private final LongAdder downloads = new LongAdder();
+
+        private volatile long lastUsed;
+
+        /**
+         * Accessed only by the flushing thread.
+         */
+        private long flushedDownloads;
+
+        DownloadCounter(String key,
+                        String storageId,
+                        String repositoryId,
+                        String path)
+        {
+            this.key = key;
+            this.storageId = storageId;
+            this.repositoryId = repositoryId;
+            this.path = path;
+        }
+
+        void downloaded(long time)
+        {
+            downloads.increment();
+            if (lastUsed < time)
+            {
+                lastUsed = time;
+            }
+        }
+
+        boolean isPending()
+        {
+            return downloads.sum() > flushedDownloads;
+        }
+
+        Optional<DownloadDelta> delta()
+        {
+            // The total is never reset, so the concurrent downloads are never lost.
+            long total = downloads.sum();
+            if (total == flushedDownloads)
+            {
+                return Optional.empty();
+            }
+
+            return Optional.of(new DownloadDelta(this, total, total - flushedDownloads, lastUsed));
+        }
+
+        void flushed(DownloadDelta delta)
+        {
+            flushedDownloads = delta.total;
+        }
+
+        /**
+         * Moves the not flushed downloads of this counter into the given one. The downloads which still could
+         * increment this counter afterwards are flushed with its next {@link #delta()}.
+         */
+        void mergeInto(DownloadCounter counter)
+        {
+            long total = downloads.sum();
+            counter.downloads.add(total - flushedDownloads);
+            if (counter.lastUsed < lastUsed)
+            {
+                counter.lastUsed = lastUsed;
+            }
+            flushedDownloads = total;
+        }
+
+    }
+
+    private static class DownloadDelta
+    {
+
+        private final DownloadCounter counter;
+
+        private final long total;
+
+        private final long downloads;
+
+        private final long lastUsed;
+
+        DownloadDelta(DownloadCounter counter,
+                      long total,
+                      long downloads,
+                      long lastUsed)
+        {
+            this.counter = counter;
+            this.total = total;
+            this.downloads = downloads;
+            this.lastUsed = lastUsed;
+        }
+
+    }
+
+}
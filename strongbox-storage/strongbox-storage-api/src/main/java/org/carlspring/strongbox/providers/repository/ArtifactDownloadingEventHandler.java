@@ -1,32 +1,43 @@
 package org.carlspring.strongbox.providers.repository;
 
 import java.io.IOException;
-import java.util.Date;
 
-import org.carlspring.strongbox.artifact.AsyncArtifactEntryHandler;
-import org.carlspring.strongbox.domain.ArtifactEntry;
+import javax.inject.Inject;
+
+import org.carlspring.strongbox.event.AsyncEventListener;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
 import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.springframework.stereotype.Component;
 
+/**
+ * Counts the artifact downloads, the counts are written into the database by the
+ * {@link ArtifactDownloadStatisticsAggregator} in batches.
+ */
 @Component
-public class ArtifactDownloadingEventHandler extends AsyncArtifactEntryHandler
+public class ArtifactDownloadingEventHandler
 {
 
-    public ArtifactDownloadingEventHandler()
-    {
-        super(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_DOWNLOADING);
-    }
+    @Inject
+    private ArtifactDownloadStatisticsAggregator artifactDownloadStatisticsAggregator;
 
-    @Override
-    protected ArtifactEntry handleEvent(RepositoryPath repositoryPath) throws IOException
+    @AsyncEventListener
+    public void handleEvent(final ArtifactEvent<RepositoryPath> event)
+        throws IOException
     {
-        ArtifactEntry artifactEntry = repositoryPath.getArtifactEntry();
-        
-        artifactEntry.setDownloadCount(artifactEntry.getDownloadCount() + 1);
-        artifactEntry.setLastUsed(new Date());
+        if (ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_DOWNLOADING.getType() != event.getType())
+        {
+            return;
+        }
+
+        RepositoryPath repositoryPath = (RepositoryPath) event.getPath();
+        if (!RepositoryFiles.isArtifact(repositoryPath))
+        {
+            return;
+        }
 
-        return artifactEntry;
+        artifactDownloadStatisticsAggregator.downloaded(repositoryPath);
     }
 
 }
@@ -6,12 +6,14 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -32,9 +34,11 @@ import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.repository.event.GroupRepositoryPathFetchEvent;
 import org.carlspring.strongbox.providers.repository.group.GroupRepositorySetCollector;
+import org.carlspring.strongbox.providers.repository.group.ParallelGroupRepositoryPathResolver;
 import org.carlspring.strongbox.services.support.ArtifactRoutingRulesChecker;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.util.ThrowingConsumer;
 import org.carlspring.strongbox.util.ThrowingFunction;
 
 import org.slf4j.Logger;
@@ -62,6 +66,9 @@ public class GroupRepositoryProvider
     @Inject
     private GroupRepositorySetCollector groupRepositorySetCollector;
 
+    @Inject
+    private ParallelGroupRepositoryPathResolver parallelGroupRepositoryPathResolver;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -93,6 +100,11 @@ public class GroupRepositoryProvider
             return result;
         }
 
+        if (parallelGroupRepositoryPathResolver.isEnabled())
+        {
+            return parallelGroupRepositoryPathResolver.resolve(repositoryPath);
+        }
+
         return resolvePathTraversal(repositoryPath);
     }
 
@@ -216,6 +228,11 @@ public class GroupRepositoryProvider
             return new LinkedList<>();
         }
 
+        if (paginator.isKeyset())
+        {
+            return searchKeyset(groupRepositorySet, predicate, paginator);
+        }
+
         int skip = paginator.getSkip();
         int limit = paginator.getLimit();
 
@@ -280,6 +297,41 @@ public class GroupRepositoryProvider
         return resultList.subList(skip, toIndex);
     }
 
+    /**
+     * Every member page starts after the same {@link RepositoryProvider#KEYSET_PROPERTY} value, so the group page is
+     * just the first paths of the merged member pages, and the paths of the same artifact within the different members
+     * are merged by their coordinates path.
+     */
+    private List<Path> searchKeyset(Set<Repository> groupRepositorySet,
+                                    Predicate predicate,
+                                    Paginator paginator)
+    {
+        Paginator paginatorLocal = new Paginator();
+        paginatorLocal.setLimit(paginator.getLimit());
+        paginatorLocal.setProperty(KEYSET_PROPERTY);
+        paginatorLocal.setOrder(paginator.getOrder());
+        paginatorLocal.setKeyset(true);
+        paginatorLocal.setAfter(paginator.getAfter());
+
+        Comparator<String> order = Paginator.Order.DESC.equals(paginator.getOrder()) ? Comparator.reverseOrder()
+                                                                                      : Comparator.naturalOrder();
+        Map<String, Path> resultMap = new TreeMap<>(order);
+
+        for (Repository r : groupRepositorySet)
+        {
+            RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(r.getType());
+
+            repositoryProvider.search(r.getStorage().getId(), r.getId(), predicate, paginatorLocal)
+                              .forEach(ThrowingConsumer.unchecked((Path p) -> resultMap.putIfAbsent(
+                                      getArtifactCoordinates(p).toPath(), p)));
+        }
+
+        return resultMap.values()
+                        .stream()
+                        .limit(paginator.getLimit())
+                        .collect(Collectors.toCollection(LinkedList::new));
+    }
+
     private ArtifactCoordinates getArtifactCoordinates(Path p) throws IOException
     {
         return RepositoryFiles.readCoordinates((RepositoryPath) p);
@@ -25,6 +25,7 @@ import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.services.support.ArtifactCoordinatesSearchIndex;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 
@@ -48,6 +49,9 @@ public class HostedRepositoryProvider extends AbstractRepositoryProvider
     
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private ArtifactCoordinatesSearchIndex artifactCoordinatesSearchIndex;
     
     @Override
     public String getAlias()
@@ -93,7 +97,8 @@ public class HostedRepositoryProvider extends AbstractRepositoryProvider
         Storage storage = configurationManager.getConfiguration().getStorage(storageId);
         Repository repository = storage.getRepository(repositoryId);
         
-        Selector<ArtifactEntry> selector = createSelector(storageId, repositoryId, predicate).with(paginator).fetch();
+        Selector<ArtifactEntry> selector = createSelector(storageId, repositoryId, predicate);
+        selector.with(keysetPaginator(paginator)).fetch();
         
         QueryTemplate<List<ArtifactEntry>, ArtifactEntry> queryTemplate = new DetachQueryTemplate<>(entityManager);
         
@@ -117,6 +122,29 @@ public class HostedRepositoryProvider extends AbstractRepositoryProvider
         return result;
     }
 
+    /**
+     * The {@link RepositoryProvider#KEYSET_PROPERTY} is reached through the coordinates link, until the entries are
+     * migrated and it's indexed. Both properties have the same values, so do the page cursors.
+     */
+    private Paginator keysetPaginator(Paginator paginator)
+    {
+        if (paginator == null || !paginator.isKeyset() || !KEYSET_PROPERTY.equals(paginator.getProperty())
+                || artifactCoordinatesSearchIndex.isReady())
+        {
+            return paginator;
+        }
+
+        Paginator paginatorLocal = new Paginator();
+        paginatorLocal.setSkip(paginator.getSkip());
+        paginatorLocal.setLimit(paginator.getLimit());
+        paginatorLocal.setProperty(KEYSET_FALLBACK_PROPERTY);
+        paginatorLocal.setOrder(paginator.getOrder());
+        paginatorLocal.setKeyset(true);
+        paginatorLocal.setAfter(paginator.getAfter());
+
+        return paginatorLocal;
+    }
+
     @Override
     public Long count(String storageId,
                       String repositoryId,
@@ -12,6 +12,7 @@ import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.providers.repository.event.ProxyRepositoryPathExpiredEvent;
 import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
 import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryFetchRegistry;
 
 import javax.inject.Inject;
 import java.io.IOException;
@@ -49,6 +50,9 @@ public class ProxyRepositoryProvider
     @Inject
     private RepositoryPathLock repositoryPathLock;
 
+    @Inject
+    private ProxyRepositoryFetchRegistry proxyRepositoryFetchRegistry;
+
     @Override
     public String getAlias()
     {
@@ -83,6 +87,15 @@ public class ProxyRepositoryProvider
     private RepositoryPath resolvePathExclusive(RepositoryPath repositoryPath)
             throws IOException
     {
+        // Concurrent requests for the same path within this node share the single remote fetch.
+        return proxyRepositoryFetchRegistry.fetch(repositoryPath,
+                                                  () -> resolvePathLocked(repositoryPath),
+                                                  () -> hostedRepositoryProvider.fetchPath(repositoryPath));
+    }
+
+    private RepositoryPath resolvePathLocked(RepositoryPath repositoryPath)
+            throws IOException
+    {
 
         ReadWriteLock lockSource = repositoryPathLock.lock(repositoryPath, "pre-remote-fetch");
         Lock lock = lockSource.writeLock();
@@ -0,0 +1,481 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dedicated executor for the group repository members fetches (resolution and layout specific aggregation), which
+ * are mostly blocking remote calls. <br>
+ * The executor is bounded by `maxThreads` and `queueSize`; once saturated, the fetches are executed within the
+ * caller thread, so they are slowed down rather than rejected. Also, there are at most
+ * `maxConcurrentFetchesPerRemote` fetches in flight to the same remote host: the rest wait in the queue of their
+ * remote, without taking the executor threads, so one slow remote can't take all the threads. The queue of the remote
+ * is bounded by `queueSize` as well, and once it's full the fetches are executed within the caller thread. <br>
+ * The fetches submitted from within another fetch (the nested group repositories) are executed right away within
+ * the same thread, because the fetch threads waiting for the queued nested fetches could take all the threads.
+ */
+@Component
+public class GroupRepositoryFetchExecutor
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupRepositoryFetchExecutor.class);
+
+    private static final String LOCAL = "local";
+
+    @Value("${strongbox.group.fetch.maxThreads:32}")
+    private int maxThreads;
+
+    @Value("${strongbox.group.fetch.queueSize:1024}")
+    private int queueSize;
+
+    @Value("${strongbox.group.fetch.maxConcurrentFetchesPerRemote:8}")
+    private int maxConcurrentFetchesPerRemote;
+
+    private final ConcurrentMap<String, RemoteLimit> remoteLimits = new ConcurrentHashMap<>();
+
+    private final LongAdder submittedFetches = new LongAdder();
+
+    private final LongAdder callerRunsFetches = new LongAdder();
+
+    private final LongAdder nestedFetches = new LongAdder();
+
+    /**
+     * `true` within the threads which are executing a fetch.
+     */
+    private final ThreadLocal<Boolean> fetching = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    private ThreadPoolExecutor executor;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        executor = new ThreadPoolExecutor(maxThreads,
+                                          maxThreads,
+                                          60,
+                                          TimeUnit.SECONDS,
+                                          new ArrayBlockingQueue<>(queueSize),
+                                          new CustomizableThreadFactory("group-fetch-"),
+                                          this::rejectedExecution);
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * The saturated executor runs the fetch within the caller thread, the fetch is cancelled once the executor is
+     * shut down (so the caller isn't waiting for it forever).
+     */
+    private void rejectedExecution(Runnable r,
+                                   ThreadPoolExecutor e)
+    {
+        if (e.isShutdown())
+        {
+            ((Future<?>) r).cancel(false);
+
+            return;
+        }
+
+        callerRunsFetches.increment();
+        r.run();
+    }
+
+    @Override
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Submits the fetch from the group member repository.
+     */
+    public <T> Future<T> submit(Repository repository,
+                                Callable<T> fetchAction)
+    {
+        submittedFetches.increment();
+
+        if (fetching.get())
+        {
+            nestedFetches.increment();
+
+            FutureTask<T> result = new FutureTask<>(fetchAction);
+            result.run();
+
+            return result;
+        }
+
+        RemoteLimit remoteLimit = remoteLimits.computeIfAbsent(toRemoteKey(repository),
+                                                              k -> new RemoteLimit(maxConcurrentFetchesPerRemote,
+                                                                                   queueSize));
+
+        FetchTask<T> result = new FetchTask<>(remoteLimit, fetchAction);
+        try
+        {
+            if (remoteLimit.offer(result))
+            {
+                dispatch(result);
+            }
+        }
+        catch (RejectedExecutionException e)
+        {
+            rejectedExecution(result, executor);
+        }
+
+        return result;
+    }
+
+    private void dispatch(FetchTask<?> task)
+    {
+        executor.execute(task);
+
+        maxQueueDepth.accumulateAndGet(executor.getQueue().size(), Math::max);
+    }
+
+    /**
+     * Waits for all the fetches to complete, the failed fetches are logged.
+     */
+    public void awaitAll(Collection<? extends Future<?>> futures)
+        throws InterruptedIOException
+    {
+        for (Future<?> future : futures)
+        {
+            try
+            {
+                future.get();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+
+                throw new InterruptedIOException("Interrupted while fetching from the group members.");
+            }
+            catch (ExecutionException e)
+            {
+                logger.error(e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    private String toRemoteKey(Repository repository)
+    {
+        RemoteRepository remoteRepository = repository.getRemoteRepository();
+        if (!repository.isProxyRepository() || remoteRepository == null || remoteRepository.getUrl() == null)
+        {
+            // The local fetches are limited by the pool only.
+            return LOCAL;
+        }
+
+        String url = remoteRepository.getUrl();
+        try
+        {
+            String authority = URI.create(url).getAuthority();
+
+            return authority == null ? url : authority;
+        }
+        catch (IllegalArgumentException e)
+        {
+            return url;
+        }
+    }
+
+    public int getActiveCount()
+    {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueDepth()
+    {
+        return executor.getQueue().size();
+    }
+
+    public int getMaxQueueDepth()
+    {
+        return maxQueueDepth.get();
+    }
+
+    public long getSubmittedFetches()
+    {
+        return submittedFetches.sum();
+    }
+
+    public long getCompletedFetches()
+    {
+        return executor.getCompletedTaskCount();
+    }
+
+    /**
+     * @return number of the fetches executed within the caller thread, because the executor was saturated
+     */
+    public long getCallerRunsFetches()
+    {
+        return callerRunsFetches.sum();
+    }
+
+    /**
+     * @return number of the fetches executed within the thread of another fetch
+     */
+    public long getNestedFetches()
+    {
+        return nestedFetches.sum();
+    }
+
+    public Map<String, Object> getStatistics()
+    {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("activeCount", getActiveCount());
+        result.put("queueDepth", getQueueDepth());
+        result.put("maxQueueDepth", getMaxQueueDepth());
+        result.put("submittedFetches", getSubmittedFetches());
+        result.put("completedFetches", getCompletedFetches());
+        result.put("callerRunsFetches", getCallerRunsFetches());
+        result.put("nestedFetches", getNestedFetches());
+
+        Map<String, Object> remotes = new LinkedHashMap<>();
+        remoteLimits.forEach((remote, limit) -> {
+            Map<String, Object> remoteStatistics = new LinkedHashMap<>();
+            remoteStatistics.put("inFlight", limit.getInFlight());
+            remoteStatistics.put("waiting", limit.getWaiting());
+            remotes.put(remote, remoteStatistics);
+        });
+        result.put("remotes", remotes);
+
+        return result;
+    }
+
+    public void setMaxThreads(int maxThreads)
+    {
+        this.maxThreads = maxThreads;
+    }
+
+    public void setQueueSize(int queueSize)
+    {
+        this.queueSize = queueSize;
+    }
+
+    public void setMaxConcurrentFetchesPerRemote(int maxConcurrentFetchesPerRemote)
+    {
+        this.maxConcurrentFetchesPerRemote = maxConcurrentFetchesPerRemote;
+    }
+
+    /**
+     * The fetch, which takes its remote slot once dispatched, and passes it to the next waiting fetch of the remote
+     * once the fetch action returns. The cancelled fetch keeps its slot till the action returns, because the action
+     * is not interrupted; only the fetch cancelled before it started passes its slot right away.
+     */
+    private class FetchTask<T>
+            extends FutureTask<T>
+    {
+
+        private final RemoteLimit remoteLimit;
+
+        /**
+         * Guarded by the {@link #remoteLimit}.
+         */
+        private boolean dispatched;
+
+        /**
+         * Guarded by the {@link #remoteLimit}.
+         */
+        private boolean started;
+
+        /**
+         * Guarded by the {@link #remoteLimit}.
+         */
+        private boolean completed;
+
+        FetchTask(RemoteLimit remoteLimit,
+                  Callable<T> fetchAction)
+        {
+            super(() -> {
+                boolean nested = fetching.get();
+                fetching.set(Boolean.TRUE);
+                try
+                {
+                    return fetchAction.call();
+                }
+                finally
+                {
+                    fetching.set(nested);
+                }
+            });
+            this.remoteLimit = remoteLimit;
+        }
+
+        @Override
+        public void run()
+        {
+            if (!remoteLimit.start(this))
+            {
+                // Cancelled before started, the slot is passed with `done()`.
+                return;
+            }
+
+            try
+            {
+                super.run();
+            }
+            finally
+            {
+                complete();
+            }
+        }
+
+        @Override
+        protected void done()
+        {
+            if (!remoteLimit.isStarted(this))
+            {
+                complete();
+            }
+        }
+
+        private void complete()
+        {
+            FetchTask<?> next = remoteLimit.complete(this);
+            if (next != null)
+            {
+                dispatch(next);
+            }
+        }
+
+    }
+
+    private static class RemoteLimit
+    {
+
+        private final int maxInFlight;
+
+        private final int maxWaiting;
+
+        private final Deque<FetchTask<?>> waiting = new ArrayDeque<>();
+
+        private int inFlight;
+
+        RemoteLimit(int maxInFlight,
+                    int maxWaiting)
+        {
+            this.maxInFlight = maxInFlight;
+            this.maxWaiting = maxWaiting;
+        }
+
+        /**
+         * @return `true` if the fetch took the slot and should be dispatched, `false` if it waits for a slot
+         * @throws RejectedExecutionException if there are too many fetches waiting for a slot already
+         */
+        synchronized boolean offer(FetchTask<?> task)
+        {
+            if (inFlight < maxInFlight)
+            {
+                inFlight++;
+                task.dispatched = true;
+
+                return true;
+            }
+
+            if (waiting.size() >= maxWaiting)
+            {
+                throw new RejectedExecutionException("Too many fetches are waiting for the remote.");
+            }
+
+            waiting.add(task);
+
+            return false;
+        }
+
+        /**
+         * @return `false` if the fetch was cancelled before it started
+         */
+        synchronized boolean start(FetchTask<?> task)
+        {
+            if (task.isDone())
+            {
+                return false;
+            }
+
+            task.started = true;
+
+            return true;
+        }
+
+        synchronized boolean isStarted(FetchTask<?> task)
+        {
+            return task.started;
+        }
+
+        /**
+         * @return the next fetch, which took the slot of the completed one and should be dispatched, if any
+         */
+        synchronized FetchTask<?> complete(FetchTask<?> task)
+        {
+            if (!task.dispatched)
+            {
+                // Cancelled while waiting, or executed within the caller thread.
+                waiting.remove(task);
+
+                return null;
+            }
+
+            if (task.completed)
+            {
+                return null;
+            }
+            task.completed = true;
+
+            FetchTask<?> next;
+            while ((next = waiting.poll()) != null)
+            {
+                if (!next.isDone())
+                {
+                    next.dispatched = true;
+
+                    return next;
+                }
+            }
+
+            inFlight--;
+
+            return null;
+        }
+
+        synchronized int getInFlight()
+        {
+            return inFlight;
+        }
+
+        synchronized int getWaiting()
+        {
+            return waiting.size();
+        }
+
+    }
+
+}
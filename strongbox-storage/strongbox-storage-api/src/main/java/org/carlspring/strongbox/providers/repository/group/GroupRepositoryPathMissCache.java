@@ -0,0 +1,153 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import org.carlspring.strongbox.data.CacheName;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short living negative lookups of the group repository members: "the path is not within the member repository".
+ * <br>
+ * The entries are evicted as soon as the path gets stored within the member repository, otherwise they expire
+ * with the `groupMemberPathMisses` cache time to live.
+ */
+@Component
+public class GroupRepositoryPathMissCache
+{
+
+    private final Cache cache;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    @Inject
+    GroupRepositoryPathMissCache(CacheManager cacheManager)
+    {
+        cache = cacheManager.getCache(CacheName.Repository.GROUP_MEMBER_PATH_MISSES);
+        Objects.requireNonNull(cache, "groupMemberPathMisses cache configuration was not provided");
+    }
+
+    /**
+     * @return `true` if the path was recently looked up within the member repository, and not found
+     */
+    public boolean isMissing(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        Repository repository = repositoryPath.getRepository();
+
+        return isMissing(repository.getStorage().getId(),
+                         repository.getId(),
+                         RepositoryFiles.relativizePath(repositoryPath));
+    }
+
+    public boolean isMissing(String storageId,
+                             String repositoryId,
+                             String path)
+    {
+        if (cache.get(toKey(storageId, repositoryId, path)) == null)
+        {
+            missCount.increment();
+
+            return false;
+        }
+
+        hitCount.increment();
+
+        return true;
+    }
+
+    public void missing(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        Repository repository = repositoryPath.getRepository();
+
+        missing(repository.getStorage().getId(), repository.getId(), RepositoryFiles.relativizePath(repositoryPath));
+    }
+
+    public void missing(String storageId,
+                        String repositoryId,
+                        String path)
+    {
+        cache.put(toKey(storageId, repositoryId, path), Boolean.TRUE);
+    }
+
+    public void evict(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        Repository repository = repositoryPath.getRepository();
+
+        evict(repository.getStorage().getId(), repository.getId(), RepositoryFiles.relativizePath(repositoryPath));
+    }
+
+    public void evict(String storageId,
+                      String repositoryId,
+                      String path)
+    {
+        cache.evict(toKey(storageId, repositoryId, path));
+    }
+
+    @EventListener
+    public void handleEvent(final ArtifactEvent<RepositoryPath> event)
+        throws IOException
+    {
+        Path path;
+        if (isStoredEvent(event.getType()))
+        {
+            path = event.getPath();
+        }
+        else if (event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_COPIED.getType() ||
+                 event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_MOVED.getType())
+        {
+            path = event.getTargetPath();
+        }
+        else
+        {
+            return;
+        }
+
+        if (path instanceof RepositoryPath)
+        {
+            evict((RepositoryPath) path);
+        }
+    }
+
+    private boolean isStoredEvent(int type)
+    {
+        return type == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType() ||
+               type == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType() ||
+               type == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_FETCHED_FROM_REMOTE.getType() ||
+               type == ArtifactEventTypeEnum.EVENT_ARTIFACT_METADATA_STORED.getType();
+    }
+
+    public long getHitCount()
+    {
+        return hitCount.sum();
+    }
+
+    public long getMissCount()
+    {
+        return missCount.sum();
+    }
+
+    private String toKey(String storageId,
+                         String repositoryId,
+                         String path)
+    {
+        return storageId + ":" + repositoryId + ":" + path;
+    }
+
+}
@@ -0,0 +1,319 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.configuration.ConfigurationUtils;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.repository.RepositoryProvider;
+import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
+import org.carlspring.strongbox.services.support.ArtifactRoutingRulesChecker;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opt-in group repository path resolution (`strongbox.group.resolution.parallel`), for the big groups with many
+ * proxy members. <br>
+ * The nested groups are flattened into the single list of the members, in the configured priority order. Then:
+ * <ol>
+ * <li>the hosted members, and the artifacts already cached by the proxy members, are checked locally, in order;</li>
+ * <li>the proxy members are queried concurrently: the next member is "hedged" every `hedgeDelayMillis`, while the
+ * previous ones are still pending, or right after they missed. The result of the higher priority member always
+ * wins, regardless of which member responded first.</li>
+ * </ol>
+ * The proxy member misses are remembered with the {@link GroupRepositoryPathMissCache}, so the repeated lookups skip
+ * the members which don't have the path. <br>
+ * Note that the proxy members are queried within the {@link GroupRepositoryFetchExecutor} threads, so the artifact
+ * is cached first and served from the local storage, rather than streamed to the client while being cached.
+ */
+@Component
+public class ParallelGroupRepositoryPathResolver
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelGroupRepositoryPathResolver.class);
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private ArtifactRoutingRulesChecker artifactRoutingRulesChecker;
+
+    @Inject
+    private RepositoryProviderRegistry repositoryProviderRegistry;
+
+    @Inject
+    private GroupRepositoryPathMissCache groupRepositoryPathMissCache;
+
+    @Inject
+    private GroupRepositoryFetchExecutor groupRepositoryFetchExecutor;
+
+    @Value("${strongbox.group.resolution.parallel:false}")
+    private boolean enabled;
+
+    @Value("${strongbox.group.resolution.hedgeDelayMillis:100}")
+    private long hedgeDelayMillis;
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    public void setHedgeDelayMillis(long hedgeDelayMillis)
+    {
+        this.hedgeDelayMillis = hedgeDelayMillis;
+    }
+
+    public RepositoryPath resolve(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        List<RepositoryPath> memberPaths = new ArrayList<>();
+        collectMemberPaths(repositoryPath, memberPaths, new HashSet<>());
+
+        List<RepositoryPath> remoteMemberPaths = new ArrayList<>();
+        for (RepositoryPath memberPath : memberPaths)
+        {
+            Repository member = memberPath.getRepository();
+            if (!member.isProxyRepository())
+            {
+                RepositoryPath result = fetchPath(memberPath);
+                if (result != null)
+                {
+                    return located(result);
+                }
+
+                continue;
+            }
+
+            if (groupRepositoryPathMissCache.isMissing(memberPath))
+            {
+                logger.debug(String.format("- Path [%s] recently missed, skipping...", memberPath));
+
+                continue;
+            }
+
+            if (RepositoryFiles.artifactExists(memberPath))
+            {
+                RepositoryPath result = fetchPath(memberPath);
+                if (result != null)
+                {
+                    return located(result);
+                }
+
+                continue;
+            }
+
+            remoteMemberPaths.add(memberPath);
+        }
+
+        RepositoryPath result = fetchRemotePaths(remoteMemberPaths);
+
+        return result == null ? null : located(result);
+    }
+
+    /**
+     * Flattens the group members (including the nested groups members) in the configured priority order, skipping
+     * the members which are out of service or denied by the routing rules.
+     */
+    private void collectMemberPaths(RepositoryPath groupPath,
+                                    List<RepositoryPath> result,
+                                    Set<String> visited)
+        throws IOException
+    {
+        Repository groupRepository = groupPath.getRepository();
+        String storageId = groupRepository.getStorage().getId();
+
+        for (String storageAndRepositoryId : groupRepository.getGroupRepositories())
+        {
+            String sId = ConfigurationUtils.getStorageId(storageId, storageAndRepositoryId);
+            String rId = ConfigurationUtils.getRepositoryId(storageAndRepositoryId);
+
+            Repository member = configurationManager.getConfiguration().getStorage(sId).getRepository(rId);
+            if (!visited.add(member.getStorageIdAndRepositoryId()))
+            {
+                continue;
+            }
+
+            if (!member.isInService())
+            {
+                logger.debug(String.format("- Repository [%s] is not in service, skipping...",
+                                           member.getStorageIdAndRepositoryId()));
+
+                continue;
+            }
+
+            RepositoryPath memberPath = repositoryPathResolver.resolve(member, groupPath);
+            if (artifactRoutingRulesChecker.isDenied(groupRepository, memberPath))
+            {
+                logger.debug(String.format("- Repository [%s] is denied by a routing rule, skipping...",
+                                           member.getStorageIdAndRepositoryId()));
+
+                continue;
+            }
+
+            if (member.isGroupRepository())
+            {
+                collectMemberPaths(memberPath, result, visited);
+
+                continue;
+            }
+
+            result.add(memberPath);
+        }
+    }
+
+    private RepositoryPath fetchRemotePaths(List<RepositoryPath> memberPaths)
+        throws IOException
+    {
+        List<Future<RepositoryPath>> futures = new ArrayList<>();
+        try
+        {
+            for (int i = 0; i < memberPaths.size(); i++)
+            {
+                if (hedgeDelayMillis <= 0)
+                {
+                    submitAll(memberPaths, futures);
+                }
+                else if (futures.size() == i)
+                {
+                    // The previous members missed, so there is no reason to wait.
+                    futures.add(submit(memberPaths.get(i)));
+                }
+
+                RepositoryPath result = await(memberPaths, futures, i);
+                if (result != null)
+                {
+                    return result;
+                }
+            }
+
+            return null;
+        }
+        finally
+        {
+            // The fetches which already started will just cache the artifacts within their proxy repositories.
+            futures.forEach(f -> f.cancel(false));
+        }
+    }
+
+    private RepositoryPath await(List<RepositoryPath> memberPaths,
+                                 List<Future<RepositoryPath>> futures,
+                                 int i)
+        throws IOException
+    {
+        Future<RepositoryPath> future = futures.get(i);
+        try
+        {
+            while (futures.size() < memberPaths.size())
+            {
+                try
+                {
+                    return future.get(hedgeDelayMillis, TimeUnit.MILLISECONDS);
+                }
+                catch (TimeoutException e)
+                {
+                    logger.debug(String.format("- Path [%s] is slow, hedging with [%s]...",
+                                               memberPaths.get(i),
+                                               memberPaths.get(futures.size())));
+
+                    futures.add(submit(memberPaths.get(futures.size())));
+                }
+            }
+
+            return future.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException(String.format("Interrupted while resolving [%s]", memberPaths.get(i)));
+        }
+        catch (ExecutionException e)
+        {
+            logger.error(String.format("Failed to resolve path [%s]", memberPaths.get(i)), e.getCause());
+
+            return null;
+        }
+    }
+
+    private void submitAll(List<RepositoryPath> memberPaths,
+                           List<Future<RepositoryPath>> futures)
+    {
+        while (futures.size() < memberPaths.size())
+        {
+            futures.add(submit(memberPaths.get(futures.size())));
+        }
+    }
+
+    private Future<RepositoryPath> submit(RepositoryPath memberPath)
+    {
+        return groupRepositoryFetchExecutor.submit(memberPath.getRepository(), () -> {
+            RepositoryProvider provider = repositoryProviderRegistry.getProvider(memberPath.getRepository().getType());
+            RepositoryPath result;
+            try
+            {
+                result = (RepositoryPath) provider.fetchPath(memberPath);
+            }
+            catch (IOException e)
+            {
+                // The remote failures are not the misses.
+                logger.error(String.format("Failed to resolve path [%s]", memberPath), e);
+
+                return null;
+            }
+
+            if (result == null)
+            {
+                groupRepositoryPathMissCache.missing(memberPath);
+            }
+
+            return result;
+        });
+    }
+
+    private RepositoryPath fetchPath(RepositoryPath memberPath)
+    {
+        RepositoryProvider provider = repositoryProviderRegistry.getProvider(memberPath.getRepository().getType());
+        try
+        {
+            return (RepositoryPath) provider.fetchPath(memberPath);
+        }
+        catch (IOException e)
+        {
+            logger.error(String.format("Failed to resolve path [%s]", memberPath), e);
+
+            return null;
+        }
+    }
+
+    private RepositoryPath located(RepositoryPath result)
+    {
+        logger.debug(String.format("Located artifact: [%s]", result));
+
+        return result;
+    }
+
+}
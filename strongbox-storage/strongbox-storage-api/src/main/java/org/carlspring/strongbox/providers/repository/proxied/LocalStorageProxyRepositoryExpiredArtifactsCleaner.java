@@ -2,6 +2,7 @@ package org.carlspring.strongbox.providers.repository.proxied;
 
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.data.service.support.search.Sort;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
@@ -15,14 +16,18 @@ import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteReposi
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
 
 /**
@@ -49,7 +54,18 @@ public class LocalStorageProxyRepositoryExpiredArtifactsCleaner
     @Inject
     private ArtifactManagementService artifactManagementService;
 
-    @Transactional(rollbackFor = Exception.class)
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${strongbox.proxy.expiredArtifactsCleanup.pageSize:500}")
+    private int pageSize;
+
+    @Value("${strongbox.proxy.expiredArtifactsCleanup.batchSize:50}")
+    private int batchSize;
+
+    /**
+     * Reads the expired artifacts page by page, and deletes them in batches, each batch within its own transaction.
+     */
     public void cleanup(final Integer lastAccessedTimeInDays,
                         final Long minSizeInBytes)
             throws IOException
@@ -59,17 +75,34 @@ public class LocalStorageProxyRepositoryExpiredArtifactsCleaner
                                                                    .withMinSizeInBytes(minSizeInBytes)
                                                                    .build();
 
-        final List<ArtifactEntry> artifactEntries = artifactEntryService.findMatching(searchCriteria,
-                                                                                      PagingCriteria.ALL);
-        filterAccessibleProxiedArtifacts(artifactEntries);
-
-        if (CollectionUtils.isEmpty(artifactEntries))
+        // Each page starts after the last entry of the previous one, whether it has been deleted or not.
+        PagingCriteria pagingCriteria = PagingCriteria.seek(pageSize, Sort.byUuid());
+        List<ArtifactEntry> page;
+        do
         {
-            return;
-        }
+            page = artifactEntryService.findMatching(searchCriteria, pagingCriteria);
+            if (page.isEmpty())
+            {
+                break;
+            }
+            pagingCriteria = pagingCriteria.after(artifactEntryService.cursorOf(page.get(page.size() - 1),
+                                                                                pagingCriteria));
+
+            final List<ArtifactEntry> artifactEntries = new ArrayList<>(page);
+            filterAccessibleProxiedArtifacts(artifactEntries);
+
+            if (CollectionUtils.isEmpty(artifactEntries))
+            {
+                continue;
+            }
 
-        logger.debug("Cleaning artifacts {}", artifactEntries);
-        deleteFromStorage(artifactEntries);
+            logger.debug("Cleaning artifacts {}", artifactEntries);
+            for (int i = 0; i < artifactEntries.size(); i += batchSize)
+            {
+                deleteFromStorage(artifactEntries.subList(i, Math.min(i + batchSize, artifactEntries.size())));
+            }
+        }
+        while (page.size() == pageSize);
     }
 
     private void filterAccessibleProxiedArtifacts(final List<ArtifactEntry> artifactEntries)
@@ -108,15 +141,38 @@ public class LocalStorageProxyRepositoryExpiredArtifactsCleaner
     private void deleteFromStorage(final List<ArtifactEntry> artifactEntries)
             throws IOException
     {
-        for (final ArtifactEntry artifactEntry : artifactEntries)
+        try
         {
-            final Storage storage = configurationManager.getConfiguration().getStorage(artifactEntry.getStorageId());
-            final Repository repository = storage.getRepository(artifactEntry.getRepositoryId());
-            
-            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).resolve(artifactEntry);
+            new TransactionTemplate(transactionManager).execute(t -> {
+                for (final ArtifactEntry artifactEntry : artifactEntries)
+                {
+                    deleteFromStorage(artifactEntry);
+                }
+
+                return null;
+            });
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    private void deleteFromStorage(final ArtifactEntry artifactEntry)
+    {
+        final Storage storage = configurationManager.getConfiguration().getStorage(artifactEntry.getStorageId());
+        final Repository repository = storage.getRepository(artifactEntry.getRepositoryId());
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).resolve(artifactEntry);
 
+        try
+        {
             artifactManagementService.delete(repositoryPath, true);
         }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
     }
 
 }
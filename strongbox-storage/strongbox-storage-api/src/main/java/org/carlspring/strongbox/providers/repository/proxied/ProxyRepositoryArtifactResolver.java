@@ -1,23 +1,34 @@
 package org.carlspring.strongbox.providers.repository.proxied;
 
+import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
 import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributes;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryChecksumPolicyValidationTypeEnum;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoriesHeartbeatMonitorInitiator;
 import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
 
 import javax.inject.Inject;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
+import org.apache.commons.io.input.TeeInputStream;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -30,9 +41,14 @@ public class ProxyRepositoryArtifactResolver
 {
     private static final Logger logger = LoggerFactory.getLogger(ProxyRepositoryArtifactResolver.class);
 
+    private static final String HEADER_CHECKSUM_PREFIX = "X-Checksum-";
+
     @Inject
     private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
 
+    @Inject
+    private RemoteRepositoriesHeartbeatMonitorInitiator remoteRepositoriesHeartbeatMonitorInitiator;
+
     @Inject
     private ArtifactEventListenerRegistry artifactEventListenerRegistry;
 
@@ -70,9 +86,19 @@ public class ProxyRepositoryArtifactResolver
         Lock lock = lockSource.writeLock();
         lock.lock();
 
-        try (InputStream is = new BufferedInputStream(new ProxyRepositoryInputStream(client, repositoryPath)))
+        try (ProxyRepositoryInputStream remoteIs = new ProxyRepositoryInputStream(client, repositoryPath))
+        {
+            RepositoryPath result = doFetch(repositoryPath, remoteIs);
+            remoteRepositoriesHeartbeatMonitorInitiator.observedAlive(remoteRepository);
+
+            return result;
+        }
+        catch (ArtifactNotFoundException e)
         {
-            return doFetch(repositoryPath, is);
+            // The remote has responded anyway.
+            remoteRepositoriesHeartbeatMonitorInitiator.observedAlive(remoteRepository);
+
+            throw e;
         }
         finally
         {
@@ -81,13 +107,31 @@ public class ProxyRepositoryArtifactResolver
     }
 
     private RepositoryPath doFetch(RepositoryPath repositoryPath,
-                                   InputStream is)
+                                   ProxyRepositoryInputStream remoteIs)
         throws IOException
     {
+        InputStream is = new BufferedInputStream(remoteIs);
+        
         //We need this to force initialize lazy connection to remote repository.
         int available = is.available();
         logger.debug(String.format("Got [%s] avaliable bytes for [%s].", available, repositoryPath));
         
+        is = decorateWithChecksumValidation(repositoryPath, remoteIs, is);
+        
+        Optional<ProxyRepositoryStreamingContext> streamingContext = ProxyRepositoryStreamingContext.lookup(repositoryPath);
+        boolean streaming = false;
+        if (streamingContext.isPresent())
+        {
+            // The client is served from the separate buffer, so it doesn't hold the fetch locks.
+            OutputStream target = streamingContext.get().openTarget(repositoryPath, remoteIs.getContentLength());
+            if (target != null)
+            {
+                logger.debug(String.format("Streaming [%s] to the client while caching.", repositoryPath));
+
+                is = new TeeInputStream(is, target, false);
+                streaming = true;
+            }
+        }
         
         RepositoryPath result = onSuccessfulProxyRepositoryResponse(is, repositoryPath);
         
@@ -98,9 +142,55 @@ public class ProxyRepositoryArtifactResolver
             artifactEventListenerRegistry.dispatchArtifactFetchedFromRemoteEvent(result);
         }
         
+        if (streaming)
+        {
+            // The artifact was served directly from the remote stream, so the usual
+            // `RepositoryStreamCallback.onBeforeRead()/onAfterRead()` won't be called.
+            artifactEventListenerRegistry.dispatchArtifactDownloadingEvent(result);
+            artifactEventListenerRegistry.dispatchArtifactDownloadedEvent(result);
+        }
+        
         return result;
     }
 
+    private InputStream decorateWithChecksumValidation(RepositoryPath repositoryPath,
+                                                       ProxyRepositoryInputStream remoteIs,
+                                                       InputStream is)
+        throws IOException
+    {
+        RemoteRepository remoteRepository = repositoryPath.getRepository().getRemoteRepository();
+        if (!remoteRepository.isChecksumValidation() || Boolean.TRUE.equals(RepositoryFiles.isChecksum(repositoryPath)))
+        {
+            return is;
+        }
+        
+        Map<String, String> remoteChecksums = new HashMap<>();
+        for (String digestAlgorithm : repositoryPath.getFileSystem().getDigestAlgorithmSet())
+        {
+            // SHA-1 -> X-Checksum-SHA1
+            String checksum = remoteIs.getHeader(HEADER_CHECKSUM_PREFIX + digestAlgorithm.replaceAll("-", ""));
+            if (StringUtils.isNotBlank(checksum))
+            {
+                remoteChecksums.put(digestAlgorithm, checksum);
+            }
+        }
+        if (remoteChecksums.isEmpty())
+        {
+            return is;
+        }
+        
+        boolean strict = RepositoryChecksumPolicyValidationTypeEnum.STRICT.getPolicyType()
+                                                                          .equalsIgnoreCase(remoteRepository.getChecksumPolicy());
+        try
+        {
+            return new RemoteChecksumValidatingInputStream(is, repositoryPath, remoteChecksums, strict);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IOException(e);
+        }
+    }
+
     protected RepositoryPath onSuccessfulProxyRepositoryResponse(InputStream is,
                                                                  RepositoryPath repositoryPath)
             throws IOException
@@ -0,0 +1,430 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.data.service.support.search.Sort;
+import org.carlspring.strongbox.data.service.support.search.Sort.Order;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.event.AsyncEventListener;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepositoryCacheEvictionPolicyEnum;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
+
+/**
+ * Keeps the locally cached artifacts of the proxy repositories within their
+ * {@link RemoteRepository#getCacheQuotaInBytes()}. <br>
+ * The repository usage is measured periodically, and tracked in between with every artifact fetched from the remote.
+ * Once the usage crosses the `highWatermark` part of the quota, the least recently (LRU) or the least frequently
+ * (LFU) used artifacts are evicted, till the usage goes below the `lowWatermark` part of the quota. The eviction
+ * candidates are read page by page and evicted one by one, each under the write lock of its path: the record is
+ * deleted within its own transaction, and the file is deleted once the transaction is committed.
+ */
+@Component
+public class ProxyRepositoryCacheEvictionEngine
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ProxyRepositoryCacheEvictionEngine.class);
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${strongbox.proxy.cacheEviction.checkIntervalSeconds:300}")
+    private int checkIntervalSeconds;
+
+    @Value("${strongbox.proxy.cacheEviction.highWatermark:0.95}")
+    private double highWatermark;
+
+    @Value("${strongbox.proxy.cacheEviction.lowWatermark:0.85}")
+    private double lowWatermark;
+
+    @Value("${strongbox.proxy.cacheEviction.pageSize:500}")
+    private int pageSize;
+
+    private final ConcurrentMap<String, ProxyRepositoryCacheUsage> usages = new ConcurrentHashMap<>();
+
+    /**
+     * Both the periodic checks and the evictions started by the fetched artifacts are executed by the single thread, so
+     * the evictions are executed one by one and don't compete with each other for the database and storage.
+     */
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("proxy-cache-eviction")
+                                                                .setDaemon(true)
+                                                                .build();
+        scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        scheduler.scheduleWithFixedDelay(this::checkQuietly,
+                                         checkIntervalSeconds,
+                                         checkIntervalSeconds,
+                                         TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy()
+        throws InterruptedException
+    {
+        scheduler.shutdownNow();
+        scheduler.awaitTermination(checkIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @AsyncEventListener
+    public void handleEvent(final ArtifactEvent<RepositoryPath> event)
+        throws IOException
+    {
+        if (ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_FETCHED_FROM_REMOTE.getType() != event.getType())
+        {
+            return;
+        }
+
+        RepositoryPath repositoryPath = (RepositoryPath) event.getPath();
+        Repository repository = repositoryPath.getRepository();
+        if (getQuotaInBytes(repository) <= 0 || !Files.exists(repositoryPath))
+        {
+            return;
+        }
+
+        fetched(repository, Files.size(repositoryPath));
+    }
+
+    /**
+     * Accounts the artifact, fetched from the remote, and starts the eviction if the repository crossed the high
+     * watermark.
+     */
+    public void fetched(Repository repository,
+                        long sizeInBytes)
+    {
+        ProxyRepositoryCacheUsage usage = getOrCreateUsage(repository);
+        if (!usage.isMeasured())
+        {
+            // The usage will be measured along with the eviction check.
+            scheduleEviction(repository, usage);
+
+            return;
+        }
+
+        if (usage.stored(sizeInBytes) > usage.getQuotaInBytes() * highWatermark)
+        {
+            scheduleEviction(repository, usage);
+        }
+    }
+
+    private void checkQuietly()
+    {
+        try
+        {
+            check();
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to check proxy repositories cache quota.", e);
+        }
+    }
+
+    /**
+     * Measures all the proxy repositories with the cache quota, and evicts the artifacts where the quota is exceeded.
+     */
+    public void check()
+    {
+        Set<String> limitedRepositories = new HashSet<>();
+        for (Repository repository : configurationManager.getConfiguration().getRepositories())
+        {
+            if (getQuotaInBytes(repository) <= 0)
+            {
+                continue;
+            }
+
+            limitedRepositories.add(toKey(repository.getStorage().getId(), repository.getId()));
+
+            ProxyRepositoryCacheUsage usage = getOrCreateUsage(repository);
+            if (!usage.tryStartEviction())
+            {
+                continue;
+            }
+
+            evict(repository, usage);
+        }
+
+        // Removed repositories, or the ones which are not limited anymore.
+        usages.keySet().retainAll(limitedRepositories);
+    }
+
+    private void scheduleEviction(Repository repository,
+                                  ProxyRepositoryCacheUsage usage)
+    {
+        if (scheduler == null || !usage.tryStartEviction())
+        {
+            return;
+        }
+
+        scheduler.execute(() -> evict(repository, usage));
+    }
+
+    /**
+     * Should be called only by the thread which successfully started the eviction with
+     * {@link ProxyRepositoryCacheUsage#tryStartEviction()}.
+     */
+    void evict(Repository repository,
+               ProxyRepositoryCacheUsage usage)
+    {
+        long startTime = System.currentTimeMillis();
+        try
+        {
+            usage.measured(artifactEntryService.calculateSizeInBytes(usage.getStorageId(), usage.getRepositoryId()));
+            if (usage.getUsedBytes() <= usage.getQuotaInBytes() * highWatermark)
+            {
+                return;
+            }
+
+            RemoteRepository remoteRepository = repository.getRemoteRepository();
+            if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+            {
+                logger.warn(String.format("Remote repository [%s] is down, cache quota of [%s:%s] won't be enforced.",
+                                          remoteRepository.getUrl(),
+                                          usage.getStorageId(),
+                                          usage.getRepositoryId()));
+
+                return;
+            }
+
+            evictTillLowWatermark(repository, usage);
+
+            logger.info(String.format("Proxy repository cache eviction completed: %s", usage));
+        }
+        catch (Exception e)
+        {
+            logger.error(String.format("Failed to evict [%s:%s] cached artifacts.",
+                                       usage.getStorageId(),
+                                       usage.getRepositoryId()),
+                         e);
+        }
+        finally
+        {
+            usage.evictionCompleted(startTime);
+        }
+    }
+
+    private void evictTillLowWatermark(Repository repository,
+                                       ProxyRepositoryCacheUsage usage)
+    {
+        long targetBytes = (long) (usage.getQuotaInBytes() * lowWatermark);
+        RemoteRepositoryCacheEvictionPolicyEnum policy = RemoteRepositoryCacheEvictionPolicyEnum.ofPolicy(
+                repository.getRemoteRepository().getCacheEvictionPolicy());
+
+        ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria().withStorageId(usage.getStorageId())
+                                                                                    .withRepositoryId(usage.getRepositoryId())
+                                                                                    .build();
+
+        // Each page starts after the last entry of the previous one, whether it has been evicted or not.
+        PagingCriteria pagingCriteria = PagingCriteria.seek(pageSize, toSort(policy));
+        while (usage.getUsedBytes() > targetBytes && !Thread.currentThread().isInterrupted())
+        {
+            List<ArtifactEntry> page = artifactEntryService.findMatching(searchCriteria, pagingCriteria);
+            if (page.isEmpty())
+            {
+                break;
+            }
+            pagingCriteria = pagingCriteria.after(artifactEntryService.cursorOf(page.get(page.size() - 1),
+                                                                                pagingCriteria));
+
+            for (int i = 0; i < page.size() && usage.getUsedBytes() > targetBytes; i++)
+            {
+                evictArtifact(repository, page.get(i), usage);
+            }
+
+            if (page.size() < pageSize)
+            {
+                break;
+            }
+        }
+    }
+
+    /**
+     * The artifact is evicted under the write lock of its path, so it's neither streamed to the client nor fetched
+     * again from the remote meanwhile. The candidate is checked once more under the lock, because it could be used or
+     * replaced since it was looked up. The file is deleted only after the record deletion is committed, so the rolled
+     * back eviction doesn't leave the record without its file.
+     */
+    private void evictArtifact(Repository repository,
+                               ArtifactEntry candidate,
+                               ProxyRepositoryCacheUsage usage)
+    {
+        try
+        {
+            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository)
+                                                                  .resolve(candidate.getArtifactPath());
+
+            Lock lock = repositoryPathLock.lock(repositoryPath).writeLock();
+            lock.lock();
+            try
+            {
+                ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(usage.getStorageId(),
+                                                                                   usage.getRepositoryId(),
+                                                                                   candidate.getArtifactPath());
+                if (artifactEntry == null || !isUnchanged(candidate, artifactEntry))
+                {
+                    logger.debug(String.format("Cached artifact [%s] was changed, skip eviction.", candidate));
+
+                    return;
+                }
+
+                new TransactionTemplate(transactionManager).execute(t -> {
+                    artifactEntryService.delete(artifactEntry);
+
+                    return null;
+                });
+
+                // The record is already deleted, so only the file is deleted here.
+                RepositoryFiles.delete(repositoryPath, true);
+                usage.evicted(getSizeInBytes(artifactEntry));
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+        catch (Exception e)
+        {
+            usage.evictionFailed();
+            logger.warn(String.format("Failed to evict cached artifact [%s].", candidate), e);
+        }
+    }
+
+    private boolean isUnchanged(ArtifactEntry candidate,
+                                ArtifactEntry artifactEntry)
+    {
+        return Objects.equals(candidate.getUuid(), artifactEntry.getUuid()) &&
+               Objects.equals(candidate.getLastUsed(), artifactEntry.getLastUsed());
+    }
+
+    private long getSizeInBytes(ArtifactEntry artifactEntry)
+    {
+        return Optional.ofNullable(artifactEntry.getSizeInBytes()).orElse(0L);
+    }
+
+    private ProxyRepositoryCacheUsage getOrCreateUsage(Repository repository)
+    {
+        String storageId = repository.getStorage().getId();
+        String repositoryId = repository.getId();
+
+        ProxyRepositoryCacheUsage usage = usages.computeIfAbsent(toKey(storageId, repositoryId),
+                                                                 k -> new ProxyRepositoryCacheUsage(storageId,
+                                                                                                    repositoryId));
+        // The quota could be changed with the configuration.
+        usage.setQuotaInBytes(getQuotaInBytes(repository));
+
+        return usage;
+    }
+
+    private long getQuotaInBytes(Repository repository)
+    {
+        if (!repository.isProxyRepository() || repository.getRemoteRepository() == null)
+        {
+            return 0;
+        }
+
+        Long quota = repository.getRemoteRepository().getCacheQuotaInBytes();
+
+        return quota == null ? 0 : quota;
+    }
+
+    static Sort toSort(RemoteRepositoryCacheEvictionPolicyEnum policy)
+    {
+        switch (policy)
+        {
+            case LFU:
+                return Sort.by(Order.asc("downloadCount"), Order.asc("lastUsed"), Order.asc("uuid"));
+            case LRU:
+            default:
+                return Sort.by(Order.asc("lastUsed"), Order.asc("uuid"));
+        }
+    }
+
+    private String toKey(String storageId,
+                         String repositoryId)
+    {
+        return storageId + ":" + repositoryId;
+    }
+
+    public Optional<ProxyRepositoryCacheUsage> getUsage(String storageId,
+                                                        String repositoryId)
+    {
+        return Optional.ofNullable(usages.get(toKey(storageId, repositoryId)));
+    }
+
+    public Collection<ProxyRepositoryCacheUsage> getUsages()
+    {
+        return Collections.unmodifiableCollection(usages.values());
+    }
+
+    public void setHighWatermark(double highWatermark)
+    {
+        this.highWatermark = highWatermark;
+    }
+
+    public void setLowWatermark(double lowWatermark)
+    {
+        this.lowWatermark = lowWatermark;
+    }
+
+    public void setPageSize(int pageSize)
+    {
+        this.pageSize = pageSize;
+    }
+
+}
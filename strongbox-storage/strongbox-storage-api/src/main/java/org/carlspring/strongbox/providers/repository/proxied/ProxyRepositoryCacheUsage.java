@@ -0,0 +1,211 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local storage usage of the proxy repository, compared to its cache quota, and the cache eviction throughput.
+ */
+public class ProxyRepositoryCacheUsage
+{
+
+    private final String storageId;
+
+    private final String repositoryId;
+
+    private volatile long quotaInBytes;
+
+    private final AtomicLong usedBytes = new AtomicLong();
+
+    private volatile boolean measured;
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final LongAdder evictedArtifacts = new LongAdder();
+
+    private final LongAdder evictedBytes = new LongAdder();
+
+    private final LongAdder failedEvictions = new LongAdder();
+
+    private final LongAdder evictionRuns = new LongAdder();
+
+    /**
+     * Total time spent on the eviction, in milliseconds.
+     */
+    private final LongAdder evictionMillis = new LongAdder();
+
+    private volatile long lastEvictionTime;
+
+    public ProxyRepositoryCacheUsage(String storageId,
+                                     String repositoryId)
+    {
+        this.storageId = storageId;
+        this.repositoryId = repositoryId;
+    }
+
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
+    }
+
+    public long getQuotaInBytes()
+    {
+        return quotaInBytes;
+    }
+
+    void setQuotaInBytes(long quotaInBytes)
+    {
+        this.quotaInBytes = quotaInBytes;
+    }
+
+    public long getUsedBytes()
+    {
+        return usedBytes.get();
+    }
+
+    /**
+     * @return used part of the quota, `0` if the quota is not limited
+     */
+    public double getUsedRatio()
+    {
+        long quota = quotaInBytes;
+
+        return quota <= 0 ? 0 : (double) getUsedBytes() / quota;
+    }
+
+    public boolean isMeasured()
+    {
+        return measured;
+    }
+
+    void measured(long bytes)
+    {
+        usedBytes.set(bytes);
+        measured = true;
+    }
+
+    long stored(long bytes)
+    {
+        return usedBytes.addAndGet(bytes);
+    }
+
+    void evicted(long bytes)
+    {
+        usedBytes.addAndGet(-bytes);
+        evictedArtifacts.increment();
+        evictedBytes.add(bytes);
+    }
+
+    void evictionFailed()
+    {
+        failedEvictions.increment();
+    }
+
+    boolean tryStartEviction()
+    {
+        return evicting.compareAndSet(false, true);
+    }
+
+    void evictionCompleted(long startTime)
+    {
+        lastEvictionTime = System.currentTimeMillis();
+        evictionMillis.add(lastEvictionTime - startTime);
+        evictionRuns.increment();
+        evicting.set(false);
+    }
+
+    public boolean isEvicting()
+    {
+        return evicting.get();
+    }
+
+    public long getEvictedArtifacts()
+    {
+        return evictedArtifacts.sum();
+    }
+
+    public long getEvictedBytes()
+    {
+        return evictedBytes.sum();
+    }
+
+    public long getFailedEvictions()
+    {
+        return failedEvictions.sum();
+    }
+
+    public long getEvictionRuns()
+    {
+        return evictionRuns.sum();
+    }
+
+    public long getLastEvictionTime()
+    {
+        return lastEvictionTime;
+    }
+
+    /**
+     * @return number of the evicted artifacts per second of the eviction time
+     */
+    public double getEvictedArtifactsPerSecond()
+    {
+        return perSecond(getEvictedArtifacts());
+    }
+
+    /**
+     * @return number of the evicted bytes per second of the eviction time
+     */
+    public double getEvictedBytesPerSecond()
+    {
+        return perSecond(getEvictedBytes());
+    }
+
+    private double perSecond(long value)
+    {
+        long millis = evictionMillis.sum();
+
+        return millis == 0 ? 0 : (double) value * 1000 / millis;
+    }
+
+    public Map<String, Object> toMap()
+    {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("storageId", storageId);
+        result.put("repositoryId", repositoryId);
+        result.put("quotaInBytes", getQuotaInBytes());
+        result.put("usedBytes", getUsedBytes());
+        result.put("usedRatio", getUsedRatio());
+        result.put("evicting", isEvicting());
+        result.put("evictedArtifacts", getEvictedArtifacts());
+        result.put("evictedBytes", getEvictedBytes());
+        result.put("failedEvictions", getFailedEvictions());
+        result.put("evictionRuns", getEvictionRuns());
+        result.put("evictedArtifactsPerSecond", getEvictedArtifactsPerSecond());
+        result.put("evictedBytesPerSecond", getEvictedBytesPerSecond());
+
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("[%s:%s] used-[%s/%s]; evicted-[%s]; evicted-bytes-[%s]; failed-[%s]; artifacts/s-[%.1f]",
+                             storageId,
+                             repositoryId,
+                             getUsedBytes(),
+                             getQuotaInBytes(),
+                             getEvictedArtifacts(),
+                             getEvictedBytes(),
+                             getFailedEvictions(),
+                             getEvictedArtifactsPerSecond());
+    }
+
+}
@@ -0,0 +1,137 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces concurrent cache misses on the same proxied {@link RepositoryPath}
+ * within the current node (so called "single-flight" fetch). <br>
+ * The first request for the path becomes the "leader" and performs the remote
+ * fetch (with all the distributed locking needed), while all the subsequent
+ * requests for the same path become "followers" and just wait for the leader
+ * result, without taking any locks.
+ */
+@Component
+public class ProxyRepositoryFetchRegistry
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ProxyRepositoryFetchRegistry.class);
+
+    private final ConcurrentMap<URI, CompletableFuture<RepositoryPath>> inFlightFetches = new ConcurrentHashMap<>();
+
+    private final AtomicLong leaderFetches = new AtomicLong();
+
+    private final AtomicLong coalescedFetches = new AtomicLong();
+
+    /**
+     * @param repositoryPath
+     *            the path to fetch
+     * @param leaderFetch
+     *            performs the remote fetch, called only by the leader
+     * @param followerFetch
+     *            resolves the path fetched by the leader, called by the
+     *            followers when the leader completed successfully with non
+     *            <code>null</code> result
+     * @return
+     * @throws IOException
+     *             if the leader failed to fetch the path
+     */
+    public RepositoryPath fetch(RepositoryPath repositoryPath,
+                                PathFetch leaderFetch,
+                                PathFetch followerFetch)
+        throws IOException
+    {
+        URI key = repositoryPath.toUri();
+
+        CompletableFuture<RepositoryPath> fetch = new CompletableFuture<>();
+        CompletableFuture<RepositoryPath> leaderFetchResult = inFlightFetches.putIfAbsent(key, fetch);
+        if (leaderFetchResult != null)
+        {
+            coalescedFetches.incrementAndGet();
+            logger.debug(String.format("Waiting for in-flight fetch of [%s].", key));
+
+            return await(key, leaderFetchResult) == null ? null : followerFetch.fetch();
+        }
+
+        leaderFetches.incrementAndGet();
+        try
+        {
+            RepositoryPath result = leaderFetch.fetch();
+            fetch.complete(result);
+
+            return result;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            fetch.completeExceptionally(e);
+
+            throw e;
+        }
+        finally
+        {
+            inFlightFetches.remove(key, fetch);
+        }
+    }
+
+    private RepositoryPath await(URI key,
+                                 CompletableFuture<RepositoryPath> leaderFetchResult)
+        throws IOException
+    {
+        try
+        {
+            return leaderFetchResult.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException(String.format("Interrupted while waiting for [%s] fetch.", key));
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+            {
+                throw (IOException) cause;
+            }
+
+            throw new IOException(String.format("Failed to fetch [%s].", key), cause);
+        }
+    }
+
+    public int getInFlightFetchCount()
+    {
+        return inFlightFetches.size();
+    }
+
+    public long getLeaderFetchCount()
+    {
+        return leaderFetches.get();
+    }
+
+    public long getCoalescedFetchCount()
+    {
+        return coalescedFetches.get();
+    }
+
+    @FunctionalInterface
+    public interface PathFetch
+    {
+
+        RepositoryPath fetch()
+            throws IOException;
+
+    }
+
+}
@@ -4,12 +4,15 @@ import java.io.Closeable;
 import java.io.FilterInputStream;
 import java.io.IOException;
 
+import javax.ws.rs.core.Response;
+
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.time.StopWatch;
 import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
 import org.carlspring.strongbox.client.RemoteRepositoryRetryArtifactDownloadConfiguration;
 import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.repository.proxied.RemoteArtifactStreamFetcher.RemoteArtifactInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,6 +55,37 @@ public class ProxyRepositoryInputStream extends FilterInputStream
         artifactCopyContext.set(context);
     }
 
+    /**
+     * Returns remote response header value, or <code>null</code> if there is no such header.
+     * 
+     * @param name
+     * @return
+     * @throws IOException
+     */
+    public String getHeader(String name)
+        throws IOException
+    {
+        return getResponse().getHeaderString(name);
+    }
+
+    /**
+     * Returns remote resource length, or <code>-1</code> if it's unknown.
+     * 
+     * @return
+     * @throws IOException
+     */
+    public long getContentLength()
+        throws IOException
+    {
+        return getResponse().getLength();
+    }
+
+    private Response getResponse()
+        throws IOException
+    {
+        return ((RemoteArtifactInputStream) in).getConnection().getResponse();
+    }
+
     @Override
     public int read()
         throws IOException
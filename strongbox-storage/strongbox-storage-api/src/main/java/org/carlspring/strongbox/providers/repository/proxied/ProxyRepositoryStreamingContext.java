@@ -0,0 +1,403 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.commons.io.IOUtils;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This context allows to stream the remote artifact to the client while it's
+ * being cached into the proxy repository (so called "tee-on-fetch"). <br>
+ * The context should be opened by the client (usually the controller) before
+ * the {@link RepositoryPath} resolution, and it's bound to the current thread
+ * until closed. If the requested artifact is not cached yet, then
+ * {@link ProxyRepositoryArtifactResolver} copies the remote content into the
+ * local storage and into the streaming buffer at the same time.
+ * <br>
+ * The buffered content is written to the client {@link OutputStream} by the
+ * separate thread of the {@link ProxyRepositoryStreamingExecutor}, so the
+ * client never holds the locks of the fetch. If there is no thread available,
+ * then the artifact is fetched without streaming. If the
+ * client is slower than the remote, and the buffer is full, then the rest of
+ * the content is served from the cached artifact once it's fetched, see
+ * {@link #finish(Path)}. If the fetch fails, then the client connection should
+ * be aborted, because the response was already started, see
+ * {@link #abort()}.
+ * <br>
+ * Note that client failures don't affect the download, so the artifact will be
+ * cached even if the client went away.
+ *
+ * <pre>
+ * try (ProxyRepositoryStreamingContext ctx = ProxyRepositoryStreamingContext.open(path, executor, (p, length) -> os))
+ * {
+ *     RepositoryPath repositoryPath;
+ *     try
+ *     {
+ *         repositoryPath = artifactResolutionService.resolvePath(storageId, repositoryId, path);
+ *     }
+ *     catch (IOException e)
+ *     {
+ *         if (ctx.isStreaming())
+ *         {
+ *             ctx.abort();
+ *             // abort the client connection
+ *         }
+ *         throw e;
+ *     }
+ *     if (ctx.isStreaming())
+ *     {
+ *         ctx.finish(repositoryPath);
+ *         return;
+ *     }
+ *     ...
+ * }
+ * </pre>
+ */
+public class ProxyRepositoryStreamingContext implements Closeable
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ProxyRepositoryStreamingContext.class);
+
+    private static final ThreadLocal<ProxyRepositoryStreamingContext> CURRENT = new ThreadLocal<>();
+
+    /**
+     * The streaming buffer size in chunks, the fetched content is usually copied in chunks of 4-8 KiB, so the buffer
+     * takes up to a few MiB per client.
+     */
+    static final int BUFFER_CHUNKS = 512;
+
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    private final String path;
+
+    private final ProxyRepositoryStreamingExecutor writerExecutor;
+
+    private StreamingTargetSupplier targetSupplier;
+
+    private StreamingOutputStream target;
+
+    private ProxyRepositoryStreamingContext(String path,
+                                            ProxyRepositoryStreamingExecutor writerExecutor,
+                                            StreamingTargetSupplier targetSupplier)
+    {
+        this.path = path;
+        this.writerExecutor = writerExecutor;
+        this.targetSupplier = targetSupplier;
+    }
+
+    public static ProxyRepositoryStreamingContext open(String path,
+                                                       ProxyRepositoryStreamingExecutor writerExecutor,
+                                                       StreamingTargetSupplier targetSupplier)
+    {
+        ProxyRepositoryStreamingContext result = new ProxyRepositoryStreamingContext(normalize(path),
+                                                                                     writerExecutor,
+                                                                                     targetSupplier);
+        CURRENT.set(result);
+
+        return result;
+    }
+
+    /**
+     * Returns the context which was opened for the given {@link RepositoryPath}
+     * within current thread, if any.<br>
+     * Only artifact files can be streamed, because metadata and checksums can be
+     * changed (merged, regenerated) after fetch.
+     *
+     * @param repositoryPath
+     * @return
+     * @throws IOException
+     */
+    static Optional<ProxyRepositoryStreamingContext> lookup(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        ProxyRepositoryStreamingContext ctx = CURRENT.get();
+        if (ctx == null || ctx.targetSupplier == null)
+        {
+            return Optional.empty();
+        }
+
+        if (!Boolean.TRUE.equals(RepositoryFiles.isArtifact(repositoryPath))
+                || !ctx.path.equals(normalize(RepositoryFiles.relativizePath(repositoryPath))))
+        {
+            return Optional.empty();
+        }
+
+        return Optional.of(ctx);
+    }
+
+    /**
+     * Opens the client {@link OutputStream} and returns the streaming buffer,
+     * which the fetched content should be copied into. Can be called only once
+     * per context, because there is only one client to serve. <br>
+     * Writing into the buffer never blocks on the client.
+     *
+     * @param repositoryPath
+     * @param contentLength
+     *            remote content length or <code>-1</code> if it's unknown
+     * @return the streaming buffer, or <code>null</code> if there is no writer
+     *         thread available, so the artifact should be fetched without
+     *         streaming
+     * @throws IOException
+     */
+    OutputStream openTarget(RepositoryPath repositoryPath,
+                            long contentLength)
+        throws IOException
+    {
+        StreamingTargetSupplier supplier = targetSupplier;
+        targetSupplier = null;
+
+        // The writer thread is taken before the client response is started, so that the client can still be served
+        // from the cache without it.
+        StreamingOutputStream result = new StreamingOutputStream();
+        if (!writerExecutor.tryExecute(result::writeToClient))
+        {
+            logger.debug(String.format("No streaming thread available for [%s], fetching without streaming.", path));
+
+            return null;
+        }
+
+        try
+        {
+            result.out = supplier.get(repositoryPath, contentLength);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            result.failed = true;
+            result.chunks.offer(END_OF_STREAM);
+
+            throw e;
+        }
+
+        target = result;
+
+        return target;
+    }
+
+    /**
+     * @return <code>true</code> if the artifact content is being sent to the
+     *         client through this context.
+     */
+    public boolean isStreaming()
+    {
+        return target != null;
+    }
+
+    /**
+     * @return <code>true</code> if the client detached, or the streaming was
+     *         aborted.
+     */
+    public boolean isFailed()
+    {
+        return target != null && target.failed;
+    }
+
+    /**
+     * Waits until the buffered content is written to the client, and writes the
+     * rest of the content, which didn't fit into the buffer, from the cached
+     * artifact. Should be called once the fetch completed, outside of its locks.
+     *
+     * @param cachedPath
+     *            the fetched artifact
+     * @throws IOException
+     */
+    public void finish(Path cachedPath)
+        throws IOException
+    {
+        target.complete();
+
+        if (!target.overflowed || target.failed)
+        {
+            return;
+        }
+
+        logger.debug(String.format("Streaming [%s] from the cache after [%s] bytes.", path, target.byteCount));
+
+        try (InputStream is = Files.newInputStream(cachedPath))
+        {
+            IOUtils.skipFully(is, target.byteCount);
+            IOUtils.copyLarge(is, target.out);
+        }
+    }
+
+    /**
+     * Discards the buffered content, so that the client doesn't get the content
+     * which failed to fetch. Should be called once the fetch failed, the client
+     * connection should be aborted then, because the response was already
+     * started.
+     *
+     * @throws IOException
+     */
+    public void abort()
+        throws IOException
+    {
+        target.failed = true;
+        target.chunks.clear();
+        target.complete();
+    }
+
+    @Override
+    public void close()
+    {
+        if (CURRENT.get() == this)
+        {
+            CURRENT.remove();
+        }
+
+        // Neither finished nor aborted, so the writer thread shouldn't wait for the content anymore.
+        if (target != null && target.written.getCount() > 0)
+        {
+            target.failed = true;
+            target.chunks.clear();
+            target.chunks.offer(END_OF_STREAM);
+        }
+    }
+
+    private static String normalize(String path)
+    {
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    /**
+     * The streaming buffer, which is written by the fetch, and drained to the
+     * client {@link OutputStream} by the writer thread. The client is detached
+     * on the first failure, so the remote content still can be stored.
+     */
+    private class StreamingOutputStream extends OutputStream
+    {
+
+        /**
+         * Set once the writer thread is started, it's published to the writer
+         * thread through the buffer.
+         */
+        private OutputStream out;
+
+        private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(BUFFER_CHUNKS);
+
+        private final CountDownLatch written = new CountDownLatch(1);
+
+        /**
+         * The number of bytes written to the client, or to be written from the
+         * buffer once the buffer overflowed.
+         */
+        private volatile long byteCount;
+
+        private volatile boolean failed;
+
+        /**
+         * Written by the fetch only.
+         */
+        private boolean overflowed;
+
+        private long bufferedCount;
+
+        @Override
+        public void write(int b)
+        {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b,
+                          int off,
+                          int len)
+        {
+            if (len == 0 || overflowed || failed)
+            {
+                return;
+            }
+
+            if (!chunks.offer(Arrays.copyOfRange(b, off, off + len)))
+            {
+                logger.debug(String.format("Streaming buffer of [%s] is full after [%s] bytes.", path,
+                                           bufferedCount));
+
+                overflowed = true;
+
+                return;
+            }
+
+            bufferedCount += len;
+        }
+
+        private void writeToClient()
+        {
+            try
+            {
+                for (byte[] chunk = chunks.take(); chunk != END_OF_STREAM; chunk = chunks.take())
+                {
+                    if (failed)
+                    {
+                        continue;
+                    }
+
+                    try
+                    {
+                        out.write(chunk);
+                        byteCount += chunk.length;
+                    }
+                    catch (IOException e)
+                    {
+                        logger.debug(String.format("Client detached from streaming [%s]: [%s]", path,
+                                                   e.getMessage()));
+
+                        failed = true;
+                    }
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                failed = true;
+            }
+            finally
+            {
+                written.countDown();
+            }
+        }
+
+        /**
+         * Waits until the client has got all the buffered content.
+         */
+        private void complete()
+            throws IOException
+        {
+            try
+            {
+                chunks.put(END_OF_STREAM);
+                written.await();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+
+                throw new InterruptedIOException(String.format("Interrupted while streaming [%s].", path));
+            }
+        }
+
+    }
+
+    @FunctionalInterface
+    public interface StreamingTargetSupplier
+    {
+
+        OutputStream get(RepositoryPath repositoryPath,
+                         long contentLength)
+            throws IOException;
+
+    }
+
+}
@@ -0,0 +1,72 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the threads which write the streamed remote artifacts to the clients, see
+ * {@link ProxyRepositoryStreamingContext}. <br>
+ * There are at most `maxThreads` clients streamed at once, the artifacts of the others are fetched without streaming,
+ * and served from the cache once fetched.
+ */
+@Component
+public class ProxyRepositoryStreamingExecutor
+        implements InitializingBean, DisposableBean
+{
+
+    @Value("${strongbox.proxy.streaming.maxThreads:128}")
+    private int maxThreads;
+
+    private ThreadPoolExecutor executor;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("proxy-streaming-");
+        threadFactory.setDaemon(true);
+
+        executor = new ThreadPoolExecutor(0,
+                                          maxThreads,
+                                          60,
+                                          TimeUnit.SECONDS,
+                                          new SynchronousQueue<>(),
+                                          threadFactory);
+    }
+
+    @Override
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return `false` if all the threads are busy, or the executor is shut down, so the task was not executed
+     */
+    boolean tryExecute(Runnable task)
+    {
+        try
+        {
+            executor.execute(task);
+
+            return true;
+        }
+        catch (RejectedExecutionException e)
+        {
+            return false;
+        }
+    }
+
+    public void setMaxThreads(int maxThreads)
+    {
+        this.maxThreads = maxThreads;
+    }
+
+}
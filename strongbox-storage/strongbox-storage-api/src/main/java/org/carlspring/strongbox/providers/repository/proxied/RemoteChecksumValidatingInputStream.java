@@ -0,0 +1,161 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.util.MessageDigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Validates the remote artifact content against the checksums announced by
+ * the remote repository (for example with <code>X-Checksum-SHA1</code>
+ * response header). <br>
+ * Validation happens when the end of stream reached, so in case of strict
+ * checksum policy the mismatch will be propagated as {@link IOException} from
+ * the last read, before the cached artifact file is committed.
+ */
+public class RemoteChecksumValidatingInputStream extends FilterInputStream
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteChecksumValidatingInputStream.class);
+
+    private final RepositoryPath repositoryPath;
+
+    private final Map<String, String> expectedChecksums;
+
+    private final Map<String, MessageDigest> digests = new LinkedHashMap<>();
+
+    private final boolean strict;
+
+    private boolean validated;
+
+    public RemoteChecksumValidatingInputStream(InputStream in,
+                                               RepositoryPath repositoryPath,
+                                               Map<String, String> expectedChecksums,
+                                               boolean strict)
+        throws NoSuchAlgorithmException
+    {
+        super(in);
+        this.repositoryPath = repositoryPath;
+        this.expectedChecksums = expectedChecksums;
+        this.strict = strict;
+
+        for (String algorithm : expectedChecksums.keySet())
+        {
+            digests.put(algorithm, MessageDigest.getInstance(algorithm));
+        }
+    }
+
+    @Override
+    public int read()
+        throws IOException
+    {
+        int ch = in.read();
+        if (ch == -1)
+        {
+            validate();
+
+            return ch;
+        }
+
+        for (MessageDigest digest : digests.values())
+        {
+            digest.update((byte) ch);
+        }
+
+        return ch;
+    }
+
+    @Override
+    public int read(byte[] b)
+        throws IOException
+    {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public int read(byte[] b,
+                    int off,
+                    int len)
+        throws IOException
+    {
+        int n = in.read(b, off, len);
+        if (n == -1)
+        {
+            validate();
+
+            return n;
+        }
+
+        for (MessageDigest digest : digests.values())
+        {
+            digest.update(b, off, n);
+        }
+
+        return n;
+    }
+
+    @Override
+    public long skip(long n)
+        throws IOException
+    {
+        // Skipped bytes should be digested too.
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long result = 0;
+        while (result < n)
+        {
+            int len = read(buffer, 0, (int) Math.min(n - result, buffer.length));
+            if (len == -1)
+            {
+                break;
+            }
+            result += len;
+        }
+
+        return result;
+    }
+
+    @Override
+    public boolean markSupported()
+    {
+        return false;
+    }
+
+    private void validate()
+        throws IOException
+    {
+        if (validated)
+        {
+            return;
+        }
+        validated = true;
+
+        for (Map.Entry<String, MessageDigest> entry : digests.entrySet())
+        {
+            String algorithm = entry.getKey();
+            String expected = expectedChecksums.get(algorithm);
+            String actual = MessageDigestUtils.convertToHexadecimalString(entry.getValue().digest());
+            if (expected.trim().equalsIgnoreCase(actual))
+            {
+                continue;
+            }
+
+            String message = String.format("Remote checksum mismatch for [%s]: alg-[%s]; expected-[%s]; actual-[%s]",
+                                           repositoryPath, algorithm, expected, actual);
+            if (strict)
+            {
+                throw new IOException(message);
+            }
+
+            logger.warn(message);
+        }
+    }
+
+}
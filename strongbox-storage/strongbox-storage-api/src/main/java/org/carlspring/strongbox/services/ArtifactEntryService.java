@@ -3,10 +3,13 @@ package org.carlspring.strongbox.services;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
+import com.orientechnologies.orient.core.id.ORID;
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.service.CrudService;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
@@ -39,6 +42,13 @@ public interface ArtifactEntryService
                                          String repositoryId,
                                          ArtifactCoordinates coordinates);
 
+    /**
+     * Returns list of artifacts whose coordinates match the given ones, case insensitively.
+     *
+     * @param strict
+     *            `true` if the coordinate values should be equal to the given ones, `false` if the values should
+     *            contain the given ones, or match the given wildcard patterns, where `*` matches any characters
+     */
     List<ArtifactEntry> findArtifactList(String storageId,
                                          String repositoryId,
                                          Map<String, String> coordinates,
@@ -53,9 +63,19 @@ public interface ArtifactEntryService
                                          String orderBy,
                                          boolean strict);
 
+    /**
+     * The keyset pages (see {@link PagingCriteria#seek(int, org.carlspring.strongbox.data.service.support.search.Sort)})
+     * should be followed by the {@link #cursorOf(Object, PagingCriteria)} of their last entries.
+     */
     List<ArtifactEntry> findMatching(ArtifactEntrySearchCriteria searchCriteria,
                                      PagingCriteria pagingCriteria);
 
+    /**
+     * @return total size of the artifacts within the repository, in bytes
+     */
+    long calculateSizeInBytes(String storageId,
+                              String repositoryId);
+
     Long countCoordinates(Collection<Pair<String, String>> storageRepositoryPairList,
                           Map<String, String> coordinates,
                           boolean strict);
@@ -73,6 +93,25 @@ public interface ArtifactEntryService
                            String repositoryId,
                            String path);
 
+    /**
+     * Checks the existence of many artifacts at once, e.g. before they are saved in batch.
+     *
+     * @return the given paths of the existing artifacts
+     */
+    Set<String> findExistingPaths(String storageId,
+                                  String repositoryId,
+                                  Collection<String> paths);
+
+    /**
+     * Looks the artifacts, any of the given coordinates of which starts with the given value case insensitively, up
+     * by the coordinates search index, e.g. to narrow the {@link Predicate} queries down.
+     *
+     * @return the identities of the matched artifacts (of all the repositories), or empty if they can't be looked up
+     *         by the index
+     */
+    Optional<Set<ORID>> findCoordinatePrefixMatches(String prefix,
+                                                    String... coordinates);
+
     ArtifactEntry findOneArtifact(String storageId,
                                   String repositoryId,
                                   String path);
@@ -27,6 +27,7 @@ import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryOutputStream;
+import org.carlspring.strongbox.providers.io.StorageFileSystemProvider.TempOutputStream;
 import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.storage.ArtifactStorageException;
@@ -166,7 +167,19 @@ public class ArtifactManagementService
             artifactEventListenerRegistry.dispatchArtifactUploadingEvent(repositoryPath);
         }
         
-        long totalAmountOfBytes = IOUtils.copy(is, os);
+        long totalAmountOfBytes;
+        try
+        {
+            totalAmountOfBytes = IOUtils.copy(is, os);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            // The source stream failed (remote connection lost, checksum mismatch, etc.), so we should not let the
+            // partially written file replace the original one.
+            abort(os);
+
+            throw e;
+        }
 
         URI repositoryPathId = repositoryPath.toUri();
         Map<String, String> digestMap = aos.getDigestMap();
@@ -191,6 +204,15 @@ public class ArtifactManagementService
         return totalAmountOfBytes;
     }
 
+    private void abort(OutputStream os)
+    {
+        TempOutputStream tos = StreamUtils.findSource(TempOutputStream.class, os);
+        if (tos != null)
+        {
+            tos.abort();
+        }
+    }
+
     private void writeChecksums(RepositoryPath repositoryPath,
                                 Map<String, String> digestMap)
     {
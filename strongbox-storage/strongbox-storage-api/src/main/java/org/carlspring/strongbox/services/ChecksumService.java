@@ -1,5 +1,7 @@
 package org.carlspring.strongbox.services;
 
+import org.carlspring.strongbox.services.support.ChecksumRegenerationStatistics;
+
 import java.io.IOException;
 
 /**
@@ -22,4 +24,21 @@ public interface ChecksumService
                             boolean forceRegeneration)
             throws IOException;
 
+    /**
+     * Regenerate checksum for artifact using artifactPath (string), adding the progress to the given statistics,
+     * which are started and stopped by the caller
+     *
+     * @param storageId         String
+     * @param repositoryId      String
+     * @param basePath      String
+     * @param forceRegeneration boolean
+     * @param statistics        ChecksumRegenerationStatistics
+     */
+    void regenerateChecksum(String storageId,
+                            String repositoryId,
+                            String basePath,
+                            boolean forceRegeneration,
+                            ChecksumRegenerationStatistics statistics)
+            throws IOException;
+
 }
@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.services;
 
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 
 import java.util.List;
@@ -27,6 +28,24 @@ public interface RepositoryArtifactIdGroupService
                                            String repositoryId,
                                            String artifactId);
 
+    /**
+     * Removes the entry, which is going to be deleted, from the group, and
+     * updates the group "last version" entries.
+     */
+    void removeArtifactFromGroup(RepositoryArtifactIdGroupEntry artifactGroup,
+                                 ArtifactEntry artifactEntry);
+
+    /**
+     * Recalculates the "last version" entries of the repository groups. This
+     * is needed to migrate the groups which were created before the "last
+     * version" entries tracking.
+     *
+     * @return the number of processed groups
+     */
+    long updateLastVersionEntries(String storageId,
+                                  String repositoryId,
+                                  PagingCriteria pagingCriteria);
+
     @Override
     default Class<RepositoryArtifactIdGroupEntry> getEntityClass()
     {
@@ -2,17 +2,23 @@ package org.carlspring.strongbox.services.impl;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinatesSearchTerms;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
+import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
+import org.carlspring.strongbox.services.support.ArtifactCoordinatesSearchIndex;
+import org.carlspring.strongbox.services.support.ArtifactEntryIdCacheManager;
 import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
 
+import javax.inject.Inject;
 import java.util.*;
-import java.util.Map.Entry;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
@@ -35,6 +41,15 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactEntryService.class);
 
+    @Inject
+    private ArtifactEntryIdCacheManager artifactEntryIdCacheManager;
+
+    @Inject
+    private ArtifactCoordinatesSearchIndex artifactCoordinatesSearchIndex;
+
+    @Inject
+    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
     private boolean artifactEntryIsSavedForTheFirstTime(ArtifactEntry artifactEntry)
     {
         return artifactEntry.getUuid() == null;
@@ -77,18 +92,22 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
             orderBy = "uuid";
         }
 
-        coordinates = prepareParameterMap(coordinates, strict);
+        CoordinatesQuery coordinatesQuery = planCoordinatesQuery(coordinates, strict);
+        if (coordinatesQuery.isEmpty())
+        {
+            return new ArrayList<>();
+        }
 
         Map<String, ArtifactTagEntry> tagMap = tagSet.stream()
                                                      .collect(Collectors.toMap(t -> String.format("%sTag", t.getName().replaceAll("-", "")),
                                                                                t -> (ArtifactTagEntry) t));
 
-        String sQuery = buildCoordinatesQuery(toList(storageId, repositoryId), coordinates.keySet(), tagMap.keySet(),
+        String sQuery = buildCoordinatesQuery(toList(storageId, repositoryId), coordinatesQuery, tagMap.keySet(),
                                               skip,
-                                              limit, orderBy, strict);
+                                              limit, orderBy);
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
-        Map<String, Object> parameterMap = new HashMap<>(coordinates);
+        Map<String, Object> parameterMap = coordinatesQuery.getParameterMap();
         if (storageId != null && !storageId.trim().isEmpty())
         {
             parameterMap.put("storageId0", storageId);
@@ -111,14 +130,13 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
     {
         StringBuilder sb = new StringBuilder();
         sb.append("SELECT FROM ").append(getEntityClass().getSimpleName());
-        Map<String, Object> parameterMap = Collections.emptyMap();
+        Map<String, Object> parameterMap = new HashMap<>();
 
 
         if (!searchCriteria.isEmpty())
         {
             StringBuilder criteriaQueryClasuse = new StringBuilder();
             sb.append(" WHERE ");
-            parameterMap = new HashMap<>();
 
             if (searchCriteria.getMinSizeInBytes() != null && searchCriteria.getMinSizeInBytes() > 0)
             {
@@ -135,10 +153,34 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                 criteriaQueryClasuse.append(" lastUsed < :lastUsed ");
                 parameterMap.put("lastUsed", lastUsed);
             }
+            if (searchCriteria.getStorageId() != null)
+            {
+                if (criteriaQueryClasuse.length() > 0)
+                {
+                    criteriaQueryClasuse.append(" AND ");
+                }
+                criteriaQueryClasuse.append(" storageId = :storageId ");
+                parameterMap.put("storageId", searchCriteria.getStorageId());
+            }
+            if (searchCriteria.getRepositoryId() != null)
+            {
+                if (criteriaQueryClasuse.length() > 0)
+                {
+                    criteriaQueryClasuse.append(" AND ");
+                }
+                criteriaQueryClasuse.append(" repositoryId = :repositoryId ");
+                parameterMap.put("repositoryId", searchCriteria.getRepositoryId());
+            }
 
             sb.append(criteriaQueryClasuse);
         }
 
+        String seekCondition = seekCondition(pagingCriteria, parameterMap);
+        if (seekCondition != null)
+        {
+            sb.append(searchCriteria.isEmpty() ? " WHERE " : " AND ").append(seekCondition);
+        }
+
         appendPagingCriteria(sb, pagingCriteria);
 
         logger.debug("Executing SQL query> " + sb.toString());
@@ -148,6 +190,25 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return getDelegate().command(oQuery).execute(parameterMap);
     }
 
+    @Override
+    public long calculateSizeInBytes(String storageId,
+                                     String repositoryId)
+    {
+        String sQuery = String.format("SELECT sum(sizeInBytes) AS size FROM %s " +
+                                      "WHERE storageId = :storageId AND repositoryId = :repositoryId",
+                                      getEntityClass().getSimpleName());
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+
+        Map<String, Object> parameterMap = new HashMap<>();
+        parameterMap.put("storageId", storageId);
+        parameterMap.put("repositoryId", repositoryId);
+
+        List<ODocument> result = getDelegate().command(oQuery).execute(parameterMap);
+        Number size = result.isEmpty() ? null : result.iterator().next().field("size");
+
+        return size == null ? 0 : size.longValue();
+    }
+
     @Override
     public List<ArtifactEntry> findArtifactList(String storageId,
                                                 String repositoryId,
@@ -165,12 +226,17 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                  Map<String, String> coordinates,
                                  boolean strict)
     {
-        coordinates = prepareParameterMap(coordinates, strict);
-        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates.keySet(), Collections.emptySet(), 0, 0, null, strict);
+        CoordinatesQuery coordinatesQuery = planCoordinatesQuery(coordinates, strict);
+        if (coordinatesQuery.isEmpty())
+        {
+            return 0L;
+        }
+
+        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinatesQuery, Collections.emptySet(), 0, 0, null);
         sQuery = sQuery.replace("*", "count(distinct(artifactCoordinates))");
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
-        Map<String, Object> parameterMap = new HashMap<>(coordinates);
+        Map<String, Object> parameterMap = coordinatesQuery.getParameterMap();
 
         Pair<String, String>[] p = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
         IntStream.range(0, storageRepositoryPairList.size()).forEach(idx -> {
@@ -197,12 +263,17 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                Map<String, String> coordinates,
                                boolean strict)
     {
-        coordinates = prepareParameterMap(coordinates, strict);
-        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates.keySet(), Collections.emptySet(), 0, 0, null, strict);
+        CoordinatesQuery coordinatesQuery = planCoordinatesQuery(coordinates, strict);
+        if (coordinatesQuery.isEmpty())
+        {
+            return 0L;
+        }
+
+        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinatesQuery, Collections.emptySet(), 0, 0, null);
         sQuery = sQuery.replace("*", "count(*)");
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
-        Map<String, Object> parameterMap = new HashMap<>(coordinates);
+        Map<String, Object> parameterMap = coordinatesQuery.getParameterMap();
 
         Pair<String, String>[] p = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
         IntStream.range(0, storageRepositoryPairList.size()).forEach(idx -> {
@@ -241,12 +312,11 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
     }
 
     protected String buildCoordinatesQuery(Collection<Pair<String, String>> storageRepositoryPairList,
-                                           Set<String> parameterNameSet,
+                                           CoordinatesQuery coordinatesQuery,
                                            Set<String> tagNameSet,
                                            int skip,
                                            int limit,
-                                           String orderBy,
-                                           boolean strict)
+                                           String orderBy)
     {
         StringBuilder sb = new StringBuilder();
         sb.append("SELECT * FROM ").append(getEntityClass().getSimpleName());
@@ -254,13 +324,19 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         Pair<String, String>[] storageRepositoryPairArray = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
         // COORDINATES
         StringBuffer c1 = new StringBuffer();
-        parameterNameSet.stream()
+        if (coordinatesQuery.getCandidates() != null)
+        {
+            c1.append(String.format("@rid IN :%s", CoordinatesQuery.CANDIDATES_PARAMETER));
+        }
+        coordinatesQuery.getPredicates()
+                        .entrySet()
+                        .stream()
                         .forEach(e -> c1.append(c1.length() > 0 ? " AND " : "")
                                         .append("artifactCoordinates.coordinates.")
-                                        .append(e)
+                                        .append(e.getKey())
                                         .append(".toLowerCase()")
-                                        .append(strict ? " = " : " like ")
-                                        .append(String.format(":%s", e)));
+                                        .append(e.getValue().isStrict() ? " = " : " like ")
+                                        .append(String.format(":%s", e.getKey())));
         sb.append(" WHERE ").append(c1.length() > 0 ? c1.append(" AND ").toString() : " true = true AND ");
 
         //REPOSITORIES
@@ -331,25 +407,106 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return result.toString();
     }
 
-    private Map<String, String> prepareParameterMap(Map<String, String> coordinates,
-                                                    boolean strict)
+    /**
+     * Matches the coordinates by the {@link ArtifactCoordinatesSearchIndex} where it's possible, so the query only
+     * needs to check the entries looked up by the index, instead of all of them.
+     */
+    private CoordinatesQuery planCoordinatesQuery(Map<String, String> coordinates,
+                                                  boolean strict)
     {
-        return coordinates.entrySet()
-                          .stream()
-                          .filter(e -> e.getValue() != null)
-                          .collect(Collectors.toMap(Map.Entry::getKey,
-                                                    e -> calculateParameterValue(e, strict)));
+        Map<String, ArtifactCoordinatesSearchTerms.Match> matches = new HashMap<>();
+        coordinates.entrySet()
+                   .stream()
+                   .filter(e -> e.getValue() != null)
+                   .forEach(e -> matches.put(e.getKey(),
+                                             ArtifactCoordinatesSearchTerms.match(e.getKey(), e.getValue(), strict)));
+
+        CoordinatesQuery result = new CoordinatesQuery(matches);
+        if (!artifactCoordinatesSearchIndex.isReady())
+        {
+            return result;
+        }
+
+        // The single keys first, as they are the most selective.
+        List<Map.Entry<String, ArtifactCoordinatesSearchTerms.Match>> indexedMatches =
+                matches.entrySet()
+                       .stream()
+                       .filter(e -> e.getValue().isIndexed())
+                       .sorted(Comparator.comparing(e -> !e.getValue().isKey()))
+                       .collect(Collectors.toList());
+
+        for (Map.Entry<String, ArtifactCoordinatesSearchTerms.Match> e : indexedMatches)
+        {
+            Set<ORID> candidates = findCandidates(e.getValue());
+            if (candidates == null)
+            {
+                continue;
+            }
+
+            result.narrow(e.getKey(), candidates);
+            if (result.isEmpty())
+            {
+                break;
+            }
+        }
+
+        return result;
     }
 
-    private String calculateParameterValue(Entry<String, String> e,
-                                           boolean strict)
+    /**
+     * @return the entries matched by the index, or `null` if there are too many of them to narrow the query down
+     */
+    private Set<ORID> findCandidates(ArtifactCoordinatesSearchTerms.Match match)
     {
-        String result = e.getValue() == null ? null : e.getValue().toLowerCase();
-        if (!strict)
+        String sQuery = match.isKey()
+                ? String.format("SELECT FROM INDEX:%s WHERE key = :fromKey", ArtifactCoordinatesSearchIndex.INDEX_NAME)
+                : String.format("SELECT FROM INDEX:%s WHERE key BETWEEN :fromKey AND :toKey",
+                                ArtifactCoordinatesSearchIndex.INDEX_NAME);
+
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("fromKey", match.getFromKey());
+        params.put("toKey", match.getToKey());
+
+        int maxCandidates = artifactCoordinatesSearchIndex.getMaxCandidates();
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+        oQuery.setLimit(maxCandidates + 1);
+
+        List<ODocument> resultList = getDelegate().command(oQuery).execute(params);
+        if (resultList.size() > maxCandidates)
         {
-            result = "%" + result + "%";
+            return null;
         }
-        return result;
+
+        return resultList.stream()
+                         .map(r -> ((OIdentifiable) r.field("rid")).getIdentity())
+                         .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Optional<Set<ORID>> findCoordinatePrefixMatches(String prefix,
+                                                           String... coordinates)
+    {
+        if (!artifactCoordinatesSearchIndex.isReady())
+        {
+            return Optional.empty();
+        }
+
+        Set<ORID> result = new HashSet<>();
+        for (String coordinate : coordinates)
+        {
+            ArtifactCoordinatesSearchTerms.Match match = ArtifactCoordinatesSearchTerms.match(coordinate,
+                                                                                              prefix + ArtifactCoordinatesSearchTerms.WILDCARD,
+                                                                                              false);
+            Set<ORID> candidates = match.isIndexed() ? findCandidates(match) : null;
+            if (candidates == null)
+            {
+                return Optional.empty();
+            }
+
+            result.addAll(candidates);
+        }
+
+        return Optional.of(result);
     }
 
     @Override
@@ -357,7 +514,44 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                   String repositoryId,
                                   String path)
     {
-        return findArtifactEntryId(storageId, repositoryId, path) != null;
+        return findArtifactEntry(storageId, repositoryId, path) != null;
+    }
+
+    /**
+     * The paths are looked up with a single query within the repository, which is served by the
+     * {@link ArtifactCoordinatesSearchIndex#PATH_INDEX_NAME} index.
+     */
+    @Override
+    public Set<String> findExistingPaths(String storageId,
+                                         String repositoryId,
+                                         Collection<String> paths)
+    {
+        if (paths.isEmpty())
+        {
+            return Collections.emptySet();
+        }
+
+        // The artifact path is set for all the entries only once the index is ready.
+        String pathProperty = artifactCoordinatesSearchIndex.isReady() ? ArtifactCoordinatesSearchIndex.PATH_PROPERTY_NAME
+                : "artifactCoordinates.path";
+        String sQuery = String.format("SELECT %s AS path FROM %s " +
+                                      "WHERE storageId = :storageId AND repositoryId = :repositoryId AND %s IN :paths",
+                                      pathProperty,
+                                      getEntityClass().getSimpleName(),
+                                      pathProperty);
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+
+        Map<String, Object> parameterMap = new HashMap<>();
+        parameterMap.put("storageId", storageId);
+        parameterMap.put("repositoryId", repositoryId);
+        parameterMap.put("paths", new ArrayList<>(paths));
+
+        List<ODocument> resultList = getDelegate().command(oQuery).execute(parameterMap);
+
+        return resultList.stream()
+                         .map(d -> (String) d.field("path"))
+                         .filter(Objects::nonNull)
+                         .collect(Collectors.toSet());
     }
 
     @Override
@@ -365,13 +559,57 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                          String repositoryId,
                                          String path)
     {
-        ORID artifactEntryId = findArtifactEntryId(storageId, repositoryId, path);
-        return Optional.ofNullable(artifactEntryId)
-                       .flatMap(id -> Optional.ofNullable(entityManager.find(ArtifactEntry.class, id)))
+        return Optional.ofNullable(findArtifactEntry(storageId, repositoryId, path))
                        .map(e -> detach(e))
                        .orElse(null);
     }
 
+    /**
+     * Loads the entry by the cached identity if there is one, and only falls back to the index queries if the
+     * identity is not cached yet or turned out to be stale.
+     */
+    private ArtifactEntry findArtifactEntry(String storageId,
+                                            String repositoryId,
+                                            String path)
+    {
+        String cachedId = artifactEntryIdCacheManager.get(storageId, repositoryId, path);
+        if (cachedId != null)
+        {
+            ArtifactEntry result = entityManager.find(ArtifactEntry.class, cachedId);
+            if (result != null && matches(result, storageId, repositoryId, path))
+            {
+                return result;
+            }
+
+            artifactEntryIdCacheManager.evictStale(storageId, repositoryId, path);
+        }
+
+        ORID artifactEntryId = findArtifactEntryId(storageId, repositoryId, path);
+        if (artifactEntryId == null)
+        {
+            return null;
+        }
+
+        // Records created within the current transaction have temporary identities.
+        if (artifactEntryId.isPersistent())
+        {
+            artifactEntryIdCacheManager.put(storageId, repositoryId, path, artifactEntryId.toString());
+        }
+
+        return entityManager.find(ArtifactEntry.class, artifactEntryId);
+    }
+
+    private boolean matches(ArtifactEntry artifactEntry,
+                            String storageId,
+                            String repositoryId,
+                            String path)
+    {
+        return storageId.equals(artifactEntry.getStorageId())
+                && repositoryId.equals(artifactEntry.getRepositoryId())
+                && artifactEntry.getArtifactCoordinates() != null
+                && path.equals(artifactEntry.getArtifactCoordinates().toPath());
+    }
+
     @Override
     public void delete(String id)
     {
@@ -381,13 +619,56 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
     @Override
     public void delete(ArtifactEntry entity)
     {
+        if (entity.getArtifactCoordinates() != null)
+        {
+            artifactEntryIdCacheManager.evict(entity.getStorageId(),
+                                              entity.getRepositoryId(),
+                                              entity.getArtifactCoordinates().toPath());
+            removeFromArtifactGroup(entity);
+        }
+
         super.delete(entity);
     }
 
+    @Override
+    public int delete(List<ArtifactEntry> entityList)
+    {
+        entityList.stream()
+                  .filter(e -> e.getArtifactCoordinates() != null)
+                  .forEach(e -> {
+                      artifactEntryIdCacheManager.evict(e.getStorageId(),
+                                                        e.getRepositoryId(),
+                                                        e.getArtifactCoordinates().toPath());
+                      removeFromArtifactGroup(e);
+                  });
+
+        return super.delete(entityList);
+    }
+
+    /**
+     * The group should not keep the deleted entry as its last version.
+     */
+    private void removeFromArtifactGroup(ArtifactEntry artifactEntry)
+    {
+        if (artifactEntry.getObjectId() == null)
+        {
+            return;
+        }
+
+        RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOne(artifactEntry.getStorageId(),
+                                                                                                artifactEntry.getRepositoryId(),
+                                                                                                artifactEntry.getArtifactCoordinates().getId());
+        if (artifactGroup != null)
+        {
+            repositoryArtifactIdGroupService.removeArtifactFromGroup(artifactGroup, artifactEntry);
+        }
+    }
+
     @Override
     public void deleteAll()
     {
         super.deleteAll();
+        artifactEntryIdCacheManager.clear();
     }
 
     private ORID findArtifactEntryId(String storageId,
@@ -442,6 +723,72 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return result;
     }
 
+    /**
+     * The coordinates search: the entries matched by the index, if any, and the coordinate predicates, which are
+     * still to be checked by the query.
+     */
+    protected static class CoordinatesQuery
+    {
+
+        static final String CANDIDATES_PARAMETER = "coordinatesSearchCandidates";
+
+        private final Map<String, ArtifactCoordinatesSearchTerms.Match> predicates;
+
+        private Set<ORID> candidates;
+
+        CoordinatesQuery(Map<String, ArtifactCoordinatesSearchTerms.Match> matches)
+        {
+            this.predicates = new HashMap<>(matches);
+        }
+
+        void narrow(String coordinate,
+                    Set<ORID> matchedCandidates)
+        {
+            if (candidates == null)
+            {
+                candidates = matchedCandidates;
+            }
+            else
+            {
+                candidates.retainAll(matchedCandidates);
+            }
+
+            if (predicates.get(coordinate).isPrecise())
+            {
+                predicates.remove(coordinate);
+            }
+        }
+
+        /**
+         * @return `true` if the index lookups already show that nothing matches
+         */
+        boolean isEmpty()
+        {
+            return candidates != null && candidates.isEmpty();
+        }
 
+        Set<ORID> getCandidates()
+        {
+            return candidates;
+        }
+
+        Map<String, ArtifactCoordinatesSearchTerms.Match> getPredicates()
+        {
+            return predicates;
+        }
+
+        Map<String, Object> getParameterMap()
+        {
+            Map<String, Object> result = new HashMap<>();
+            predicates.forEach((k, v) -> result.put(k, v.getValue()));
+            if (candidates != null)
+            {
+                result.put(CANDIDATES_PARAMETER, candidates);
+            }
+
+            return result;
+        }
+
+    }
 
 }
@@ -1,26 +1,42 @@
 package org.carlspring.strongbox.services.impl;
 
-import org.carlspring.strongbox.artifact.locator.ArtifactDirectoryLocator;
-import org.carlspring.strongbox.artifact.locator.handlers.ArtifactLocationGenerateChecksumOperation;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.services.ChecksumService;
+import org.carlspring.strongbox.services.support.ChecksumRegenerationCheckpoint;
+import org.carlspring.strongbox.services.support.ChecksumRegenerationStatistics;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
+ * The checksums are regenerated in parallel: every directory is a separate task, so the idle workers steal the
+ * subdirectories of the busy ones. Completed directories are recorded into the
+ * {@link ChecksumRegenerationCheckpoint}, so the interrupted regeneration is resumed from where it stopped.
+ *
  * @author Kate Novik.
  */
 @Component
@@ -38,12 +54,38 @@ public class ChecksumServiceImpl
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    /**
+     * Number of the regeneration threads, `0` means the number of available processors.
+     */
+    @Value("${strongbox.checksum.regeneration.parallelism:0}")
+    private int parallelism;
+
     @Override
     public void regenerateChecksum(String storageId,
                                    String repositoryId,
                                    String basePath,
                                    boolean forceRegeneration)
         throws IOException
+    {
+        ChecksumRegenerationStatistics statistics = new ChecksumRegenerationStatistics();
+        statistics.start();
+        try
+        {
+            regenerateChecksum(storageId, repositoryId, basePath, forceRegeneration, statistics);
+        }
+        finally
+        {
+            statistics.stop();
+        }
+    }
+
+    @Override
+    public void regenerateChecksum(String storageId,
+                                   String repositoryId,
+                                   String basePath,
+                                   boolean forceRegeneration,
+                                   ChecksumRegenerationStatistics statistics)
+        throws IOException
     {
         Storage storage = getConfiguration().getStorage(storageId);
         Repository repository = storage.getRepository(repositoryId);
@@ -60,18 +102,161 @@ public class ChecksumServiceImpl
         RepositoryPath repositoryBasePath = Optional.ofNullable(basePath)
                                                     .map(p -> repositoryPathResolver.resolve(repository, basePath))
                                                     .orElseGet(() -> repositoryPathResolver.resolve(repository));
-        
-        ArtifactLocationGenerateChecksumOperation operation = new ArtifactLocationGenerateChecksumOperation();
-        operation.setBasePath(repositoryBasePath);
-        operation.setForceRegeneration(forceRegeneration);
+        RepositoryPath startingPath = Files.isDirectory(repositoryBasePath) ? repositoryBasePath
+                : repositoryBasePath.getParent();
+        if (!Files.exists(startingPath))
+        {
+            logger.warn(String.format("Path [%s] does not exist, there are no checksums to regenerate.",
+                                      startingPath));
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        try (ChecksumRegenerationCheckpoint checkpoint = ChecksumRegenerationCheckpoint.open(startingPath,
+                                                                                            forceRegeneration))
+        {
+            if (checkpoint.isResumed())
+            {
+                logger.info(String.format("Resuming checksum regeneration of [%s].", startingPath));
+            }
+
+            pool.invoke(new DirectoryTask(startingPath, false, forceRegeneration, checkpoint, statistics));
+
+            checkpoint.clear();
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        finally
+        {
+            pool.shutdown();
+        }
 
-        ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
-        locator.setOperation(operation);
-        locator.locateArtifactDirectories();
+        logger.info(String.format("Regenerated checksums of [%s], total: %s", startingPath, statistics));
     }
 
     public Configuration getConfiguration()
     {
         return configurationManager.getConfiguration();
     }
+
+    /**
+     * Regenerates the checksums of the artifact files, which are the files within the directories containing the
+     * metadata, and within their subdirectories.
+     */
+    private class DirectoryTask
+            extends RecursiveAction
+    {
+
+        private final RepositoryPath directory;
+
+        private final boolean metadataScope;
+
+        private final boolean forceRegeneration;
+
+        private final ChecksumRegenerationCheckpoint checkpoint;
+
+        private final ChecksumRegenerationStatistics statistics;
+
+        DirectoryTask(RepositoryPath directory,
+                      boolean metadataScope,
+                      boolean forceRegeneration,
+                      ChecksumRegenerationCheckpoint checkpoint,
+                      ChecksumRegenerationStatistics statistics)
+        {
+            this.directory = directory;
+            this.metadataScope = metadataScope;
+            this.forceRegeneration = forceRegeneration;
+            this.checkpoint = checkpoint;
+            this.statistics = statistics;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (checkpoint.isCompleted(directory))
+            {
+                statistics.resumed();
+                return;
+            }
+
+            List<RepositoryPath> directories = new ArrayList<>();
+            List<RepositoryPath> files = new ArrayList<>();
+            boolean containsMetadata = metadataScope;
+            try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory))
+            {
+                for (Path path : directoryStream)
+                {
+                    RepositoryPath repositoryPath = (RepositoryPath) path;
+                    if (Files.isDirectory(repositoryPath))
+                    {
+                        if (!repositoryPath.getFileName().toString().startsWith("."))
+                        {
+                            directories.add(repositoryPath);
+                        }
+                    }
+                    else if (!Boolean.TRUE.equals(RepositoryFiles.isChecksum(repositoryPath)))
+                    {
+                        containsMetadata |= Boolean.TRUE.equals(RepositoryFiles.isMetadata(repositoryPath));
+                        files.add(repositoryPath);
+                    }
+                }
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+
+            List<ForkJoinTask<Void>> subtasks = new ArrayList<>();
+            for (RepositoryPath subdirectory : directories)
+            {
+                subtasks.add(new DirectoryTask(subdirectory,
+                                               containsMetadata,
+                                               forceRegeneration,
+                                               checkpoint,
+                                               statistics).fork());
+            }
+
+            if (containsMetadata)
+            {
+                files.forEach(this::writeChecksum);
+            }
+
+            subtasks.forEach(ForkJoinTask::join);
+
+            try
+            {
+                checkpoint.complete(directory);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeChecksum(RepositoryPath path)
+        {
+            LayoutFileSystemProvider provider = (LayoutFileSystemProvider) path.getFileSystem().provider();
+            try
+            {
+                long size = provider.writeChecksum(path, forceRegeneration);
+                if (size < 0)
+                {
+                    statistics.skipped();
+                }
+                else
+                {
+                    statistics.regenerated(size);
+                }
+            }
+            catch (IOException e)
+            {
+                statistics.failed();
+                logger.error(String.format("Failed to write checksum for [%s]", path), e);
+            }
+        }
+
+    }
+
 }
@@ -5,6 +5,8 @@ import org.carlspring.strongbox.configuration.*;
 import org.carlspring.strongbox.event.repository.RepositoryEvent;
 import org.carlspring.strongbox.event.repository.RepositoryEventListenerRegistry;
 import org.carlspring.strongbox.event.repository.RepositoryEventTypeEnum;
+import org.carlspring.strongbox.event.server.ServerEventListenerRegistry;
+import org.carlspring.strongbox.providers.io.RepositoryFileSystemRegistry;
 import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
@@ -19,6 +21,7 @@ import javax.inject.Inject;
 import java.io.IOException;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -49,6 +52,9 @@ public class ConfigurationManagementServiceImpl
     @Inject
     private RepositoryEventListenerRegistry repositoryEventListenerRegistry;
 
+    @Inject
+    private ServerEventListenerRegistry serverEventListenerRegistry;
+
     @Inject
     private LayoutProviderRegistry layoutProviderRegistry;
 
@@ -58,6 +64,9 @@ public class ConfigurationManagementServiceImpl
     @Inject
     private PlatformTransactionManager transactionManager;
 
+    @Inject
+    private RepositoryFileSystemRegistry repositoryFileSystemRegistry;
+
     /**
      * Yes, this is a state object.
      * It is protected by the {@link #configurationLock} here
@@ -67,6 +76,8 @@ public class ConfigurationManagementServiceImpl
      */
     private MutableConfiguration configuration;
 
+    private final AtomicLong configurationVersion = new AtomicLong();
+
     @PostConstruct
     public void init()
     {
@@ -114,7 +125,7 @@ public class ConfigurationManagementServiceImpl
 
         try
         {
-            return new Configuration(configuration);
+            return new Configuration(configuration, configurationVersion.get());
         }
         finally
         {
@@ -122,6 +133,12 @@ public class ConfigurationManagementServiceImpl
         }
     }
 
+    @Override
+    public long getConfigurationVersion()
+    {
+        return configurationVersion.get();
+    }
+
     @Override
     public void setConfiguration(MutableConfiguration newConf) throws IOException
     {
@@ -606,6 +623,10 @@ public class ConfigurationManagementServiceImpl
         try
         {
             operation.accept(configuration);
+            configurationVersion.incrementAndGet();
+
+            // The repository file systems are built from the repository configuration.
+            repositoryFileSystemRegistry.invalidate();
 
             if (storeInFile)
             {
@@ -616,6 +637,9 @@ public class ConfigurationManagementServiceImpl
         {
             writeLock.unlock();
         }
+
+        // Dispatched outside of the lock, so the listeners are free to read the new configuration.
+        serverEventListenerRegistry.dispatchConfigurationChangedEvent();
     }
 
 }
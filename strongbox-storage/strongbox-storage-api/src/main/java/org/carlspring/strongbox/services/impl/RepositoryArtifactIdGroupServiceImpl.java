@@ -10,13 +10,19 @@ import org.carlspring.strongbox.services.ArtifactTagService;
 import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
 
 import javax.inject.Inject;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import com.orientechnologies.common.concur.ONeedRetryException;
+import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +46,12 @@ public class RepositoryArtifactIdGroupServiceImpl
     @Inject
     private ArtifactTagService artifactTagService;
 
+    /**
+     * Adds the entry into the group and updates the {@link ArtifactTagEntry#LAST_VERSION}
+     * tag. Only the entry itself and the group "last version" entries are
+     * compared and saved here, so other group entries are not loaded. The
+     * group record is updated in place, see {@link #updateGroup(RepositoryArtifactIdGroupEntry, String, Map)}.
+     */
     @Override
     public void addArtifactToGroup(RepositoryArtifactIdGroupEntry artifactGroup,
                                    ArtifactEntry artifactEntry)
@@ -49,56 +61,200 @@ public class RepositoryArtifactIdGroupServiceImpl
 
         ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
 
-        artifactEntry.getTagSet().add(lastVersionTag);
-        artifactGroup.putArtifactEntry(artifactEntry);
+        // Existing entries are already linked with the group.
+        boolean newEntry = artifactEntry.getObjectId() == null;
+        boolean lastVersionEntriesChanged = false;
 
-        artifactGroup.getArtifactEntries()
-                     .stream()
-                     .filter(e -> e.getTagSet().contains(lastVersionTag))
-                     .sorted((e1,
-                              e2) -> e1.getArtifactCoordinates().compareTo(e2.getArtifactCoordinates()))
-                     .forEach(e -> checkAndUpdateLastVersionTagIfNeeded(e, artifactEntry, lastVersionTag));
-
-
-        save(artifactGroup);
-    }
-
-    private <S extends ArtifactEntry> Optional<S> checkAndUpdateLastVersionTagIfNeeded(S lastVersionEntry,
-                                                                                       S entity,
-                                                                                       ArtifactTag lastVersionTag)
-    {
-        Optional<S> result = Optional.empty();
-        ArtifactCoordinates coordinates = entity.getArtifactCoordinates();
+        Set<ArtifactEntry> lastVersionEntries = artifactGroup.getLastVersionEntries();
+        if (lastVersionEntries.isEmpty() && !artifactGroup.getArtifactEntries().isEmpty())
+        {
+            // Group was not migrated yet.
+            updateLastVersionEntries(artifactGroup, lastVersionTag);
+            lastVersionEntriesChanged = true;
+        }
 
-        int artifactCoordinatesComparison = entity.getArtifactCoordinates()
-                                                  .compareTo(lastVersionEntry.getArtifactCoordinates());
+        int artifactCoordinatesComparison = lastVersionEntries.stream()
+                                                              .filter(e -> !e.equals(artifactEntry))
+                                                              .findFirst()
+                                                              .map(e -> coordinates.compareTo(e.getArtifactCoordinates()))
+                                                              .orElse(0);
         if (artifactCoordinatesComparison == 0)
         {
             logger.debug(String.format("Set [%s] last version to [%s]",
-                                       entity.getArtifactPath(),
+                                       artifactEntry.getArtifactPath(),
                                        coordinates.getVersion()));
-            entity.getTagSet().add(lastVersionTag);
+            artifactEntry.getTagSet().add(lastVersionTag);
         }
         else if (artifactCoordinatesComparison > 0)
         {
             logger.debug(String.format("Update [%s] last version from [%s] to [%s]",
-                                       entity.getArtifactPath(),
-                                       lastVersionEntry.getArtifactCoordinates().getVersion(),
+                                       artifactEntry.getArtifactPath(),
+                                       lastVersionEntries.iterator().next().getArtifactCoordinates().getVersion(),
                                        coordinates.getVersion()));
-            entity.getTagSet().add(lastVersionTag);
+            artifactEntry.getTagSet().add(lastVersionTag);
 
-            lastVersionEntry.getTagSet().remove(lastVersionTag);
-            result = Optional.of(lastVersionEntry);
+            for (ArtifactEntry lastVersionEntry : lastVersionEntries)
+            {
+                lastVersionEntry.getTagSet().remove(lastVersionTag);
+                tryToCascadeEntitySave(lastVersionEntry);
+            }
+            lastVersionEntries.clear();
         }
         else
         {
             logger.debug(String.format("Keep [%s] last version [%s]",
-                                       entity.getArtifactPath(),
-                                       lastVersionEntry.getArtifactCoordinates().getVersion()));
-            entity.getTagSet().remove(lastVersionTag);
+                                       artifactEntry.getArtifactPath(),
+                                       lastVersionEntries.iterator().next().getArtifactCoordinates().getVersion()));
+            artifactEntry.getTagSet().remove(lastVersionTag);
+        }
+
+        ArtifactEntry result = (ArtifactEntry) tryToCascadeEntitySave(artifactEntry);
+        if (artifactCoordinatesComparison >= 0 && !lastVersionEntries.contains(result))
+        {
+            lastVersionEntries.add(result);
+            lastVersionEntriesChanged = true;
+        }
+
+        if (artifactGroup.getObjectId() == null)
+        {
+            artifactGroup.putArtifactEntry(result);
+            getDelegate().save(artifactGroup);
+
+            return;
+        }
+
+        if (newEntry)
+        {
+            updateGroup(artifactGroup, "ADD artifactEntries = :artifactEntry",
+                        Collections.singletonMap("artifactEntry", new ORecordId(result.getObjectId())));
         }
+        if (lastVersionEntriesChanged)
+        {
+            updateLastVersionEntries(artifactGroup);
+        }
+    }
 
-        return result;
+    /**
+     * Removes the entry, which is going to be deleted, from the group. If it
+     * was the last of the group "last version" entries, then the last version
+     * is recalculated from the remaining group entries.
+     */
+    @Override
+    public void removeArtifactFromGroup(RepositoryArtifactIdGroupEntry artifactGroup,
+                                        ArtifactEntry artifactEntry)
+    {
+        Set<ArtifactEntry> lastVersionEntries = artifactGroup.getLastVersionEntries();
+        boolean lastVersionEntry = lastVersionEntries.remove(artifactEntry);
+        if (!lastVersionEntry || !lastVersionEntries.isEmpty())
+        {
+            updateGroup(artifactGroup, "REMOVE artifactEntries = :artifactEntry",
+                        Collections.singletonMap("artifactEntry", new ORecordId(artifactEntry.getObjectId())));
+            if (lastVersionEntry)
+            {
+                // Other files of the last version are still there.
+                updateLastVersionEntries(artifactGroup);
+            }
+
+            return;
+        }
+
+        logger.debug(String.format("Group [%s] last version [%s] was deleted",
+                                   artifactGroup.getName(),
+                                   artifactEntry.getArtifactCoordinates().getVersion()));
+
+        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
+
+        artifactGroup.getArtifactEntries().remove(artifactEntry);
+        updateLastVersionEntries(artifactGroup, lastVersionTag);
+        getDelegate().save(artifactGroup);
+    }
+
+    @Override
+    public long updateLastVersionEntries(String storageId,
+                                         String repositoryId,
+                                         PagingCriteria pagingCriteria)
+    {
+        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
+
+        List<RepositoryArtifactIdGroupEntry> artifactGroups = findMatching(storageId, repositoryId, pagingCriteria);
+        for (RepositoryArtifactIdGroupEntry artifactGroup : artifactGroups)
+        {
+            updateLastVersionEntries(artifactGroup, lastVersionTag);
+            getDelegate().save(artifactGroup);
+        }
+
+        return artifactGroups.size();
+    }
+
+    /**
+     * Recalculates the group "last version" entries from scratch, which
+     * requires to load all the group entries.
+     */
+    private void updateLastVersionEntries(RepositoryArtifactIdGroupEntry artifactGroup,
+                                          ArtifactTag lastVersionTag)
+    {
+        ArtifactCoordinates lastVersion = artifactGroup.getArtifactEntries()
+                                                       .stream()
+                                                       .filter(Objects::nonNull)
+                                                       .map(ArtifactEntry::getArtifactCoordinates)
+                                                       .max(ArtifactCoordinates::compareTo)
+                                                       .orElse(null);
+
+        Set<ArtifactEntry> lastVersionEntries = artifactGroup.getLastVersionEntries();
+        lastVersionEntries.clear();
+        for (ArtifactEntry artifactEntry : artifactGroup.getArtifactEntries())
+        {
+            if (artifactEntry == null)
+            {
+                // Link to the deleted entry.
+                continue;
+            }
+
+            boolean isLastVersion = artifactEntry.getArtifactCoordinates().compareTo(lastVersion) == 0;
+            boolean changed = isLastVersion ? artifactEntry.getTagSet().add(lastVersionTag)
+                    : artifactEntry.getTagSet().remove(lastVersionTag);
+            if (changed)
+            {
+                tryToCascadeEntitySave(artifactEntry);
+            }
+            if (isLastVersion)
+            {
+                lastVersionEntries.add(artifactEntry);
+            }
+        }
+
+        logger.debug(String.format("Group [%s] last version is [%s]",
+                                   artifactGroup.getName(),
+                                   lastVersion == null ? null : lastVersion.getVersion()));
+    }
+
+    /**
+     * Stores the group "last version" entries, the group entries are not
+     * changed.
+     */
+    private void updateLastVersionEntries(RepositoryArtifactIdGroupEntry artifactGroup)
+    {
+        List<ORecordId> lastVersionEntries = artifactGroup.getLastVersionEntries()
+                                                          .stream()
+                                                          .map(e -> new ORecordId(e.getObjectId()))
+                                                          .collect(Collectors.toList());
+
+        updateGroup(artifactGroup, "SET lastVersionEntries = :lastVersionEntries",
+                    Collections.singletonMap("lastVersionEntries", lastVersionEntries));
+    }
+
+    /**
+     * Updates the group record with the SQL command instead of saving the
+     * group, so that the links of all the group entries are neither loaded
+     * nor written back through the object mapping on every deployment.
+     */
+    private void updateGroup(RepositoryArtifactIdGroupEntry artifactGroup,
+                             String sUpdate,
+                             Map<String, Object> params)
+    {
+        String sQuery = String.format("UPDATE %s %s", artifactGroup.getObjectId(), sUpdate);
+
+        getDelegate().command(new OCommandSQL(sQuery)).execute(params);
     }
 
     @Override
@@ -131,13 +287,21 @@ public class RepositoryArtifactIdGroupServiceImpl
         String sQuery = buildQuery(params);
 
         StringBuilder sb = new StringBuilder(sQuery);
+
+        Map<String, Object> parameterMap = new HashMap<>(params);
+        String seekCondition = seekCondition(pagingCriteria, parameterMap);
+        if (seekCondition != null)
+        {
+            sb.append(params.values().stream().anyMatch(Objects::nonNull) ? " AND " : " WHERE ").append(seekCondition);
+        }
+
         appendPagingCriteria(sb, pagingCriteria);
 
         logger.debug("Executing SQL query> " + sb.toString());
 
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sb.toString());
 
-        return getDelegate().command(oQuery).execute(params);
+        return getDelegate().command(oQuery).execute(parameterMap);
     }
 
     public RepositoryArtifactIdGroupEntry findOneOrCreate(String storageId,
@@ -0,0 +1,275 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinatesSearchTerms;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ILock;
+import com.orientechnologies.common.concur.ONeedRetryException;
+import com.orientechnologies.orient.core.db.ODatabasePool;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maintains the index of the {@link ArtifactEntry#getCoordinateSearchTerms()} and the index of the
+ * {@link ArtifactEntry#getArtifactPath()}. <br>
+ * The search terms and the path of the new and updated entries are kept by the entries themselves; the entries stored
+ * before they were introduced are migrated in batches, in the background, and the indexes are created once all the
+ * entries have them. Until then {@link #isReady()} is `false`, the coordinate searches scan the entries and the keyset
+ * pages seek the coordinates path, as they did before.
+ */
+@Component
+public class ArtifactCoordinatesSearchIndex
+        implements DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactCoordinatesSearchIndex.class);
+
+    public static final String INDEX_NAME = "idx_artifact_coordinate_search_terms";
+
+    private static final String CLASS_NAME = ArtifactEntry.class.getSimpleName();
+
+    private static final String PROPERTY_NAME = "coordinateSearchTerms";
+
+    public static final String PATH_INDEX_NAME = "idx_artifact_entry_path";
+
+    public static final String PATH_PROPERTY_NAME = "artifactPath";
+
+    private static final int MAX_RETRY = 10;
+
+    @Inject
+    private ODatabasePool databasePool;
+
+    @Inject
+    private HazelcastInstance hazelcastInstance;
+
+    @Value("${strongbox.artifact.coordinateSearchIndex.batchSize:1000}")
+    private int batchSize;
+
+    /**
+     * The index lookups which match more entries are not used to narrow the searches down.
+     */
+    @Value("${strongbox.artifact.coordinateSearchIndex.maxCandidates:10000}")
+    private int maxCandidates;
+
+    @Value("${strongbox.artifact.coordinateSearchIndex.checkIntervalSeconds:30}")
+    private int checkIntervalSeconds;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "artifact-coordinates-search-index");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    private volatile boolean ready;
+
+    public boolean isReady()
+    {
+        return ready;
+    }
+
+    public int getMaxCandidates()
+    {
+        return maxCandidates;
+    }
+
+    @EventListener
+    public void handle(ContextRefreshedEvent event)
+    {
+        if (started.compareAndSet(false, true))
+        {
+            executor.execute(this::initialize);
+        }
+    }
+
+    @Override
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+
+    private void initialize()
+    {
+        try
+        {
+            if (indexExists())
+            {
+                ready = true;
+
+                return;
+            }
+
+            ILock lock = hazelcastInstance.getLock("ArtifactCoordinatesSearchIndexLock");
+            if (!lock.tryLock())
+            {
+                logger.debug("The artifact coordinates search index is being created by another instance.");
+                executor.schedule(this::initialize, checkIntervalSeconds, TimeUnit.SECONDS);
+
+                return;
+            }
+
+            try
+            {
+                if (!indexExists())
+                {
+                    createIndex();
+                }
+                ready = true;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+        catch (RuntimeException e)
+        {
+            logger.error(String.format("Failed to create the artifact coordinates search index, retrying in [%s] seconds.",
+                                       checkIntervalSeconds),
+                         e);
+
+            executor.schedule(this::initialize, checkIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private boolean indexExists()
+    {
+        try (ODatabaseSession db = databasePool.acquire())
+        {
+            OClass artifactEntryClass = db.getMetadata().getSchema().getClass(CLASS_NAME);
+
+            return artifactEntryClass != null && artifactEntryClass.getClassIndex(INDEX_NAME) != null
+                    && artifactEntryClass.getClassIndex(PATH_INDEX_NAME) != null;
+        }
+    }
+
+    private void createIndex()
+    {
+        logger.info("Migrating the artifact entries to the coordinates search terms and paths...");
+
+        long count = 0;
+        try (ODatabaseSession db = databasePool.acquire())
+        {
+            OClass artifactEntryClass = db.getMetadata().getSchema().getClass(CLASS_NAME);
+            if (artifactEntryClass.getProperty(PROPERTY_NAME) == null)
+            {
+                artifactEntryClass.createProperty(PROPERTY_NAME, OType.EMBEDDEDSET, OType.STRING);
+            }
+            if (artifactEntryClass.getProperty(PATH_PROPERTY_NAME) == null)
+            {
+                artifactEntryClass.createProperty(PATH_PROPERTY_NAME, OType.STRING);
+            }
+
+            // Paginated by the record identities, so every batch query starts where the previous one ended.
+            ORID lastId = new ORecordId();
+            for (List<ORID> batch = nextBatch(db, lastId); !batch.isEmpty(); batch = nextBatch(db, lastId))
+            {
+                migrate(db, batch);
+
+                lastId = batch.get(batch.size() - 1);
+                count += batch.size();
+                logger.debug(String.format("Migrated [%s] artifact entries.", count));
+            }
+
+            logger.info(String.format("Creating the artifact coordinates search indexes for [%s] artifact entries...",
+                                      count));
+
+            if (artifactEntryClass.getClassIndex(INDEX_NAME) == null)
+            {
+                artifactEntryClass.createIndex(INDEX_NAME, OClass.INDEX_TYPE.NOTUNIQUE, PROPERTY_NAME);
+            }
+            // The keyset pages are always within the repository, see `RepositoryProvider.KEYSET_PROPERTY`.
+            if (artifactEntryClass.getClassIndex(PATH_INDEX_NAME) == null)
+            {
+                artifactEntryClass.createIndex(PATH_INDEX_NAME, OClass.INDEX_TYPE.NOTUNIQUE, "storageId",
+                                               "repositoryId", PATH_PROPERTY_NAME);
+            }
+        }
+
+        logger.info("The artifact coordinates search indexes created.");
+    }
+
+    private List<ORID> nextBatch(ODatabaseSession db,
+                                 ORID lastId)
+    {
+        String sQuery = String.format("SELECT @rid AS rid FROM %s WHERE @rid > ? ORDER BY @rid LIMIT ?", CLASS_NAME);
+        try (OResultSet resultSet = db.query(sQuery, lastId, batchSize))
+        {
+            return resultSet.stream()
+                            .map(r -> ((OIdentifiable) r.getProperty("rid")).getIdentity())
+                            .collect(Collectors.toList());
+        }
+    }
+
+    private void migrate(ODatabaseSession db,
+                         List<ORID> batch)
+    {
+        for (int i = 1; ; i++)
+        {
+            try
+            {
+                db.begin();
+                batch.forEach(this::migrate);
+                db.commit();
+
+                return;
+            }
+            catch (ONeedRetryException e)
+            {
+                db.rollback();
+                if (i >= MAX_RETRY)
+                {
+                    throw e;
+                }
+
+                logger.debug(String.format("Retrying the artifact entries migration, attempt [%s].", i), e);
+            }
+        }
+    }
+
+    private void migrate(ORID artifactEntryId)
+    {
+        ODocument artifactEntry = artifactEntryId.getRecord();
+
+        // Removed, or already stored with the search terms and the path.
+        if (artifactEntry == null
+                || artifactEntry.field(PROPERTY_NAME) != null && artifactEntry.field(PATH_PROPERTY_NAME) != null)
+        {
+            return;
+        }
+
+        OIdentifiable artifactCoordinatesId = artifactEntry.field("artifactCoordinates");
+        ODocument artifactCoordinates = artifactCoordinatesId == null ? null : artifactCoordinatesId.getRecord();
+        Map<String, String> coordinates = artifactCoordinates == null ? null : artifactCoordinates.field("coordinates");
+        String path = artifactCoordinates == null ? null : artifactCoordinates.field("path");
+
+        artifactEntry.field(PROPERTY_NAME, ArtifactCoordinatesSearchTerms.of(coordinates), OType.EMBEDDEDSET);
+        artifactEntry.field(PATH_PROPERTY_NAME, path, OType.STRING);
+        artifactEntry.save();
+    }
+
+}
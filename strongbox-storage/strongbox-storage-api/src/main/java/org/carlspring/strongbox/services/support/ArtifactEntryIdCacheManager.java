@@ -0,0 +1,130 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.data.CacheName;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+
+import javax.inject.Inject;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the {@link ArtifactEntry} record identities by `storageId`, `repositoryId` and artifact path, so the entry
+ * can be loaded directly by its identity, without the index queries. <br>
+ * The cached identities are not trusted blindly: the loaded entry should be checked to match the requested
+ * coordinates, and the identity {@link #evict}ed if it doesn't (entry removed or changed).
+ */
+@Component
+public class ArtifactEntryIdCacheManager
+{
+
+    private final Cache cache;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder staleCount = new LongAdder();
+
+    @Inject
+    ArtifactEntryIdCacheManager(CacheManager cacheManager)
+    {
+        cache = cacheManager.getCache(CacheName.Artifact.ARTIFACT_ENTRY_IDS);
+        Objects.requireNonNull(cache, "artifactEntryIds cache configuration was not provided");
+    }
+
+    public String get(String storageId,
+                      String repositoryId,
+                      String path)
+    {
+        String result = cache.get(toKey(storageId, repositoryId, path), String.class);
+        if (result == null)
+        {
+            missCount.increment();
+        }
+        else
+        {
+            hitCount.increment();
+        }
+
+        return result;
+    }
+
+    public void put(String storageId,
+                    String repositoryId,
+                    String path,
+                    String artifactEntryId)
+    {
+        cache.put(toKey(storageId, repositoryId, path), artifactEntryId);
+    }
+
+    public void evict(String storageId,
+                      String repositoryId,
+                      String path)
+    {
+        cache.evict(toKey(storageId, repositoryId, path));
+    }
+
+    /**
+     * Removes the cached identity which turned out not to match the coordinates anymore.
+     */
+    public void evictStale(String storageId,
+                           String repositoryId,
+                           String path)
+    {
+        staleCount.increment();
+        evict(storageId, repositoryId, path);
+    }
+
+    public void clear()
+    {
+        cache.clear();
+    }
+
+    public long getHitCount()
+    {
+        return hitCount.sum();
+    }
+
+    public long getMissCount()
+    {
+        return missCount.sum();
+    }
+
+    /**
+     * @return number of the cache hits, which turned out to be stale
+     */
+    public long getStaleCount()
+    {
+        return staleCount.sum();
+    }
+
+    public double getHitRatio()
+    {
+        long hits = getHitCount() - getStaleCount();
+        long total = getHitCount() + getMissCount();
+
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    private String toKey(String storageId,
+                         String repositoryId,
+                         String path)
+    {
+        return storageId + ":" + repositoryId + ":" + path;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("hits-[%s]; misses-[%s]; stale-[%s]; hit-ratio-[%.2f]",
+                             getHitCount(),
+                             getMissCount(),
+                             getStaleCount(),
+                             getHitRatio());
+    }
+
+}
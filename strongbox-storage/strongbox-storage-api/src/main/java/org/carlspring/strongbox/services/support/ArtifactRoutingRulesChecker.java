@@ -4,18 +4,18 @@ import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.repository.Repository;
-import org.carlspring.strongbox.storage.routing.RepositoryIdentifiable;
-import org.carlspring.strongbox.storage.routing.RoutingRule;
-import org.carlspring.strongbox.storage.routing.RoutingRules;
+import org.carlspring.strongbox.storage.routing.RoutingRulesMatcher;
+import org.carlspring.strongbox.storage.routing.RoutingRulesMatcher.MemberRules;
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.List;
 
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
 /**
+ * The routing rules are compiled into the {@link RoutingRulesMatcher} once per configuration version, so the
+ * configuration is not copied, and the rules are not scanned, for every group member check.
+ *
  * @author Przemyslaw Fusik
  * @see <a href="https://strongbox.github.io/user-guide/artifact-routing-rules.html">Artifact Routing Rules</a>
  */
@@ -26,85 +26,56 @@ public class ArtifactRoutingRulesChecker
     @Inject
     private ConfigurationManager configurationManager;
 
+    private volatile VersionedMatcher matcher;
+
     public boolean isDenied(Repository groupRepository,
                             RepositoryPath repositoryPath)
             throws IOException
     {
-        final RoutingRules routingRules = configurationManager.getConfiguration().getRoutingRules();
-        final boolean hasDenyRules = hasCandidates(groupRepository, repositoryPath, routingRules.getDenied());
-        final boolean hasAcceptRules = hasCandidates(groupRepository, repositoryPath, routingRules.getAccepted());
+        Repository subRepository = repositoryPath.getRepository();
+        MemberRules memberRules = getMatcher().getMemberRules(groupRepository.getStorage().getId(),
+                                                              groupRepository.getId(),
+                                                              subRepository.getStorage().getId(),
+                                                              subRepository.getId());
+        if (!memberRules.hasDenyRules())
+        {
+            return false;
+        }
 
-        return hasDenyRules && !hasAcceptRules;
+        return memberRules.isDenied(RepositoryFiles.relativizePath(repositoryPath));
     }
 
-    private boolean hasCandidates(Repository groupRepository,
-                                  RepositoryPath repositoryPath,
-                                  List<RoutingRule> routingRules)
-            throws IOException
+    private RoutingRulesMatcher getMatcher()
     {
+        // The version is taken before the configuration, so the matcher could only be rebuilt once more than needed.
+        long version = configurationManager.getConfigurationVersion();
 
-        String artifactPath = RepositoryFiles.relativizePath(repositoryPath);
-        Repository subRepository = repositoryPath.getRepository();
-
-        return routingRules.stream()
-                           .anyMatch(rule -> {
-                               boolean result = false;
-
-                               if ((isMatch(rule, groupRepository))
-                                   && rule.getRegex().matcher(artifactPath).matches())
-                               {
-                                   // an empty collection means the rule is applied to **all** repositories in the group.
-                                   if (rule.getRepositories().size() == 0)
-                                   {
-                                       result = true;
-                                   }
-                                   else
-                                   {
-                                       result = rule.getRepositories()
-                                                    .stream()
-                                                    .anyMatch(r -> isMatch(r, subRepository));
-                                   }
-                               }
-
-                               return result;
-                           });
+        VersionedMatcher result = matcher;
+        if (result == null || result.version != version)
+        {
+            result = new VersionedMatcher(version,
+                                          new RoutingRulesMatcher(configurationManager.getConfiguration()
+                                                                                      .getRoutingRules()));
+            matcher = result;
+        }
 
+        return result.matcher;
     }
 
-    private boolean isMatch(RepositoryIdentifiable rule,
-                            Repository repository)
+    private static class VersionedMatcher
     {
-        boolean result = false;
 
-        // exact match == storageId:repositoryId
-        if (equalsIgnoreCase(rule.getStorageIdAndRepositoryId(), repository.getStorageIdAndRepositoryId()))
-        {
-            result = true;
-        }
-        // wildcard == *:*
-        else if (equalsIgnoreCase(rule.getStorageIdAndRepositoryId(), StringUtils.EMPTY))
-        {
-            result = true;
-        }
-        // wildcard == storageId:*
-        else if (equalsIgnoreCase(rule.getRepositoryId(), StringUtils.EMPTY) &&
-                 equalsIgnoreCase(rule.getStorageId(), repository.getStorage().getId()))
-        {
-            result = true;
-        }
-        // wildcard == *:repositoryId
-        else if (equalsIgnoreCase(rule.getStorageId(), StringUtils.EMPTY) &&
-                 equalsIgnoreCase(rule.getRepositoryId(), repository.getId()))
+        private final long version;
+
+        private final RoutingRulesMatcher matcher;
+
+        VersionedMatcher(long version,
+                         RoutingRulesMatcher matcher)
         {
-            result = true;
+            this.version = version;
+            this.matcher = matcher;
         }
 
-        return result;
     }
 
-    private boolean equalsIgnoreCase(final String a,
-                                     final String b)
-    {
-        return StringUtils.trimToEmpty(a).equalsIgnoreCase(StringUtils.trimToEmpty(b));
-    }
 }
@@ -0,0 +1,125 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.FilenameUtils;
+
+/**
+ * Records the directories, which were completely processed by the checksum regeneration, so an interrupted
+ * regeneration can be resumed without processing them again. <br>
+ * The checkpoint is stored within the repository temporary directory, which is hidden from the repository content,
+ * and removed once the regeneration completed. Every base path has its own checkpoint, because the directories are
+ * processed depending on the directories above them, down from the base path.
+ */
+public class ChecksumRegenerationCheckpoint
+        implements Closeable
+{
+
+    /**
+     * Plain file, so the checkpoint updates don't go through the repository storage (locks, events etc.).
+     */
+    private final Path checkpointFile;
+
+    private final Set<String> completedDirectories = ConcurrentHashMap.newKeySet();
+
+    private BufferedWriter writer;
+
+    private ChecksumRegenerationCheckpoint(Path checkpointFile)
+    {
+        this.checkpointFile = checkpointFile;
+    }
+
+    public static ChecksumRegenerationCheckpoint open(RepositoryPath repositoryPath,
+                                                      boolean forceRegeneration)
+        throws IOException
+    {
+        String basePath = FilenameUtils.separatorsToUnix(repositoryPath.relativize().toString());
+        String fileName = String.format("checksum-regeneration-%s%s.checkpoint",
+                                        UUID.nameUUIDFromBytes(basePath.getBytes(StandardCharsets.UTF_8)),
+                                        forceRegeneration ? "-force" : "");
+        Path checkpointFile = repositoryPath.getFileSystem()
+                                            .getRootDirectory()
+                                            .resolve(LayoutFileSystem.TEMP)
+                                            .resolve(fileName)
+                                            .toFile()
+                                            .toPath();
+
+        ChecksumRegenerationCheckpoint checkpoint = new ChecksumRegenerationCheckpoint(checkpointFile);
+        if (Files.exists(checkpointFile))
+        {
+            checkpoint.completedDirectories.addAll(Files.readAllLines(checkpointFile,
+                                                                      StandardCharsets.UTF_8));
+        }
+        else
+        {
+            Files.createDirectories(checkpointFile.getParent());
+        }
+
+        checkpoint.writer = Files.newBufferedWriter(checkpointFile,
+                                                    StandardCharsets.UTF_8,
+                                                    StandardOpenOption.CREATE,
+                                                    StandardOpenOption.APPEND);
+
+        return checkpoint;
+    }
+
+    public boolean isResumed()
+    {
+        return !completedDirectories.isEmpty();
+    }
+
+    public boolean isCompleted(RepositoryPath directory)
+    {
+        return completedDirectories.contains(toEntry(directory));
+    }
+
+    public synchronized void complete(RepositoryPath directory)
+        throws IOException
+    {
+        String entry = toEntry(directory);
+        if (!completedDirectories.add(entry))
+        {
+            return;
+        }
+
+        writer.write(entry);
+        writer.newLine();
+        writer.flush();
+    }
+
+    /**
+     * Removes the checkpoint, so the next regeneration will start from the beginning.
+     */
+    public synchronized void clear()
+        throws IOException
+    {
+        close();
+        completedDirectories.clear();
+        Files.deleteIfExists(checkpointFile);
+    }
+
+    @Override
+    public synchronized void close()
+        throws IOException
+    {
+        writer.close();
+    }
+
+    private String toEntry(RepositoryPath directory)
+    {
+        return FilenameUtils.separatorsToUnix(directory.relativize().toString());
+    }
+
+}
@@ -0,0 +1,149 @@
+package org.carlspring.strongbox.services.support;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress and throughput of the checksum regeneration.
+ */
+public class ChecksumRegenerationStatistics
+{
+
+    private static final double MEGABYTE = 1024 * 1024;
+
+    private final LongAdder regeneratedFiles = new LongAdder();
+
+    private final LongAdder skippedFiles = new LongAdder();
+
+    private final LongAdder failedFiles = new LongAdder();
+
+    private final LongAdder resumedDirectories = new LongAdder();
+
+    private final LongAdder bytes = new LongAdder();
+
+    private volatile long startTime;
+
+    private volatile long endTime;
+
+    public void start()
+    {
+        startTime = System.currentTimeMillis();
+        endTime = 0;
+    }
+
+    public void stop()
+    {
+        endTime = System.currentTimeMillis();
+    }
+
+    public void regenerated(long size)
+    {
+        regeneratedFiles.increment();
+        bytes.add(size);
+    }
+
+    public void skipped()
+    {
+        skippedFiles.increment();
+    }
+
+    public void failed()
+    {
+        failedFiles.increment();
+    }
+
+    public void resumed()
+    {
+        resumedDirectories.increment();
+    }
+
+    public long getRegeneratedFiles()
+    {
+        return regeneratedFiles.sum();
+    }
+
+    public long getSkippedFiles()
+    {
+        return skippedFiles.sum();
+    }
+
+    public long getFailedFiles()
+    {
+        return failedFiles.sum();
+    }
+
+    public long getResumedDirectories()
+    {
+        return resumedDirectories.sum();
+    }
+
+    public long getBytes()
+    {
+        return bytes.sum();
+    }
+
+    public boolean isRunning()
+    {
+        return startTime > 0 && endTime == 0;
+    }
+
+    public long getElapsedMillis()
+    {
+        if (startTime == 0)
+        {
+            return 0;
+        }
+
+        return (endTime == 0 ? System.currentTimeMillis() : endTime) - startTime;
+    }
+
+    /**
+     * @return number of the processed (regenerated or skipped) files per second
+     */
+    public double getFilesPerSecond()
+    {
+        return perSecond(getRegeneratedFiles() + getSkippedFiles());
+    }
+
+    public double getMegabytesPerSecond()
+    {
+        return perSecond(getBytes() / MEGABYTE);
+    }
+
+    private double perSecond(double value)
+    {
+        long elapsed = getElapsedMillis();
+
+        return elapsed == 0 ? 0 : value * 1000 / elapsed;
+    }
+
+    public Map<String, Object> toMap()
+    {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("running", isRunning());
+        result.put("elapsedMillis", getElapsedMillis());
+        result.put("regeneratedFiles", getRegeneratedFiles());
+        result.put("skippedFiles", getSkippedFiles());
+        result.put("failedFiles", getFailedFiles());
+        result.put("resumedDirectories", getResumedDirectories());
+        result.put("bytes", getBytes());
+        result.put("filesPerSecond", getFilesPerSecond());
+        result.put("megabytesPerSecond", getMegabytesPerSecond());
+
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("regenerated-[%s]; skipped-[%s]; failed-[%s]; resumed-dirs-[%s]; files/s-[%.1f]; MB/s-[%.1f]",
+                             getRegeneratedFiles(),
+                             getSkippedFiles(),
+                             getFailedFiles(),
+                             getResumedDirectories(),
+                             getFilesPerSecond(),
+                             getMegabytesPerSecond());
+    }
+
+}
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.storage.checksum;
 
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -9,6 +10,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  * @author mtodorov
  */
 public class ArtifactChecksum
+        implements Serializable
 {
 
     /**
@@ -31,6 +33,21 @@ public class ArtifactChecksum
         updateLastAccessedTime();
     }
 
+    /**
+     * Copy constructor, the cached instances are treated as immutable, so they can be safely updated within the
+     * distributed cache.
+     */
+    ArtifactChecksum(ArtifactChecksum source)
+    {
+        synchronized (source)
+        {
+            checksums.putAll(source.checksums);
+            numberOfChecksums.set(source.numberOfChecksums.get());
+            numberOfValidatedChecksums.set(source.numberOfValidatedChecksums.get());
+        }
+        updateLastAccessedTime();
+    }
+
     public synchronized void addChecksum(String algorithm,
                                          String checksum)
     {
@@ -1,11 +1,20 @@
 package org.carlspring.strongbox.storage.checksum;
 
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
-import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.listener.EntryEvictedListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,6 +34,11 @@ import org.slf4j.LoggerFactory;
  * - a checksum is not claimed within cachedChecksumLifetime, trigger an event and log
  * this, then remove the checksum from the cache. (If this checksums set is empty,
  * remove the respective Checksum from the cachedChecksums).
+ * <p>
+ * The cache is bounded by size and the entries expire after they were not accessed within the
+ * cachedChecksumLifetime. By default it's a local concurrent cache, but it can be backed by the distributed
+ * (Hazelcast) map, so the cluster nodes which received the artifact and its checksum separately can still validate
+ * it. The cached {@link ArtifactChecksum} values are never modified in place, every update stores a new copy.
  *
  * @author mtodorov
  */
@@ -33,28 +47,72 @@ public class ChecksumCacheManager
 
     private static Logger logger = LoggerFactory.getLogger(ChecksumCacheManager.class);
 
+    public static final long DEFAULT_MAXIMUM_SIZE = 10000;
+
     /**
      * Key:     Artifact path
      * Value:   Artifact checksum.
      */
-    private Map<String, ArtifactChecksum> cachedChecksums = new LinkedHashMap<>();
+    private final ConcurrentMap<String, ArtifactChecksum> cachedChecksums;
+
+    /**
+     * The local cache, which is used when the checksums are not distributed.
+     */
+    private final Cache<String, ArtifactChecksum> localCache;
 
     /**
      * Specifies how long to keep the cached checksums.
      * <p>
      * The default is five minutes.
      */
-    private long cachedChecksumLifetime = 5 * 60000;
+    private final long cachedChecksumLifetime;
 
     /**
-     * Specifies at what interval to check if the checksums have expired.
+     * Specifies at what interval to clean up the expired checksums.
      * The default is to check once every minute.
      */
     private long cachedChecksumExpiredCheckInterval = 60000L;
 
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder expirationCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private ScheduledExecutorService monitor;
+
 
     public ChecksumCacheManager()
     {
+        this(DEFAULT_MAXIMUM_SIZE, 5 * 60000L);
+    }
+
+    public ChecksumCacheManager(long maximumSize,
+                                long cachedChecksumLifetime)
+    {
+        this.cachedChecksumLifetime = cachedChecksumLifetime;
+        this.localCache = CacheBuilder.newBuilder()
+                                      .maximumSize(maximumSize)
+                                      .expireAfterAccess(cachedChecksumLifetime, TimeUnit.MILLISECONDS)
+                                      .removalListener(this::onRemoval)
+                                      .build();
+        this.cachedChecksums = localCache.asMap();
+    }
+
+    /**
+     * Creates the cache manager backed by the distributed map. The size limit and expiration of the distributed
+     * checksums are specified by the map configuration.
+     */
+    public ChecksumCacheManager(IMap<String, ArtifactChecksum> distributedChecksums,
+                                long cachedChecksumLifetime)
+    {
+        this.cachedChecksumLifetime = cachedChecksumLifetime;
+        this.localCache = null;
+        this.cachedChecksums = distributedChecksums;
+
+        distributedChecksums.addLocalEntryListener((EntryEvictedListener<String, ArtifactChecksum>) this::onEviction);
     }
 
     public boolean containsArtifactPath(String artifactPath)
@@ -71,12 +129,12 @@ public class ChecksumCacheManager
     public String getArtifactChecksum(String artifactBasePath,
                                       String algorithm)
     {
-        if (!cachedChecksums.containsKey(artifactBasePath))
+        final ArtifactChecksum artifactChecksum = getArtifactChecksum(artifactBasePath);
+        if (artifactChecksum == null)
         {
             return null;
         }
 
-        final ArtifactChecksum artifactChecksum = getArtifactChecksum(artifactBasePath);
         final String checksum = artifactChecksum.getChecksum(algorithm);
         if (checksum != null)
         {
@@ -88,91 +146,125 @@ public class ChecksumCacheManager
 
     public ArtifactChecksum getArtifactChecksum(String artifactBasePath)
     {
-        return cachedChecksums.get(artifactBasePath);
+        ArtifactChecksum artifactChecksum = cachedChecksums.get(artifactBasePath);
+        if (artifactChecksum == null)
+        {
+            missCount.increment();
+        }
+        else
+        {
+            hitCount.increment();
+        }
+
+        return artifactChecksum;
     }
 
     public boolean validateChecksum(String artifactPath,
                                     String algorithm,
                                     String checksum)
     {
-        return getArtifactChecksum(artifactPath, algorithm).equals(checksum);
+        return checksum.equals(getArtifactChecksum(artifactPath, algorithm));
     }
 
-    public synchronized void addArtifactChecksum(String artifactBasePath,
-                                                 String algorithm,
-                                                 String checksum)
+    public void addArtifactChecksum(String artifactBasePath,
+                                    String algorithm,
+                                    String checksum)
     {
         logger.debug("Adding checksum '" + checksum + "' [" + algorithm + "]" + " for '" + artifactBasePath + "' in cache.");
 
-        if (cachedChecksums.containsKey(artifactBasePath))
-        {
-            final ArtifactChecksum artifactChecksum = getArtifactChecksum(artifactBasePath);
-            artifactChecksum.addChecksum(algorithm, checksum);
-        }
-        else
-        {
-            ArtifactChecksum artifactChecksum = new ArtifactChecksum();
+        cachedChecksums.compute(artifactBasePath, (k, ac) -> {
+            ArtifactChecksum artifactChecksum = ac == null ? new ArtifactChecksum() : new ArtifactChecksum(ac);
             artifactChecksum.addChecksum(algorithm, checksum);
 
-            cachedChecksums.put(artifactBasePath, artifactChecksum);
-        }
+            return artifactChecksum;
+        });
     }
 
-    public synchronized void removeArtifactChecksum(String artifactBasePath,
-                                                    String algorithm)
+    public void removeArtifactChecksum(String artifactBasePath,
+                                       String algorithm)
     {
-        Optional.ofNullable(getArtifactChecksum(artifactBasePath)).map(ac -> {
-            logger.debug(ac.removeChecksum(algorithm)
-                           .map(c -> String.format("Removed [%s] artifact checksum value [%s] from cache.",
-                                                   artifactBasePath,
-                                                   c))
-                           .orElseGet(() -> String.format("Checksum algorithm [%s] not found for [%s] in cache.",
-                                                          algorithm,
-                                                          artifactBasePath)));
-            return ac;
-        }).filter(ac -> ac.getChecksums().isEmpty()).ifPresent(ac -> cachedChecksums.values().remove(ac));
+        cachedChecksums.computeIfPresent(artifactBasePath, (k, ac) -> {
+            ArtifactChecksum artifactChecksum = new ArtifactChecksum(ac);
+            logger.debug(artifactChecksum.removeChecksum(algorithm)
+                                         .map(c -> String.format("Removed [%s] artifact checksum value [%s] from cache.",
+                                                                 artifactBasePath,
+                                                                 c))
+                                         .orElseGet(() -> String.format("Checksum algorithm [%s] not found for [%s] in cache.",
+                                                                        algorithm,
+                                                                        artifactBasePath)));
+
+            return artifactChecksum.getChecksums().isEmpty() ? null : artifactChecksum;
+        });
     }
 
-    public synchronized void removeArtifactChecksum(String artifactBasePath)
+    public void removeArtifactChecksum(String artifactBasePath)
     {
+        if (localCache != null)
+        {
+            // Explicit removal is reported to the removal listener, so it's logged there.
+            localCache.invalidate(artifactBasePath);
+
+            return;
+        }
+
         Optional.ofNullable(cachedChecksums.remove(artifactBasePath))
                 .ifPresent(ac -> logger.debug(String.format("Removed [%s] artifact checksum value [%s] from cache.",
                                                             artifactBasePath, ac)));
     }
 
-    public synchronized void removeExpiredChecksums()
+    /**
+     * Performs the pending expiration of the checksums, which were not claimed within the
+     * cachedChecksumLifetime. Note that the expired checksums are never returned from the cache, even if they were
+     * not cleaned up yet.
+     */
+    public void removeExpiredChecksums()
     {
-        for (String checksum : getExpiredChecksums())
+        if (localCache != null)
         {
-            removeArtifactChecksum(checksum);
+            localCache.cleanUp();
         }
     }
 
-    private Set<String> getExpiredChecksums()
+    private void onRemoval(RemovalNotification<String, ArtifactChecksum> notification)
     {
-        Set<String> expiredChecksums = new LinkedHashSet<>();
-
-        for (Map.Entry<String, ArtifactChecksum> artifactChecksumEntry : cachedChecksums.entrySet())
+        RemovalCause cause = notification.getCause();
+        if (cause == RemovalCause.EXPIRED)
         {
-            ArtifactChecksum checksum = artifactChecksumEntry.getValue();
+            expirationCount.increment();
 
-            if (System.currentTimeMillis() - checksum.getLastAccessed() > cachedChecksumLifetime)
-            {
-                expiredChecksums.add(artifactChecksumEntry.getKey());
-            }
+            logger.warn(String.format("Checksums [%s] of [%s] were not claimed within [%s] ms.",
+                                      notification.getValue(),
+                                      notification.getKey(),
+                                      cachedChecksumLifetime));
         }
+        else if (cause == RemovalCause.SIZE)
+        {
+            evictionCount.increment();
 
-        return expiredChecksums;
+            logger.warn(String.format("Checksums [%s] of [%s] were evicted from the full cache.",
+                                      notification.getValue(),
+                                      notification.getKey()));
+        }
+        else if (cause == RemovalCause.EXPLICIT)
+        {
+            logger.debug(String.format("Removed [%s] artifact checksum value [%s] from cache.",
+                                       notification.getKey(),
+                                       notification.getValue()));
+        }
     }
 
-    public long getCachedChecksumLifetime()
+    private void onEviction(EntryEvent<String, ArtifactChecksum> event)
     {
-        return cachedChecksumLifetime;
+        // The distributed map reports both the expired and the evicted entries as evicted.
+        evictionCount.increment();
+
+        logger.warn(String.format("Checksums of [%s] were evicted from the cache without being claimed.",
+                                  event.getKey()));
     }
 
-    public void setCachedChecksumLifetime(long cachedChecksumLifetime)
+    public long getCachedChecksumLifetime()
     {
-        this.cachedChecksumLifetime = cachedChecksumLifetime;
+        return cachedChecksumLifetime;
     }
 
     public long getCachedChecksumExpiredCheckInterval()
@@ -187,40 +279,65 @@ public class ChecksumCacheManager
 
     public long getSize()
     {
-        return cachedChecksums.size();
+        return localCache != null ? localCache.size() : cachedChecksums.size();
+    }
+
+    public long getHitCount()
+    {
+        return hitCount.sum();
     }
 
-    public void startMonitor()
+    public long getMissCount()
     {
-        new CachedChecksumExpirer();
+        return missCount.sum();
     }
 
-    private class CachedChecksumExpirer
-            extends Thread
+    public long getExpirationCount()
     {
+        return expirationCount.sum();
+    }
+
+    public long getEvictionCount()
+    {
+        return evictionCount.sum();
+    }
 
-        private CachedChecksumExpirer()
+    public synchronized void startMonitor()
+    {
+        if (monitor != null)
         {
-            start();
+            return;
         }
 
-        @Override
-        public void run()
+        monitor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("checksum-cache-expirer")
+                                                                                       .setDaemon(true)
+                                                                                       .build());
+        monitor.scheduleWithFixedDelay(this::removeExpiredChecksums,
+                                       cachedChecksumExpiredCheckInterval,
+                                       cachedChecksumExpiredCheckInterval,
+                                       TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopMonitor()
+    {
+        if (monitor == null)
         {
-            try
-            {
-                //noinspection InfiniteLoopStatement
-                while (true)
-                {
-                    Thread.sleep(getCachedChecksumExpiredCheckInterval());
-                    removeExpiredChecksums();
-                }
-            }
-            catch (InterruptedException e)
-            {
-                logger.error(e.getMessage(), e);
-            }
+            return;
         }
+
+        monitor.shutdownNow();
+        monitor = null;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("size-[%s]; hits-[%s]; misses-[%s]; expirations-[%s]; evictions-[%s]",
+                             getSize(),
+                             getHitCount(),
+                             getMissCount(),
+                             getExpirationCount(),
+                             getEvictionCount());
     }
 
 }
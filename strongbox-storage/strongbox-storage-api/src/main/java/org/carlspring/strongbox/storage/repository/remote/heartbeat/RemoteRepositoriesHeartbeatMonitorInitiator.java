@@ -1,30 +1,51 @@
 package org.carlspring.strongbox.storage.repository.remote.heartbeat;
 
 import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.event.repository.RepositoryEventListenerRegistry;
+import org.carlspring.strongbox.event.server.ServerEvent;
+import org.carlspring.strongbox.event.server.ServerEventTypeEnum;
 import org.carlspring.strongbox.log.CronTaskContextAcceptFilter;
 import org.carlspring.strongbox.log.LoggingUtils;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
-import org.carlspring.strongbox.storage.repository.remote.heartbeat.monitor.RemoteRepositoryHeartbeatMonitorStrategy;
 import org.carlspring.strongbox.storage.repository.remote.heartbeat.monitor.RemoteRepositoryHeartbeatMonitorStrategyRegistry;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.lang3.ObjectUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
 /**
+ * Schedules the remote repositories heartbeat. <br>
+ * The checks are done once per remote host (see {@link RemoteRepositoryHeartbeatMonitor}), with the shortest check
+ * interval of the repositories pointing to it. A single thread keeps the schedule, while the (blocking) checks are
+ * run by the pool of `heartbeatThreadsNumber` threads, so the slow hosts don't delay the checks of the others. <br>
+ * The hosts are rescheduled on every configuration change, and the successful proxy requests are taken as heartbeats
+ * (see {@link #observedAlive(RemoteRepository)}).
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -36,6 +57,8 @@ public class RemoteRepositoriesHeartbeatMonitorInitiator
 
     private ScheduledExecutorService executor;
 
+    private ExecutorService checkExecutor;
+
     @Inject
     private ConfigurationManager configurationManager;
 
@@ -45,25 +68,155 @@ public class RemoteRepositoriesHeartbeatMonitorInitiator
     @Inject
     private RemoteRepositoryHeartbeatMonitorStrategyRegistry remoteRepositoryHeartbeatMonitorStrategyRegistry;
 
+    @Inject
+    private RepositoryEventListenerRegistry repositoryEventListenerRegistry;
+
+    @Value("${strongbox.remoteRepositories.heartbeat.maxBackoffSeconds:600}")
+    private int maxBackoffSeconds;
+
+    private final ConcurrentMap<String, RemoteRepositoryHeartbeatMonitor> monitors = new ConcurrentHashMap<>();
+
+    private long configurationVersion = -1;
+
     @Override
     public void destroy()
     {
-        executor.shutdown();
+        executor.shutdownNow();
+        checkExecutor.shutdownNow();
     }
 
     @Override
     public void afterPropertiesSet()
     {
         int heartbeatThreadsNumber = getRemoteRepositoriesHeartbeatThreadsNumber();
-        executor = Executors.newScheduledThreadPool(heartbeatThreadsNumber);
+        ThreadFactory schedulerThreadFactory = new ThreadFactoryBuilder().setNameFormat("remote-heartbeat-scheduler")
+                                                                         .setDaemon(true)
+                                                                         .build();
+        executor = Executors.newSingleThreadScheduledExecutor(schedulerThreadFactory);
+
+        ThreadFactory checkThreadFactory = new ThreadFactoryBuilder().setNameFormat("remote-heartbeat-%d")
+                                                                     .setDaemon(true)
+                                                                     .build();
+        checkExecutor = Executors.newFixedThreadPool(heartbeatThreadsNumber, checkThreadFactory);
+
+        executor.execute(this::rescheduleQuietly);
+    }
+
+    @EventListener
+    public void handle(ServerEvent event)
+    {
+        if (event.getType() != ServerEventTypeEnum.EVENT_SERVER_CONFIGURATION_CHANGED.getType() || executor == null)
+        {
+            return;
+        }
+
+        try
+        {
+            executor.execute(this::rescheduleQuietly);
+        }
+        catch (RejectedExecutionException e)
+        {
+            logger.debug("Heartbeat monitoring is shut down, configuration change ignored.");
+        }
+    }
+
+    /**
+     * Takes the successful proxy request as the heartbeat, so the busy remote hosts don't need the extra checks.
+     */
+    public void observedAlive(RemoteRepository remoteRepository)
+    {
+        RemoteRepositoryHeartbeatMonitor monitor = monitors.get(RemoteRepositoryHeartbeatMonitor.toHost(
+                remoteRepository.getUrl()));
+        if (monitor != null && monitor.observedAlive(System.currentTimeMillis()))
+        {
+            alivenessChanged(monitor, true);
+        }
+    }
+
+    private void rescheduleQuietly()
+    {
+        try
+        {
+            scheduleRemoteRepositoriesMonitoring();
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to schedule remote repositories monitoring.", e);
+        }
+    }
+
+    /**
+     * Synchronizes the monitored hosts with the configuration. Always called within the scheduling thread.
+     */
+    private void scheduleRemoteRepositoriesMonitoring()
+    {
+        long version = configurationManager.getConfigurationVersion();
+        if (version == configurationVersion)
+        {
+            return;
+        }
 
         int defaultIntervalSeconds = getDefaultRemoteRepositoriesHeartbeatIntervalSeconds();
+        Map<String, List<Repository>> repositoriesByHost = new LinkedHashMap<>();
+        for (Repository repository : getProxyRepositories())
+        {
+            String host = RemoteRepositoryHeartbeatMonitor.toHost(repository.getRemoteRepository().getUrl());
+            repositoriesByHost.computeIfAbsent(host, h -> new ArrayList<>()).add(repository);
+        }
+
+        monitors.entrySet().removeIf(e -> {
+            if (repositoriesByHost.containsKey(e.getKey()))
+            {
+                return false;
+            }
+
+            e.getValue().cancel();
+            logger.info("Remote host " + e.getKey() + " removed from monitoring");
+
+            return true;
+        });
+
+        repositoriesByHost.forEach((host, repositories) -> {
+            int intervalSeconds = repositories.stream()
+                                              .mapToInt(r -> getIntervalSeconds(r.getRemoteRepository(),
+                                                                                defaultIntervalSeconds))
+                                              .min()
+                                              .getAsInt();
+
+            RemoteRepositoryHeartbeatMonitor monitor = monitors.get(host);
+            if (monitor == null)
+            {
+                monitor = new RemoteRepositoryHeartbeatMonitor(host, maxBackoffSeconds);
+                monitor.update(Collections.unmodifiableList(repositories), intervalSeconds);
+                monitors.put(host, monitor);
+
+                schedule(monitor, 0);
+
+                logger.info("Remote host " + host + " scheduled for monitoring with interval seconds " +
+                            intervalSeconds + ", repositories " + repositories.size());
+
+                return;
+            }
+
+            int previousIntervalSeconds = monitor.getIntervalSeconds();
+            monitor.update(Collections.unmodifiableList(repositories), intervalSeconds);
+            if (monitor.getAlive() != null)
+            {
+                // The repositories could be added to the host which is already known.
+                boolean alive = monitor.getAlive();
+                repositories.forEach(r -> remoteRepositoryCacheManager.put(r.getRemoteRepository(), alive));
+            }
+            if (previousIntervalSeconds != intervalSeconds)
+            {
+                schedule(monitor, monitor.getNextCheckDelay(System.currentTimeMillis()));
+            }
+        });
 
-        getRemoteRepositories().stream().forEach(rr -> scheduleRemoteRepositoryMonitoring(defaultIntervalSeconds, rr));
+        configurationVersion = version;
     }
 
-    private void scheduleRemoteRepositoryMonitoring(int defaultIntervalSeconds,
-                                                    RemoteRepository remoteRepository)
+    private int getIntervalSeconds(RemoteRepository remoteRepository,
+                                   int defaultIntervalSeconds)
     {
         int intervalSeconds = ObjectUtils.defaultIfNull(remoteRepository.getCheckIntervalSeconds(),
                                                         defaultIntervalSeconds);
@@ -72,25 +225,116 @@ public class RemoteRepositoriesHeartbeatMonitorInitiator
                       "intervalSeconds cannot be negative or zero but was " + intervalSeconds + " for " +
                       remoteRepository.getUrl());
 
-        RemoteRepositoryHeartbeatMonitor remoteRepositoryHeartBeatMonitor = new RemoteRepositoryHeartbeatMonitor(remoteRepositoryCacheManager,
-                                                                                                                 determineMonitorStrategy(remoteRepository),
-                                                                                                                 remoteRepository);
-        executor.scheduleWithFixedDelay(new MdcContextProvider(remoteRepositoryHeartBeatMonitor),
-                                        0,
-                                        intervalSeconds, TimeUnit.SECONDS);
+        return intervalSeconds;
+    }
+
+    private void schedule(RemoteRepositoryHeartbeatMonitor monitor,
+                          long delayMillis)
+    {
+        try
+        {
+            monitor.setNextCheck(executor.schedule(() -> check(monitor),
+                                                   delayMillis,
+                                                   TimeUnit.MILLISECONDS));
+        }
+        catch (RejectedExecutionException e)
+        {
+            logger.debug(String.format("Heartbeat monitoring is shut down, [%s] check skipped.", monitor.getHost()));
+        }
+    }
+
+    private void check(RemoteRepositoryHeartbeatMonitor monitor)
+    {
+        long delayMillis = monitor.getNextCheckDelay(System.currentTimeMillis());
+        if (delayMillis > 0)
+        {
+            // The host was seen alive recently.
+            schedule(monitor, delayMillis);
+
+            return;
+        }
 
-        logger.info(
-                "Remote repository " + remoteRepository.getUrl() + " scheduled for monitoring with interval seconds " +
-                intervalSeconds);
+        if (!monitor.startCheck())
+        {
+            return;
+        }
+
+        try
+        {
+            checkExecutor.execute(new MdcContextProvider(RemoteRepositoryHeartbeatMonitor.class,
+                                                         () -> doCheck(monitor)));
+        }
+        catch (RejectedExecutionException e)
+        {
+            logger.debug(String.format("Heartbeat monitoring is shut down, [%s] check skipped.", monitor.getHost()));
+        }
+    }
+
+    private void doCheck(RemoteRepositoryHeartbeatMonitor monitor)
+    {
+        boolean alive = false;
+        try
+        {
+            alive = monitor.check(remoteRepositoryHeartbeatMonitorStrategyRegistry);
+        }
+        finally
+        {
+            boolean changed = monitor.checked(alive, System.currentTimeMillis());
+            try
+            {
+                if (changed)
+                {
+                    alivenessChanged(monitor, alive);
+                }
+                else
+                {
+                    for (Repository repository : monitor.getRepositories())
+                    {
+                        remoteRepositoryCacheManager.put(repository.getRemoteRepository(), alive);
+                    }
+                }
+            }
+            finally
+            {
+                schedule(monitor, monitor.getNextCheckDelay(System.currentTimeMillis()));
+            }
+        }
     }
 
-    private RemoteRepositoryHeartbeatMonitorStrategy determineMonitorStrategy(final RemoteRepository remoteRepository)
+    private void alivenessChanged(RemoteRepositoryHeartbeatMonitor monitor,
+                                  boolean alive)
     {
-        return remoteRepositoryHeartbeatMonitorStrategyRegistry.of(remoteRepository.allowsDirectoryBrowsing());
+        logger.info(String.format("Remote host [%s] is %s.", monitor.getHost(), alive ? "alive" : "down"));
+
+        for (Repository repository : monitor.getRepositories())
+        {
+            remoteRepositoryCacheManager.put(repository.getRemoteRepository(), alive);
+
+            if (alive)
+            {
+                repositoryEventListenerRegistry.dispatchRemoteAvailableEvent(repository.getStorage().getId(),
+                                                                             repository.getId());
+            }
+            else
+            {
+                repositoryEventListenerRegistry.dispatchRemoteUnavailableEvent(repository.getStorage().getId(),
+                                                                               repository.getId());
+            }
+        }
     }
 
+    /**
+     * @return the monitored remote hosts with their aliveness (`null` if not checked yet)
+     */
+    public Map<String, Boolean> getStatistics()
+    {
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        monitors.forEach((host, monitor) -> result.put(host, monitor.getAlive()));
+
+        return result;
+    }
 
-    private List<RemoteRepository> getRemoteRepositories()
+    private List<Repository> getProxyRepositories()
     {
         return configurationManager.getConfiguration()
                                    .getStorages()
@@ -98,7 +342,7 @@ public class RemoteRepositoriesHeartbeatMonitorInitiator
                                    .stream()
                                    .flatMap(s -> s.getRepositories().values().stream())
                                    .filter(Repository::isProxyRepository)
-                                   .map(r -> r.getRemoteRepository())
+                                   .filter(r -> r.getRemoteRepository() != null)
                                    .collect(Collectors.toList());
     }
 
@@ -111,26 +355,35 @@ public class RemoteRepositoriesHeartbeatMonitorInitiator
     {
         return configurationManager.getConfiguration().getRemoteRepositoriesConfiguration().getHeartbeatThreadsNumber();
     }
-    
+
     public static class MdcContextProvider implements Runnable
     {
 
+        private Class<?> contextClass;
+
         private Runnable target;
 
         public MdcContextProvider(Runnable target)
+        {
+            this(target.getClass(), target);
+        }
+
+        public MdcContextProvider(Class<?> contextClass,
+                                  Runnable target)
         {
             super();
+            this.contextClass = contextClass;
             this.target = target;
         }
 
         @Override
         public void run()
         {
-            MDC.put(CronTaskContextAcceptFilter.STRONGBOX_CRON_CONTEXT_NAME, LoggingUtils.caclucateCronContextName(target.getClass()));
+            MDC.put(CronTaskContextAcceptFilter.STRONGBOX_CRON_CONTEXT_NAME, LoggingUtils.caclucateCronContextName(contextClass));
             try
             {
                 target.run();
-            } 
+            }
             finally
             {
                 MDC.remove(CronTaskContextAcceptFilter.STRONGBOX_CRON_CONTEXT_NAME);
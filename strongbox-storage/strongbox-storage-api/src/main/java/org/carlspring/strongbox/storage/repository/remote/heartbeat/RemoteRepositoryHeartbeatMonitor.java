@@ -1,58 +1,243 @@
 package org.carlspring.strongbox.storage.repository.remote.heartbeat;
 
+import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
-import org.carlspring.strongbox.storage.repository.remote.heartbeat.monitor.RemoteRepositoryHeartbeatMonitorStrategy;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.monitor.RemoteRepositoryHeartbeatMonitorStrategyRegistry;
 
 import javax.annotation.Nonnull;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Heartbeat of a single remote host, which is shared by all the proxy repositories pointing to this host. <br>
+ * The synthetic checks are skipped while the proxy traffic shows the host alive, and are backed off exponentially
+ * while the host is down.
+ *
  * @author Przemyslaw Fusik
  */
 class RemoteRepositoryHeartbeatMonitor
-        implements Runnable
 {
 
     private static final Logger logger = LoggerFactory.getLogger(RemoteRepositoryHeartbeatMonitor.class);
 
-    private final RemoteRepository remoteRepository;
+    private static final int MAX_BACKOFF_EXPONENT = 16;
 
-    private final RemoteRepositoryAlivenessCacheManager remoteRepositoryCacheManager;
+    private final String host;
 
-    private final RemoteRepositoryHeartbeatMonitorStrategy monitorStrategy;
+    private final int maxBackoffSeconds;
 
-    RemoteRepositoryHeartbeatMonitor(@Nonnull RemoteRepositoryAlivenessCacheManager remoteRepositoryCacheManager,
-                                     @Nonnull RemoteRepositoryHeartbeatMonitorStrategy monitorStrategy,
-                                     @Nonnull RemoteRepository remoteRepository)
+    private volatile List<Repository> repositories;
+
+    private volatile int intervalSeconds;
+
+    /**
+     * `null` until the first check completed.
+     */
+    private volatile Boolean alive;
+
+    private volatile long lastAliveTime;
+
+    /**
+     * Number of the consecutive failed checks.
+     */
+    private int failures;
+
+    private ScheduledFuture<?> nextCheck;
+
+    private boolean checking;
+
+    private boolean cancelled;
+
+    RemoteRepositoryHeartbeatMonitor(@Nonnull String host,
+                                     int maxBackoffSeconds)
     {
-        Objects.requireNonNull(remoteRepositoryCacheManager);
-        Objects.requireNonNull(monitorStrategy);
-        Objects.requireNonNull(remoteRepository);
+        Objects.requireNonNull(host);
 
-        this.remoteRepositoryCacheManager = remoteRepositoryCacheManager;
-        this.monitorStrategy = monitorStrategy;
-        this.remoteRepository = remoteRepository;
+        this.host = host;
+        this.maxBackoffSeconds = maxBackoffSeconds;
     }
 
-    @Override
-    public void run()
+    /**
+     * @return `protocol://host:port` of the remote repository URL, or the URL itself if it can't be parsed
+     */
+    static String toHost(String url)
     {
+        try
+        {
+            URL remoteUrl = new URL(url);
+            int port = remoteUrl.getPort() != -1 ? remoteUrl.getPort() : remoteUrl.getDefaultPort();
+
+            return String.format("%s://%s:%s", remoteUrl.getProtocol(), remoteUrl.getHost().toLowerCase(), port);
+        }
+        catch (MalformedURLException e)
+        {
+            return url;
+        }
+    }
+
+    String getHost()
+    {
+        return host;
+    }
+
+    List<Repository> getRepositories()
+    {
+        return repositories;
+    }
+
+    int getIntervalSeconds()
+    {
+        return intervalSeconds;
+    }
+
+    Boolean getAlive()
+    {
+        return alive;
+    }
+
+    synchronized int getFailures()
+    {
+        return failures;
+    }
+
+    void update(List<Repository> repositories,
+                int intervalSeconds)
+    {
+        this.repositories = repositories;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    /**
+     * Checks the host with the URL of the first repository which allows directory browsing (HTTP GET), or just
+     * pings it otherwise.
+     */
+    boolean check(RemoteRepositoryHeartbeatMonitorStrategyRegistry strategyRegistry)
+    {
+        RemoteRepository remoteRepository = repositories.stream()
+                                                        .map(Repository::getRemoteRepository)
+                                                        .filter(RemoteRepository::allowsDirectoryBrowsing)
+                                                        .findFirst()
+                                                        .orElse(repositories.get(0).getRemoteRepository());
+
         boolean isAlive = false;
         try
         {
-            isAlive = monitorStrategy.isAlive(remoteRepository.getUrl());
+            isAlive = strategyRegistry.of(remoteRepository.allowsDirectoryBrowsing())
+                                      .isAlive(remoteRepository.getUrl());
         }
         catch (Exception ex)
         {
             logger.error("Problem determining remote repository [" + remoteRepository.getUrl() + "] aliveness", ex);
         }
 
-        logger.debug("Thread name is [{}]. Remote repository [{}] is alive ? [{}]", Thread.currentThread().getName(),
-                     remoteRepository.getUrl(),
+        logger.debug("Thread name is [{}]. Remote host [{}] is alive ? [{}]", Thread.currentThread().getName(),
+                     host,
                      isAlive);
-        remoteRepositoryCacheManager.put(remoteRepository, isAlive);
+
+        return isAlive;
+    }
+
+    /**
+     * @return `true` if the check should be started, `false` if it's already running or the monitor was cancelled
+     */
+    synchronized boolean startCheck()
+    {
+        if (checking || cancelled)
+        {
+            return false;
+        }
+
+        return checking = true;
     }
+
+    /**
+     * @return `true` if the aliveness has been changed
+     */
+    synchronized boolean checked(boolean isAlive,
+                                 long now)
+    {
+        checking = false;
+        failures = isAlive ? 0 : failures + 1;
+        if (isAlive)
+        {
+            lastAliveTime = now;
+        }
+
+        return setAlive(isAlive);
+    }
+
+    /**
+     * Learns the aliveness from the proxy traffic.
+     *
+     * @return `true` if the host turned out alive
+     */
+    synchronized boolean observedAlive(long now)
+    {
+        lastAliveTime = now;
+        if (Boolean.TRUE.equals(alive))
+        {
+            return false;
+        }
+
+        failures = 0;
+
+        return setAlive(true);
+    }
+
+    private boolean setAlive(boolean isAlive)
+    {
+        boolean changed = !Boolean.valueOf(isAlive).equals(alive);
+        alive = isAlive;
+
+        return changed;
+    }
+
+    /**
+     * @return delay of the next check in milliseconds: the check interval after the last time the host was seen
+     *         alive, or the exponential backoff for the host which is down
+     */
+    synchronized long getNextCheckDelay(long now)
+    {
+        long intervalMillis = intervalSeconds * 1000L;
+        if (failures == 0)
+        {
+            return Math.max(0, lastAliveTime + intervalMillis - now);
+        }
+
+        long backoffMillis = intervalMillis << Math.min(failures - 1, MAX_BACKOFF_EXPONENT);
+
+        return Math.min(backoffMillis, Math.max(intervalMillis, maxBackoffSeconds * 1000L));
+    }
+
+    synchronized void setNextCheck(ScheduledFuture<?> nextCheck)
+    {
+        if (this.nextCheck != null)
+        {
+            this.nextCheck.cancel(false);
+        }
+
+        this.nextCheck = cancelled ? null : nextCheck;
+        if (cancelled && nextCheck != null)
+        {
+            nextCheck.cancel(false);
+        }
+    }
+
+    synchronized void cancel()
+    {
+        cancelled = true;
+        setNextCheck(null);
+    }
+
+    synchronized boolean isCancelled()
+    {
+        return cancelled;
+    }
+
 }
@@ -0,0 +1,131 @@
+package org.carlspring.strongbox.artifact.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TarEntryNamesOutputStreamTest
+{
+
+    private static final String LONG_NAME = "package/" + String.join("/", Collections.nCopies(20, "directory")) +
+                                            "/index.js";
+
+    private static final List<String> NAMES = Arrays.asList("package/package.json",
+                                                            "package/lib/",
+                                                            LONG_NAME,
+                                                            "package/README.md");
+
+    @Test
+    public void testPosixArchive()
+            throws IOException
+    {
+        byte[] tar = tar(TarArchiveOutputStream.LONGFILE_POSIX);
+
+        for (int chunkSize : new int[]{ 1, 7, 511, 8192 })
+        {
+            TarEntryNamesOutputStream listing = new TarEntryNamesOutputStream();
+            write(tar, listing, chunkSize);
+
+            assertThat(listing.isFinished()).isTrue();
+            assertThat(listing.getEntryNames()).containsOnlyElementsOf(NAMES).hasSize(NAMES.size());
+        }
+    }
+
+    @Test
+    public void testGnuArchive()
+            throws IOException
+    {
+        TarEntryNamesOutputStream listing = new TarEntryNamesOutputStream();
+        write(tar(TarArchiveOutputStream.LONGFILE_GNU), listing, 100);
+
+        assertThat(listing.isFinished()).isTrue();
+        assertThat(listing.getEntryNames()).containsOnlyElementsOf(NAMES).hasSize(NAMES.size());
+    }
+
+    @Test
+    public void testGzippedArchive()
+            throws IOException
+    {
+        ByteArrayOutputStream tgz = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(tgz))
+        {
+            out.write(tar(TarArchiveOutputStream.LONGFILE_POSIX));
+        }
+
+        for (int chunkSize : new int[]{ 1, 13, 4096 })
+        {
+            TarEntryNamesOutputStream listing = new TarEntryNamesOutputStream();
+            try (OutputStream out = new GzipInflatingOutputStream(listing))
+            {
+                write(tgz.toByteArray(), out, chunkSize);
+            }
+
+            assertThat(listing.isFinished()).isTrue();
+            assertThat(listing.getEntryNames()).containsOnlyElementsOf(NAMES).hasSize(NAMES.size());
+        }
+    }
+
+    @Test
+    public void testMalformedArchive()
+    {
+        byte[] garbage = new byte[4096];
+        new Random(42).nextBytes(garbage);
+
+        assertThrows(IOException.class, () -> write(garbage, new TarEntryNamesOutputStream(), 512));
+        assertThrows(ZipException.class,
+                     () -> write(garbage, new GzipInflatingOutputStream(new TarEntryNamesOutputStream()), 512));
+    }
+
+    private static byte[] tar(int longFileMode)
+            throws IOException
+    {
+        byte[] data = new byte[10000];
+        new Random(42).nextBytes(data);
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream out = new TarArchiveOutputStream(result))
+        {
+            out.setLongFileMode(longFileMode);
+            for (String name : NAMES)
+            {
+                TarArchiveEntry entry = new TarArchiveEntry(name);
+                if (!entry.isDirectory())
+                {
+                    entry.setSize(data.length);
+                }
+                out.putArchiveEntry(entry);
+                if (!entry.isDirectory())
+                {
+                    out.write(data);
+                }
+                out.closeArchiveEntry();
+            }
+        }
+
+        return result.toByteArray();
+    }
+
+    private static void write(byte[] data,
+                              OutputStream out,
+                              int chunkSize)
+            throws IOException
+    {
+        for (int offset = 0; offset < data.length; offset += chunkSize)
+        {
+            out.write(data, offset, Math.min(chunkSize, data.length - offset));
+        }
+    }
+
+}
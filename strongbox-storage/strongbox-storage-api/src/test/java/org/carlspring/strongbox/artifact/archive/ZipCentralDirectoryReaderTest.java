@@ -0,0 +1,182 @@
+package org.carlspring.strongbox.artifact.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ZipCentralDirectoryReaderTest
+{
+
+    @Test
+    public void testListingReadsOnlyCentralDirectory()
+            throws IOException
+    {
+        byte[] data = new byte[16 * 1024 * 1024];
+        new Random(42).nextBytes(data);
+
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(zip))
+        {
+            out.setComment("some archive comment");
+
+            out.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            out.write("Manifest-Version: 1.0\n".getBytes());
+            out.closeEntry();
+
+            ZipEntry stored = new ZipEntry("org/carlspring/strongbox/data.bin");
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            stored.setMethod(ZipEntry.STORED);
+            stored.setSize(data.length);
+            stored.setCrc(crc.getValue());
+            out.putNextEntry(stored);
+            out.write(data);
+            out.closeEntry();
+
+            out.putNextEntry(new ZipEntry("org/carlspring/strongbox/\u017c\u00f3\u0142w.txt"));
+            out.closeEntry();
+        }
+
+        CountingByteChannel channel = new CountingByteChannel(zip.toByteArray());
+        Set<String> names = ZipCentralDirectoryReader.readEntryNames(channel);
+
+        assertThat(names).containsOnly("META-INF/MANIFEST.MF",
+                                       "org/carlspring/strongbox/data.bin",
+                                       "org/carlspring/strongbox/\u017c\u00f3\u0142w.txt");
+
+        // The end of the archive, where the records are looked up, and the central directory only; the sequential
+        // listing would read the whole 16MB archive.
+        assertThat(channel.getBytesRead()).isLessThan(128 * 1024);
+    }
+
+    @Test
+    public void testZip64Archive()
+            throws IOException
+    {
+        // More entries than the end of central directory record can count.
+        int entries = 70000;
+
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(zip))
+        {
+            for (int i = 0; i < entries; i++)
+            {
+                out.putNextEntry(new ZipEntry("e" + i));
+                out.closeEntry();
+            }
+        }
+
+        Set<String> names = ZipCentralDirectoryReader.readEntryNames(new CountingByteChannel(zip.toByteArray()));
+
+        assertThat(names).hasSize(entries);
+        assertThat(names).contains("e0", "e69999");
+    }
+
+    @Test
+    public void testMalformedArchive()
+    {
+        byte[] garbage = new byte[1024];
+        new Random(42).nextBytes(garbage);
+
+        assertThrows(ZipException.class,
+                     () -> ZipCentralDirectoryReader.readEntryNames(new CountingByteChannel(garbage)));
+        assertThrows(ZipException.class,
+                     () -> ZipCentralDirectoryReader.readEntryNames(new CountingByteChannel(new byte[10])));
+    }
+
+    /**
+     * Read only in memory channel which counts the bytes read.
+     */
+    private static class CountingByteChannel
+            implements SeekableByteChannel
+    {
+
+        private final byte[] data;
+
+        private int position;
+
+        private long bytesRead;
+
+        CountingByteChannel(byte[] data)
+        {
+            this.data = data;
+        }
+
+        long getBytesRead()
+        {
+            return bytesRead;
+        }
+
+        @Override
+        public int read(ByteBuffer dst)
+        {
+            if (position >= data.length)
+            {
+                return -1;
+            }
+
+            int n = Math.min(dst.remaining(), data.length - position);
+            dst.put(data, position, n);
+            position += n;
+            bytesRead += n;
+
+            return n;
+        }
+
+        @Override
+        public int write(ByteBuffer src)
+        {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public long position()
+        {
+            return position;
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition)
+        {
+            position = (int) newPosition;
+            return this;
+        }
+
+        @Override
+        public long size()
+        {
+            return data.length;
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size)
+        {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public boolean isOpen()
+        {
+            return true;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+
+    }
+
+}
@@ -0,0 +1,97 @@
+package org.carlspring.strongbox.artifact.coordinates;
+
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinatesSearchTerms.Match;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArtifactCoordinatesSearchTermsTest
+{
+
+    @Test
+    public void testSearchTerms()
+    {
+        Map<String, String> coordinates = new LinkedHashMap<>();
+        coordinates.put("groupId", "org.Carlspring");
+        coordinates.put("artifactId", "Strongbox");
+        coordinates.put("classifier", null);
+
+        assertThat(ArtifactCoordinatesSearchTerms.of(coordinates)).containsExactly("groupId=org.carlspring",
+                                                                                   "artifactId=strongbox");
+        assertThat(ArtifactCoordinatesSearchTerms.of((Map<String, String>) null)).isEmpty();
+    }
+
+    @Test
+    public void testStrictMatchIsIndexKey()
+    {
+        Match match = ArtifactCoordinatesSearchTerms.match("groupId", "org.Carlspring", true);
+
+        assertThat(match.isIndexed()).isTrue();
+        assertThat(match.isKey()).isTrue();
+        assertThat(match.isPrecise()).isTrue();
+        assertThat(match.isStrict()).isTrue();
+        assertThat(match.getFromKey()).isEqualTo("groupId=org.carlspring");
+        assertThat(match.getValue()).isEqualTo("org.carlspring");
+    }
+
+    @Test
+    public void testNonStrictMatchIsSubstringScan()
+    {
+        Match match = ArtifactCoordinatesSearchTerms.match("groupId", "Carlspring", false);
+
+        assertThat(match.isIndexed()).isFalse();
+        assertThat(match.isPrecise()).isFalse();
+        assertThat(match.isStrict()).isFalse();
+        assertThat(match.getValue()).isEqualTo("%carlspring%");
+    }
+
+    @Test
+    public void testPrefixMatchIsIndexRange()
+    {
+        Match match = ArtifactCoordinatesSearchTerms.match("groupId", "org.Carl*", false);
+
+        assertThat(match.isIndexed()).isTrue();
+        assertThat(match.isKey()).isFalse();
+        assertThat(match.isPrecise()).isTrue();
+        assertThat(match.getFromKey()).isEqualTo("groupId=org.carl");
+        assertThat(match.getToKey()).isEqualTo("groupId=org.carl\uffff");
+        assertThat(match.getValue()).isEqualTo("org.carl%");
+
+        assertThat(isInRange("groupId=org.carlspring.strongbox", match)).isTrue();
+        assertThat(isInRange("groupId=org.carm", match)).isFalse();
+        assertThat(isInRange("groupId=org.car", match)).isFalse();
+
+        match = ArtifactCoordinatesSearchTerms.match("groupId", "org.carl%", false);
+
+        assertThat(match.isPrecise()).isTrue();
+        assertThat(match.getFromKey()).isEqualTo("groupId=org.carl");
+        assertThat(match.getValue()).isEqualTo("org.carl%");
+    }
+
+    @Test
+    public void testWildcardMatch()
+    {
+        Match match = ArtifactCoordinatesSearchTerms.match("groupId", "org.*.Strongbox", false);
+
+        assertThat(match.isIndexed()).isTrue();
+        assertThat(match.isPrecise()).isFalse();
+        assertThat(match.getFromKey()).isEqualTo("groupId=org.");
+        assertThat(match.getValue()).isEqualTo("org.%.strongbox");
+
+        match = ArtifactCoordinatesSearchTerms.match("groupId", "*strongbox%", false);
+
+        assertThat(match.isIndexed()).isFalse();
+        assertThat(match.isPrecise()).isFalse();
+        assertThat(match.getValue()).isEqualTo("%strongbox%");
+    }
+
+    private static boolean isInRange(String term,
+                                     Match match)
+    {
+        return term.compareTo(match.getFromKey()) >= 0 && term.compareTo(match.getToKey()) <= 0;
+    }
+
+}
@@ -0,0 +1,143 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryData;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RepositoryFileSystemRegistryTest
+{
+
+    private static final String LAYOUT = "Maven 2";
+
+    private final RepositoryFileSystemRegistry registry = new RepositoryFileSystemRegistry();
+
+    private final AtomicInteger createdFileSystems = new AtomicInteger();
+
+    private Storage storage;
+
+    @BeforeEach
+    public void setUp()
+    {
+        storage = mock(Storage.class);
+        when(storage.getId()).thenReturn("storage0");
+        when(storage.getBasedir()).thenReturn("/storages/storage0");
+
+        LayoutFileSystemFactory factory = repository -> {
+            createdFileSystems.incrementAndGet();
+
+            LayoutFileSystem fileSystem = mock(LayoutFileSystem.class);
+            when(fileSystem.getRepository()).thenReturn(repository);
+
+            return fileSystem;
+        };
+        registry.setFileSystemFactories(Collections.singletonMap(LayoutFileSystemFactory.class.getSimpleName() + "." +
+                                                                 LAYOUT,
+                                                                 factory));
+    }
+
+    @Test
+    public void testFileSystemReusedForRepositoryConfiguration()
+    {
+        LayoutFileSystem fileSystem = registry.lookupRepositoryFileSystem(configuredRepository(1L));
+
+        // Every configuration read provides the new repository instance.
+        assertThat(registry.lookupRepositoryFileSystem(configuredRepository(1L))).isSameAs(fileSystem);
+        assertThat(createdFileSystems.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFileSystemRebuiltOnConfigurationChange()
+    {
+        LayoutFileSystem fileSystem = registry.lookupRepositoryFileSystem(configuredRepository(1L));
+
+        registry.invalidate();
+
+        assertThat(registry.lookupRepositoryFileSystem(configuredRepository(2L))).isNotSameAs(fileSystem);
+        assertThat(createdFileSystems.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testFileSystemRebuiltOnBasedirChange()
+    {
+        Repository repository = configuredRepository(1L);
+        LayoutFileSystem fileSystem = registry.lookupRepositoryFileSystem(repository);
+
+        Repository changedRepository = configuredRepository(2L);
+        when(changedRepository.getBasedir()).thenReturn("/other/releases");
+
+        LayoutFileSystem changedFileSystem = registry.lookupRepositoryFileSystem(changedRepository);
+        assertThat(changedFileSystem).isNotSameAs(fileSystem);
+        assertThat(changedFileSystem.getRepository()).isSameAs(changedRepository);
+    }
+
+    @Test
+    public void testRepositoryReadBeforeConfigurationChangeIsNotServedNewFileSystem()
+    {
+        // The repository was read before the configuration change, while the new one was already looked up.
+        Repository staleRepository = configuredRepository(1L);
+        LayoutFileSystem fileSystem = registry.lookupRepositoryFileSystem(configuredRepository(2L));
+
+        LayoutFileSystem staleFileSystem = registry.lookupRepositoryFileSystem(staleRepository);
+        assertThat(staleFileSystem).isNotSameAs(fileSystem);
+        assertThat(staleFileSystem.getRepository()).isSameAs(staleRepository);
+
+        // The stale file system doesn't replace the cached one.
+        assertThat(registry.lookupRepositoryFileSystem(configuredRepository(2L))).isSameAs(fileSystem);
+        assertThat(createdFileSystems.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testRepositoryNotReadFromConfigurationIsNotServedCachedFileSystem()
+    {
+        LayoutFileSystem fileSystem = registry.lookupRepositoryFileSystem(configuredRepository(1L));
+
+        // E.g. the immutable copy of the repository, which is being added.
+        Repository repository = configuredRepository(null);
+        LayoutFileSystem repositoryFileSystem = registry.lookupRepositoryFileSystem(repository);
+        assertThat(repositoryFileSystem).isNotSameAs(fileSystem);
+        assertThat(repositoryFileSystem.getRepository()).isSameAs(repository);
+
+        assertThat(registry.lookupRepositoryFileSystem(configuredRepository(1L))).isSameAs(fileSystem);
+    }
+
+    @Test
+    public void testMutableRepositoryShouldBeSameInstance()
+    {
+        Repository repository = mockRepository(Repository.class, LAYOUT);
+        LayoutFileSystem fileSystem = registry.lookupRepositoryFileSystem(repository);
+
+        assertThat(registry.lookupRepositoryFileSystem(repository)).isSameAs(fileSystem);
+        assertThat(registry.lookupRepositoryFileSystem(mockRepository(Repository.class, LAYOUT))).isNotSameAs(fileSystem);
+    }
+
+    private Repository configuredRepository(Long configurationVersion)
+    {
+        RepositoryData repository = (RepositoryData) mockRepository(RepositoryData.class, LAYOUT);
+        when(repository.getConfigurationVersion()).thenReturn(configurationVersion);
+
+        return repository;
+    }
+
+    private Repository mockRepository(Class<? extends Repository> repositoryClass,
+                                      String layout)
+    {
+        Repository repository = mock(repositoryClass);
+        when(repository.getId()).thenReturn("releases");
+        when(repository.getLayout()).thenReturn(layout);
+        when(repository.getImplementation()).thenReturn("file-system");
+        when(repository.getBasedir()).thenReturn("/storages/storage0/releases");
+        when(repository.getStorage()).thenReturn(storage);
+
+        return repository;
+    }
+
+}
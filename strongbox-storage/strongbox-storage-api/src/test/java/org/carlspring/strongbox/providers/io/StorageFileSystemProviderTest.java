@@ -0,0 +1,177 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.booters.PropertiesBooter;
+import org.carlspring.strongbox.providers.io.StorageFileSystemProvider.TempOutputStream;
+import org.carlspring.strongbox.providers.layout.AbstractLayoutProvider;
+import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
+import org.carlspring.strongbox.storage.repository.RepositoryData;
+import org.carlspring.strongbox.storage.repository.RepositoryDto;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class StorageFileSystemProviderTest
+{
+
+    private static final Path REPOSITORY_BASEDIR = Paths.get("target/strongbox-vault/storages/storage0/releases").toAbsolutePath();
+
+    private final AtomicInteger resolvedAttributes = new AtomicInteger();
+
+    private LayoutFileSystem repositoryFileSystem;
+
+    private StorageFileSystemProvider provider;
+
+    private LayoutFileSystem layoutFileSystem;
+
+    @BeforeEach
+    public void setup()
+    {
+        RepositoryDto repository = new RepositoryDto();
+        repository.setBasedir(REPOSITORY_BASEDIR.toString());
+
+        repositoryFileSystem = new LayoutFileSystem(new PropertiesBooter(), new RepositoryData(repository), FileSystems.getDefault(), null)
+        {
+            @Override
+            public Set<String> getDigestAlgorithmSet()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        provider = new StorageFileSystemProvider(FileSystems.getDefault().provider())
+        {
+            @Override
+            protected Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryPath,
+                                                                                           RepositoryFileAttributeType... attributeTypes)
+            {
+                resolvedAttributes.addAndGet(attributeTypes.length);
+
+                // Coordinates are intentionally absent, like for the non artifact paths.
+                return Arrays.asList(attributeTypes).contains(RepositoryFileAttributeType.CHECKSUM)
+                        ? Collections.singletonMap(RepositoryFileAttributeType.CHECKSUM, Boolean.FALSE)
+                        : Collections.emptyMap();
+            }
+        };
+
+        LayoutFileSystemProvider layoutFileSystemProvider = new LayoutFileSystemProvider(FileSystems.getDefault().provider())
+        {
+            @Override
+            protected AbstractLayoutProvider getLayoutProvider()
+            {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            protected Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryPath,
+                                                                                           RepositoryFileAttributeType... attributeTypes)
+            {
+                return Collections.emptyMap();
+            }
+        };
+        layoutFileSystem = new LayoutFileSystem(new PropertiesBooter(), new RepositoryData(repository), FileSystems.getDefault(), layoutFileSystemProvider)
+        {
+            @Override
+            public Set<String> getDigestAlgorithmSet()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Test
+    public void repositoryFileAttributesShouldBeResolvedOnce()
+        throws Exception
+    {
+        RepositoryPath path = new RepositoryPath(REPOSITORY_BASEDIR.resolve("a.jar"), repositoryFileSystem);
+
+        for (int i = 0; i < 3; i++)
+        {
+            Map<String, Object> attributes = provider.readAttributes(path,
+                                                                     RepositoryFiles.formatAttributes(RepositoryFileAttributeType.CHECKSUM,
+                                                                                                      RepositoryFileAttributeType.COORDINATES));
+
+            assertThat(attributes).containsOnly(entry("checksum", Boolean.FALSE));
+        }
+
+        assertThat(resolvedAttributes.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void repositoryFileAttributesShouldBeResolvedAgainWhenInvalidated()
+        throws Exception
+    {
+        RepositoryPath path = new RepositoryPath(REPOSITORY_BASEDIR.resolve("a.jar"), repositoryFileSystem);
+        String attributes = RepositoryFiles.formatAttributes(RepositoryFileAttributeType.CHECKSUM);
+
+        provider.readAttributes(path, attributes);
+        path.invalidateAttributes();
+        provider.readAttributes(path, attributes);
+
+        assertThat(resolvedAttributes.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void tempOutputStreamShouldReplaceTheOriginalFileOnClose()
+        throws Exception
+    {
+        RepositoryPath path = writeOriginalFile();
+
+        try (TempOutputStream os = layoutFileSystemProvider().new TempOutputStream(RepositoryFiles.temporary(path)))
+        {
+            os.write("fetched".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThat(new String(Files.readAllBytes(path.getTarget()), StandardCharsets.UTF_8)).isEqualTo("fetched");
+        assertThat(Files.exists(RepositoryFiles.temporary(path).getTarget())).isFalse();
+    }
+
+    @Test
+    public void abortedTempOutputStreamShouldKeepTheOriginalFile()
+        throws Exception
+    {
+        RepositoryPath path = writeOriginalFile();
+        TempRepositoryPath tempPath = RepositoryFiles.temporary(path);
+
+        try (TempOutputStream os = layoutFileSystemProvider().new TempOutputStream(tempPath))
+        {
+            os.write("partial".getBytes(StandardCharsets.UTF_8));
+
+            // E.g. the checksum validation failed.
+            os.abort();
+            assertThat(os.isAborted()).isTrue();
+        }
+
+        assertThat(new String(Files.readAllBytes(path.getTarget()), StandardCharsets.UTF_8)).isEqualTo("original");
+        assertThat(Files.exists(tempPath.getTarget())).isFalse();
+    }
+
+    private RepositoryPath writeOriginalFile()
+        throws IOException
+    {
+        Path target = REPOSITORY_BASEDIR.resolve("org/carlspring/temp-output-stream.jar");
+        Files.createDirectories(target.getParent());
+        Files.write(target, "original".getBytes(StandardCharsets.UTF_8));
+
+        return new RepositoryPath(target, layoutFileSystem);
+    }
+
+    private LayoutFileSystemProvider layoutFileSystemProvider()
+    {
+        return (LayoutFileSystemProvider) layoutFileSystem.provider();
+    }
+
+}
@@ -0,0 +1,107 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TieredReadWriteLockTest
+{
+
+    private final ReentrantReadWriteLock localLock = new ReentrantReadWriteLock();
+
+    private final ReentrantReadWriteLock distributedLock = new ReentrantReadWriteLock();
+
+    private final AtomicInteger distributedLockLookups = new AtomicInteger();
+
+    private final LockWaitStatistics localLockStatistics = new LockWaitStatistics();
+
+    private final LockWaitStatistics distributedLockStatistics = new LockWaitStatistics();
+
+    @Test
+    public void testReadLockStaysLocalWhenNotClustered()
+    {
+        Lock lock = newLock(false).readLock();
+        lock.lock();
+        try
+        {
+            assertThat(localLock.getReadLockCount()).isEqualTo(1);
+            assertThat(distributedLock.getReadLockCount()).isEqualTo(0);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        assertThat(localLock.getReadLockCount()).isEqualTo(0);
+        assertThat(distributedLockLookups.get()).isEqualTo(0);
+        assertThat(localLockStatistics.getLockCount()).isEqualTo(1);
+        assertThat(distributedLockStatistics.getLockCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testReadLockEscalatedWhenClustered()
+    {
+        Lock lock = newLock(true).readLock();
+        lock.lock();
+        try
+        {
+            assertThat(localLock.getReadLockCount()).isEqualTo(1);
+            assertThat(distributedLock.getReadLockCount()).isEqualTo(1);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        assertThat(distributedLock.getReadLockCount()).isEqualTo(0);
+        assertThat(distributedLockStatistics.getLockCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testWriteLockAlwaysEscalated()
+    {
+        Lock lock = newLock(false).writeLock();
+        lock.lock();
+        try
+        {
+            assertThat(localLock.isWriteLockedByCurrentThread()).isTrue();
+            assertThat(distributedLock.isWriteLockedByCurrentThread()).isTrue();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        assertThat(localLock.isWriteLocked()).isFalse();
+        assertThat(distributedLock.isWriteLocked()).isFalse();
+    }
+
+    @Test
+    public void testTryLockReleasesLocalLockIfDistributedBusy()
+        throws Exception
+    {
+        Thread owner = new Thread(() -> distributedLock.writeLock().lock());
+        owner.start();
+        owner.join();
+
+        assertThat(newLock(false).writeLock().tryLock()).isFalse();
+        assertThat(localLock.isWriteLocked()).isFalse();
+    }
+
+    private ReadWriteLock newLock(boolean clustered)
+    {
+        return new TieredReadWriteLock(localLock,
+                                       () -> {
+                                           distributedLockLookups.incrementAndGet();
+                                           return distributedLock;
+                                       },
+                                       clustered,
+                                       localLockStatistics,
+                                       distributedLockStatistics);
+    }
+
+}
@@ -0,0 +1,144 @@
+package org.carlspring.strongbox.providers.repository;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+
+import java.util.Date;
+
+import com.orientechnologies.common.concur.ONeedRetryException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ArtifactDownloadStatisticsAggregatorTest
+{
+
+    private static final String STORAGE_ID = "storage0";
+
+    private static final String REPOSITORY_ID = "releases";
+
+    private static final String PATH = "org/foo/1.0/foo-1.0.jar";
+
+    @Mock
+    private ArtifactEntryService artifactEntryService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ArtifactDownloadStatisticsAggregator aggregator;
+
+    private ArtifactEntry artifactEntry;
+
+    @BeforeEach
+    public void setUp()
+    {
+        MockitoAnnotations.initMocks(this);
+
+        aggregator.setFlushThreshold(Long.MAX_VALUE);
+        aggregator.setBatchSize(100);
+
+        artifactEntry = new ArtifactEntry();
+        artifactEntry.setLastUsed(new Date(0));
+
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, PATH)).thenReturn(artifactEntry);
+    }
+
+    @Test
+    public void testDownloadsFlushedInBatch()
+    {
+        for (int i = 0; i < 5; i++)
+        {
+            aggregator.downloaded(STORAGE_ID, REPOSITORY_ID, PATH);
+        }
+
+        assertThat(aggregator.getPendingDownloads()).isEqualTo(5);
+        assertThat(aggregator.getFlushLag()).isGreaterThanOrEqualTo(0);
+        verify(artifactEntryService, never()).save(any());
+
+        aggregator.flush();
+
+        assertThat(artifactEntry.getDownloadCount()).isEqualTo(5);
+        assertThat(artifactEntry.getLastUsed()).isAfter(new Date(0));
+        assertThat(aggregator.getPendingDownloads()).isEqualTo(0);
+        assertThat(aggregator.getFlushedDownloads()).isEqualTo(5);
+        assertThat(aggregator.getFlushLag()).isEqualTo(0);
+        verify(artifactEntryService, times(1)).save(artifactEntry);
+
+        aggregator.downloaded(STORAGE_ID, REPOSITORY_ID, PATH);
+        aggregator.flush();
+
+        assertThat(artifactEntry.getDownloadCount()).isEqualTo(6);
+    }
+
+    @Test
+    public void testNothingToFlush()
+    {
+        aggregator.flush();
+
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    public void testFailedDownloadsKeptForNextFlush()
+    {
+        aggregator.downloaded(STORAGE_ID, REPOSITORY_ID, PATH);
+        aggregator.downloaded(STORAGE_ID, REPOSITORY_ID, PATH);
+
+        when(artifactEntryService.save(any())).thenThrow(new IllegalStateException("Database is not available."));
+        aggregator.flush();
+
+        assertThat(aggregator.getFailedFlushes()).isEqualTo(1);
+        assertThat(aggregator.getPendingDownloads()).isEqualTo(2);
+        assertThat(aggregator.getFlushLag()).isGreaterThanOrEqualTo(0);
+
+        artifactEntry.setDownloadCount(0);
+        when(artifactEntryService.save(any())).thenReturn(artifactEntry);
+        aggregator.flush();
+
+        assertThat(artifactEntry.getDownloadCount()).isEqualTo(2);
+        assertThat(aggregator.getPendingDownloads()).isEqualTo(0);
+    }
+
+    @Test
+    public void testDownloadCountSaturated()
+    {
+        artifactEntry.setDownloadCount(Integer.MAX_VALUE - 1);
+
+        for (int i = 0; i < 3; i++)
+        {
+            aggregator.downloaded(STORAGE_ID, REPOSITORY_ID, PATH);
+        }
+        aggregator.flush();
+
+        assertThat(artifactEntry.getDownloadCount()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(aggregator.getFlushedDownloads()).isEqualTo(3);
+    }
+
+    @Test
+    public void testConcurrentModificationRetried()
+    {
+        aggregator.downloaded(STORAGE_ID, REPOSITORY_ID, PATH);
+
+        when(artifactEntryService.save(any())).thenThrow(mock(ONeedRetryException.class))
+                                              .thenReturn(artifactEntry);
+        aggregator.flush();
+
+        assertThat(aggregator.getFailedFlushes()).isEqualTo(0);
+        assertThat(aggregator.getPendingDownloads()).isEqualTo(0);
+        verify(artifactEntryService, times(2)).save(artifactEntry);
+    }
+
+}
@@ -0,0 +1,259 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepositoryDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GroupRepositoryFetchExecutorTest
+{
+
+    private GroupRepositoryFetchExecutor executor;
+
+    @BeforeEach
+    public void setUp()
+    {
+        executor = new GroupRepositoryFetchExecutor();
+        executor.setMaxThreads(8);
+        executor.setQueueSize(16);
+        executor.setMaxConcurrentFetchesPerRemote(2);
+        executor.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        executor.destroy();
+    }
+
+    @Test
+    public void testConcurrentFetchesPerRemoteAreLimited()
+        throws Exception
+    {
+        Repository central = proxyRepository("https://repo.maven.apache.org/maven2/");
+        Repository jcenter = proxyRepository("https://jcenter.bintray.com/");
+
+        AtomicInteger centralInFlight = new AtomicInteger();
+        AtomicInteger centralMaxInFlight = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<?>> fetches = new ArrayList<>();
+        for (int i = 0; i < 6; i++)
+        {
+            fetches.add(executor.submit(central, () -> {
+                centralMaxInFlight.accumulateAndGet(centralInFlight.incrementAndGet(), Math::max);
+                release.await(5, TimeUnit.SECONDS);
+                centralInFlight.decrementAndGet();
+
+                return null;
+            }));
+        }
+
+        // The slow remote doesn't block the other one.
+        assertThat(executor.submit(jcenter, () -> "jcenter").get(5, TimeUnit.SECONDS)).isEqualTo("jcenter");
+
+        Map<String, Object> remotes = (Map<String, Object>) executor.getStatistics().get("remotes");
+        assertThat(remotes).containsKeys("repo.maven.apache.org", "jcenter.bintray.com");
+
+        release.countDown();
+        executor.awaitAll(fetches);
+
+        assertThat(centralMaxInFlight.get()).isEqualTo(2);
+        assertThat(executor.getSubmittedFetches()).isEqualTo(7);
+    }
+
+    @Test
+    public void testSaturatedExecutorRunsFetchWithinCallerThread()
+        throws Exception
+    {
+        executor.destroy();
+        executor.setMaxThreads(1);
+        executor.setQueueSize(1);
+        executor.setMaxConcurrentFetchesPerRemote(8);
+        executor.afterPropertiesSet();
+
+        Repository hosted = mock(Repository.class);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<?>> fetches = new ArrayList<>();
+        fetches.add(executor.submit(hosted, () -> release.await(5, TimeUnit.SECONDS)));
+        fetches.add(executor.submit(hosted, () -> release.await(5, TimeUnit.SECONDS)));
+
+        Thread caller = Thread.currentThread();
+        Future<Thread> callerRuns = executor.submit(hosted, Thread::currentThread);
+
+        assertThat(callerRuns.get()).isSameAs(caller);
+        assertThat(executor.getCallerRunsFetches()).isEqualTo(1);
+
+        release.countDown();
+        executor.awaitAll(fetches);
+    }
+
+    @Test
+    public void testWaitingFetchesDontTakeExecutorThreads()
+        throws Exception
+    {
+        executor.destroy();
+        executor.setMaxThreads(2);
+        executor.setQueueSize(3);
+        executor.setMaxConcurrentFetchesPerRemote(1);
+        executor.afterPropertiesSet();
+
+        Repository central = proxyRepository("https://repo.maven.apache.org/maven2/");
+        Repository jcenter = proxyRepository("https://jcenter.bintray.com/");
+
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<?>> fetches = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+        {
+            fetches.add(executor.submit(central, () -> release.await(5, TimeUnit.SECONDS)));
+        }
+
+        // The waiting fetches of the slow remote are queued per remote, so there is a free thread for the other one.
+        Thread caller = Thread.currentThread();
+        assertThat(executor.submit(jcenter, Thread::currentThread).get(5, TimeUnit.SECONDS)).isNotSameAs(caller);
+
+        Map<String, Map<String, Object>> remotes = (Map<String, Map<String, Object>>) executor.getStatistics()
+                                                                                              .get("remotes");
+        assertThat(remotes.get("repo.maven.apache.org")).containsEntry("inFlight", 1).containsEntry("waiting", 3);
+        assertThat(executor.getCallerRunsFetches()).isEqualTo(0);
+
+        release.countDown();
+        executor.awaitAll(fetches);
+    }
+
+    @Test
+    public void testWaitingFetchesAreBounded()
+        throws Exception
+    {
+        executor.destroy();
+        executor.setMaxThreads(2);
+        executor.setQueueSize(2);
+        executor.setMaxConcurrentFetchesPerRemote(1);
+        executor.afterPropertiesSet();
+
+        Repository central = proxyRepository("https://repo.maven.apache.org/maven2/");
+
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<?>> fetches = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+        {
+            fetches.add(executor.submit(central, () -> release.await(5, TimeUnit.SECONDS)));
+        }
+
+        // The queue of the remote is full, so the fetch is executed within the caller thread.
+        Thread caller = Thread.currentThread();
+        assertThat(executor.submit(central, Thread::currentThread).get()).isSameAs(caller);
+        assertThat(executor.getCallerRunsFetches()).isEqualTo(1);
+
+        release.countDown();
+        executor.awaitAll(fetches);
+    }
+
+    @Test
+    public void testCancelledFetchKeepsRemoteSlotTillCompleted()
+        throws Exception
+    {
+        executor.setMaxConcurrentFetchesPerRemote(1);
+
+        Repository central = proxyRepository("https://repo.maven.apache.org/maven2/");
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean completed = new AtomicBoolean();
+
+        Future<?> first = executor.submit(central, () -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            completed.set(true);
+
+            return null;
+        });
+        Future<Boolean> second = executor.submit(central, completed::get);
+        Future<?> third = executor.submit(central, () -> null);
+
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The cancelled fetch is still running, so the next one keeps waiting for the slot.
+        first.cancel(false);
+        assertThat(third.cancel(false)).isTrue();
+        Map<String, Map<String, Object>> remotes = (Map<String, Map<String, Object>>) executor.getStatistics()
+                                                                                              .get("remotes");
+        assertThat(remotes.get("repo.maven.apache.org")).containsEntry("inFlight", 1).containsEntry("waiting", 1);
+
+        release.countDown();
+        assertThat(second.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void testNestedGroupFetchesDontExhaustExecutor()
+        throws Exception
+    {
+        executor.destroy();
+        executor.setMaxThreads(2);
+        executor.setQueueSize(1);
+        executor.afterPropertiesSet();
+
+        Repository nestedGroup = mock(Repository.class);
+        Repository central = proxyRepository("https://repo.maven.apache.org/maven2/");
+
+        // Both the executor threads are taken by the nested group fetches, which wait for their member fetches.
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicInteger fetched = new AtomicInteger();
+
+        List<Future<?>> fetches = new ArrayList<>();
+        for (int i = 0; i < 2; i++)
+        {
+            fetches.add(executor.submit(nestedGroup, () -> {
+                started.countDown();
+                started.await(5, TimeUnit.SECONDS);
+
+                List<Future<?>> memberFetches = new ArrayList<>();
+                for (int j = 0; j < 3; j++)
+                {
+                    memberFetches.add(executor.submit(central, fetched::incrementAndGet));
+                }
+                executor.awaitAll(memberFetches);
+
+                return null;
+            }));
+        }
+
+        for (Future<?> fetch : fetches)
+        {
+            fetch.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(fetched.get()).isEqualTo(6);
+        assertThat(executor.getNestedFetches()).isEqualTo(6);
+    }
+
+    private Repository proxyRepository(String url)
+    {
+        RemoteRepositoryDto remoteRepository = new RemoteRepositoryDto();
+        remoteRepository.setUrl(url);
+
+        Repository repository = mock(Repository.class);
+        when(repository.isProxyRepository()).thenReturn(true);
+        when(repository.getRemoteRepository()).thenReturn(remoteRepository);
+
+        return repository;
+    }
+
+}
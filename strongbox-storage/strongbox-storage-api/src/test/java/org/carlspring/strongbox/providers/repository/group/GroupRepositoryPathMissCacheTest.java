@@ -0,0 +1,49 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import org.carlspring.strongbox.data.CacheName;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GroupRepositoryPathMissCacheTest
+{
+
+    private static final String STORAGE_ID = "storage0";
+
+    private static final String PATH = "org/foo/1.0/foo-1.0.jar";
+
+    private GroupRepositoryPathMissCache missCache;
+
+    @BeforeEach
+    public void setUp()
+    {
+        missCache = new GroupRepositoryPathMissCache(new ConcurrentMapCacheManager(CacheName.Repository.GROUP_MEMBER_PATH_MISSES));
+    }
+
+    @Test
+    public void testMissesAreRememberedPerMember()
+    {
+        assertThat(missCache.isMissing(STORAGE_ID, "central", PATH)).isFalse();
+
+        missCache.missing(STORAGE_ID, "central", PATH);
+
+        assertThat(missCache.isMissing(STORAGE_ID, "central", PATH)).isTrue();
+        assertThat(missCache.isMissing(STORAGE_ID, "jcenter", PATH)).isFalse();
+        assertThat(missCache.isMissing(STORAGE_ID, "central", "org/foo/1.0/foo-1.0.pom")).isFalse();
+
+        assertThat(missCache.getHitCount()).isEqualTo(1);
+        assertThat(missCache.getMissCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testEvictedMissIsLookedUpAgain()
+    {
+        missCache.missing(STORAGE_ID, "central", PATH);
+        missCache.evict(STORAGE_ID, "central", PATH);
+
+        assertThat(missCache.isMissing(STORAGE_ID, "central", PATH)).isFalse();
+    }
+
+}
@@ -0,0 +1,279 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.StorageFileSystemProvider;
+import org.carlspring.strongbox.providers.repository.RepositoryProvider;
+import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
+import org.carlspring.strongbox.services.support.ArtifactRoutingRulesChecker;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ParallelGroupRepositoryPathResolverTest
+{
+
+    private static final String STORAGE_ID = "storage0";
+
+    private static final String HOSTED = "hosted";
+
+    private static final String PROXY = "proxy";
+
+    private static final String GROUP = "group";
+
+    @Mock
+    private ConfigurationManager configurationManager;
+
+    @Mock
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Mock
+    private ArtifactRoutingRulesChecker artifactRoutingRulesChecker;
+
+    @Mock
+    private RepositoryProviderRegistry repositoryProviderRegistry;
+
+    @Mock
+    private GroupRepositoryPathMissCache groupRepositoryPathMissCache;
+
+    @Spy
+    private GroupRepositoryFetchExecutor groupRepositoryFetchExecutor = new GroupRepositoryFetchExecutor();
+
+    @InjectMocks
+    private ParallelGroupRepositoryPathResolver resolver;
+
+    @Mock
+    private RepositoryProvider repositoryProvider;
+
+    private Storage storage;
+
+    private final Map<String, RepositoryPath> memberPaths = new HashMap<>();
+
+    private final Set<RepositoryPath> misses = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    public void setUp()
+        throws Exception
+    {
+        MockitoAnnotations.initMocks(this);
+
+        groupRepositoryFetchExecutor.setMaxThreads(8);
+        groupRepositoryFetchExecutor.setQueueSize(16);
+        groupRepositoryFetchExecutor.setMaxConcurrentFetchesPerRemote(8);
+        groupRepositoryFetchExecutor.afterPropertiesSet();
+
+        storage = mock(Storage.class);
+        when(storage.getId()).thenReturn(STORAGE_ID);
+
+        Configuration configuration = mock(Configuration.class);
+        when(configuration.getStorage(STORAGE_ID)).thenReturn(storage);
+        when(configurationManager.getConfiguration()).thenReturn(configuration);
+
+        when(repositoryProviderRegistry.getProvider(any())).thenReturn(repositoryProvider);
+        when(repositoryPathResolver.resolve(any(Repository.class), any(RepositoryPath.class))).thenAnswer(
+                invocation -> memberPaths.get(((Repository) invocation.getArgument(0)).getId()));
+
+        // The misses are remembered until the end of the test.
+        when(groupRepositoryPathMissCache.isMissing(any(RepositoryPath.class))).thenAnswer(
+                invocation -> misses.contains(invocation.getArgument(0)));
+        doAnswer(invocation -> misses.add(invocation.getArgument(0))).when(groupRepositoryPathMissCache)
+                                                                      .missing(any(RepositoryPath.class));
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        groupRepositoryFetchExecutor.destroy();
+    }
+
+    @Test
+    public void testHigherPriorityMemberWins()
+        throws Exception
+    {
+        resolver.setHedgeDelayMillis(10);
+
+        RepositoryPath groupPath = group("group", "releases", "central", "jcenter");
+        RepositoryPath releasesPath = member("releases", HOSTED);
+        RepositoryPath centralPath = member("central", PROXY);
+        RepositoryPath jcenterPath = member("jcenter", PROXY);
+
+        // The `jcenter` responds first, but the `central` has the higher priority.
+        CountDownLatch jcenterFetched = new CountDownLatch(1);
+        when(repositoryProvider.fetchPath(centralPath)).thenAnswer(invocation -> {
+            jcenterFetched.await(5, TimeUnit.SECONDS);
+
+            return centralPath;
+        });
+        when(repositoryProvider.fetchPath(jcenterPath)).thenAnswer(invocation -> {
+            jcenterFetched.countDown();
+
+            return jcenterPath;
+        });
+
+        assertThat(resolver.resolve(groupPath)).isSameAs(centralPath);
+
+        verify(repositoryProvider).fetchPath(releasesPath);
+        verify(repositoryProvider).fetchPath(jcenterPath);
+    }
+
+    @Test
+    public void testSlowMemberIsHedged()
+        throws Exception
+    {
+        resolver.setHedgeDelayMillis(10);
+
+        RepositoryPath groupPath = group("group", "central", "jcenter");
+        RepositoryPath centralPath = member("central", PROXY);
+        RepositoryPath jcenterPath = member("jcenter", PROXY);
+
+        // The `central` is still pending, when the `jcenter` is queried.
+        CountDownLatch jcenterFetched = new CountDownLatch(1);
+        AtomicBoolean hedged = new AtomicBoolean();
+        when(repositoryProvider.fetchPath(centralPath)).thenAnswer(invocation -> {
+            hedged.set(jcenterFetched.await(5, TimeUnit.SECONDS));
+
+            return null;
+        });
+        when(repositoryProvider.fetchPath(jcenterPath)).thenAnswer(invocation -> {
+            jcenterFetched.countDown();
+
+            return jcenterPath;
+        });
+
+        assertThat(resolver.resolve(groupPath)).isSameAs(jcenterPath);
+        assertThat(hedged.get()).isTrue();
+    }
+
+    @Test
+    public void testNestedGroupsAreFlattened()
+        throws Exception
+    {
+        RepositoryPath groupPath = group("group", "nested-group", "releases-2");
+        group("nested-group", "releases-1", "releases-2");
+        RepositoryPath releases1Path = member("releases-1", HOSTED);
+        RepositoryPath releases2Path = member("releases-2", HOSTED);
+
+        when(repositoryProvider.fetchPath(releases2Path)).thenReturn(releases2Path);
+
+        assertThat(resolver.resolve(groupPath)).isSameAs(releases2Path);
+
+        // The nested group members are in place of the nested group, and every member is looked up once.
+        InOrder inOrder = inOrder(repositoryProvider);
+        inOrder.verify(repositoryProvider).fetchPath(releases1Path);
+        inOrder.verify(repositoryProvider).fetchPath(releases2Path);
+        verify(repositoryProvider, times(2)).fetchPath(any());
+    }
+
+    @Test
+    public void testMissesAreCached()
+        throws Exception
+    {
+        resolver.setHedgeDelayMillis(0);
+
+        RepositoryPath groupPath = group("group", "central", "jcenter");
+        RepositoryPath centralPath = member("central", PROXY);
+        RepositoryPath jcenterPath = member("jcenter", PROXY);
+
+        assertThat(resolver.resolve(groupPath)).isNull();
+        assertThat(misses).containsExactlyInAnyOrder(centralPath, jcenterPath);
+
+        // The repeated lookup skips the members which recently missed.
+        assertThat(resolver.resolve(groupPath)).isNull();
+
+        verify(repositoryProvider).fetchPath(centralPath);
+        verify(repositoryProvider).fetchPath(jcenterPath);
+
+        // Unless the artifact was stored since then.
+        misses.remove(jcenterPath);
+        when(repositoryProvider.fetchPath(jcenterPath)).thenReturn(jcenterPath);
+
+        assertThat(resolver.resolve(groupPath)).isSameAs(jcenterPath);
+        verify(repositoryProvider).fetchPath(centralPath);
+    }
+
+    private RepositoryPath group(String groupId,
+                                 String... memberIds)
+    {
+        Repository repository = repository(groupId, GROUP);
+        when(repository.getGroupRepositories()).thenReturn(Arrays.asList(memberIds));
+
+        RepositoryPath result = mock(RepositoryPath.class);
+        when(result.getRepository()).thenReturn(repository);
+        memberPaths.put(groupId, result);
+
+        return result;
+    }
+
+    private RepositoryPath member(String repositoryId,
+                                  String type)
+        throws Exception
+    {
+        Repository repository = repository(repositoryId, type);
+
+        RepositoryPath result = mock(RepositoryPath.class);
+        when(result.getRepository()).thenReturn(repository);
+
+        // The path is an artifact, see `RepositoryFiles.artifactExists()`.
+        LayoutFileSystem fileSystem = mock(LayoutFileSystem.class);
+        StorageFileSystemProvider fileSystemProvider = mock(StorageFileSystemProvider.class);
+        when(result.getFileSystem()).thenReturn(fileSystem);
+        when(fileSystem.provider()).thenReturn(fileSystemProvider);
+        when(fileSystemProvider.readAttributes(eq(result), anyString())).thenAnswer(invocation -> {
+            String attribute = invocation.getArgument(1);
+
+            return Collections.singletonMap(attribute.substring(attribute.indexOf(':') + 1), Boolean.TRUE);
+        });
+
+        memberPaths.put(repositoryId, result);
+
+        return result;
+    }
+
+    private Repository repository(String repositoryId,
+                                  String type)
+    {
+        Repository repository = mock(Repository.class);
+        when(repository.getId()).thenReturn(repositoryId);
+        when(repository.getStorage()).thenReturn(storage);
+        when(repository.getStorageIdAndRepositoryId()).thenReturn(STORAGE_ID + ":" + repositoryId);
+        when(repository.getType()).thenReturn(type);
+        when(repository.isInService()).thenReturn(true);
+        when(repository.isProxyRepository()).thenReturn(PROXY.equals(type));
+        when(repository.isGroupRepository()).thenReturn(GROUP.equals(type));
+        when(storage.getRepository(repositoryId)).thenReturn(repository);
+
+        return repository;
+    }
+
+}
@@ -0,0 +1,280 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.artifact.coordinates.NullArtifactCoordinates;
+import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.data.service.support.search.PagingCursor;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.providers.io.StorageFileSystemProvider;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepositoryCacheEvictionPolicyEnum;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepositoryDto;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ProxyRepositoryCacheEvictionEngineTest
+{
+
+    private static final String STORAGE_ID = "storage0";
+
+    private static final String REPOSITORY_ID = "central";
+
+    @Mock
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Mock
+    private RepositoryPathLock repositoryPathLock;
+
+    @Mock
+    private ArtifactEntryService artifactEntryService;
+
+    @Mock
+    private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ProxyRepositoryCacheEvictionEngine engine;
+
+    private Repository repository;
+
+    private RemoteRepositoryDto remoteRepository;
+
+    private ProxyRepositoryCacheUsage usage;
+
+    private StorageFileSystemProvider fileSystemProvider;
+
+    /**
+     * The stored artifact records by path, as they are looked up again under the lock.
+     */
+    private final Map<String, ArtifactEntry> storedEntries = new HashMap<>();
+
+    @BeforeEach
+    public void setUp()
+    {
+        MockitoAnnotations.initMocks(this);
+
+        engine.setHighWatermark(0.9);
+        engine.setLowWatermark(0.5);
+        engine.setPageSize(4);
+
+        remoteRepository = new RemoteRepositoryDto();
+        remoteRepository.setCacheQuotaInBytes(1000L);
+
+        Storage storage = mock(Storage.class);
+        when(storage.getId()).thenReturn(STORAGE_ID);
+
+        repository = mock(Repository.class);
+        when(repository.getId()).thenReturn(REPOSITORY_ID);
+        when(repository.getStorage()).thenReturn(storage);
+        when(repository.isProxyRepository()).thenReturn(true);
+        when(repository.getRemoteRepository()).thenReturn(remoteRepository);
+
+        fileSystemProvider = mock(StorageFileSystemProvider.class);
+        LayoutFileSystem fileSystem = mock(LayoutFileSystem.class);
+        when(fileSystem.provider()).thenReturn(fileSystemProvider);
+
+        RepositoryPath artifactPath = mock(RepositoryPath.class);
+        when(artifactPath.getFileSystem()).thenReturn(fileSystem);
+
+        RootRepositoryPath rootPath = mock(RootRepositoryPath.class);
+        when(rootPath.resolve(anyString())).thenReturn(artifactPath);
+        when(repositoryPathResolver.resolve(repository)).thenReturn(rootPath);
+        when(repositoryPathLock.lock(artifactPath)).thenReturn(new ReentrantReadWriteLock());
+        when(artifactEntryService.findOneArtifact(eq(STORAGE_ID), eq(REPOSITORY_ID), anyString())).thenAnswer(
+                invocation -> storedEntries.get(invocation.getArgument(2)));
+
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository)).thenReturn(true);
+        when(artifactEntryService.cursorOf(any(), any())).thenAnswer(
+                invocation -> PagingCursor.of(((ArtifactEntry) invocation.getArgument(0)).getUuid()));
+
+        usage = new ProxyRepositoryCacheUsage(STORAGE_ID, REPOSITORY_ID);
+        usage.setQuotaInBytes(1000L);
+    }
+
+    @Test
+    public void shouldEvictTillLowWatermark()
+        throws Exception
+    {
+        when(artifactEntryService.calculateSizeInBytes(STORAGE_ID, REPOSITORY_ID)).thenReturn(1000L);
+        List<ArtifactEntry> artifactEntries = artifactEntries(10, 100);
+        when(artifactEntryService.findMatching(any(), any())).thenReturn(artifactEntries.subList(0, 4),
+                                                                         artifactEntries.subList(4, 8));
+
+        assertThat(usage.tryStartEviction()).isTrue();
+        engine.evict(repository, usage);
+
+        verify(artifactEntryService, times(5)).delete(any(ArtifactEntry.class));
+        verify(fileSystemProvider, times(5)).delete(any(), eq(true));
+
+        // The second page is looked up after the last entry of the first one, not by skipping the retained entries.
+        ArgumentCaptor<PagingCriteria> pagingCriteria = ArgumentCaptor.forClass(PagingCriteria.class);
+        verify(artifactEntryService, times(2)).findMatching(any(), pagingCriteria.capture());
+        assertThat(pagingCriteria.getAllValues().get(0).isKeyset()).isTrue();
+        assertThat(pagingCriteria.getAllValues().get(0).getAfter()).isNull();
+        assertThat(pagingCriteria.getAllValues().get(1).getAfter()).isEqualTo(PagingCursor.of("artifact-3"));
+
+        assertThat(usage.getUsedBytes()).isEqualTo(500L);
+        assertThat(usage.getEvictedArtifacts()).isEqualTo(5L);
+        assertThat(usage.getEvictedBytes()).isEqualTo(500L);
+        assertThat(usage.getEvictionRuns()).isEqualTo(1L);
+        assertThat(usage.isEvicting()).isFalse();
+    }
+
+    @Test
+    public void shouldNotEvictBelowHighWatermark()
+        throws Exception
+    {
+        when(artifactEntryService.calculateSizeInBytes(STORAGE_ID, REPOSITORY_ID)).thenReturn(900L);
+
+        assertThat(usage.tryStartEviction()).isTrue();
+        engine.evict(repository, usage);
+
+        verify(artifactEntryService, never()).findMatching(any(), any());
+        verify(fileSystemProvider, never()).delete(any(), eq(true));
+        assertThat(usage.getUsedBytes()).isEqualTo(900L);
+        assertThat(usage.isEvicting()).isFalse();
+    }
+
+    @Test
+    public void shouldNotEvictWhenRemoteRepositoryIsDown()
+        throws Exception
+    {
+        when(artifactEntryService.calculateSizeInBytes(STORAGE_ID, REPOSITORY_ID)).thenReturn(1000L);
+        when(remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository)).thenReturn(false);
+
+        assertThat(usage.tryStartEviction()).isTrue();
+        engine.evict(repository, usage);
+
+        verify(fileSystemProvider, never()).delete(any(), eq(true));
+        assertThat(usage.getEvictedArtifacts()).isEqualTo(0L);
+    }
+
+    @Test
+    public void shouldStopWhenNoMoreCandidates()
+        throws Exception
+    {
+        when(artifactEntryService.calculateSizeInBytes(STORAGE_ID, REPOSITORY_ID)).thenReturn(1000L);
+        when(artifactEntryService.findMatching(any(), any())).thenReturn(artifactEntries(2, 100),
+                                                                         Collections.emptyList());
+
+        assertThat(usage.tryStartEviction()).isTrue();
+        engine.evict(repository, usage);
+
+        verify(fileSystemProvider, times(2)).delete(any(), eq(true));
+        assertThat(usage.getUsedBytes()).isEqualTo(800L);
+        assertThat(usage.isEvicting()).isFalse();
+    }
+
+    @Test
+    public void shouldNotDeleteFilesWhenTransactionRolledBack()
+        throws Exception
+    {
+        when(artifactEntryService.calculateSizeInBytes(STORAGE_ID, REPOSITORY_ID)).thenReturn(1000L);
+        when(artifactEntryService.findMatching(any(), any())).thenReturn(artifactEntries(2, 100),
+                                                                         Collections.emptyList());
+        doThrow(new TransactionSystemException("Commit failed.")).when(transactionManager).commit(any());
+
+        assertThat(usage.tryStartEviction()).isTrue();
+        engine.evict(repository, usage);
+
+        // The records are still there, so are their files.
+        verify(fileSystemProvider, never()).delete(any(), eq(true));
+        assertThat(usage.getUsedBytes()).isEqualTo(1000L);
+        assertThat(usage.getEvictedArtifacts()).isEqualTo(0L);
+        assertThat(usage.getFailedEvictions()).isEqualTo(2L);
+        assertThat(usage.isEvicting()).isFalse();
+    }
+
+    @Test
+    public void shouldNotEvictArtifactsUsedSinceLookedUp()
+        throws Exception
+    {
+        when(artifactEntryService.calculateSizeInBytes(STORAGE_ID, REPOSITORY_ID)).thenReturn(1000L);
+        List<ArtifactEntry> artifactEntries = artifactEntries(3, 100);
+        when(artifactEntryService.findMatching(any(), any())).thenReturn(artifactEntries, Collections.emptyList());
+
+        // The first artifact was downloaded, and the second one fetched again, after they were looked up.
+        storedEntries.get("artifact-0").setLastUsed(new Date());
+        storedEntries.get("artifact-1").setUuid("artifact-1-fetched-again");
+
+        assertThat(usage.tryStartEviction()).isTrue();
+        engine.evict(repository, usage);
+
+        verify(artifactEntryService, times(1)).delete(any(ArtifactEntry.class));
+        verify(artifactEntryService).delete(storedEntries.get("artifact-2"));
+        verify(fileSystemProvider, times(1)).delete(any(), eq(true));
+        assertThat(usage.getUsedBytes()).isEqualTo(900L);
+    }
+
+    @Test
+    public void shouldOrderCandidatesByPolicy()
+    {
+        assertThat(ProxyRepositoryCacheEvictionEngine.toSort(RemoteRepositoryCacheEvictionPolicyEnum.LRU))
+                .hasToString("lastUsed ASC,uuid ASC");
+        assertThat(ProxyRepositoryCacheEvictionEngine.toSort(RemoteRepositoryCacheEvictionPolicyEnum.LFU))
+                .hasToString("downloadCount ASC,lastUsed ASC,uuid ASC");
+        assertThat(RemoteRepositoryCacheEvictionPolicyEnum.ofPolicy(null))
+                .isEqualTo(RemoteRepositoryCacheEvictionPolicyEnum.LRU);
+        assertThat(RemoteRepositoryCacheEvictionPolicyEnum.ofPolicy("lfu"))
+                .isEqualTo(RemoteRepositoryCacheEvictionPolicyEnum.LFU);
+    }
+
+    private List<ArtifactEntry> artifactEntries(int count,
+                                                long sizeInBytes)
+    {
+        List<ArtifactEntry> result = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+        {
+            ArtifactEntry artifactEntry = new ArtifactEntry();
+            artifactEntry.setUuid("artifact-" + i);
+            artifactEntry.setArtifactCoordinates(new NullArtifactCoordinates("artifact-" + i));
+            artifactEntry.setSizeInBytes(sizeInBytes);
+            result.add(artifactEntry);
+
+            ArtifactEntry storedEntry = new ArtifactEntry();
+            storedEntry.setUuid(artifactEntry.getUuid());
+            storedEntry.setArtifactCoordinates(new NullArtifactCoordinates("artifact-" + i));
+            storedEntry.setSizeInBytes(sizeInBytes);
+            storedEntries.put(storedEntry.getArtifactPath(), storedEntry);
+        }
+
+        return result;
+    }
+
+}
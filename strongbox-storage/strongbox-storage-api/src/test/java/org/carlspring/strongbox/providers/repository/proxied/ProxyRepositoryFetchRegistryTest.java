@@ -0,0 +1,117 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProxyRepositoryFetchRegistryTest
+{
+
+    private final ProxyRepositoryFetchRegistry registry = new ProxyRepositoryFetchRegistry();
+
+    private ExecutorService executor;
+
+    private RepositoryPath repositoryPath;
+
+    @BeforeEach
+    public void setUp()
+    {
+        executor = Executors.newSingleThreadExecutor();
+        repositoryPath = mock(RepositoryPath.class);
+        when(repositoryPath.toUri()).thenReturn(URI.create("strongbox:/storage0/releases/org/foo/1.0/foo-1.0.jar"));
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentFetchesCoalesced()
+        throws Exception
+    {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch leaderRelease = new CountDownLatch(1);
+        AtomicInteger remoteFetches = new AtomicInteger();
+
+        Future<RepositoryPath> leader = executor.submit(() -> registry.fetch(repositoryPath, () -> {
+            remoteFetches.incrementAndGet();
+            leaderStarted.countDown();
+            Uninterruptibles.awaitUninterruptibly(leaderRelease);
+
+            return repositoryPath;
+        }, () -> null));
+
+        assertThat(leaderStarted.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(registry.getInFlightFetchCount()).isEqualTo(1);
+
+        RepositoryPath followerPath = mock(RepositoryPath.class);
+        releaseWhenCoalesced(leaderRelease);
+
+        RepositoryPath result = registry.fetch(repositoryPath, () -> {
+            remoteFetches.incrementAndGet();
+
+            return null;
+        }, () -> followerPath);
+
+        assertThat(leader.get(10, TimeUnit.SECONDS)).isSameAs(repositoryPath);
+        assertThat(result).isSameAs(followerPath);
+        assertThat(remoteFetches.get()).isEqualTo(1);
+        assertThat(registry.getCoalescedFetchCount()).isEqualTo(1);
+        assertThat(registry.getInFlightFetchCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testLeaderFailurePropagated()
+        throws Exception
+    {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch leaderRelease = new CountDownLatch(1);
+
+        executor.submit(() -> registry.fetch(repositoryPath, () -> {
+            leaderStarted.countDown();
+            Uninterruptibles.awaitUninterruptibly(leaderRelease);
+
+            throw new IOException("Remote failed.");
+        }, () -> null));
+
+        assertThat(leaderStarted.await(10, TimeUnit.SECONDS)).isTrue();
+        releaseWhenCoalesced(leaderRelease);
+
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> registry.fetch(repositoryPath,
+                                                                                     () -> repositoryPath,
+                                                                                     () -> repositoryPath))
+                                                    .withMessage("Remote failed.");
+    }
+
+    private void releaseWhenCoalesced(CountDownLatch leaderRelease)
+    {
+        long coalesced = registry.getCoalescedFetchCount();
+        Thread releaser = new Thread(() -> {
+            while (registry.getCoalescedFetchCount() == coalesced)
+            {
+                Thread.yield();
+            }
+            leaderRelease.countDown();
+        });
+        releaser.setDaemon(true);
+        releaser.start();
+    }
+
+}
@@ -0,0 +1,254 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProxyRepositoryStreamingContextTest
+{
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private ProxyRepositoryStreamingExecutor executor;
+
+    private ProxyRepositoryStreamingContext ctx;
+
+    @BeforeEach
+    public void setUp()
+    {
+        executor = new ProxyRepositoryStreamingExecutor();
+        executor.setMaxThreads(1);
+        executor.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        if (ctx != null)
+        {
+            ctx.close();
+        }
+        executor.destroy();
+    }
+
+    @Test
+    public void testContentStreamedToClient()
+        throws Exception
+    {
+        ByteArrayOutputStream client = new ByteArrayOutputStream();
+        ctx = ProxyRepositoryStreamingContext.open("/org/carlspring/a.jar", executor, (p, length) -> client);
+
+        byte[] content = content(10);
+        try (OutputStream target = ctx.openTarget(null, content.length))
+        {
+            write(target, content);
+        }
+        assertThat(ctx.isStreaming()).isTrue();
+
+        ctx.finish(null);
+
+        assertThat(client.toByteArray()).isEqualTo(content);
+        assertThat(ctx.isFailed()).isFalse();
+    }
+
+    @Test
+    public void testNotStreamedWithoutWriterThread()
+        throws Exception
+    {
+        CountDownLatch clientReleased = new CountDownLatch(1);
+        OutputStream slowClient = new OutputStream()
+        {
+            @Override
+            public void write(int b)
+            {
+                await(clientReleased);
+            }
+        };
+        ProxyRepositoryStreamingContext busyCtx = ProxyRepositoryStreamingContext.open("org/carlspring/b.jar",
+                                                                                       executor,
+                                                                                       (p, length) -> slowClient);
+        try
+        {
+            OutputStream busyTarget = busyCtx.openTarget(null, 1);
+            busyTarget.write(1);
+
+            // The only writer thread is busy with the slow client.
+            ByteArrayOutputStream client = new ByteArrayOutputStream();
+            ctx = ProxyRepositoryStreamingContext.open("org/carlspring/a.jar", executor, (p, length) -> client);
+
+            assertThat(ctx.openTarget(null, 1)).isNull();
+            assertThat(ctx.isStreaming()).isFalse();
+        }
+        finally
+        {
+            clientReleased.countDown();
+            busyCtx.close();
+        }
+    }
+
+    @Test
+    public void testSlowClientDoesNotBlockFetch()
+        throws Exception
+    {
+        CountDownLatch clientReleased = new CountDownLatch(1);
+        ByteArrayOutputStream client = new ByteArrayOutputStream();
+        OutputStream slowClient = new OutputStream()
+        {
+            @Override
+            public void write(int b)
+            {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b,
+                              int off,
+                              int len)
+            {
+                await(clientReleased);
+                client.write(b, off, len);
+            }
+        };
+        ctx = ProxyRepositoryStreamingContext.open("org/carlspring/a.jar", executor, (p, length) -> slowClient);
+
+        // The content doesn't fit into the streaming buffer, while the client doesn't read anything.
+        byte[] content = content(ProxyRepositoryStreamingContext.BUFFER_CHUNKS * 2);
+        OutputStream target = ctx.openTarget(null, content.length);
+        write(target, content);
+
+        // The rest of the content is served from the cached artifact once the fetch is completed.
+        Path cachedPath = Files.createTempFile("proxy-streaming", ".jar");
+        try
+        {
+            Files.write(cachedPath, content);
+
+            clientReleased.countDown();
+            ctx.finish(cachedPath);
+        }
+        finally
+        {
+            Files.delete(cachedPath);
+        }
+
+        assertThat(client.toByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    public void testFailedClientDoesNotFailFetch()
+        throws Exception
+    {
+        OutputStream failingClient = new OutputStream()
+        {
+            @Override
+            public void write(int b)
+                throws IOException
+            {
+                throw new IOException("Broken pipe");
+            }
+        };
+        ctx = ProxyRepositoryStreamingContext.open("org/carlspring/a.jar", executor, (p, length) -> failingClient);
+
+        byte[] content = content(10);
+        OutputStream target = ctx.openTarget(null, content.length);
+        write(target, content);
+
+        ctx.finish(null);
+
+        assertThat(ctx.isFailed()).isTrue();
+    }
+
+    @Test
+    public void testAbortedContentIsNotStreamed()
+        throws Exception
+    {
+        CountDownLatch clientReleased = new CountDownLatch(1);
+        ByteArrayOutputStream client = new ByteArrayOutputStream();
+        OutputStream slowClient = new OutputStream()
+        {
+            @Override
+            public void write(int b)
+            {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b,
+                              int off,
+                              int len)
+            {
+                await(clientReleased);
+                client.write(b, off, len);
+            }
+        };
+        ctx = ProxyRepositoryStreamingContext.open("org/carlspring/a.jar", executor, (p, length) -> slowClient);
+
+        byte[] content = content(10);
+        OutputStream target = ctx.openTarget(null, content.length);
+        write(target, content);
+
+        // E.g. the checksum validation failed once the whole content was fetched.
+        CompletableFuture<Void> aborted = CompletableFuture.runAsync(() -> {
+            try
+            {
+                ctx.abort();
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        });
+        while (!ctx.isFailed())
+        {
+            Thread.sleep(10);
+        }
+
+        clientReleased.countDown();
+        aborted.get(5, TimeUnit.SECONDS);
+
+        // At most the chunk, which was being written to the client, was sent.
+        assertThat(client.size()).isLessThanOrEqualTo(CHUNK_SIZE);
+    }
+
+    private static byte[] content(int chunks)
+    {
+        byte[] result = new byte[chunks * CHUNK_SIZE];
+        new Random(chunks).nextBytes(result);
+
+        return result;
+    }
+
+    private static void write(OutputStream target,
+                              byte[] content)
+        throws IOException
+    {
+        for (int i = 0; i < content.length; i += CHUNK_SIZE)
+        {
+            target.write(content, i, CHUNK_SIZE);
+        }
+    }
+
+    private static void await(CountDownLatch latch)
+    {
+        try
+        {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class RemoteChecksumValidatingInputStreamTest
+{
+
+    private static final byte[] CONTENT = "This is a test.".getBytes(StandardCharsets.UTF_8);
+
+    private static final String SHA1 = "afa6c8b3a2fae95785dc7d9685a57835d703ac88";
+
+    @Test
+    public void testValidChecksum()
+        throws Exception
+    {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (InputStream is = newInputStream(Collections.singletonMap("SHA-1", SHA1.toUpperCase()), true))
+        {
+            IOUtils.copy(is, os);
+        }
+
+        assertThat(os.toByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void testInvalidChecksumWithStrictPolicy()
+        throws Exception
+    {
+        try (InputStream is = newInputStream(Collections.singletonMap("SHA-1", "invalid"), true))
+        {
+            assertThatExceptionOfType(IOException.class).isThrownBy(() -> IOUtils.copy(is, new ByteArrayOutputStream()))
+                                                        .withMessageContaining("Remote checksum mismatch");
+        }
+    }
+
+    @Test
+    public void testInvalidChecksumWithNonStrictPolicy()
+        throws Exception
+    {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (InputStream is = newInputStream(Collections.singletonMap("SHA-1", "invalid"), false))
+        {
+            IOUtils.copy(is, os);
+        }
+
+        assertThat(os.toByteArray()).isEqualTo(CONTENT);
+    }
+
+    private InputStream newInputStream(Map<String, String> checksums,
+                                       boolean strict)
+        throws Exception
+    {
+        return new RemoteChecksumValidatingInputStream(new ByteArrayInputStream(CONTENT), null, checksums, strict);
+    }
+
+}
@@ -6,16 +6,28 @@ import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.artifact.coordinates.NullArtifactCoordinates;
 import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.data.service.support.search.PagingCursor;
+import org.carlspring.strongbox.data.service.support.search.Sort;
+import org.carlspring.strongbox.data.service.support.search.Sort.Order;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.support.ArtifactCoordinatesSearchIndex;
+import org.carlspring.strongbox.services.support.ArtifactEntryIdCacheManager;
+import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.orientechnologies.orient.core.id.ORID;
 import org.apache.commons.lang3.time.DateUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assumptions;
@@ -63,6 +75,12 @@ public class ArtifactEntryServiceTest
     @Inject
     private  ArtifactCoordinatesService artifactCoordinatesService;
 
+    @Inject
+    private ArtifactCoordinatesSearchIndex artifactCoordinatesSearchIndex;
+
+    @Inject
+    private ArtifactEntryIdCacheManager artifactEntryIdCacheManager;
+
     @BeforeEach
     public void setup(TestInfo testInfo)
     {
@@ -299,6 +317,54 @@ public class ArtifactEntryServiceTest
         assertThat(entries).hasSize(all - 1);
     }
 
+    @Test
+    public void searchByKeysetShouldWork(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+
+        int all = count(groupId);
+        assertThat(findAllByKeyset(groupId, Sort.by(Order.asc("lastUsed")))).hasSize(all);
+
+        updateArtifactAttributes(groupId);
+
+        List<ArtifactEntry> entries = findAllByKeyset(groupId, Sort.by(Order.desc("lastUsed")));
+        assertThat(entries).hasSize(all);
+        assertThat(entries.get(0).getSizeInBytes()).isEqualTo(1L);
+    }
+
+    /**
+     * Pages the repository entries one by one, each page after the cursor of the previous one, passed as a token.
+     */
+    private List<ArtifactEntry> findAllByKeyset(String groupId,
+                                                Sort sort)
+    {
+        ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria().withStorageId(STORAGE_ID)
+                                                                                    .withRepositoryId(REPOSITORY_ID)
+                                                                                    .build();
+
+        List<ArtifactEntry> result = new ArrayList<>();
+        Set<String> uuids = new HashSet<>();
+        PagingCriteria pagingCriteria = PagingCriteria.seek(1, sort);
+        for (List<ArtifactEntry> page = artifactEntryService.findMatching(searchCriteria, pagingCriteria);
+             !page.isEmpty();
+             page = artifactEntryService.findMatching(searchCriteria, pagingCriteria))
+        {
+            assertThat(page).hasSize(1);
+
+            ArtifactEntry artifactEntry = page.get(0);
+            assertThat(uuids.add(artifactEntry.getUuid())).as("Entry returned twice").isTrue();
+            if (artifactEntry.getArtifactCoordinates().getId().startsWith(groupId))
+            {
+                result.add(artifactEntry);
+            }
+
+            String token = artifactEntryService.cursorOf(artifactEntry, pagingCriteria).toToken();
+            pagingCriteria = pagingCriteria.after(PagingCursor.fromToken(token));
+        }
+
+        return result;
+    }
+
     /**
      * Make sure that we are able to search artifacts by single coordinate.
      *
@@ -362,6 +428,164 @@ public class ArtifactEntryServiceTest
         assertThat(c).isEqualTo(Long.valueOf(1));
     }
 
+    /**
+     * Make sure that the coordinates are matched case insensitively, and with the wildcards.
+     */
+    @Test
+    public void searchByWildcardCoordinate(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+
+        Map<String, String> coordinates = new HashMap<>();
+        coordinates.put("path", groupId.toUpperCase() + "/*/1.2.3/JAR");
+
+        List<ArtifactEntry> result = artifactEntryService.findArtifactList(STORAGE_ID,
+                                                                           REPOSITORY_ID,
+                                                                           coordinates,
+                                                                           false);
+        assertThat(result).hasSize(2);
+
+        coordinates.put("path", groupId + "*" + ARTIFACT_ID.toUpperCase() + "321/*");
+
+        result = artifactEntryService.findArtifactList(STORAGE_ID, REPOSITORY_ID, coordinates, false);
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getArtifactCoordinates().toPath()).startsWith(groupId + "myId/");
+
+        coordinates.put("path", String.format("%s/%s/1.2.3/jar", groupId, ARTIFACT_ID).toUpperCase());
+
+        Long c = artifactEntryService.countArtifacts(STORAGE_ID, REPOSITORY_ID, coordinates, true);
+        assertThat(c).isEqualTo(Long.valueOf(1));
+    }
+
+    /**
+     * Make sure that the coordinates are looked up by the coordinates search index, once it's created.
+     */
+    @Test
+    public void searchByIndexedCoordinate(TestInfo testInfo)
+        throws InterruptedException
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+
+        for (int i = 0; i < 600 && !artifactCoordinatesSearchIndex.isReady(); i++)
+        {
+            Thread.sleep(100);
+        }
+        assertThat(artifactCoordinatesSearchIndex.isReady()).as("Coordinates search index is not ready").isTrue();
+
+        // The values without a wildcard are still matched as substrings.
+        Map<String, String> coordinates = new HashMap<>();
+        coordinates.put("path", String.format("%smyId/%s", testInfo.getTestMethod().get().getName(), ARTIFACT_ID)
+                                      .toUpperCase());
+
+        List<ArtifactEntry> result = artifactEntryService.findArtifactList(STORAGE_ID,
+                                                                           REPOSITORY_ID,
+                                                                           coordinates,
+                                                                           false);
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getArtifactCoordinates().toPath()).startsWith(groupId + "myId/");
+
+        coordinates.put("path", String.format("%s/%s*", groupId, ARTIFACT_ID).toUpperCase());
+
+        result = artifactEntryService.findArtifactList(STORAGE_ID, REPOSITORY_ID, coordinates, false);
+        assertThat(result).hasSize(2);
+
+        Optional<Set<ORID>> ids = artifactEntryService.findCoordinatePrefixMatches(groupId.toUpperCase() + "/", "path");
+        assertThat(ids).isPresent();
+        assertThat(ids.get()).hasSize(2);
+    }
+
+    @Test
+    public void repeatedLookupsShouldQueryIndexesOnce(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+        final String path = String.format("%s/%s/%s/%s", groupId, ARTIFACT_ID, "1.2.3", "jar");
+
+        artifactEntryIdCacheManager.evict(STORAGE_ID, REPOSITORY_ID, path);
+        long indexQueries = countIndexQueries();
+
+        // A single download looks the entry up several times.
+        assertThat(artifactEntryService.artifactExists(STORAGE_ID, REPOSITORY_ID, path)).isTrue();
+        for (int i = 0; i < 3; i++)
+        {
+            ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, path);
+            assertThat(artifactEntry.getArtifactCoordinates().toPath()).isEqualTo(path);
+        }
+
+        assertThat(countIndexQueries() - indexQueries).isEqualTo(1);
+    }
+
+    @Test
+    public void staleCachedIdentityShouldBeEvicted(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+        final String path = String.format("%s/%s/%s/%s", groupId, ARTIFACT_ID, "1.2.3", "jar");
+        final String otherPath = String.format("%s/%s/%s/%s", groupId, ARTIFACT_ID + "123", "1.2.3", "jar");
+
+        // The cached identity doesn't match the coordinates anymore, e.g. the record was removed and reused.
+        ArtifactEntry otherArtifactEntry = artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, otherPath);
+        artifactEntryIdCacheManager.put(STORAGE_ID, REPOSITORY_ID, path, otherArtifactEntry.getObjectId());
+
+        long staleCount = artifactEntryIdCacheManager.getStaleCount();
+        long indexQueries = countIndexQueries();
+
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, path);
+
+        assertThat(artifactEntry.getArtifactCoordinates().toPath()).isEqualTo(path);
+        assertThat(artifactEntryIdCacheManager.getStaleCount() - staleCount).isEqualTo(1);
+        assertThat(countIndexQueries() - indexQueries).isEqualTo(1);
+
+        // The actual identity is cached instead.
+        assertThat(artifactEntryIdCacheManager.get(STORAGE_ID, REPOSITORY_ID, path)).isEqualTo(
+                artifactEntry.getObjectId());
+    }
+
+    @Test
+    public void deleteShouldEvictCachedIdentity(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+        final String path = String.format("%s/%s/%s/%s", groupId, ARTIFACT_ID, "1.2.3", "jar");
+
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, path);
+        assertThat(artifactEntryIdCacheManager.get(STORAGE_ID, REPOSITORY_ID, path)).isEqualTo(
+                artifactEntry.getObjectId());
+
+        artifactEntryService.delete(artifactEntry);
+        artifactCoordinatesService.delete((AbstractArtifactCoordinates) artifactEntry.getArtifactCoordinates());
+
+        assertThat(artifactEntryIdCacheManager.get(STORAGE_ID, REPOSITORY_ID, path)).isNull();
+        assertThat(artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, path)).isNull();
+        assertThat(artifactEntryService.artifactExists(STORAGE_ID, REPOSITORY_ID, path)).isFalse();
+    }
+
+    @Test
+    public void findExistingPathsShouldBeScopedToRepository(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+        final String existingPath = String.format("%s/%s/%s/%s", groupId, ARTIFACT_ID, "1.2.3", "jar");
+        final String otherRepositoryPath = String.format("%s/%s/%s/%s", groupId, ARTIFACT_ID, "4.5.6", "jar");
+        final String missingPath = String.format("%s/%s/%s/%s", groupId, ARTIFACT_ID, "7.8.9", "jar");
+
+        createArtifactEntry(createArtifactCoordinates(groupId, ARTIFACT_ID, "4.5.6", "jar"),
+                            STORAGE_ID,
+                            REPOSITORY_ID + "-other");
+
+        Set<String> existingPaths = artifactEntryService.findExistingPaths(STORAGE_ID,
+                                                                           REPOSITORY_ID,
+                                                                           Arrays.asList(existingPath,
+                                                                                         otherRepositoryPath,
+                                                                                         missingPath));
+
+        assertThat(existingPaths).containsExactly(existingPath);
+    }
+
+    /**
+     * Every lookup, which missed the cache or hit a stale identity, queries the indexes.
+     */
+    private long countIndexQueries()
+    {
+        return artifactEntryIdCacheManager.getMissCount() + artifactEntryIdCacheManager.getStaleCount();
+    }
+
     private void displayAllEntries(final String groupId)
     {
         List<ArtifactEntry> result = findAll(groupId);
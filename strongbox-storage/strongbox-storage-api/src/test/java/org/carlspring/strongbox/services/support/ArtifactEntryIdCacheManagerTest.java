@@ -0,0 +1,51 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.data.CacheName;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArtifactEntryIdCacheManagerTest
+{
+
+    private static final String STORAGE_ID = "storage0";
+
+    private static final String REPOSITORY_ID = "releases";
+
+    private static final String PATH = "org/foo/1.0/foo-1.0.jar";
+
+    private ArtifactEntryIdCacheManager cacheManager;
+
+    @BeforeEach
+    public void setUp()
+    {
+        cacheManager = new ArtifactEntryIdCacheManager(new ConcurrentMapCacheManager(CacheName.Artifact.ARTIFACT_ENTRY_IDS));
+    }
+
+    @Test
+    public void testKeysDistinguishRepositories()
+    {
+        cacheManager.put(STORAGE_ID, REPOSITORY_ID, PATH, "#17:42");
+
+        assertThat(cacheManager.get(STORAGE_ID, "snapshots", PATH)).isNull();
+        assertThat(cacheManager.get(STORAGE_ID, REPOSITORY_ID, PATH)).isEqualTo("#17:42");
+    }
+
+    @Test
+    public void testEviction()
+    {
+        cacheManager.put(STORAGE_ID, REPOSITORY_ID, PATH, "#17:42");
+        cacheManager.evictStale(STORAGE_ID, REPOSITORY_ID, PATH);
+
+        assertThat(cacheManager.get(STORAGE_ID, REPOSITORY_ID, PATH)).isNull();
+        assertThat(cacheManager.getStaleCount()).isEqualTo(1);
+
+        cacheManager.put(STORAGE_ID, REPOSITORY_ID, PATH, "#17:42");
+        cacheManager.clear();
+
+        assertThat(cacheManager.get(STORAGE_ID, REPOSITORY_ID, PATH)).isNull();
+    }
+
+}
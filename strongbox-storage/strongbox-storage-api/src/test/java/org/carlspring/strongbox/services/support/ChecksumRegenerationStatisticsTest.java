@@ -0,0 +1,59 @@
+package org.carlspring.strongbox.services.support;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChecksumRegenerationStatisticsTest
+{
+
+    @Test
+    public void testNotStarted()
+    {
+        ChecksumRegenerationStatistics statistics = new ChecksumRegenerationStatistics();
+
+        assertThat(statistics.isRunning()).isFalse();
+        assertThat(statistics.getElapsedMillis()).isEqualTo(0);
+        assertThat(statistics.getFilesPerSecond()).isEqualTo(0);
+        assertThat(statistics.getMegabytesPerSecond()).isEqualTo(0);
+    }
+
+    @Test
+    public void testCounters()
+        throws Exception
+    {
+        ChecksumRegenerationStatistics statistics = new ChecksumRegenerationStatistics();
+        statistics.start();
+
+        statistics.regenerated(1024 * 1024);
+        statistics.regenerated(1024 * 1024);
+        statistics.skipped();
+        statistics.failed();
+        statistics.resumed();
+
+        assertThat(statistics.isRunning()).isTrue();
+
+        Thread.sleep(10);
+        statistics.stop();
+
+        assertThat(statistics.isRunning()).isFalse();
+        assertThat(statistics.getRegeneratedFiles()).isEqualTo(2);
+        assertThat(statistics.getSkippedFiles()).isEqualTo(1);
+        assertThat(statistics.getFailedFiles()).isEqualTo(1);
+        assertThat(statistics.getResumedDirectories()).isEqualTo(1);
+        assertThat(statistics.getBytes()).isEqualTo(2 * 1024 * 1024);
+
+        long elapsed = statistics.getElapsedMillis();
+        assertThat(elapsed).isGreaterThan(0);
+        assertThat(statistics.getFilesPerSecond()).isEqualTo(3 * 1000d / elapsed);
+        assertThat(statistics.getMegabytesPerSecond()).isEqualTo(2 * 1000d / elapsed);
+
+        Map<String, Object> map = statistics.toMap();
+        assertThat(map).containsEntry("regeneratedFiles", 2L)
+                       .containsEntry("skippedFiles", 1L)
+                       .containsEntry("failedFiles", 1L)
+                       .containsEntry("running", false);
+    }
+
+}
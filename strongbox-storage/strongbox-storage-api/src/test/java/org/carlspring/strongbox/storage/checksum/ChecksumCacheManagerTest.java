@@ -24,8 +24,7 @@ public class ChecksumCacheManagerTest
     public void testChecksumManagement()
             throws Exception
     {
-        ChecksumCacheManager manager = new ChecksumCacheManager();
-        manager.setCachedChecksumLifetime(3000L);
+        ChecksumCacheManager manager = new ChecksumCacheManager(ChecksumCacheManager.DEFAULT_MAXIMUM_SIZE, 3000L);
         manager.setCachedChecksumExpiredCheckInterval(500L);
 
         CheckingThread checkerThread = new CheckingThread(manager);
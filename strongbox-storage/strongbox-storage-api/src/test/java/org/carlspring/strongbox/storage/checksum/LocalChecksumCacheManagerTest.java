@@ -0,0 +1,63 @@
+package org.carlspring.strongbox.storage.checksum;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LocalChecksumCacheManagerTest
+{
+
+    private static final String ARTIFACT_BASE_PATH = "storage0/releases/org/carlspring/test-project/1.0/test-project-1.0.jar";
+
+    @Test
+    public void testChecksumIsRemovedWhenAllAlgorithmsClaimed()
+    {
+        ChecksumCacheManager manager = new ChecksumCacheManager(ChecksumCacheManager.DEFAULT_MAXIMUM_SIZE, 60000L);
+
+        manager.addArtifactChecksum(ARTIFACT_BASE_PATH, "md5", "d41d8cd98f00b204e9800998ecf8427e");
+        manager.addArtifactChecksum(ARTIFACT_BASE_PATH, "sha1", "da39a3ee5e6b4b0d3255bfef95601890afd80709");
+
+        assertThat(manager.validateChecksum(ARTIFACT_BASE_PATH, "md5", "d41d8cd98f00b204e9800998ecf8427e")).isTrue();
+
+        manager.removeArtifactChecksum(ARTIFACT_BASE_PATH, "md5");
+        assertThat(manager.containsArtifactPath(ARTIFACT_BASE_PATH)).isTrue();
+
+        manager.removeArtifactChecksum(ARTIFACT_BASE_PATH, "sha1");
+        assertThat(manager.containsArtifactPath(ARTIFACT_BASE_PATH)).isFalse();
+        assertThat(manager.getArtifactChecksum(ARTIFACT_BASE_PATH, "sha1")).isNull();
+
+        assertThat(manager.getHitCount()).isEqualTo(1);
+        assertThat(manager.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testCacheIsBounded()
+    {
+        ChecksumCacheManager manager = new ChecksumCacheManager(10, 60000L);
+
+        for (int i = 0; i < 100; i++)
+        {
+            manager.addArtifactChecksum(ARTIFACT_BASE_PATH + i, "md5", "d41d8cd98f00b204e9800998ecf8427e");
+        }
+
+        assertThat(manager.getSize()).isLessThanOrEqualTo(10);
+        assertThat(manager.getEvictionCount()).isEqualTo(100 - manager.getSize());
+    }
+
+    @Test
+    public void testUnclaimedChecksumsExpire()
+        throws InterruptedException
+    {
+        ChecksumCacheManager manager = new ChecksumCacheManager(ChecksumCacheManager.DEFAULT_MAXIMUM_SIZE, 10L);
+
+        manager.addArtifactChecksum(ARTIFACT_BASE_PATH, "md5", "d41d8cd98f00b204e9800998ecf8427e");
+        Thread.sleep(50L);
+
+        assertThat(manager.getArtifactChecksum(ARTIFACT_BASE_PATH)).isNull();
+
+        manager.removeExpiredChecksums();
+
+        assertThat(manager.getSize()).isEqualTo(0);
+        assertThat(manager.getExpirationCount()).isEqualTo(1);
+    }
+
+}
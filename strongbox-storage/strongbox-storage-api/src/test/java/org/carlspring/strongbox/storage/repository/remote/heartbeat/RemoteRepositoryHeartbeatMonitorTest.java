@@ -0,0 +1,82 @@
+package org.carlspring.strongbox.storage.repository.remote.heartbeat;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RemoteRepositoryHeartbeatMonitorTest
+{
+
+    @Test
+    public void testHostOfRemoteRepositoryUrl()
+    {
+        assertThat(RemoteRepositoryHeartbeatMonitor.toHost("https://Repo.Maven.Apache.org/maven2/"))
+                .isEqualTo("https://repo.maven.apache.org:443");
+        assertThat(RemoteRepositoryHeartbeatMonitor.toHost("http://localhost:48080/storages/storage0/releases"))
+                .isEqualTo("http://localhost:48080");
+        assertThat(RemoteRepositoryHeartbeatMonitor.toHost("not a url")).isEqualTo("not a url");
+    }
+
+    @Test
+    public void testNextCheckIsDelayedWhileHostIsAlive()
+    {
+        RemoteRepositoryHeartbeatMonitor monitor = monitor(60, 600);
+
+        assertThat(monitor.checked(true, 1000L)).isTrue();
+        assertThat(monitor.getNextCheckDelay(1000L)).isEqualTo(60000L);
+
+        assertThat(monitor.observedAlive(31000L)).isFalse();
+        assertThat(monitor.getNextCheckDelay(31000L)).isEqualTo(60000L);
+        assertThat(monitor.getNextCheckDelay(91000L)).isEqualTo(0L);
+    }
+
+    @Test
+    public void testNextCheckIsBackedOffWhileHostIsDown()
+    {
+        RemoteRepositoryHeartbeatMonitor monitor = monitor(60, 600);
+
+        assertThat(monitor.checked(false, 0L)).isTrue();
+        assertThat(monitor.getNextCheckDelay(0L)).isEqualTo(60000L);
+
+        assertThat(monitor.checked(false, 0L)).isFalse();
+        assertThat(monitor.getNextCheckDelay(0L)).isEqualTo(120000L);
+
+        for (int i = 0; i < 100; i++)
+        {
+            monitor.checked(false, 0L);
+        }
+        assertThat(monitor.getNextCheckDelay(0L)).isEqualTo(600000L);
+
+        assertThat(monitor.observedAlive(5000L)).isTrue();
+        assertThat(monitor.getFailures()).isEqualTo(0);
+        assertThat(monitor.getNextCheckDelay(5000L)).isEqualTo(60000L);
+    }
+
+    @Test
+    public void testSingleCheckAtATime()
+    {
+        RemoteRepositoryHeartbeatMonitor monitor = monitor(60, 600);
+
+        assertThat(monitor.startCheck()).isTrue();
+        assertThat(monitor.startCheck()).isFalse();
+
+        monitor.checked(true, 0L);
+        assertThat(monitor.startCheck()).isTrue();
+
+        monitor.cancel();
+        monitor.checked(true, 0L);
+        assertThat(monitor.startCheck()).isFalse();
+    }
+
+    private RemoteRepositoryHeartbeatMonitor monitor(int intervalSeconds,
+                                                     int maxBackoffSeconds)
+    {
+        RemoteRepositoryHeartbeatMonitor monitor = new RemoteRepositoryHeartbeatMonitor("http://localhost:48080",
+                                                                                        maxBackoffSeconds);
+        monitor.update(Collections.emptyList(), intervalSeconds);
+
+        return monitor;
+    }
+
+}
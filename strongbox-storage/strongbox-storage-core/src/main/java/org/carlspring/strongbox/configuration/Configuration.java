@@ -52,6 +52,15 @@ public class Configuration
     private final SmtpConfiguration smtpConfiguration;
 
     public Configuration(final MutableConfiguration delegate)
+    {
+        this(delegate, null);
+    }
+
+    /**
+     * @param configurationVersion the version of the configuration, which the storages and repositories are read from
+     */
+    public Configuration(final MutableConfiguration delegate,
+                         final Long configurationVersion)
     {
 
         id = delegate.getId();
@@ -64,7 +73,7 @@ public class Configuration
         sessionConfiguration = immuteSessionConfiguration(delegate.getSessionConfiguration());
         remoteRepositoriesConfiguration = immuteRemoteRepositoriesConfiguration(
                 delegate.getRemoteRepositoriesConfiguration());
-        storages = immuteStorages(delegate.getStorages());
+        storages = immuteStorages(delegate.getStorages(), configurationVersion);
         routingRules = immuteRoutingRules(delegate.getRoutingRules());
         corsConfiguration = immuteCorsConfiguration(delegate.getCorsConfiguration());
         smtpConfiguration = immuteSmtpConfiguration(delegate.getSmtpConfiguration());
@@ -80,10 +89,12 @@ public class Configuration
         return source != null ? new SessionConfiguration(source) : null;
     }
 
-    private Map<String, Storage> immuteStorages(final Map<String, StorageDto> source)
+    private Map<String, Storage> immuteStorages(final Map<String, StorageDto> source,
+                                                final Long configurationVersion)
     {
         return source != null ? ImmutableSortedMap.copyOf(source.entrySet().stream().collect(
-                toMap(Map.Entry::getKey, e -> new StorageData(e.getValue())))) : Collections.emptyMap();
+                toMap(Map.Entry::getKey, e -> new StorageData(e.getValue(), configurationVersion)))) :
+               Collections.emptyMap();
     }
 
     private RemoteRepositoriesConfiguration immuteRemoteRepositoriesConfiguration(final MutableRemoteRepositoriesConfiguration source)
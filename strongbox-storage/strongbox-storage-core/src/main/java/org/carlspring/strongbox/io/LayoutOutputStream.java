@@ -1,16 +1,16 @@
 package org.carlspring.strongbox.io;
 
-import org.carlspring.commons.io.MultipleDigestOutputStream;
 import org.carlspring.strongbox.util.MessageDigestUtils;
 
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.Map;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
+import org.apache.commons.io.output.ProxyOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,9 +24,11 @@ import org.slf4j.LoggerFactory;
  *     ArtifactOutputStream aos = (ArtifactOutputStream) Files.newOutputStream(repositoryPath); 
  * </pre>
  * 
+ * The digests are calculated by the {@link MultipleDigestEngine}.
+ * 
  * @author Sergey Bespalov
  */
-public class LayoutOutputStream extends MultipleDigestOutputStream
+public class LayoutOutputStream extends ProxyOutputStream
 {
 
     private static final Logger logger = LoggerFactory.getLogger(LayoutOutputStream.class);
@@ -39,11 +41,26 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
     private OutputStream cacheOutputStream;
     private Function<OutputStreamFunction, ?> cacheOutputStreamTemplate = this::doWithOutputStream;
     private Map<String, String> digestMap;
+
+    private final MultipleDigestEngine digestEngine;
     
     public LayoutOutputStream(OutputStream source)
             throws NoSuchAlgorithmException
     {
-        super(new BufferedOutputStream(source), new String[]{});
+        super(new BufferedOutputStream(source));
+        
+        this.digestEngine = new MultipleDigestEngine(Collections.emptySet());
+    }
+
+    public final void addAlgorithm(String algorithm)
+            throws NoSuchAlgorithmException
+    {
+        digestEngine.addAlgorithm(algorithm);
+    }
+
+    public MultipleDigestEngine getDigestEngine()
+    {
+        return digestEngine;
     }
 
     public void setCacheOutputStreamTemplate(Function<OutputStreamFunction, ?> chahceOutputStreamTemplate)
@@ -75,17 +92,20 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
     {
         if (digestMap == null)
         {
-            digestMap = getDigests().entrySet()
-                                    .stream()
-                                    .collect(Collectors.toMap(Map.Entry::getKey,
-                                                              e -> stringifyDigest(digestStringifier,
-                                                                                   e.getValue()
-                                                                                    .digest())));
+            digestMap = digestEngine.digest(d -> stringifyDigest(digestStringifier, d));
         }
         
         return digestMap;
     }
 
+    /**
+     * @return raw digest values by algorithm
+     */
+    public Map<String, byte[]> getDigestValues()
+    {
+        return digestEngine.digest();
+    }
+
     protected String stringifyDigest(Function<byte[], String> digestStringifier,
                                      byte[] d)
     {
@@ -96,6 +116,7 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
     public void write(int b)
         throws IOException
     {
+        digestEngine.update(b);
         super.write(b);
         cacheOutputStreamTemplate.apply(o -> o.write(b));
     }
@@ -106,6 +127,7 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
                       int len)
         throws IOException
     {
+        digestEngine.update(b, off, len);
         super.write(b, off, len);
         cacheOutputStreamTemplate.apply(o -> o.write(b, off, len));
     }
@@ -114,6 +136,7 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
     public void write(byte[] b)
             throws IOException
     {
+        digestEngine.update(b, 0, b.length);
         super.write(b);
         cacheOutputStreamTemplate.apply(o -> o.write(b));
     }
@@ -0,0 +1,275 @@
+package org.carlspring.strongbox.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Calculates several {@link MessageDigest}s over the same data in a single pass. <br>
+ * The data is accumulated into the large buffer, so every digest is updated with big chunks instead of the small
+ * stream writes, and the chunks bigger than the parallel threshold are digested by all the algorithms in parallel
+ * (one task per algorithm, the first one is done within the caller thread). <br>
+ * The parallel tasks are executed by the dedicated bounded pool of daemon threads, when the pool is saturated the
+ * task is executed within the caller thread. <br>
+ * The digests are calculated only once, so they can be requested as many times as needed.
+ */
+public class MultipleDigestEngine
+{
+
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 128 * 1024;
+
+    /**
+     * There is no sense to digest in parallel on a single core.
+     */
+    private static final Executor DEFAULT_EXECUTOR = createDefaultExecutor(
+            Math.min(Runtime.getRuntime().availableProcessors() - 1, 4));
+
+    private final Map<String, MessageDigest> digests = new LinkedHashMap<>();
+
+    private final byte[] buffer;
+
+    private int position;
+
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    private Executor executor = DEFAULT_EXECUTOR;
+
+    private Map<String, byte[]> result;
+
+    public MultipleDigestEngine(Collection<String> algorithms)
+        throws NoSuchAlgorithmException
+    {
+        this(algorithms, DEFAULT_BUFFER_SIZE);
+    }
+
+    public MultipleDigestEngine(Collection<String> algorithms,
+                                int bufferSize)
+        throws NoSuchAlgorithmException
+    {
+        this.buffer = new byte[bufferSize];
+
+        for (String algorithm : algorithms)
+        {
+            addAlgorithm(algorithm);
+        }
+    }
+
+    public final void addAlgorithm(String algorithm)
+        throws NoSuchAlgorithmException
+    {
+        checkNotCompleted();
+
+        digests.put(algorithm, MessageDigest.getInstance(algorithm));
+    }
+
+    public Set<String> getAlgorithms()
+    {
+        return Collections.unmodifiableSet(digests.keySet());
+    }
+
+    public int getParallelThreshold()
+    {
+        return parallelThreshold;
+    }
+
+    public void setParallelThreshold(int parallelThreshold)
+    {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * @param executor
+     *            the executor to calculate the digests in parallel, or `null` to always calculate them within the
+     *            caller thread
+     */
+    public void setExecutor(Executor executor)
+    {
+        this.executor = executor;
+    }
+
+    public void update(int b)
+    {
+        checkNotCompleted();
+
+        if (position == buffer.length)
+        {
+            flush();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    public void update(byte[] b,
+                       int off,
+                       int len)
+    {
+        checkNotCompleted();
+
+        if (len >= buffer.length)
+        {
+            // Big chunks are digested directly, without copying them into the buffer.
+            flush();
+            digest(b, off, len);
+
+            return;
+        }
+
+        if (len > buffer.length - position)
+        {
+            flush();
+        }
+        System.arraycopy(b, off, buffer, position, len);
+        position += len;
+    }
+
+    /**
+     * Reads the channel till the end and updates the digests with its content.
+     *
+     * @return number of bytes read
+     */
+    public long update(ReadableByteChannel channel)
+        throws IOException
+    {
+        checkNotCompleted();
+        flush();
+
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+        long total = 0;
+        for (int n; (n = channel.read(byteBuffer)) >= 0;)
+        {
+            total += n;
+            if (byteBuffer.hasRemaining())
+            {
+                continue;
+            }
+
+            digest(buffer, 0, byteBuffer.position());
+            byteBuffer.clear();
+        }
+        position = byteBuffer.position();
+
+        return total;
+    }
+
+    /**
+     * Completes the digests calculation.
+     *
+     * @return digest values by algorithm
+     */
+    public Map<String, byte[]> digest()
+    {
+        if (result != null)
+        {
+            return result;
+        }
+
+        flush();
+
+        Map<String, byte[]> digestMap = new LinkedHashMap<>();
+        digests.forEach((algorithm, digest) -> digestMap.put(algorithm, digest.digest()));
+
+        return result = Collections.unmodifiableMap(digestMap);
+    }
+
+    public Map<String, String> digest(Function<byte[], String> digestStringifier)
+    {
+        Map<String, String> digestMap = new LinkedHashMap<>();
+        digest().forEach((algorithm, digest) -> digestMap.put(algorithm, digestStringifier.apply(digest)));
+
+        return digestMap;
+    }
+
+    private void flush()
+    {
+        if (position == 0)
+        {
+            return;
+        }
+
+        digest(buffer, 0, position);
+        position = 0;
+    }
+
+    private void digest(byte[] b,
+                        int off,
+                        int len)
+    {
+        if (executor == null || digests.size() < 2 || len < parallelThreshold)
+        {
+            digests.values().forEach(d -> d.update(b, off, len));
+
+            return;
+        }
+
+        CompletableFuture<?>[] futures = digests.values()
+                                                .stream()
+                                                .skip(1)
+                                                .map(d -> CompletableFuture.runAsync(() -> d.update(b, off, len),
+                                                                                     executor))
+                                                .toArray(CompletableFuture[]::new);
+
+        digests.values().iterator().next().update(b, off, len);
+
+        try
+        {
+            CompletableFuture.allOf(futures).join();
+        }
+        catch (CompletionException e)
+        {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+        }
+    }
+
+    private static Executor createDefaultExecutor(int threads)
+    {
+        if (threads < 1)
+        {
+            return null;
+        }
+
+        ThreadPoolExecutor result = new ThreadPoolExecutor(threads,
+                                                           threads,
+                                                           60L,
+                                                           TimeUnit.SECONDS,
+                                                           new ArrayBlockingQueue<>(threads * 16),
+                                                           new ThreadFactoryBuilder().setNameFormat("digest-engine-%d")
+                                                                                     .setDaemon(true)
+                                                                                     .build(),
+                                                           new ThreadPoolExecutor.CallerRunsPolicy());
+        result.allowCoreThreadTimeOut(true);
+
+        return result;
+    }
+
+    private void checkNotCompleted()
+    {
+        if (result != null)
+        {
+            throw new IllegalStateException("Digests already calculated.");
+        }
+    }
+
+}
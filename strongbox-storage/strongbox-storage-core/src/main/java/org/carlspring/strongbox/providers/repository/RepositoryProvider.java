@@ -25,6 +25,21 @@ import org.springframework.transaction.annotation.Transactional;
 public interface RepositoryProvider
 {
 
+    /**
+     * The property which the keyset searches (see {@link Paginator#isKeyset()}) are ordered by: the artifact
+     * coordinates path, which is unique within a repository and the same for the same artifact of the different
+     * repositories. <br>
+     * It's the indexed copy of the path kept by the artifact entry itself (see `ArtifactCoordinatesSearchIndex`), so
+     * the pages seek the (storageId, repositoryId, artifactPath) index instead of following the coordinates links.
+     */
+    String KEYSET_PROPERTY = "artifactPath";
+
+    /**
+     * The same path as the {@link #KEYSET_PROPERTY}, reached through the coordinates link, which is used until the
+     * entries stored before the {@link #KEYSET_PROPERTY} was introduced are migrated.
+     */
+    String KEYSET_FALLBACK_PROPERTY = "artifactCoordinates.path";
+
     /**
      * Return {@link RepositoryDto} type alias.
      * 
@@ -55,6 +70,7 @@ public interface RepositoryProvider
     /**
      * Searches Artifact Paths. For Group Repositories result will be group
      * member Paths.
+     * The keyset searches should be ordered by the {@link #KEYSET_PROPERTY}.
      * 
      * @param storageId
      * @param repositoryId
@@ -24,6 +24,12 @@ public interface ConfigurationManagementService
 
     Configuration getConfiguration();
 
+    /**
+     * @return the number, which is incremented with every configuration modification, so the structures derived from
+     *         the configuration can be rebuilt only when it has been changed
+     */
+    long getConfigurationVersion();
+
     void setConfiguration(MutableConfiguration configuration) throws IOException;
 
     void setInstanceName(String instanceName) throws IOException;
@@ -8,9 +8,11 @@ import org.carlspring.strongbox.storage.repository.Repository;
 import javax.annotation.concurrent.Immutable;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlTransient;
 import java.util.Collections;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
@@ -38,6 +40,10 @@ public class StorageData implements Storage
     @JsonDeserialize(using = RepositoryArrayToMapJsonDeserializer.class)
     private Map<String, ? extends Repository> repositories;
 
+    @JsonIgnore
+    @XmlTransient
+    private Long configurationVersion;
+
     StorageData()
     {
 
@@ -45,6 +51,13 @@ public class StorageData implements Storage
 
     public StorageData(final Storage delegate)
     {
+        this(delegate, null);
+    }
+
+    public StorageData(final Storage delegate,
+                       final Long configurationVersion)
+    {
+        this.configurationVersion = configurationVersion;
         this.id = delegate.getId();
         this.basedir = delegate.getBasedir();
         this.repositories = immuteRepositories(delegate.getRepositories());
@@ -62,6 +75,15 @@ public class StorageData implements Storage
         return repositories.get(repositoryId);
     }
 
+    /**
+     * @return the version of the configuration, which the storage was read from, or `null` if the storage wasn't read
+     *         from the server configuration
+     */
+    public Long getConfigurationVersion()
+    {
+        return configurationVersion;
+    }
+
     public boolean containsRepository(final String repository)
     {
         return repositories.containsKey(repository);
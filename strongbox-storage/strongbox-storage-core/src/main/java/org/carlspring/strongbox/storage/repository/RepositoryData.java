@@ -8,6 +8,7 @@ import java.util.stream.Collectors;
 import javax.annotation.concurrent.Immutable;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlTransient;
 
 import org.carlspring.strongbox.configuration.MutableProxyConfiguration;
 import org.carlspring.strongbox.configuration.ProxyConfiguration;
@@ -94,6 +95,10 @@ public class RepositoryData
     @JsonIgnore
     private Storage storage;
 
+    @JsonIgnore
+    @XmlTransient
+    private Long configurationVersion;
+
     RepositoryData()
     {
 
@@ -135,6 +140,17 @@ public class RepositoryData
                 delegate.getArtifactCoordinateValidators());
         this.storage = storage != null ? storage : immuteStorage(delegate.getStorage());
         this.basedir = delegate.getBasedir();
+        this.configurationVersion = this.storage instanceof StorageData ?
+                                    ((StorageData) this.storage).getConfigurationVersion() : null;
+    }
+
+    /**
+     * @return the version of the configuration, which the repository was read from, or `null` if the repository
+     *         wasn't read from the server configuration
+     */
+    public Long getConfigurationVersion()
+    {
+        return configurationVersion;
     }
 
     private ProxyConfiguration immuteProxyConfiguration(final MutableProxyConfiguration source)
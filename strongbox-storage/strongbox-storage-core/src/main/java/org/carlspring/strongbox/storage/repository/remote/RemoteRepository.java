@@ -31,5 +31,15 @@ public interface RemoteRepository
 
     boolean isAutoImportRemoteSSLCertificate();
 
+    /**
+     * @return the maximum size of the locally cached artifacts, `null` or `0` if it's not limited
+     */
+    Long getCacheQuotaInBytes();
+
+    /**
+     * @see RemoteRepositoryCacheEvictionPolicyEnum
+     */
+    String getCacheEvictionPolicy();
+
     CustomRemoteRepositoryConfiguration getCustomConfiguration();
 }
@@ -0,0 +1,30 @@
+package org.carlspring.strongbox.storage.repository.remote;
+
+/**
+ * Order in which the locally cached artifacts of the proxy repository are evicted, once the repository exceeds its
+ * {@link RemoteRepository#getCacheQuotaInBytes()}.
+ */
+public enum RemoteRepositoryCacheEvictionPolicyEnum
+{
+
+    /**
+     * Least recently used artifacts are evicted first.
+     */
+    LRU,
+
+    /**
+     * Least frequently used (downloaded) artifacts are evicted first.
+     */
+    LFU;
+
+    public static RemoteRepositoryCacheEvictionPolicyEnum ofPolicy(String policy)
+    {
+        if (policy == null || policy.trim().isEmpty())
+        {
+            return LRU;
+        }
+
+        return valueOf(policy.trim().toUpperCase());
+    }
+
+}
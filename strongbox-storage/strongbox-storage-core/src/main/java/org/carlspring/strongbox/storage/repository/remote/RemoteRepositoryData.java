@@ -37,6 +37,10 @@ public class RemoteRepositoryData
 
     private boolean autoImportRemoteSSLCertificate;
 
+    private Long cacheQuotaInBytes;
+
+    private String cacheEvictionPolicy;
+
     private String url;
 
     private CustomRemoteRepositoryConfigurationData customConfiguration;
@@ -58,6 +62,8 @@ public class RemoteRepositoryData
         this.checkIntervalSeconds = other.getCheckIntervalSeconds();
         this.allowsDirectoryBrowsing = other.allowsDirectoryBrowsing();
         this.autoImportRemoteSSLCertificate = other.isAutoImportRemoteSSLCertificate();
+        this.cacheQuotaInBytes = other.getCacheQuotaInBytes();
+        this.cacheEvictionPolicy = other.getCacheEvictionPolicy();
         this.customConfiguration = immuteRemoteRepositoryConfiguration(other.getCustomConfiguration());
     }
 
@@ -111,6 +117,16 @@ public class RemoteRepositoryData
         return autoImportRemoteSSLCertificate;
     }
 
+    public Long getCacheQuotaInBytes()
+    {
+        return cacheQuotaInBytes;
+    }
+
+    public String getCacheEvictionPolicy()
+    {
+        return cacheEvictionPolicy;
+    }
+
     public CustomRemoteRepositoryConfigurationData getCustomConfiguration()
     {
         return customConfiguration;
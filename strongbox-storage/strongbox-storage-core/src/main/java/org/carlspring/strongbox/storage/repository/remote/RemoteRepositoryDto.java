@@ -34,6 +34,10 @@ public class RemoteRepositoryDto
 
     private boolean autoImportRemoteSSLCertificate;
 
+    private Long cacheQuotaInBytes;
+
+    private String cacheEvictionPolicy = RemoteRepositoryCacheEvictionPolicyEnum.LRU.name();
+
     private RemoteRepositoryConfigurationDto customConfiguration;
 
     public String getUrl()
@@ -136,6 +140,26 @@ public class RemoteRepositoryDto
         return allowsDirectoryBrowsing;
     }
 
+    public Long getCacheQuotaInBytes()
+    {
+        return cacheQuotaInBytes;
+    }
+
+    public void setCacheQuotaInBytes(Long cacheQuotaInBytes)
+    {
+        this.cacheQuotaInBytes = cacheQuotaInBytes;
+    }
+
+    public String getCacheEvictionPolicy()
+    {
+        return cacheEvictionPolicy;
+    }
+
+    public void setCacheEvictionPolicy(String cacheEvictionPolicy)
+    {
+        this.cacheEvictionPolicy = cacheEvictionPolicy;
+    }
+
     public RemoteRepositoryConfigurationDto getCustomConfiguration()
     {
         return customConfiguration;
@@ -0,0 +1,296 @@
+package org.carlspring.strongbox.storage.routing;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Compiled form of the {@link RoutingRules}, which is built once per configuration and then used to check the paths
+ * of every group member. <br>
+ * The rules are indexed by the group repository, and the rules which are applied to a group member are selected
+ * only once per group and member pair. All the patterns of the selected rules are joined into a single regex, so
+ * the path check costs a single match, no matter how many rules there are.
+ *
+ * @see <a href="https://strongbox.github.io/user-guide/artifact-routing-rules.html">Artifact Routing Rules</a>
+ */
+@ThreadSafe
+public class RoutingRulesMatcher
+{
+
+    /**
+     * The patterns which can't be joined with the others: the back references and named groups are resolved within
+     * the whole regex, while the unterminated quotes (`\Q`) and comments (`(?x)`) would swallow the rest of it.
+     */
+    private static final Pattern NOT_JOINABLE = Pattern.compile("\\\\(\\d|k<|Q)|\\(\\?<[a-zA-Z]|\\(\\?[a-zA-Z]*x");
+
+    private final List<CompiledRule> wildcardRules = new ArrayList<>();
+
+    private final Map<String, List<CompiledRule>> rulesByGroup = new HashMap<>();
+
+    private final ConcurrentMap<String, MemberRules> memberRules = new ConcurrentHashMap<>();
+
+    public RoutingRulesMatcher(RoutingRules routingRules)
+    {
+        for (RoutingRule rule : routingRules.getRules())
+        {
+            CompiledRule compiledRule = new CompiledRule(rule);
+            if (compiledRule.storageId.isEmpty() || compiledRule.repositoryId.isEmpty())
+            {
+                // storageId:* , *:repositoryId or *:*
+                wildcardRules.add(compiledRule);
+            }
+            else
+            {
+                rulesByGroup.computeIfAbsent(toKey(compiledRule.storageId, compiledRule.repositoryId),
+                                             k -> new ArrayList<>())
+                            .add(compiledRule);
+            }
+        }
+    }
+
+    /**
+     * @return the rules which are applied to the member repository within the group repository
+     */
+    public MemberRules getMemberRules(String groupStorageId,
+                                      String groupRepositoryId,
+                                      String storageId,
+                                      String repositoryId)
+    {
+        String key = toKey(groupStorageId, groupRepositoryId) + "|" + toKey(storageId, repositoryId);
+        MemberRules result = memberRules.get(key);
+        if (result != null)
+        {
+            return result;
+        }
+
+        return memberRules.computeIfAbsent(key, k -> compile(normalize(groupStorageId),
+                                                             normalize(groupRepositoryId),
+                                                             normalize(storageId),
+                                                             normalize(repositoryId)));
+    }
+
+    public boolean isDenied(String groupStorageId,
+                            String groupRepositoryId,
+                            String storageId,
+                            String repositoryId,
+                            String path)
+    {
+        return getMemberRules(groupStorageId, groupRepositoryId, storageId, repositoryId).isDenied(path);
+    }
+
+    private MemberRules compile(String groupStorageId,
+                                String groupRepositoryId,
+                                String storageId,
+                                String repositoryId)
+    {
+        List<CompiledRule> rules = new ArrayList<>(wildcardRules);
+        rules.addAll(rulesByGroup.getOrDefault(toKey(groupStorageId, groupRepositoryId), Collections.emptyList()));
+
+        List<Pattern> denied = new ArrayList<>();
+        List<Pattern> accepted = new ArrayList<>();
+        for (CompiledRule rule : rules)
+        {
+            if (!rule.isMatch(groupStorageId, groupRepositoryId) || !rule.isMemberMatch(storageId, repositoryId))
+            {
+                continue;
+            }
+
+            if (rule.deny)
+            {
+                denied.add(rule.regex);
+            }
+            else if (rule.accept)
+            {
+                accepted.add(rule.regex);
+            }
+        }
+
+        return new MemberRules(PathMatcher.of(denied), PathMatcher.of(accepted));
+    }
+
+    private static String toKey(String storageId,
+                                String repositoryId)
+    {
+        return normalize(storageId) + ":" + normalize(repositoryId);
+    }
+
+    private static String normalize(String id)
+    {
+        return StringUtils.trimToEmpty(id).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The deny and accept rules of a single group member.
+     */
+    public static class MemberRules
+    {
+
+        private final PathMatcher denied;
+
+        private final PathMatcher accepted;
+
+        MemberRules(PathMatcher denied,
+                    PathMatcher accepted)
+        {
+            this.denied = denied;
+            this.accepted = accepted;
+        }
+
+        /**
+         * @return `false` if the member path can't be denied at all, so there is no need to check it
+         */
+        public boolean hasDenyRules()
+        {
+            return !denied.isEmpty();
+        }
+
+        public boolean isDenied(String path)
+        {
+            return denied.matches(path) && !accepted.matches(path);
+        }
+
+    }
+
+    static class PathMatcher
+    {
+
+        private static final PathMatcher EMPTY = new PathMatcher(Collections.emptyList());
+
+        private final List<Pattern> patterns;
+
+        private PathMatcher(List<Pattern> patterns)
+        {
+            this.patterns = patterns;
+        }
+
+        static PathMatcher of(List<Pattern> patterns)
+        {
+            if (patterns.isEmpty())
+            {
+                return EMPTY;
+            }
+            if (patterns.size() == 1)
+            {
+                return new PathMatcher(patterns);
+            }
+
+            List<Pattern> joinable = new ArrayList<>();
+            List<Pattern> result = new ArrayList<>();
+            for (Pattern pattern : patterns)
+            {
+                (NOT_JOINABLE.matcher(pattern.pattern()).find() ? result : joinable).add(pattern);
+            }
+
+            if (joinable.size() > 1)
+            {
+                try
+                {
+                    result.add(0, Pattern.compile(joinable.stream()
+                                                          .map(p -> "(?:" + p.pattern() + ")")
+                                                          .collect(Collectors.joining("|"))));
+                }
+                catch (PatternSyntaxException e)
+                {
+                    result.addAll(0, joinable);
+                }
+            }
+            else
+            {
+                result.addAll(0, joinable);
+            }
+
+            return new PathMatcher(result);
+        }
+
+        boolean isEmpty()
+        {
+            return patterns.isEmpty();
+        }
+
+        boolean matches(String path)
+        {
+            for (Pattern pattern : patterns)
+            {
+                if (pattern.matcher(path).matches())
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+    }
+
+    private static class CompiledRule
+    {
+
+        private final String storageId;
+
+        private final String repositoryId;
+
+        private final Pattern regex;
+
+        private final boolean deny;
+
+        private final boolean accept;
+
+        /**
+         * `null` means the rule is applied to **all** the repositories in the group.
+         */
+        private final List<String[]> repositories;
+
+        CompiledRule(RoutingRule rule)
+        {
+            this.storageId = normalize(rule.getStorageId());
+            this.repositoryId = normalize(rule.getRepositoryId());
+            this.regex = rule.getRegex();
+            this.deny = rule.isDeny();
+            this.accept = rule.isAccept();
+            this.repositories = rule.getRepositories().isEmpty() ? null :
+                                rule.getRepositories()
+                                    .stream()
+                                    .map(r -> new String[]{ normalize(r.getStorageId()),
+                                                            normalize(r.getRepositoryId()) })
+                                    .collect(Collectors.toList());
+        }
+
+        boolean isMatch(String groupStorageId,
+                        String groupRepositoryId)
+        {
+            return isMatch(storageId, repositoryId, groupStorageId, groupRepositoryId);
+        }
+
+        boolean isMemberMatch(String memberStorageId,
+                              String memberRepositoryId)
+        {
+            return repositories == null ||
+                   repositories.stream().anyMatch(r -> isMatch(r[0], r[1], memberStorageId, memberRepositoryId));
+        }
+
+        /**
+         * Exact `storageId:repositoryId` match, or one of the `*:*`, `storageId:*` and `*:repositoryId` wildcards.
+         */
+        private static boolean isMatch(String ruleStorageId,
+                                       String ruleRepositoryId,
+                                       String storageId,
+                                       String repositoryId)
+        {
+            return (ruleStorageId.isEmpty() || ruleStorageId.equals(storageId)) &&
+                   (ruleRepositoryId.isEmpty() || ruleRepositoryId.equals(repositoryId));
+        }
+
+    }
+
+}
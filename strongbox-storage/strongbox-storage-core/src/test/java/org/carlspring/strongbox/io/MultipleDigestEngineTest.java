@@ -0,0 +1,88 @@
+package org.carlspring.strongbox.io;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MultipleDigestEngineTest
+{
+
+    private static final List<String> ALGORITHMS = Arrays.asList("MD5", "SHA-1", "SHA-256");
+
+    private final byte[] data = randomData(1024 * 1024 + 13);
+
+    @Test
+    public void testSmallWrites()
+        throws Exception
+    {
+        MultipleDigestEngine digestEngine = new MultipleDigestEngine(ALGORITHMS);
+        for (int off = 0; off < data.length; off += 4096)
+        {
+            digestEngine.update(data, off, Math.min(4096, data.length - off));
+        }
+
+        assertDigests(digestEngine.digest());
+    }
+
+    @Test
+    public void testSingleByteAndBigWrites()
+        throws Exception
+    {
+        MultipleDigestEngine digestEngine = new MultipleDigestEngine(ALGORITHMS, 1024);
+        digestEngine.setParallelThreshold(512);
+
+        digestEngine.update(data[0]);
+        digestEngine.update(data, 1, data.length - 1);
+
+        assertDigests(digestEngine.digest());
+    }
+
+    @Test
+    public void testChannel()
+        throws Exception
+    {
+        MultipleDigestEngine digestEngine = new MultipleDigestEngine(ALGORITHMS, 64 * 1024);
+
+        assertEquals(data.length, digestEngine.update(Channels.newChannel(new ByteArrayInputStream(data))));
+        assertDigests(digestEngine.digest());
+    }
+
+    @Test
+    public void testDigestCalculatedOnce()
+        throws Exception
+    {
+        MultipleDigestEngine digestEngine = new MultipleDigestEngine(ALGORITHMS);
+        digestEngine.update(data, 0, data.length);
+
+        assertEquals(digestEngine.digest(), digestEngine.digest());
+        assertThrows(IllegalStateException.class, () -> digestEngine.update(1));
+    }
+
+    private void assertDigests(Map<String, byte[]> digests)
+        throws Exception
+    {
+        assertEquals(ALGORITHMS.size(), digests.size());
+        for (String algorithm : ALGORITHMS)
+        {
+            assertArrayEquals(MessageDigest.getInstance(algorithm).digest(data), digests.get(algorithm), algorithm);
+        }
+    }
+
+    private static byte[] randomData(int size)
+    {
+        byte[] result = new byte[size];
+        new Random(42).nextBytes(result);
+
+        return result;
+    }
+
+}
@@ -0,0 +1,96 @@
+package org.carlspring.strongbox.storage.routing;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RoutingRulesMatcherTest
+{
+
+    @Test
+    public void testGroupAndMemberWildcards()
+    {
+        MutableRoutingRuleRepository releases = new MutableRoutingRuleRepository("storage0", "releases");
+        MutableRoutingRuleRepository snapshots = new MutableRoutingRuleRepository("", "snapshots");
+        RoutingRulesMatcher matcher = matcher(rule("storage0", "group", null, ".*/foo/.*", RoutingRuleTypeEnum.DENY),
+                                              rule("", "", releases, ".*/bar/.*", RoutingRuleTypeEnum.DENY),
+                                              rule("STORAGE0 ", "", snapshots, ".*/baz/.*", RoutingRuleTypeEnum.DENY));
+
+        assertTrue(matcher.isDenied("storage0", "group", "storage0", "releases", "org/foo/1.0/foo-1.0.jar"));
+        assertTrue(matcher.isDenied("storage0", "group", "storage1", "snapshots", "org/foo/1.0/foo-1.0.jar"));
+        assertFalse(matcher.isDenied("storage0", "other-group", "storage0", "releases", "org/foo/1.0/foo-1.0.jar"));
+
+        assertTrue(matcher.isDenied("storage1", "any-group", "storage0", "releases", "org/bar/1.0/bar-1.0.jar"));
+        assertFalse(matcher.isDenied("storage1", "any-group", "storage1", "releases", "org/bar/1.0/bar-1.0.jar"));
+
+        assertTrue(matcher.isDenied("storage0", "any-group", "storage1", "snapshots", "org/baz/1.0/baz-1.0.jar"));
+        assertFalse(matcher.isDenied("storage1", "any-group", "storage1", "snapshots", "org/baz/1.0/baz-1.0.jar"));
+    }
+
+    @Test
+    public void testAcceptOverridesDeny()
+    {
+        MutableRoutingRuleRepository releases = new MutableRoutingRuleRepository("storage0", "releases");
+        RoutingRulesMatcher matcher = matcher(rule("storage0", "group", null, ".*", RoutingRuleTypeEnum.DENY),
+                                              rule("storage0", "group", releases, "org/carlspring/.*",
+                                                   RoutingRuleTypeEnum.ACCEPT));
+
+        assertTrue(matcher.isDenied("storage0", "group", "storage0", "releases", "com/foo/1.0/foo-1.0.jar"));
+        assertFalse(matcher.isDenied("storage0", "group", "storage0", "releases", "org/carlspring/1.0/a-1.0.jar"));
+        assertTrue(matcher.isDenied("storage0", "group", "storage0", "snapshots", "org/carlspring/1.0/a-1.0.jar"));
+    }
+
+    @Test
+    public void testJoinedPatterns()
+    {
+        RoutingRulesMatcher matcher = matcher(rule("", "", null, "com/.*", RoutingRuleTypeEnum.DENY),
+                                              rule("", "", null, "(?i)net/.*", RoutingRuleTypeEnum.DENY),
+                                              rule("", "", null, "org/(\\w+)/\\1/.*", RoutingRuleTypeEnum.DENY),
+                                              rule("", "", null, "\\Qio/a.b/", RoutingRuleTypeEnum.DENY));
+
+        assertTrue(matcher.isDenied("storage0", "group", "storage0", "releases", "com/foo/1.0/foo-1.0.jar"));
+        assertTrue(matcher.isDenied("storage0", "group", "storage0", "releases", "NET/foo/1.0/foo-1.0.jar"));
+        assertFalse(matcher.isDenied("storage0", "group", "storage0", "releases", "COM/foo/1.0/foo-1.0.jar"));
+        assertTrue(matcher.isDenied("storage0", "group", "storage0", "releases", "org/foo/foo/foo-1.0.jar"));
+        assertFalse(matcher.isDenied("storage0", "group", "storage0", "releases", "org/foo/bar/foo-1.0.jar"));
+        assertTrue(matcher.isDenied("storage0", "group", "storage0", "releases", "io/a.b/"));
+        assertFalse(matcher.isDenied("storage0", "group", "storage0", "releases", "io/aXb/"));
+    }
+
+    @Test
+    public void testMemberRulesAreCompiledOnce()
+    {
+        RoutingRulesMatcher matcher = matcher(rule("storage0", "group", null, ".*", RoutingRuleTypeEnum.ACCEPT));
+
+        assertFalse(matcher.getMemberRules("storage0", "group", "storage0", "releases").hasDenyRules());
+        assertSame(matcher.getMemberRules("storage0", "group", "storage0", "releases"),
+                   matcher.getMemberRules("Storage0", " group", "storage0", "RELEASES"));
+    }
+
+    private RoutingRulesMatcher matcher(MutableRoutingRule... rules)
+    {
+        MutableRoutingRules routingRules = new MutableRoutingRules();
+        routingRules.setRules(Arrays.asList(rules));
+
+        return new RoutingRulesMatcher(new RoutingRules(routingRules));
+    }
+
+    private MutableRoutingRule rule(String storageId,
+                                    String groupRepositoryId,
+                                    MutableRoutingRuleRepository repository,
+                                    String pattern,
+                                    RoutingRuleTypeEnum type)
+    {
+        return MutableRoutingRule.create(storageId,
+                                         groupRepositoryId,
+                                         repository == null ? Collections.emptyList() :
+                                         Collections.singletonList(repository),
+                                         pattern,
+                                         type);
+    }
+
+}
@@ -7,6 +7,7 @@ import org.carlspring.strongbox.providers.repository.GroupRepositoryProvider;
 import org.carlspring.strongbox.providers.repository.RepositoryProvider;
 import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
 import org.carlspring.strongbox.providers.repository.event.GroupRepositoryPathFetchEvent;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositoryFetchExecutor;
 import org.carlspring.strongbox.services.support.ArtifactRoutingRulesChecker;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -16,10 +17,8 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
@@ -30,8 +29,6 @@ import org.springframework.stereotype.Component;
 public class MavenGroupRepositoryPathFetchEventListener
 {
 
-    private static final Logger logger = LoggerFactory.getLogger(MavenGroupRepositoryPathFetchEventListener.class);
-
     @Inject
     private Maven2LayoutProvider maven2LayoutProvider;
 
@@ -47,6 +44,9 @@ public class MavenGroupRepositoryPathFetchEventListener
     @Inject
     private RepositoryProviderRegistry repositoryProviderRegistry;
 
+    @Inject
+    private GroupRepositoryFetchExecutor groupRepositoryFetchExecutor;
+
     @EventListener
     public void handle(final GroupRepositoryPathFetchEvent event)
             throws IOException
@@ -73,7 +73,7 @@ public class MavenGroupRepositoryPathFetchEventListener
     {
         Repository groupRepository = repositoryPath.getRepository();
         Storage storage = groupRepository.getStorage();
-        List<Callable<Path>> fetchActions = new ArrayList<>();
+        List<Future<Path>> fetches = new ArrayList<>();
 
         for (String storageAndRepositoryId : groupRepository.getGroupRepositories())
         {
@@ -93,25 +93,9 @@ public class MavenGroupRepositoryPathFetchEventListener
             }
 
             RepositoryProvider provider = repositoryProviderRegistry.getProvider(subRepository.getType());
-            fetchActions.add(() -> provider.fetchPath(resolvedPath));
+            fetches.add(groupRepositoryFetchExecutor.submit(subRepository, () -> provider.fetchPath(resolvedPath)));
         }
 
-        fetchPathsInParallel(fetchActions);
-    }
-
-    private void fetchPathsInParallel(final List<Callable<Path>> fetchActions)
-    {
-        fetchActions
-                .parallelStream()
-                .forEach(action -> {
-                    try
-                    {
-                        action.call();
-                    }
-                    catch (Exception e)
-                    {
-                        logger.error(e.getMessage(), e);
-                    }
-                });
+        groupRepositoryFetchExecutor.awaitAll(fetches);
     }
 }
@@ -0,0 +1,124 @@
+package org.carlspring.strongbox.cron.jobs;
+
+import org.carlspring.strongbox.artifact.ArtifactTag;
+import org.carlspring.strongbox.config.Maven2LayoutProviderCronTasksTestConfig;
+import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@ContextConfiguration(classes = Maven2LayoutProviderCronTasksTestConfig.class)
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@TestExecutionListeners(listeners = { CacheManagerTestExecutionListener.class },
+                        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+@Execution(CONCURRENT)
+public class UpdateArtifactGroupsLastVersionCronJobTestIT
+        extends BaseCronJobWithMavenIndexingTestCase
+{
+
+    private static final String UAGLVCJ_RELEASES = "uaglvcj-releases";
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testUpdateLastVersionEntries(@MavenRepository(repositoryId = UAGLVCJ_RELEASES)
+                                             Repository repository,
+                                             @MavenTestArtifact(repositoryId = UAGLVCJ_RELEASES,
+                                                                id = "org.carlspring.strongbox:strongbox-uaglvcj-one",
+                                                                versions = { "1.0",
+                                                                             "2.0" })
+                                             List<Path> artifact1,
+                                             @MavenTestArtifact(repositoryId = UAGLVCJ_RELEASES,
+                                                                id = "org.carlspring.strongbox:strongbox-uaglvcj-two",
+                                                                versions = { "1.1",
+                                                                             "1.0" })
+                                             List<Path> artifact2)
+            throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        // The groups, which were created before the "last version" entries tracking, don't have them.
+        for (String artifactId : Arrays.asList("strongbox-uaglvcj-one", "strongbox-uaglvcj-two"))
+        {
+            RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOne(storageId,
+                                                                                                    repositoryId,
+                                                                                                    artifactId);
+            for (ArtifactEntry artifactEntry : artifactGroup.getArtifactEntries())
+            {
+                artifactEntry.getTagSet().clear();
+                artifactEntryService.save(artifactEntry);
+            }
+
+            artifactGroup.getLastVersionEntries().clear();
+            repositoryArtifactIdGroupService.save(artifactGroup);
+        }
+
+        // Every group is updated within its own batch.
+        addCronJobConfig(expectedJobKey,
+                         expectedJobName,
+                         UpdateArtifactGroupsLastVersionCronJob.class,
+                         storageId,
+                         repositoryId,
+                         properties -> properties.put("batchSize", "1"));
+
+        await().atMost(EVENT_TIMEOUT_SECONDS, TimeUnit.SECONDS).untilTrue(receivedExpectedEvent());
+
+        assertLastVersion(storageId, repositoryId, "strongbox-uaglvcj-one", "2.0");
+        assertLastVersion(storageId, repositoryId, "strongbox-uaglvcj-two", "1.1");
+    }
+
+    private void assertLastVersion(String storageId,
+                                   String repositoryId,
+                                   String artifactId,
+                                   String version)
+    {
+        RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOne(storageId,
+                                                                                                repositoryId,
+                                                                                                artifactId);
+
+        assertThat(artifactGroup.getLastVersionEntries()).isNotEmpty()
+                                                         .allSatisfy(e -> assertThat(
+                                                                 e.getArtifactCoordinates().getVersion()).isEqualTo(
+                                                                 version));
+
+        for (ArtifactEntry artifactEntry : artifactGroup.getArtifactEntries())
+        {
+            boolean lastVersion = version.equals(artifactEntry.getArtifactCoordinates().getVersion());
+            assertThat(artifactEntry.getTagSet().stream().anyMatch(t -> ArtifactTag.LAST_VERSION.equals(t.getName())))
+                    .as(artifactEntry.getArtifactPath())
+                    .isEqualTo(lastVersion);
+        }
+    }
+
+}
@@ -1,6 +1,10 @@
 package org.carlspring.strongbox.services;
 
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.services.support.ChecksumRegenerationCheckpoint;
+import org.carlspring.strongbox.services.support.ChecksumRegenerationStatistics;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
 import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
@@ -45,6 +49,12 @@ public class MavenChecksumServiceTest
 
     private static final String REPOSITORY_SNAPSHOTS = "mcs-snapshots";
 
+    private static final String REPOSITORY_RESUME_RELEASES = "mcs-resume-releases";
+
+    private static final String A4 = "org.carlspring.strongbox.checksum.maven:strongbox-checksum-resume";
+
+    private static final String A4_PATH = "org/carlspring/strongbox/checksum/maven/strongbox-checksum-resume";
+
     private static final String A1 = "org.carlspring.strongbox.checksum.maven:strongbox-checksum";
     
     private static final String A3 = "org/carlspring/strongbox/checksum/maven/checksum-rewrite/1.0/checksum-rewrite-1.0.jar";
@@ -57,6 +67,9 @@ public class MavenChecksumServiceTest
     @Inject
     private ChecksumService checksumService;
 
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
     @Test
     @ExtendWith({RepositoryManagementTestExecutionListener.class, 
                  ArtifactManagementTestExecutionListener.class})
@@ -403,4 +416,70 @@ public class MavenChecksumServiceTest
                 .isTrue();
     }
 
+    @Test
+    @ExtendWith({RepositoryManagementTestExecutionListener.class,
+                 ArtifactManagementTestExecutionListener.class})
+    public void testResumeMavenChecksumRegeneration(@MavenRepository(repositoryId = REPOSITORY_RESUME_RELEASES)
+                                                    Repository repository,
+                                                    @MavenTestArtifact(repositoryId = REPOSITORY_RESUME_RELEASES,
+                                                                       id = A4,
+                                                                       versions = { "1.0",
+                                                                                    "2.0" })
+                                                    List<Path> artifactGroupPath)
+            throws IOException,
+                   XmlPullParserException,
+                   NoSuchAlgorithmException
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        artifactMetadataService.rebuildMetadata(storageId, repositoryId, A4_PATH);
+
+        Path artifact1Sha1 = artifactGroupPath.get(0).resolveSibling(artifactGroupPath.get(0).getFileName() + ".sha1");
+        Path artifact2Sha1 = artifactGroupPath.get(1).resolveSibling(artifactGroupPath.get(1).getFileName() + ".sha1");
+        deleteIfExists(artifact1Sha1);
+        deleteIfExists(artifact2Sha1);
+
+        // The regeneration of the base path was interrupted once the `1.0` directory was completed, while the
+        // regeneration of the whole repository, which was interrupted as well, has its own checkpoint.
+        RepositoryPath rootPath = repositoryPathResolver.resolve(repository);
+        RepositoryPath basePath = repositoryPathResolver.resolve(repository, A4_PATH);
+        RepositoryPath version1Path = (RepositoryPath) artifactGroupPath.get(0).getParent();
+        try (ChecksumRegenerationCheckpoint checkpoint = ChecksumRegenerationCheckpoint.open(basePath, false))
+        {
+            checkpoint.complete(version1Path);
+        }
+        try (ChecksumRegenerationCheckpoint checkpoint = ChecksumRegenerationCheckpoint.open(rootPath, false))
+        {
+            checkpoint.complete(version1Path);
+            checkpoint.complete((RepositoryPath) artifactGroupPath.get(1).getParent());
+        }
+
+        ChecksumRegenerationStatistics statistics = new ChecksumRegenerationStatistics();
+        checksumService.regenerateChecksum(storageId, repositoryId, A4_PATH, false, statistics);
+
+        assertThat(statistics.getResumedDirectories()).isEqualTo(1);
+        assertThat(Files.exists(artifact1Sha1))
+                .as("The checksum file of the completed directory was regenerated!")
+                .isFalse();
+        assertThat(Files.exists(artifact2Sha1))
+                .as("The checksum file for artifact doesn't exist!")
+                .isTrue();
+
+        // The checkpoint is removed once the regeneration completed.
+        statistics = new ChecksumRegenerationStatistics();
+        checksumService.regenerateChecksum(storageId, repositoryId, A4_PATH, false, statistics);
+
+        assertThat(statistics.getResumedDirectories()).isEqualTo(0);
+        assertThat(Files.exists(artifact1Sha1))
+                .as("The checksum file for artifact doesn't exist!")
+                .isTrue();
+
+        try (ChecksumRegenerationCheckpoint checkpoint = ChecksumRegenerationCheckpoint.open(rootPath, false))
+        {
+            assertThat(checkpoint.isResumed()).isTrue();
+            checkpoint.clear();
+        }
+    }
+
 }
@@ -0,0 +1,186 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.artifact.ArtifactTag;
+import org.carlspring.strongbox.artifact.MavenArtifactUtils;
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.MavenArtifactTestUtils;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@Execution(CONCURRENT)
+public class RepositoryArtifactIdGroupServiceTest
+{
+
+    private static final String RAIGS_ADD_RELEASES = "raigs-add-releases";
+
+    private static final String RAIGS_OUT_OF_ORDER_RELEASES = "raigs-out-of-order-releases";
+
+    private static final String RAIGS_DELETE_RELEASES = "raigs-delete-releases";
+
+    private static final String ARTIFACT_ID = "strongbox-raigs-artifact";
+
+    private static final String GAV = "org.carlspring.strongbox:" + ARTIFACT_ID + ":%s:jar";
+
+    @Inject
+    private ArtifactManagementService mavenArtifactManagementService;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void testAddArtifactToGroup(@MavenRepository(repositoryId = RAIGS_ADD_RELEASES)
+                                       Repository repository)
+            throws Exception
+    {
+        String v1 = store(repository, String.format(GAV, "1.0"));
+        String v1Sources = store(repository, String.format(GAV, "1.0") + ":sources");
+
+        // All the files of the last version are the group last version entries.
+        assertLastVersion(repository, v1, v1Sources);
+
+        String v2 = store(repository, String.format(GAV, "2.0"));
+
+        assertLastVersion(repository, v2);
+        assertNotLastVersion(repository, v1, v1Sources);
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void testAddPreviousVersionToGroup(@MavenRepository(repositoryId = RAIGS_OUT_OF_ORDER_RELEASES)
+                                              Repository repository)
+            throws Exception
+    {
+        String v2 = store(repository, String.format(GAV, "2.0"));
+        String v1 = store(repository, String.format(GAV, "1.0"));
+
+        assertLastVersion(repository, v2);
+        assertNotLastVersion(repository, v1);
+
+        // The re-deployed last version stays the last version.
+        store(repository, String.format(GAV, "2.0"));
+
+        assertLastVersion(repository, v2);
+        assertNotLastVersion(repository, v1);
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void testRemoveArtifactFromGroup(@MavenRepository(repositoryId = RAIGS_DELETE_RELEASES)
+                                            Repository repository)
+            throws Exception
+    {
+        String v1 = store(repository, String.format(GAV, "1.0"));
+        String v2 = store(repository, String.format(GAV, "2.0"));
+        String v2Sources = store(repository, String.format(GAV, "2.0") + ":sources");
+        String v3 = store(repository, String.format(GAV, "3.0"));
+
+        // Deleting the previous version doesn't change the last version.
+        delete(repository, v1);
+
+        assertLastVersion(repository, v3);
+        assertThat(findArtifactGroup(repository).getArtifactEntries()).hasSize(3);
+
+        // The last version is recalculated from the remaining entries.
+        delete(repository, v3);
+
+        assertLastVersion(repository, v2, v2Sources);
+
+        // The other files of the last version are still the last version.
+        delete(repository, v2Sources);
+
+        assertLastVersion(repository, v2);
+    }
+
+    private void assertLastVersion(Repository repository,
+                                   String... paths)
+    {
+        RepositoryArtifactIdGroupEntry artifactGroup = findArtifactGroup(repository);
+        assertThat(artifactGroup.getLastVersionEntries()).extracting(e -> e.getArtifactCoordinates().toPath())
+                                                         .containsExactlyInAnyOrder(paths);
+
+        for (String path : paths)
+        {
+            ArtifactEntry artifactEntry = findArtifactEntry(repository, path);
+            assertThat(artifactEntry.getTagSet()).extracting(ArtifactTag::getName)
+                                                 .containsExactly(ArtifactTag.LAST_VERSION);
+        }
+    }
+
+    private void assertNotLastVersion(Repository repository,
+                                      String... paths)
+    {
+        for (String path : paths)
+        {
+            ArtifactEntry artifactEntry = findArtifactEntry(repository, path);
+            assertThat(artifactEntry.getTagSet()).isEmpty();
+        }
+    }
+
+    private RepositoryArtifactIdGroupEntry findArtifactGroup(Repository repository)
+    {
+        return repositoryArtifactIdGroupService.findOne(repository.getStorage().getId(),
+                                                        repository.getId(),
+                                                        ARTIFACT_ID);
+    }
+
+    private ArtifactEntry findArtifactEntry(Repository repository,
+                                            String path)
+    {
+        return artifactEntryService.findOneArtifact(repository.getStorage().getId(),
+                                                    repository.getId(),
+                                                    path);
+    }
+
+    private String store(Repository repository,
+                         String gavtc)
+            throws Exception
+    {
+        String path = MavenArtifactUtils.convertArtifactToPath(MavenArtifactTestUtils.getArtifactFromGAVTC(gavtc));
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, path);
+        try (InputStream is = new ByteArrayInputStream(gavtc.getBytes(StandardCharsets.UTF_8)))
+        {
+            mavenArtifactManagementService.validateAndStore(repositoryPath, is);
+        }
+
+        return path;
+    }
+
+    private void delete(Repository repository,
+                        String path)
+            throws IOException
+    {
+        mavenArtifactManagementService.delete(repositoryPathResolver.resolve(repository, path), true);
+    }
+
+}
@@ -0,0 +1,167 @@
+package org.carlspring.strongbox.cron.jobs;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.cron.domain.CronTaskConfigurationDto;
+import org.carlspring.strongbox.cron.jobs.fields.*;
+import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.data.service.support.search.Sort;
+import org.carlspring.strongbox.data.service.support.search.Sort.Order;
+import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
+import org.carlspring.strongbox.providers.layout.NpmLayoutProvider;
+import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.metadata.NpmPackageFeedManager;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Rebuilds the stored package feeds of the npm repositories, e.g. for the packages stored before the package feeds
+ * were introduced, or after the base URL, which the package feeds refer the package archives with, was changed, so
+ * that the feeds are not rebuilt on their next requests.
+ */
+public class RebuildNpmPackageFeedsCronJob
+        extends JavaCronJob
+{
+
+    private static final String PROPERTY_STORAGE_ID = "storageId";
+
+    private static final String PROPERTY_REPOSITORY_ID = "repositoryId";
+
+    private static final String PROPERTY_BATCH_SIZE = "batchSize";
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final Set<CronJobField> FIELDS = ImmutableSet.of(
+            new CronJobStorageIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_STORAGE_ID)))),
+            new CronJobRepositoryIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_REPOSITORY_ID)))),
+            new CronJobIntegerTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_BATCH_SIZE))));
+
+    @Inject
+    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
+    @Inject
+    private NpmPackageFeedManager npmPackageFeedManager;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Override
+    public void executeTask(CronTaskConfigurationDto config)
+            throws Throwable
+    {
+        String storageId = config.getProperty(PROPERTY_STORAGE_ID);
+        String repositoryId = config.getProperty(PROPERTY_REPOSITORY_ID);
+        String batchSizeText = config.getProperty(PROPERTY_BATCH_SIZE);
+
+        int batchSize = DEFAULT_BATCH_SIZE;
+        if (batchSizeText != null)
+        {
+            try
+            {
+                batchSize = Integer.parseInt(batchSizeText);
+            }
+            catch (NumberFormatException ex)
+            {
+                logger.error("Invalid integer value [" + batchSizeText +
+                             "] of 'batchSize' property. Cron job won't be fired.", ex);
+                return;
+            }
+        }
+
+        if (storageId == null)
+        {
+            for (String storage : getStorages().keySet())
+            {
+                rebuildRepositories(storage, batchSize);
+            }
+        }
+        else if (repositoryId == null)
+        {
+            rebuildRepositories(storageId, batchSize);
+        }
+        else
+        {
+            rebuildRepository(getStorages().get(storageId).getRepository(repositoryId), batchSize);
+        }
+    }
+
+    @Override
+    public CronJobDefinition getCronJobDefinition()
+    {
+        return CronJobDefinition.newBuilder()
+                                .jobClass(RebuildNpmPackageFeedsCronJob.class.getName())
+                                .name("Rebuild Npm Package Feeds Cron Job")
+                                .description("Rebuild Npm Package Feeds Cron Job")
+                                .fields(FIELDS)
+                                .build();
+    }
+
+    private void rebuildRepositories(String storageId,
+                                     int batchSize)
+    {
+        Map<String, ? extends Repository> repositories = getStorages().get(storageId).getRepositories();
+        for (Repository repository : repositories.values())
+        {
+            rebuildRepository(repository, batchSize);
+        }
+    }
+
+    private void rebuildRepository(Repository repository,
+                                   int batchSize)
+    {
+        // The group repository feeds are not stored, they are merged from the member repositories.
+        if (repository == null || !NpmLayoutProvider.ALIAS.equals(repository.getLayout())
+                || repository.isGroupRepository())
+        {
+            return;
+        }
+
+        String storageId = repository.getStorage().getId();
+        String repositoryId = repository.getId();
+
+        // Each page starts after the last package of the previous one, so the packages added or removed meanwhile
+        // don't shift the next pages.
+        PagingCriteria pagingCriteria = PagingCriteria.seek(batchSize, Sort.by(Order.asc("name")));
+        long total = 0;
+        List<RepositoryArtifactIdGroupEntry> artifactGroups;
+        do
+        {
+            artifactGroups = repositoryArtifactIdGroupService.findMatching(storageId, repositoryId, pagingCriteria);
+            if (artifactGroups.isEmpty())
+            {
+                break;
+            }
+            pagingCriteria = pagingCriteria.after(repositoryArtifactIdGroupService.cursorOf(
+                    artifactGroups.get(artifactGroups.size() - 1), pagingCriteria));
+
+            Set<String> packageIds = artifactGroups.stream()
+                                                   .map(RepositoryArtifactIdGroupEntry::getName)
+                                                   .collect(Collectors.toSet());
+
+            // Every batch is processed within separate transaction.
+            npmPackageFeedManager.updatePackageFeeds(repository, packageIds);
+
+            total += artifactGroups.size();
+        }
+        while (artifactGroups.size() == batchSize);
+
+        logger.info(String.format("Rebuilt the package feeds of [%s] packages of [%s:%s].", total, storageId,
+                                  repositoryId));
+    }
+
+    private Map<String, Storage> getStorages()
+    {
+        return configurationManager.getConfiguration().getStorages();
+    }
+
+}
@@ -0,0 +1,64 @@
+package org.carlspring.strongbox.domain;
+
+import org.carlspring.strongbox.data.domain.GenericEntity;
+
+import javax.persistence.Entity;
+import java.util.Date;
+
+/**
+ * The last remote change, which the npm proxy repository has fetched from the remote changes feed.
+ */
+@Entity
+public class NpmChangesFeedCheckpointEntry
+        extends GenericEntity
+{
+
+    private String storageId;
+
+    private String repositoryId;
+
+    private Long lastChangeId;
+
+    private Date lastUpdated;
+
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public void setStorageId(String storageId)
+    {
+        this.storageId = storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
+    }
+
+    public void setRepositoryId(String repositoryId)
+    {
+        this.repositoryId = repositoryId;
+    }
+
+    public Long getLastChangeId()
+    {
+        return lastChangeId;
+    }
+
+    public void setLastChangeId(Long lastChangeId)
+    {
+        this.lastChangeId = lastChangeId;
+    }
+
+    public Date getLastUpdated()
+    {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(Date lastUpdated)
+    {
+        this.lastUpdated = lastUpdated;
+    }
+
+}
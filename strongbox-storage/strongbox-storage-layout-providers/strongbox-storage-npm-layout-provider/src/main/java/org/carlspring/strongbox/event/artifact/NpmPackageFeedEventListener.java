@@ -0,0 +1,82 @@
+package org.carlspring.strongbox.event.artifact;
+
+import org.carlspring.strongbox.event.AsyncEventListener;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.NpmLayoutProvider;
+import org.carlspring.strongbox.storage.metadata.NpmPackageFeedManager;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the package versions to the stored package feed when they are stored, or fetched from the remote repository,
+ * and removes them when they are deleted.
+ */
+@Component
+public class NpmPackageFeedEventListener
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(NpmPackageFeedEventListener.class);
+
+    private static final String PACKAGE_ARCHIVE_SUFFIX = ".tgz";
+
+    @Inject
+    private NpmPackageFeedManager npmPackageFeedManager;
+
+    @AsyncEventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        RepositoryPath path = event.getPath();
+        Repository repository = path.getRepository();
+
+        if (!NpmLayoutProvider.ALIAS.equals(repository.getLayout()) || repository.isGroupRepository())
+        {
+            return;
+        }
+
+        if (!isPackageVersionEvent(event))
+        {
+            return;
+        }
+
+        try
+        {
+            if (event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType())
+            {
+                npmPackageFeedManager.removeVersion(path);
+            }
+            else
+            {
+                npmPackageFeedManager.addVersion(path);
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.error(String.format("Failed to update the package feed for [%s].", path), e);
+        }
+    }
+
+    /**
+     * The package versions are stored, or fetched, as the package archives along with some other files, while the
+     * whole version directories can be deleted.
+     */
+    private boolean isPackageVersionEvent(ArtifactEvent<RepositoryPath> event)
+    {
+        int type = event.getType();
+        if (type == ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType())
+        {
+            return true;
+        }
+
+        return (type == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()
+                || type == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType()
+                || type == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_FETCHED_FROM_REMOTE.getType())
+                && event.getPath().getFileName().toString().endsWith(PACKAGE_ARCHIVE_SUFFIX);
+    }
+
+}
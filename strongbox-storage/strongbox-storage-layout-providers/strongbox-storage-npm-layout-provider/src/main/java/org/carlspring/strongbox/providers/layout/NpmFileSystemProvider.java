@@ -1,6 +1,11 @@
 package org.carlspring.strongbox.providers.layout;
 
+import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
+
 import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.spi.FileSystemProvider;
 
 import org.slf4j.Logger;
@@ -18,6 +23,9 @@ public class NpmFileSystemProvider extends LayoutFileSystemProvider
     @Inject
     private NpmLayoutProvider layoutProvider;
 
+    @Inject
+    private ArtifactEventListenerRegistry artifactEventListenerRegistry;
+
     public NpmFileSystemProvider(FileSystemProvider storageFileSystemProvider)
     {
         super(storageFileSystemProvider);
@@ -29,4 +37,25 @@ public class NpmFileSystemProvider extends LayoutFileSystemProvider
         return layoutProvider;
     }
 
+    /**
+     * The whole package version directories are deleted on unpublish, so their deletion is dispatched as well, to
+     * have the package feed updated.
+     */
+    @Override
+    public void delete(Path path,
+                       boolean force)
+            throws IOException
+    {
+        boolean directory = Files.isDirectory(path);
+
+        super.delete(path, force);
+
+        if (directory && Files.notExists(path))
+        {
+            logger.debug(String.format("Deleted directory [%s]", path));
+
+            artifactEventListenerRegistry.dispatchArtifactPathDeletedEvent(path);
+        }
+    }
+
 }
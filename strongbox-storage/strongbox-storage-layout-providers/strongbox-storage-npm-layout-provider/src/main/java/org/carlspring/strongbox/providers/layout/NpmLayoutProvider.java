@@ -17,6 +17,7 @@ import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.repository.NpmRepositoryFeatures;
 import org.carlspring.strongbox.repository.NpmRepositoryManagementStrategy;
 import org.carlspring.strongbox.repository.RepositoryManagementStrategy;
+import org.carlspring.strongbox.storage.metadata.NpmPackageFeedManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -58,7 +59,8 @@ public class NpmLayoutProvider
     }
 
     public boolean isNpmMetadata(RepositoryPath path) {
-        return path.getFileName().toString().endsWith("package-lock.json") || path.getFileName().toString().endsWith("npm-shrinkwrap.json");
+        return path.getFileName().toString().endsWith("package-lock.json") || path.getFileName().toString().endsWith("npm-shrinkwrap.json")
+                || NpmPackageFeedManager.isPackageFeed(path);
     }
     
     @Override
@@ -1,11 +1,18 @@
 package org.carlspring.strongbox.repository;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.transaction.Transactional;
@@ -35,6 +42,8 @@ import org.carlspring.strongbox.storage.repository.Repository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Component
 public class NpmPackageFeedParser
@@ -57,8 +66,14 @@ public class NpmPackageFeedParser
     @Inject
     private RepositoryPathLock repositoryPathLock;
 
-    public void parseSearchResult(Repository repository,
-                                  SearchResults searchResults)
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * @return the paths of the new package versions
+     */
+    public Set<String> parseSearchResult(Repository repository,
+                                         SearchResults searchResults)
         throws IOException
     {
         ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
@@ -82,49 +97,117 @@ public class NpmPackageFeedParser
             artifactToSaveSet.add(remoteArtifactEntry);
         }
 
-        saveArtifactEntrySet(repository, artifactToSaveSet);
+        return saveArtifactEntrySet(repository, artifactToSaveSet);
     }
 
-    private void saveArtifactEntrySet(Repository repository,
-                                      Set<ArtifactEntry> artifactToSaveSet)
+    /**
+     * Saves the new entries one by one, each in its own transaction, which is committed within the lock of its path.
+     *
+     * @return the paths of the new package versions
+     */
+    public Set<String> saveArtifactEntrySet(Repository repository,
+                                            Collection<? extends ArtifactEntry> artifactToSaveSet)
         throws IOException
     {
+        Set<String> versionPaths = new HashSet<>();
         for (ArtifactEntry e : artifactToSaveSet)
         {
             RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).resolve(e);
 
-            saveArtifactEntry(repositoryPath);
+            if (saveArtifactEntry(repositoryPath))
+            {
+                versionPaths.add(e.getArtifactCoordinates().toPath());
+            }
         }
+
+        return versionPaths;
     }
 
+    /**
+     * Saves the new entries in batch: the existing ones are looked up at once, and each package group is looked up
+     * once for all its entries. Unlike {@link #saveArtifactEntrySet(Repository, Collection)} the entry paths are not
+     * locked, so the whole batch fails if some of its entries are stored concurrently.
+     *
+     * @return the paths of the new package versions
+     */
     @Transactional
-    public void parseFeed(Repository repository,
-                          PackageFeed packageFeed)
+    public Set<String> saveArtifactEntries(Repository repository,
+                                           Collection<? extends ArtifactEntry> artifactEntries)
+    {
+        String repositoryId = repository.getId();
+        String storageId = repository.getStorage().getId();
+
+        // The later versions of the same path replace the earlier ones.
+        Map<String, ArtifactEntry> artifactEntryMap = new LinkedHashMap<>();
+        for (ArtifactEntry e : artifactEntries)
+        {
+            artifactEntryMap.put(e.getArtifactCoordinates().toPath(), e);
+        }
+        artifactEntryMap.keySet()
+                        .removeAll(artifactEntryService.findExistingPaths(storageId, repositoryId,
+                                                                          artifactEntryMap.keySet()));
+
+        Map<String, List<ArtifactEntry>> packageEntryMap = artifactEntryMap.values()
+                                                                           .stream()
+                                                                           .collect(Collectors.groupingBy(e -> e.getArtifactCoordinates().getId(),
+                                                                                                          LinkedHashMap::new,
+                                                                                                          Collectors.toList()));
+        packageEntryMap.forEach((packageId, packageEntries) -> {
+            RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storageId,
+                                                                                                            repositoryId,
+                                                                                                            packageId);
+            packageEntries.forEach(e -> repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, e));
+        });
+
+        return new LinkedHashSet<>(artifactEntryMap.keySet());
+    }
+
+    /**
+     * @return the paths of the new package versions
+     */
+    @Transactional
+    public Set<String> parseFeed(Repository repository,
+                                 PackageFeed packageFeed)
         throws IOException
+    {
+        List<RemoteArtifactEntry> artifactEntries = parseVersions(repository, packageFeed);
+        if (artifactEntries.isEmpty())
+        {
+            return Collections.emptySet();
+        }
+
+        return saveArtifactEntrySet(repository, new HashSet<>(artifactEntries));
+    }
+
+    /**
+     * Reads the package versions of the feed, without looking up whether they are stored already.
+     */
+    public List<RemoteArtifactEntry> parseVersions(Repository repository,
+                                                   PackageFeed packageFeed)
     {
         if (packageFeed == null)
         {
-            return;
+            return Collections.emptyList();
         }
 
         String repositoryId = repository.getId();
         String storageId = repository.getStorage().getId();
 
-        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
-
         Versions versions = packageFeed.getVersions();
         if (versions == null)
         {
-            return;
+            return Collections.emptyList();
         }
 
         Map<String, PackageVersion> versionMap = versions.getAdditionalProperties();
         if (versionMap == null || versionMap.isEmpty())
         {
-            return;
+            return Collections.emptyList();
         }
 
-        Set<ArtifactEntry> artifactToSaveSet = new HashSet<>();
+        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
+
+        List<RemoteArtifactEntry> result = new ArrayList<>();
         for (PackageVersion packageVersion : versionMap.values())
         {
             RemoteArtifactEntry remoteArtifactEntry = parseVersion(storageId, repositoryId, packageVersion);
@@ -138,14 +221,13 @@ public class NpmPackageFeedParser
                 remoteArtifactEntry.getTagSet().add(lastVersionTag);
             }
 
-            artifactToSaveSet.add(remoteArtifactEntry);
+            result.add(remoteArtifactEntry);
         }
 
-        saveArtifactEntrySet(repository, artifactToSaveSet);
-
+        return result;
     }
 
-    private void saveArtifactEntry(RepositoryPath repositoryPath)
+    private boolean saveArtifactEntry(RepositoryPath repositoryPath)
         throws IOException
     {
         ArtifactEntry e = repositoryPath.getArtifactEntry();
@@ -159,14 +241,18 @@ public class NpmPackageFeedParser
 
         try
         {
-            if (artifactEntryService.artifactExists(e.getStorageId(), e.getRepositoryId(),
-                                                    e.getArtifactCoordinates().toPath()))
-            {
-                return;
-            }
-
-            RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storage.getId(), repository.getId(), coordinates.getId());
-            repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, e);
+            return new TransactionTemplate(transactionManager).execute(t -> {
+                if (artifactEntryService.artifactExists(e.getStorageId(), e.getRepositoryId(),
+                                                        e.getArtifactCoordinates().toPath()))
+                {
+                    return false;
+                }
+
+                RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storage.getId(), repository.getId(), coordinates.getId());
+                repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, e);
+
+                return true;
+            });
         } 
         finally
         {
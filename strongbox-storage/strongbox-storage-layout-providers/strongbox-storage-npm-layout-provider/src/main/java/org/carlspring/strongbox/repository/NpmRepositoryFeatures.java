@@ -15,17 +15,16 @@ import org.carlspring.strongbox.npm.metadata.PackageFeed;
 import org.carlspring.strongbox.npm.metadata.SearchResults;
 import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
-import org.carlspring.strongbox.services.ConfigurationManagementService;
+import org.carlspring.strongbox.services.NpmChangesFeedCheckpointService;
 import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.metadata.NpmPackageFeedManager;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.RepositoryData;
-import org.carlspring.strongbox.storage.repository.RepositoryDto;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
 import org.carlspring.strongbox.storage.validation.artifact.version.GenericReleaseVersionValidator;
 import org.carlspring.strongbox.storage.validation.artifact.version.GenericSnapshotVersionValidator;
 import org.carlspring.strongbox.storage.validation.deployment.RedeploymentValidator;
 import org.carlspring.strongbox.yaml.configuration.repository.remote.NpmRemoteRepositoryConfiguration;
-import org.carlspring.strongbox.yaml.configuration.repository.remote.NpmRemoteRepositoryConfigurationDto;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -37,14 +36,18 @@ import javax.ws.rs.client.WebTarget;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Executor;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,10 +63,19 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
 
     private static final int CHANGES_BATCH_SIZE = 500;
 
-    private static final Logger logger = LoggerFactory.getLogger(NpmRepositoryFeatures.class);
+    /**
+     * The package versions of the remote changes are saved in batches of about this size, each within a single
+     * transaction.
+     */
+    static final int ARTIFACT_ENTRIES_BATCH_SIZE = 1000;
 
-    @Inject
-    private ConfigurationManagementService configurationManagementService;
+    /**
+     * The package versions saved from the remote changes are added to the package feeds in the background, in batches
+     * of about this size, so that the feed of the package which changes many times is updated once per batch.
+     */
+    static final int PACKAGE_FEEDS_BATCH_SIZE = 1000;
+
+    private static final Logger logger = LoggerFactory.getLogger(NpmRepositoryFeatures.class);
 
     @Inject
     private RedeploymentValidator redeploymentValidator;
@@ -93,6 +105,12 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
     @Inject
     private NpmPackageFeedParser npmPackageFeedParser;
 
+    @Inject
+    private NpmPackageFeedManager npmPackageFeedManager;
+
+    @Inject
+    private NpmChangesFeedCheckpointService npmChangesFeedCheckpointService;
+
     private Set<String> defaultArtifactCoordinateValidators;
 
     @PostConstruct
@@ -153,7 +171,8 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
 
         try
         {
-            npmPackageFeedParser.parseSearchResult(repository, searchResults);
+            Set<String> versionPaths = npmPackageFeedParser.parseSearchResult(repository, searchResults);
+            updatePackageFeeds(repository, versionPaths);
         }
         catch (Exception e)
         {
@@ -161,6 +180,9 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
         }
     }
 
+    /**
+     * Fetches the remote changes since the last checkpoint, page by page, until there are no more changes.
+     */
     public void fetchRemoteChangesFeed(String storageId,
                                        String repositoryId)
         throws IOException
@@ -175,137 +197,198 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
             return;
         }
 
-        RepositoryDto mutableRepository = configurationManagementService.getMutableConfigurationClone()
-                                                                            .getStorage(storageId)
-                                                                            .getRepository(repositoryId);
-        NpmRemoteRepositoryConfigurationDto mutableConfiguration = (NpmRemoteRepositoryConfigurationDto) mutableRepository.getRemoteRepository()
-                                                                                                                                  .getCustomConfiguration();
-
         NpmRemoteRepositoryConfiguration configuration = (NpmRemoteRepositoryConfiguration) remoteRepository.getCustomConfiguration();
         if (configuration == null)
         {
             logger.warn(String.format("Remote npm configuration not found for [%s]/[%s]", storageId, repositoryId));
             return;
         }
-        Long lastCnahgeId = configuration.getLastChangeId();
         String replicateUrl = configuration.getReplicateUrl();
 
-        Long nextChangeId = lastCnahgeId;
+        Long lastChangeId = npmChangesFeedCheckpointService.findLastChangeId(storageId, repositoryId);
+        if (lastChangeId == null)
+        {
+            // The checkpoint was kept in the repository configuration before.
+            lastChangeId = Optional.ofNullable(configuration.getLastChangeId()).orElse(0L);
+        }
+
+        ChangesBatch batch = new ChangesBatch(repository, lastChangeId);
+        long since;
         do
         {
-            lastCnahgeId = nextChangeId;
-            mutableConfiguration.setLastChangeId(nextChangeId);
-            configurationManagementService.saveRepository(storageId, mutableRepository);
+            since = batch.getLastChangeId();
 
-            nextChangeId = Long.valueOf(fetchRemoteChangesFeed(repository, replicateUrl, lastCnahgeId + 1));
-        } while (nextChangeId > lastCnahgeId);
+            fetchRemoteChangesFeed(batch, replicateUrl);
+        } while (batch.getLastChangeId() > since);
+
+        updatePackageFeeds(batch);
+
+        logger.info(String.format("Fetched [%s] remote changes for [%s]/[%s] at [%.1f] changes/s, the last change is [%s].",
+                                  batch.getTotalChangeCount(),
+                                  storageId,
+                                  repositoryId,
+                                  batch.getChangesPerSecond(),
+                                  batch.getLastChangeId()));
     }
 
-    private Integer fetchRemoteChangesFeed(Repository repository,
-                                           String replicateUrl,
-                                           Long since)
+    private void fetchRemoteChangesFeed(ChangesBatch batch,
+                                        String replicateUrl)
         throws IOException
     {
-        int result = 0;
         Client restClient = proxyRepositoryConnectionPoolConfigurationService.getRestClient();
         try
         {
-            logger.debug(String.format("Fetching remote cnages for [%s] since [%s].", replicateUrl, since));
+            logger.debug(String.format("Fetching remote cnages for [%s] since [%s].", replicateUrl,
+                                       batch.getLastChangeId()));
 
             WebTarget service = restClient.target(replicateUrl);
             service = service.path("_changes");
-            service = service.queryParam("since", since);
+            service = service.queryParam("since", batch.getLastChangeId() + 1);
             service = service.queryParam("include_docs", true);
             service = service.queryParam("limit", CHANGES_BATCH_SIZE);
 
             Invocation request = service.request().buildGet();
 
-            result = fetchRemoteChangesFeed(repository, request);
+            fetchRemoteChangesFeed(batch, replicateUrl, request);
         } 
         finally
         {
             restClient.close();
         }
-
-        return result;
     }
 
-    private int fetchRemoteChangesFeed(Repository repository,
-                                       Invocation request)
+    /**
+     * Reads the changes straight from the response stream, one at a time, and saves their package versions in
+     * batches, each along with the checkpoint of its last change.
+     */
+    void fetchRemoteChangesFeed(ChangesBatch batch,
+                                String replicateUrl,
+                                Invocation request)
         throws IOException
     {
-        int result = 0;
+        Repository repository = batch.getRepository();
 
-        RemoteRepository remoteRepository = repository.getRemoteRepository();
-        NpmRemoteRepositoryConfiguration repositoryConfiguration = (NpmRemoteRepositoryConfiguration) remoteRepository.getCustomConfiguration();
-
-        JsonFactory jfactory = new JsonFactory();
-
-        try (InputStream is = request.invoke(InputStream.class))
+        try (InputStream is = request.invoke(InputStream.class);
+             JsonParser jp = npmJacksonMapper.getFactory().createParser(is))
         {
-
-            JsonParser jp = jfactory.createParser(is);
-            jp.setCodec(npmJacksonMapper);
-
             Assert.isTrue(jp.nextToken() == JsonToken.START_OBJECT, "npm changes feed should be JSON object.");
             Assert.isTrue(jp.nextFieldName().equals("results"), "npm changes feed should contains `results` field.");
             Assert.isTrue(jp.nextToken() == JsonToken.START_ARRAY, "npm changes feed `results` should be array.");
 
-            StringBuffer sb = new StringBuffer();
-            while (jp.nextToken() != null)
+            while (jp.nextToken() == JsonToken.START_OBJECT)
             {
-                JsonToken nextToken = jp.currentToken();
-                if (nextToken == JsonToken.END_ARRAY)
-                {
-                    break;
-                }
-
-                JsonNode node = jp.readValueAsTree();
-                sb.append(node.toString());
-
-                String changeValue = sb.toString();
-
                 Change change;
                 try
                 {
-                    change = npmJacksonMapper.readValue(changeValue, Change.class);
+                    change = jp.readValueAs(Change.class);
                 }
                 catch (Exception e)
                 {
-                    logger.error(String.format("Failed to parse NPM cnahges feed [%s] since [%s]: %n %s",
-                                               repositoryConfiguration.getReplicateUrl(),
-                                               repositoryConfiguration.getLastChangeId(),
-                                               changeValue),
+                    logger.error(String.format("Failed to parse NPM cnahges feed [%s] after [%s].",
+                                               replicateUrl,
+                                               batch.getLastChangeId()),
                                  e);
 
-                    return result;
+                    break;
                 }
 
                 PackageFeed packageFeed = change.getDoc();
+                List<RemoteArtifactEntry> remoteArtifactEntries = Collections.emptyList();
                 try
                 {
-                    npmPackageFeedParser.parseFeed(repository, packageFeed);
+                    remoteArtifactEntries = npmPackageFeedParser.parseVersions(repository, packageFeed);
                 }
                 catch (Exception e)
                 {
                     logger.error(String.format("Failed to parse NPM feed [%s/%s]",
-                                               ((RepositoryData)repository).getRemoteRepository().getUrl(),
-                                               packageFeed.getName()),
+                                               repository.getRemoteRepository().getUrl(),
+                                               packageFeed == null ? null : packageFeed.getName()),
                                  e);
-
                 }
 
-                result = change.getSeq();
-                sb = new StringBuffer();
+                batch.add(change.getSeq(), remoteArtifactEntries);
+                if (batch.size() >= ARTIFACT_ENTRIES_BATCH_SIZE)
+                {
+                    saveChangesBatch(batch);
+                }
             }
+        }
 
+        saveChangesBatch(batch);
+    }
+
+    private void saveChangesBatch(ChangesBatch batch)
+        throws IOException
+    {
+        if (!batch.hasChanges())
+        {
+            return;
+        }
+
+        Repository repository = batch.getRepository();
+        String storageId = repository.getStorage().getId();
+        String repositoryId = repository.getId();
+
+        Set<String> versionPaths;
+        try
+        {
+            versionPaths = npmPackageFeedParser.saveArtifactEntries(repository, batch.getArtifactEntries());
+        }
+        catch (Exception e)
+        {
+            logger.warn(String.format("Failed to save the batch of [%s] NPM package versions for [%s]/[%s], saving them one by one.",
+                                      batch.size(), storageId, repositoryId),
+                        e);
+
+            versionPaths = npmPackageFeedParser.saveArtifactEntrySet(repository, batch.getArtifactEntries());
         }
 
-        logger.debug(String.format("Fetched remote cnages for  [%s] since [%s].",
-                                   repositoryConfiguration.getReplicateUrl(),
-                                   repositoryConfiguration.getLastChangeId()));
+        npmChangesFeedCheckpointService.saveLastChangeId(storageId, repositoryId, batch.getLastChangeId());
+
+        logger.debug(String.format("Saved [%s] NPM package versions of [%s] remote changes for [%s]/[%s] at [%.1f] changes/s, the last change is [%s].",
+                                   batch.size(),
+                                   batch.getChangeCount(),
+                                   storageId,
+                                   repositoryId,
+                                   batch.getChangesPerSecond(),
+                                   batch.getLastChangeId()));
 
-        return result;
+        batch.clear();
+
+        batch.addUpdatedVersions(versionPaths);
+        if (batch.getUpdatedVersionCount() >= PACKAGE_FEEDS_BATCH_SIZE)
+        {
+            updatePackageFeeds(batch);
+        }
+    }
+
+    /**
+     * The package feeds are updated in the background, so they don't slow down the remote changes fetching. The
+     * package feeds, which failed to update, can be rebuilt with the `RebuildNpmPackageFeedsCronJob`.
+     */
+    private void updatePackageFeeds(ChangesBatch batch)
+    {
+        Repository repository = batch.getRepository();
+        Set<String> versionPaths = batch.removeUpdatedVersions();
+        if (versionPaths.isEmpty())
+        {
+            return;
+        }
+
+        eventTaskExecutor.execute(() -> {
+            try
+            {
+                updatePackageFeeds(repository, versionPaths);
+            }
+            catch (Exception e)
+            {
+                logger.error(String.format("Failed to update the package feeds with [%s] NPM package versions for [%s]/[%s].",
+                                           versionPaths.size(),
+                                           repository.getStorage().getId(),
+                                           repository.getId()),
+                             e);
+            }
+        });
     }
 
     private void fetchRemotePackageFeed(String storageId,
@@ -350,7 +433,8 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
 
         try
         {
-            npmPackageFeedParser.parseFeed(repository, packageFeed);
+            Set<String> versionPaths = npmPackageFeedParser.parseFeed(repository, packageFeed);
+            updatePackageFeeds(repository, versionPaths);
         }
         catch (Exception e)
         {
@@ -361,6 +445,130 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
         }
     }
 
+    /**
+     * The remote package versions are cached as the artifact entries, so the stored package feeds should list them as
+     * well.
+     */
+    private void updatePackageFeeds(Repository repository,
+                                    Set<String> versionPaths)
+    {
+        if (versionPaths.isEmpty())
+        {
+            return;
+        }
+
+        npmPackageFeedManager.addVersions(repository, versionPaths);
+    }
+
+    /**
+     * The package versions of the remote changes, which are not saved yet, the saved versions, which are not added to
+     * the package feeds yet, and the change counters.
+     */
+    static class ChangesBatch
+    {
+
+        private final Repository repository;
+
+        private final Map<String, RemoteArtifactEntry> artifactEntries = new LinkedHashMap<>();
+
+        private Set<String> updatedVersionPaths = new LinkedHashSet<>();
+
+        private final long startTime = System.nanoTime();
+
+        private long lastChangeId;
+
+        private long changeCount;
+
+        private long totalChangeCount;
+
+        ChangesBatch(Repository repository,
+                     long lastChangeId)
+        {
+            this.repository = repository;
+            this.lastChangeId = lastChangeId;
+        }
+
+        Repository getRepository()
+        {
+            return repository;
+        }
+
+        /**
+         * The later changes of the same package version replace the earlier ones.
+         */
+        void add(long changeId,
+                 List<RemoteArtifactEntry> remoteArtifactEntries)
+        {
+            remoteArtifactEntries.forEach(e -> artifactEntries.put(e.getArtifactCoordinates().toPath(), e));
+
+            lastChangeId = changeId;
+            changeCount++;
+            totalChangeCount++;
+        }
+
+        Collection<RemoteArtifactEntry> getArtifactEntries()
+        {
+            return artifactEntries.values();
+        }
+
+        int size()
+        {
+            return artifactEntries.size();
+        }
+
+        long getLastChangeId()
+        {
+            return lastChangeId;
+        }
+
+        boolean hasChanges()
+        {
+            return changeCount > 0;
+        }
+
+        long getChangeCount()
+        {
+            return changeCount;
+        }
+
+        long getTotalChangeCount()
+        {
+            return totalChangeCount;
+        }
+
+        double getChangesPerSecond()
+        {
+            long elapsedTime = System.nanoTime() - startTime;
+
+            return elapsedTime > 0 ? totalChangeCount * 1e9 / elapsedTime : 0;
+        }
+
+        void clear()
+        {
+            artifactEntries.clear();
+            changeCount = 0;
+        }
+
+        void addUpdatedVersions(Set<String> versionPaths)
+        {
+            updatedVersionPaths.addAll(versionPaths);
+        }
+
+        int getUpdatedVersionCount()
+        {
+            return updatedVersionPaths.size();
+        }
+
+        Set<String> removeUpdatedVersions()
+        {
+            Set<String> result = updatedVersionPaths;
+            updatedVersionPaths = new LinkedHashSet<>();
+
+            return result;
+        }
+
+    }
+
     @Component
     @Scope(scopeName = "request", proxyMode = ScopedProxyMode.TARGET_CLASS)
     public class SearchPackagesEventListener
@@ -0,0 +1,24 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.data.service.CrudService;
+import org.carlspring.strongbox.domain.NpmChangesFeedCheckpointEntry;
+
+/**
+ * Keeps the npm remote changes feed checkpoints in the database, so that they are saved along with the fetched
+ * changes, instead of rewriting the whole server configuration.
+ */
+public interface NpmChangesFeedCheckpointService
+        extends CrudService<NpmChangesFeedCheckpointEntry, String>
+{
+
+    /**
+     * @return the id of the last fetched remote change, or `null` if the remote changes were not fetched yet
+     */
+    Long findLastChangeId(String storageId,
+                          String repositoryId);
+
+    void saveLastChangeId(String storageId,
+                          String repositoryId,
+                          long lastChangeId);
+
+}
@@ -0,0 +1,75 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.data.service.CommonCrudService;
+import org.carlspring.strongbox.domain.NpmChangesFeedCheckpointEntry;
+import org.carlspring.strongbox.services.NpmChangesFeedCheckpointService;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional
+public class NpmChangesFeedCheckpointServiceImpl
+        extends CommonCrudService<NpmChangesFeedCheckpointEntry>
+        implements NpmChangesFeedCheckpointService
+{
+
+    @Override
+    public Long findLastChangeId(String storageId,
+                                 String repositoryId)
+    {
+        NpmChangesFeedCheckpointEntry checkpoint = findOne(storageId, repositoryId);
+
+        return checkpoint == null ? null : checkpoint.getLastChangeId();
+    }
+
+    @Override
+    public void saveLastChangeId(String storageId,
+                                 String repositoryId,
+                                 long lastChangeId)
+    {
+        NpmChangesFeedCheckpointEntry checkpoint = findOne(storageId, repositoryId);
+        if (checkpoint == null)
+        {
+            checkpoint = new NpmChangesFeedCheckpointEntry();
+            checkpoint.setStorageId(storageId);
+            checkpoint.setRepositoryId(repositoryId);
+        }
+
+        checkpoint.setLastChangeId(lastChangeId);
+        checkpoint.setLastUpdated(new Date());
+
+        save(checkpoint);
+    }
+
+    private NpmChangesFeedCheckpointEntry findOne(String storageId,
+                                                  String repositoryId)
+    {
+        Map<String, String> params = new HashMap<>();
+        params.put("storageId", storageId);
+        params.put("repositoryId", repositoryId);
+
+        String sQuery = buildQuery(params);
+
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+        oQuery.setLimit(1);
+
+        List<NpmChangesFeedCheckpointEntry> resultList = getDelegate().command(oQuery).execute(params);
+
+        return resultList.stream().findFirst().orElse(null);
+    }
+
+    @Override
+    public Class<NpmChangesFeedCheckpointEntry> getEntityClass()
+    {
+        return NpmChangesFeedCheckpointEntry.class;
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.data.domain.GenericEntity;
+import org.carlspring.strongbox.domain.NpmChangesFeedCheckpointEntry;
+
+import javax.inject.Inject;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ILock;
+import com.orientechnologies.orient.core.db.ODatabasePool;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OSchema;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the {@link NpmChangesFeedCheckpointEntry} class, along with the unique index of the checkpoint per
+ * repository, once the application is started.
+ */
+@Component
+public class NpmChangesFeedCheckpointSchema
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(NpmChangesFeedCheckpointSchema.class);
+
+    public static final String INDEX_NAME = "idx_npm_changes_feed_checkpoint";
+
+    private static final String CLASS_NAME = NpmChangesFeedCheckpointEntry.class.getSimpleName();
+
+    @Inject
+    private ODatabasePool databasePool;
+
+    @Inject
+    private HazelcastInstance hazelcastInstance;
+
+    private final AtomicBoolean created = new AtomicBoolean();
+
+    @EventListener
+    public void handle(ContextRefreshedEvent event)
+    {
+        if (!created.compareAndSet(false, true))
+        {
+            return;
+        }
+
+        ILock lock = hazelcastInstance.getLock("NpmChangesFeedCheckpointSchemaLock");
+        lock.lock();
+        try (ODatabaseSession db = databasePool.acquire())
+        {
+            createSchema(db.getMetadata().getSchema());
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private void createSchema(OSchema schema)
+    {
+        OClass checkpointClass = schema.getClass(CLASS_NAME);
+        if (checkpointClass == null)
+        {
+            OClass genericEntityClass = schema.getClass(GenericEntity.class.getSimpleName());
+            checkpointClass = genericEntityClass == null ? schema.createClass(CLASS_NAME)
+                    : schema.createClass(CLASS_NAME, genericEntityClass);
+        }
+
+        if (checkpointClass.getProperty("storageId") == null)
+        {
+            checkpointClass.createProperty("storageId", OType.STRING);
+        }
+        if (checkpointClass.getProperty("repositoryId") == null)
+        {
+            checkpointClass.createProperty("repositoryId", OType.STRING);
+        }
+        if (checkpointClass.getProperty("lastChangeId") == null)
+        {
+            checkpointClass.createProperty("lastChangeId", OType.LONG);
+        }
+        if (checkpointClass.getProperty("lastUpdated") == null)
+        {
+            checkpointClass.createProperty("lastUpdated", OType.DATETIME);
+        }
+
+        if (checkpointClass.getClassIndex(INDEX_NAME) == null)
+        {
+            checkpointClass.createIndex(INDEX_NAME, OClass.INDEX_TYPE.UNIQUE, "storageId", "repositoryId");
+
+            logger.info(String.format("Created the [%s] index.", INDEX_NAME));
+        }
+    }
+
+}
@@ -0,0 +1,621 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.versioning.SemanticVersion;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.config.NpmLayoutProviderConfig.NpmObjectMapper;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.npm.metadata.DistTags;
+import org.carlspring.strongbox.npm.metadata.PackageFeed;
+import org.carlspring.strongbox.npm.metadata.PackageVersion;
+import org.carlspring.strongbox.npm.metadata.Time;
+import org.carlspring.strongbox.npm.metadata.Versions;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.providers.layout.NpmPackageDesc;
+import org.carlspring.strongbox.providers.layout.NpmPackageSupplier;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maintains the package feeds (the documents which npm gets with `GET /{package}`, listing all the package versions)
+ * of the hosted and proxy npm repositories. <br>
+ * The feed of each package is stored next to the package versions, as `{package}/package-feed.json`, along with its
+ * gzipped copy and its SHA-1 checksum, which is the feed `ETag`, so that the feed requests are served without looking
+ * the versions up. The package versions are added to or removed from the stored feeds when they are stored, deleted
+ * or fetched from the remote repository, while the whole feeds are only built from all the package versions when
+ * they were not stored yet, or when they are rebuilt. <br>
+ * The feeds refer the package archives with absolute URLs, so the base URL, which a feed was built with, is stored
+ * along with it, and the feeds built with another base URL are considered not stored, and rebuilt on their next
+ * update or request.
+ */
+@Component
+public class NpmPackageFeedManager
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(NpmPackageFeedManager.class);
+
+    public static final String PACKAGE_FEED = "package-feed.json";
+
+    public static final String PACKAGE_FEED_GZIP = PACKAGE_FEED + ".gz";
+
+    public static final String PACKAGE_FEED_SHA1 = PACKAGE_FEED + ".sha1";
+
+    public static final String PACKAGE_FEED_BASE_URL = PACKAGE_FEED + ".baseUrl";
+
+    private static final String LOCK_ID = "packageFeed";
+
+    private static final String PACKAGE_ARCHIVE_EXTENSION = "tgz";
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    @Inject
+    private NpmPackageSupplier npmPackageSupplier;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    @NpmObjectMapper
+    private ObjectMapper npmJacksonMapper;
+
+    /**
+     * @return `true` if the path is one of the package feed files
+     */
+    public static boolean isPackageFeed(RepositoryPath path)
+    {
+        return path.getFileName().toString().startsWith(PACKAGE_FEED);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the package scope or name is not valid
+     */
+    public RepositoryPath resolvePackagePath(Repository repository,
+                                             String packageScope,
+                                             String packageName)
+    {
+        if (!packageName.matches(NpmArtifactCoordinates.NPM_NAME_REGEX)
+                || packageScope != null && !packageScope.matches("@" + NpmArtifactCoordinates.NPM_NAME_REGEX))
+        {
+            throw new IllegalArgumentException(String.format("Invalid package [%s].",
+                                                             NpmArtifactCoordinates.calculatePackageId(packageScope,
+                                                                                                       packageName)));
+        }
+
+        RootRepositoryPath rootPath = repositoryPathResolver.resolve(repository);
+
+        return rootPath.resolve(packageScope == null ? packageName : packageScope).resolve(packageName);
+    }
+
+    public RepositoryPath resolvePackagePath(Repository repository,
+                                             String packageId)
+    {
+        int separator = packageId.indexOf('/');
+        if (packageId.startsWith("@") && separator > 0)
+        {
+            return resolvePackagePath(repository, packageId.substring(0, separator),
+                                      packageId.substring(separator + 1));
+        }
+
+        return resolvePackagePath(repository, null, packageId);
+    }
+
+    /**
+     * @return the path of the package, which the given package version path belongs to, or `null` if the path is not
+     *         within a package version
+     */
+    public RepositoryPath resolvePackagePath(RepositoryPath path)
+        throws IOException
+    {
+        String[] elements = RepositoryFiles.relativizePath(path).split("/");
+        if (elements.length < 3 || elements[0].startsWith(".") || isPackageFeed(path))
+        {
+            return null;
+        }
+
+        RootRepositoryPath rootPath = repositoryPathResolver.resolve(path.getRepository());
+
+        return rootPath.resolve(elements[0]).resolve(elements[1]);
+    }
+
+    public RepositoryPath getPackageFeedPath(RepositoryPath packagePath,
+                                             boolean gzip)
+    {
+        return packagePath.resolve(gzip ? PACKAGE_FEED_GZIP : PACKAGE_FEED);
+    }
+
+    /**
+     * The package feed files are read within this lock, so that they are not updated meanwhile.
+     */
+    public Lock readLock(RepositoryPath packagePath)
+        throws IOException
+    {
+        return repositoryPathLock.lock(packagePath, LOCK_ID).readLock();
+    }
+
+    /**
+     * @return the package feed `ETag`, or `null` if the package feed was not stored, or was built with another base
+     *         URL
+     */
+    public String readETag(RepositoryPath packagePath)
+        throws IOException
+    {
+        String eTag;
+        try
+        {
+            eTag = new String(Files.readAllBytes(packagePath.resolve(PACKAGE_FEED_SHA1)), StandardCharsets.US_ASCII).trim();
+        }
+        catch (NoSuchFileException e)
+        {
+            return null;
+        }
+
+        return isBuiltWithBaseUrl(packagePath) ? eTag : null;
+    }
+
+    private boolean isBuiltWithBaseUrl(RepositoryPath packagePath)
+        throws IOException
+    {
+        try
+        {
+            String baseUrl = new String(Files.readAllBytes(packagePath.resolve(PACKAGE_FEED_BASE_URL)),
+                                        StandardCharsets.UTF_8);
+
+            return baseUrl.equals(getBaseUrl());
+        }
+        catch (NoSuchFileException e)
+        {
+            return false;
+        }
+    }
+
+    private String getBaseUrl()
+    {
+        return Objects.toString(configurationManager.getConfiguration().getBaseUrl(), "");
+    }
+
+    public PackageFeed createPackageFeed(String packageId,
+                                         Stream<? extends Path> versionPaths)
+    {
+        PackageFeed packageFeed = new PackageFeed();
+
+        packageFeed.setName(packageId);
+        packageFeed.setAdditionalProperty("_id", packageId);
+
+        Versions versions = new Versions();
+        packageFeed.setVersions(versions);
+
+        Time npmTime = new Time();
+        packageFeed.setTime(npmTime);
+
+        DistTags distTags = new DistTags();
+        packageFeed.setDistTags(distTags);
+
+        versionPaths.map(npmPackageSupplier).forEach(p -> addVersion(packageFeed, p));
+
+        return packageFeed;
+    }
+
+    private void addVersion(PackageFeed packageFeed,
+                            NpmPackageDesc p)
+    {
+        PackageVersion npmPackage = p.getNpmPackage();
+        packageFeed.getVersions().setAdditionalProperty(npmPackage.getVersion(), npmPackage);
+
+        Time npmTime = packageFeed.getTime();
+        npmTime.setAdditionalProperty(npmPackage.getVersion(), p.getReleaseDate());
+
+        Date created = npmTime.getCreated();
+        npmTime.setCreated(created == null || created.before(p.getReleaseDate()) ? p.getReleaseDate() : created);
+
+        Date modified = npmTime.getModified();
+        npmTime.setModified(modified == null || modified.before(p.getReleaseDate()) ? p.getReleaseDate()
+                : modified);
+
+        if (p.isLastVersion())
+        {
+            packageFeed.getDistTags().setLatest(npmPackage.getVersion());
+        }
+    }
+
+    /**
+     * Rebuilds the feeds of the given packages from all their versions, the failures are logged, so that they don't
+     * stop the others.
+     */
+    @Transactional
+    public void updatePackageFeeds(Repository repository,
+                                   Collection<String> packageIds)
+    {
+        for (String packageId : packageIds)
+        {
+            try
+            {
+                update(resolvePackagePath(repository, packageId));
+            }
+            catch (IOException | RuntimeException e)
+            {
+                logger.error(String.format("Failed to update the package feed of [%s] in [%s:%s].",
+                                           packageId,
+                                           repository.getStorage().getId(),
+                                           repository.getId()),
+                             e);
+            }
+        }
+    }
+
+    /**
+     * Builds the package feed from the package versions of the repository and stores it, or removes the stored one if
+     * there are no versions anymore.
+     *
+     * @return the package feed `ETag`, or `null` if the package has no versions
+     */
+    @Transactional
+    public String update(RepositoryPath packagePath)
+        throws IOException
+    {
+        Lock lock = repositoryPathLock.lock(packagePath, LOCK_ID).writeLock();
+        lock.lock();
+        try
+        {
+            return rebuild(packagePath);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the new package versions to the stored package feeds, each feed is read and stored once for all its
+     * versions. The failures are logged, so that they don't stop the others.
+     *
+     * @param versionPaths
+     *            the package archive paths of the versions
+     */
+    @Transactional
+    public void addVersions(Repository repository,
+                            Collection<String> versionPaths)
+    {
+        RootRepositoryPath rootPath = repositoryPathResolver.resolve(repository);
+
+        Map<RepositoryPath, List<RepositoryPath>> packageVersionMap = new LinkedHashMap<>();
+        for (String versionPath : versionPaths)
+        {
+            RepositoryPath path = rootPath.resolve(versionPath);
+            try
+            {
+                RepositoryPath packagePath = resolvePackagePath(path);
+                if (packagePath != null)
+                {
+                    packageVersionMap.computeIfAbsent(packagePath, k -> new ArrayList<>()).add(path);
+                }
+            }
+            catch (IOException | RuntimeException e)
+            {
+                logger.error(String.format("Failed to resolve the package of [%s].", path), e);
+            }
+        }
+
+        packageVersionMap.forEach((packagePath, packageVersionPaths) -> {
+            try
+            {
+                addVersions(packagePath, packageVersionPaths);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                logger.error(String.format("Failed to update the package feed of [%s].", packagePath), e);
+            }
+        });
+    }
+
+    /**
+     * Adds the stored, or fetched, package version to the stored package feed.
+     *
+     * @param versionPath
+     *            the package archive path of the version
+     * @return the package feed `ETag`, or `null` if the path is not within a package version
+     */
+    @Transactional
+    public String addVersion(RepositoryPath versionPath)
+        throws IOException
+    {
+        RepositoryPath packagePath = resolvePackagePath(versionPath);
+        if (packagePath == null)
+        {
+            return null;
+        }
+
+        return addVersions(packagePath, Collections.singletonList(versionPath));
+    }
+
+    private String addVersions(RepositoryPath packagePath,
+                               List<RepositoryPath> versionPaths)
+        throws IOException
+    {
+        Lock lock = repositoryPathLock.lock(packagePath, LOCK_ID).writeLock();
+        lock.lock();
+        try
+        {
+            PackageFeed packageFeed = readPackageFeed(packagePath);
+            if (packageFeed == null)
+            {
+                // The feed was not stored yet, so it's built from all the package versions once.
+                return rebuild(packagePath);
+            }
+
+            // The versions, which were deleted meanwhile, are skipped.
+            versionPaths.stream()
+                        .filter(Files::exists)
+                        .map(npmPackageSupplier)
+                        .forEach(p -> addVersion(packageFeed, p));
+
+            String eTag = store(packagePath, npmJacksonMapper.writeValueAsBytes(packageFeed));
+
+            logger.debug(String.format("Added [%s] versions to the package feed of [%s].", versionPaths.size(),
+                                       packagePath));
+
+            return eTag;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the deleted package version from the stored package feed. The path can be the package archive, or the
+     * whole version directory, which is deleted on unpublish. The other files of the version don't change the feed.
+     *
+     * @return the package feed `ETag`, or `null` if the feed is not stored, or the package has no versions anymore
+     */
+    @Transactional
+    public String removeVersion(RepositoryPath path)
+        throws IOException
+    {
+        RepositoryPath packagePath = resolvePackagePath(path);
+        if (packagePath == null)
+        {
+            return null;
+        }
+
+        String[] elements = RepositoryFiles.relativizePath(path).split("/");
+        String packageName = elements[1];
+        String version = elements[2];
+
+        Lock lock = repositoryPathLock.lock(packagePath, LOCK_ID).writeLock();
+        lock.lock();
+        try
+        {
+            RepositoryPath archivePath = packagePath.resolve(version)
+                                                    .resolve(String.format("%s-%s.%s", packageName, version,
+                                                                           PACKAGE_ARCHIVE_EXTENSION));
+            if (Files.exists(archivePath))
+            {
+                return readETag(packagePath);
+            }
+
+            PackageFeed packageFeed = readPackageFeed(packagePath);
+            if (packageFeed == null)
+            {
+                return null;
+            }
+
+            Map<String, PackageVersion> versions = packageFeed.getVersions().getAdditionalProperties();
+            versions.remove(version);
+            if (versions.isEmpty())
+            {
+                delete(packagePath);
+
+                return null;
+            }
+
+            packageFeed.getTime().getAdditionalProperties().remove(version);
+            if (version.equals(packageFeed.getDistTags().getLatest()))
+            {
+                packageFeed.getDistTags().setLatest(findLatestVersion(versions.keySet()));
+            }
+
+            String eTag = store(packagePath, npmJacksonMapper.writeValueAsBytes(packageFeed));
+
+            logger.debug(String.format("Removed the version [%s] from the package feed of [%s].", version,
+                                       packagePath));
+
+            return eTag;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Should be called within the package feed lock.
+     */
+    private String rebuild(RepositoryPath packagePath)
+        throws IOException
+    {
+        String[] elements = RepositoryFiles.relativizePath(packagePath).split("/");
+        String packageScope = elements[0].startsWith("@") ? elements[0] : null;
+        String packageName = elements[1];
+        String packageId = NpmArtifactCoordinates.calculatePackageId(packageScope, packageName);
+
+        List<RepositoryPath> versionPaths = findVersionPaths(packagePath.getRepository(), packageScope, packageName);
+        if (versionPaths.isEmpty())
+        {
+            delete(packagePath);
+
+            return null;
+        }
+
+        byte[] content = npmJacksonMapper.writeValueAsBytes(createPackageFeed(packageId, versionPaths.stream()));
+        String eTag = store(packagePath, content);
+
+        logger.debug(String.format("Updated the package feed of [%s], [%s] versions.", packagePath,
+                                   versionPaths.size()));
+
+        return eTag;
+    }
+
+    private PackageFeed readPackageFeed(RepositoryPath packagePath)
+        throws IOException
+    {
+        if (!isBuiltWithBaseUrl(packagePath))
+        {
+            return null;
+        }
+
+        byte[] content;
+        try
+        {
+            content = Files.readAllBytes(packagePath.resolve(PACKAGE_FEED));
+        }
+        catch (NoSuchFileException e)
+        {
+            return null;
+        }
+
+        PackageFeed packageFeed = npmJacksonMapper.readValue(content, PackageFeed.class);
+        if (packageFeed.getVersions() == null || packageFeed.getTime() == null || packageFeed.getDistTags() == null)
+        {
+            return null;
+        }
+
+        return packageFeed;
+    }
+
+    /**
+     * The latest of the remaining versions, once the latest version was deleted.
+     */
+    private static String findLatestVersion(Collection<String> versions)
+    {
+        String result = null;
+        SemanticVersion latestVersion = null;
+        for (String version : versions)
+        {
+            SemanticVersion semanticVersion;
+            try
+            {
+                semanticVersion = SemanticVersion.parse(version);
+            }
+            catch (IllegalArgumentException e)
+            {
+                continue;
+            }
+
+            if (latestVersion == null || semanticVersion.compareTo(latestVersion) > 0)
+            {
+                latestVersion = semanticVersion;
+                result = version;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * The versions are ordered by their paths, so that the same versions always make the same feed.
+     */
+    private List<RepositoryPath> findVersionPaths(Repository repository,
+                                                  String packageScope,
+                                                  String packageName)
+    {
+        Map<String, String> coordinates = new HashMap<>();
+        coordinates.put("name", packageName);
+        coordinates.put("extension", PACKAGE_ARCHIVE_EXTENSION);
+        if (packageScope != null)
+        {
+            coordinates.put("scope", packageScope);
+        }
+
+        List<ArtifactEntry> artifactEntries = artifactEntryService.findArtifactList(repository.getStorage().getId(),
+                                                                                    repository.getId(),
+                                                                                    coordinates,
+                                                                                    true);
+
+        RootRepositoryPath rootPath = repositoryPathResolver.resolve(repository);
+
+        // The coordinates are matched case insensitively, and the unscoped search matches the scoped packages too.
+        return artifactEntries.stream()
+                              .filter(e -> {
+                                  NpmArtifactCoordinates c = (NpmArtifactCoordinates) e.getArtifactCoordinates();
+
+                                  return packageName.equals(c.getName()) && Objects.equals(packageScope, c.getScope());
+                              })
+                              .sorted(Comparator.comparing(ArtifactEntry::getArtifactPath))
+                              .map(rootPath::resolve)
+                              .collect(Collectors.toList());
+    }
+
+    private String store(RepositoryPath packagePath,
+                         byte[] content)
+        throws IOException
+    {
+        String eTag = DigestUtils.sha1Hex(content);
+        if (eTag.equals(readETag(packagePath)))
+        {
+            return eTag;
+        }
+
+        Files.createDirectories(packagePath);
+        Files.write(packagePath.resolve(PACKAGE_FEED), content);
+        try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(packagePath.resolve(PACKAGE_FEED_GZIP))))
+        {
+            os.write(content);
+        }
+        Files.write(packagePath.resolve(PACKAGE_FEED_BASE_URL), getBaseUrl().getBytes(StandardCharsets.UTF_8));
+
+        // The `ETag` is stored last, so that it's not there before the feed it belongs to.
+        Files.write(packagePath.resolve(PACKAGE_FEED_SHA1), eTag.getBytes(StandardCharsets.US_ASCII));
+
+        return eTag;
+    }
+
+    private void delete(RepositoryPath packagePath)
+        throws IOException
+    {
+        Files.deleteIfExists(packagePath.resolve(PACKAGE_FEED_SHA1));
+        Files.deleteIfExists(packagePath.resolve(PACKAGE_FEED_BASE_URL));
+        Files.deleteIfExists(packagePath.resolve(PACKAGE_FEED_GZIP));
+        Files.deleteIfExists(packagePath.resolve(PACKAGE_FEED));
+    }
+
+}
@@ -0,0 +1,126 @@
+package org.carlspring.strongbox.repository;
+
+import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.RemoteArtifactEntry;
+import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NpmPackageFeedParserTest
+{
+
+    private static final String STORAGE_ID = "storage-npm";
+
+    private static final String REPOSITORY_ID = "npmjs";
+
+    @Mock
+    private ArtifactEntryService artifactEntryService;
+
+    @Mock
+    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
+    @InjectMocks
+    private NpmPackageFeedParser npmPackageFeedParser;
+
+    private Repository repository;
+
+    @BeforeEach
+    public void setUp()
+    {
+        MockitoAnnotations.initMocks(this);
+
+        Storage storage = mock(Storage.class);
+        when(storage.getId()).thenReturn(STORAGE_ID);
+
+        repository = mock(Repository.class);
+        when(repository.getId()).thenReturn(REPOSITORY_ID);
+        when(repository.getStorage()).thenReturn(storage);
+
+        when(repositoryArtifactIdGroupService.findOneOrCreate(eq(STORAGE_ID), eq(REPOSITORY_ID), any())).thenAnswer(
+                invocation -> new RepositoryArtifactIdGroupEntry());
+    }
+
+    @Test
+    public void testSaveArtifactEntriesSkipsDuplicateAndExistingPaths()
+    {
+        RemoteArtifactEntry existing = artifactEntry("lodash", "4.17.11");
+        when(artifactEntryService.findExistingPaths(eq(STORAGE_ID), eq(REPOSITORY_ID), anyCollection())).thenReturn(
+                Collections.singleton(existing.getArtifactCoordinates().toPath()));
+
+        List<RemoteArtifactEntry> artifactEntries = Arrays.asList(artifactEntry("lodash", "4.17.10"),
+                                                                  artifactEntry("lodash", "4.17.10"),
+                                                                  existing,
+                                                                  artifactEntry("@types/node", "10.0.0"),
+                                                                  artifactEntry("@types/node", "10.0.0"));
+
+        Set<String> versionPaths = npmPackageFeedParser.saveArtifactEntries(repository, artifactEntries);
+
+        assertThat(versionPaths).containsExactly(NpmArtifactCoordinates.of("lodash", "4.17.10").toPath(),
+                                                 NpmArtifactCoordinates.of("@types/node", "10.0.0").toPath());
+
+        // The existing paths are looked up at once, each path once.
+        ArgumentCaptor<Collection> paths = ArgumentCaptor.forClass(Collection.class);
+        verify(artifactEntryService).findExistingPaths(eq(STORAGE_ID), eq(REPOSITORY_ID), paths.capture());
+        assertThat(paths.getValue()).hasSize(3);
+
+        ArgumentCaptor<ArtifactEntry> savedEntries = ArgumentCaptor.forClass(ArtifactEntry.class);
+        verify(repositoryArtifactIdGroupService, times(2)).addArtifactToGroup(any(), savedEntries.capture());
+        assertThat(savedEntries.getAllValues()).extracting(e -> e.getArtifactCoordinates().getVersion())
+                                               .containsExactly("4.17.10", "10.0.0");
+
+        verify(repositoryArtifactIdGroupService).findOneOrCreate(STORAGE_ID, REPOSITORY_ID, "lodash");
+        verify(repositoryArtifactIdGroupService).findOneOrCreate(STORAGE_ID, REPOSITORY_ID, "@types/node");
+    }
+
+    @Test
+    public void testSaveArtifactEntriesWithAllPathsExisting()
+    {
+        RemoteArtifactEntry existing = artifactEntry("lodash", "4.17.11");
+        when(artifactEntryService.findExistingPaths(eq(STORAGE_ID), eq(REPOSITORY_ID), anyCollection())).thenReturn(
+                Collections.singleton(existing.getArtifactCoordinates().toPath()));
+
+        Set<String> versionPaths = npmPackageFeedParser.saveArtifactEntries(repository,
+                                                                            Collections.singletonList(existing));
+
+        assertThat(versionPaths).isEmpty();
+        verify(repositoryArtifactIdGroupService, never()).findOneOrCreate(any(), any(), any());
+        verify(repositoryArtifactIdGroupService, never()).addArtifactToGroup(any(), any());
+    }
+
+    private RemoteArtifactEntry artifactEntry(String packageId,
+                                              String version)
+    {
+        RemoteArtifactEntry artifactEntry = new RemoteArtifactEntry();
+        artifactEntry.setStorageId(STORAGE_ID);
+        artifactEntry.setRepositoryId(REPOSITORY_ID);
+        artifactEntry.setArtifactCoordinates(NpmArtifactCoordinates.of(packageId, version));
+
+        return artifactEntry;
+    }
+
+}
@@ -0,0 +1,231 @@
+package org.carlspring.strongbox.repository;
+
+import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.carlspring.strongbox.domain.RemoteArtifactEntry;
+import org.carlspring.strongbox.npm.metadata.PackageFeed;
+import org.carlspring.strongbox.npm.metadata.jackson.NpmJacksonMapperFactory;
+import org.carlspring.strongbox.repository.NpmRepositoryFeatures.ChangesBatch;
+import org.carlspring.strongbox.services.NpmChangesFeedCheckpointService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.metadata.NpmPackageFeedManager;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.ws.rs.client.Invocation;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NpmRepositoryFeaturesTest
+{
+
+    private static final String STORAGE_ID = "storage-npm";
+
+    private static final String REPOSITORY_ID = "npmjs";
+
+    private static final String REPLICATE_URL = "https://replicate.npmjs.com";
+
+    @Mock
+    private NpmPackageFeedParser npmPackageFeedParser;
+
+    @Mock
+    private NpmPackageFeedManager npmPackageFeedManager;
+
+    @Mock
+    private NpmChangesFeedCheckpointService npmChangesFeedCheckpointService;
+
+    @Mock
+    private Executor eventTaskExecutor;
+
+    @Spy
+    private ObjectMapper npmJacksonMapper = NpmJacksonMapperFactory.createObjectMapper();
+
+    @InjectMocks
+    private NpmRepositoryFeatures npmRepositoryFeatures;
+
+    private Repository repository;
+
+    @BeforeEach
+    public void setUp()
+        throws Exception
+    {
+        MockitoAnnotations.initMocks(this);
+
+        Storage storage = mock(Storage.class);
+        when(storage.getId()).thenReturn(STORAGE_ID);
+
+        repository = mock(Repository.class);
+        when(repository.getId()).thenReturn(REPOSITORY_ID);
+        when(repository.getStorage()).thenReturn(storage);
+
+        // Every change of the package `package-<n>-<versions>` has the `<versions>` versions.
+        when(npmPackageFeedParser.parseVersions(eq(repository), any(PackageFeed.class))).thenAnswer(invocation -> {
+            String packageId = ((PackageFeed) invocation.getArgument(1)).getName();
+            int versions = Integer.parseInt(packageId.substring(packageId.lastIndexOf('-') + 1));
+
+            List<RemoteArtifactEntry> result = new ArrayList<>();
+            for (int i = 0; i < versions; i++)
+            {
+                RemoteArtifactEntry artifactEntry = new RemoteArtifactEntry();
+                artifactEntry.setArtifactCoordinates(NpmArtifactCoordinates.of(packageId, "1.0." + i));
+                result.add(artifactEntry);
+            }
+
+            return result;
+        });
+        when(npmPackageFeedParser.saveArtifactEntries(eq(repository), anyCollection())).thenAnswer(
+                invocation -> versionPaths(invocation.getArgument(1)));
+        when(npmPackageFeedParser.saveArtifactEntrySet(eq(repository), anyCollection())).thenAnswer(
+                invocation -> versionPaths(invocation.getArgument(1)));
+
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+
+            return null;
+        }).when(eventTaskExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void testChangesAreSavedInBatches()
+        throws Exception
+    {
+        // 600 + 600 versions exceed the batch size, the rest are saved along with the last change.
+        ChangesBatch batch = new ChangesBatch(repository, 0);
+        npmRepositoryFeatures.fetchRemoteChangesFeed(batch,
+                                                     REPLICATE_URL,
+                                                     changesFeed("package-a-600", "package-b-600", "package-c-10"));
+
+        ArgumentCaptor<Collection> artifactEntries = ArgumentCaptor.forClass(Collection.class);
+        verify(npmPackageFeedParser, times(2)).saveArtifactEntries(eq(repository), artifactEntries.capture());
+        assertThat(artifactEntries.getAllValues().get(0)).hasSize(1200);
+        assertThat(artifactEntries.getAllValues().get(1)).hasSize(10);
+
+        verify(npmChangesFeedCheckpointService).saveLastChangeId(STORAGE_ID, REPOSITORY_ID, 2L);
+        verify(npmChangesFeedCheckpointService).saveLastChangeId(STORAGE_ID, REPOSITORY_ID, 3L);
+        verify(npmPackageFeedParser, never()).saveArtifactEntrySet(any(), anyCollection());
+
+        assertThat(batch.getLastChangeId()).isEqualTo(3L);
+        assertThat(batch.getTotalChangeCount()).isEqualTo(3L);
+
+        // The versions are added to the package feeds once the whole batch of versions is saved.
+        verify(npmPackageFeedManager, never()).addVersions(any(), anyCollection());
+        assertThat(batch.getUpdatedVersionCount()).isEqualTo(1210);
+    }
+
+    @Test
+    public void testRepeatedChangesOfSamePackageVersionsAreSavedOnce()
+        throws Exception
+    {
+        ChangesBatch batch = new ChangesBatch(repository, 0);
+        npmRepositoryFeatures.fetchRemoteChangesFeed(batch,
+                                                     REPLICATE_URL,
+                                                     changesFeed("package-a-3", "package-a-3", "package-b-2",
+                                                                 "package-a-3"));
+
+        ArgumentCaptor<Collection> artifactEntries = ArgumentCaptor.forClass(Collection.class);
+        verify(npmPackageFeedParser).saveArtifactEntries(eq(repository), artifactEntries.capture());
+
+        Collection<RemoteArtifactEntry> savedEntries = artifactEntries.getValue();
+        assertThat(savedEntries).hasSize(5);
+        assertThat(savedEntries.stream().map(e -> e.getArtifactCoordinates().toPath()).collect(Collectors.toSet()))
+                .hasSize(5);
+
+        verify(npmChangesFeedCheckpointService).saveLastChangeId(STORAGE_ID, REPOSITORY_ID, 4L);
+    }
+
+    @Test
+    public void testFailedBatchIsSavedEntryByEntry()
+        throws Exception
+    {
+        when(npmPackageFeedParser.saveArtifactEntries(eq(repository), anyCollection())).thenThrow(
+                new IllegalStateException("Concurrent modification."));
+
+        ChangesBatch batch = new ChangesBatch(repository, 0);
+        npmRepositoryFeatures.fetchRemoteChangesFeed(batch, REPLICATE_URL, changesFeed("package-a-2", "package-b-1"));
+
+        ArgumentCaptor<Collection> artifactEntries = ArgumentCaptor.forClass(Collection.class);
+        verify(npmPackageFeedParser).saveArtifactEntrySet(eq(repository), artifactEntries.capture());
+        assertThat(artifactEntries.getValue()).hasSize(3);
+
+        // The checkpoint is saved once the entries are saved one by one.
+        verify(npmChangesFeedCheckpointService).saveLastChangeId(STORAGE_ID, REPOSITORY_ID, 2L);
+        assertThat(batch.getUpdatedVersionCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testPackageFeedsAreUpdatedInBackground()
+        throws Exception
+    {
+        ChangesBatch batch = new ChangesBatch(repository, 0);
+
+        List<String> packageIds = new ArrayList<>();
+        for (int i = 0; i < NpmRepositoryFeatures.PACKAGE_FEEDS_BATCH_SIZE; i++)
+        {
+            packageIds.add(String.format("package-%s-1", i));
+        }
+        npmRepositoryFeatures.fetchRemoteChangesFeed(batch, REPLICATE_URL,
+                                                     changesFeed(packageIds.toArray(new String[0])));
+
+        ArgumentCaptor<Collection> updatedVersionPaths = ArgumentCaptor.forClass(Collection.class);
+        verify(eventTaskExecutor).execute(any(Runnable.class));
+        verify(npmPackageFeedManager).addVersions(eq(repository), updatedVersionPaths.capture());
+        assertThat(updatedVersionPaths.getValue()).containsExactlyInAnyOrderElementsOf(
+                packageIds.stream().map(id -> NpmArtifactCoordinates.of(id, "1.0.0").toPath()).collect(Collectors.toList()));
+        assertThat(batch.getUpdatedVersionCount()).isEqualTo(0);
+
+        // The package feeds are not rebuilt from all the package versions.
+        verify(npmPackageFeedManager, never()).updatePackageFeeds(any(), anyCollection());
+    }
+
+    private Set<String> versionPaths(Collection<RemoteArtifactEntry> artifactEntries)
+    {
+        return artifactEntries.stream()
+                              .map(e -> e.getArtifactCoordinates().toPath())
+                              .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private Invocation changesFeed(String... packageIds)
+    {
+        List<String> changes = new ArrayList<>();
+        for (int i = 0; i < packageIds.length; i++)
+        {
+            changes.add(String.format("{\"seq\":%s,\"id\":\"%s\",\"doc\":{\"name\":\"%s\"}}",
+                                      i + 1, packageIds[i], packageIds[i]));
+        }
+        String changesFeed = String.format("{\"results\":[%s],\"last_seq\":%s}",
+                                           String.join(",", changes),
+                                           packageIds.length);
+
+        Invocation request = mock(Invocation.class);
+        when(request.invoke(InputStream.class)).thenReturn(
+                new ByteArrayInputStream(changesFeed.getBytes(StandardCharsets.UTF_8)));
+
+        return request;
+    }
+
+}
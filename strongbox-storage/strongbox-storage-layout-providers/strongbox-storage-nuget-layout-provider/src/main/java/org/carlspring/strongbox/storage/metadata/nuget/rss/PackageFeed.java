@@ -21,6 +21,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -46,7 +47,7 @@ import org.carlspring.strongbox.storage.metadata.nuget.XmlWritable;
  */
 @XmlRootElement(name = "feed", namespace = PackageFeed.ATOM_XML_NAMESPACE)
 @XmlAccessorType(XmlAccessType.NONE)
-@XmlType(propOrder = { "title", "id", "updated", "link", "entries" })
+@XmlType(propOrder = { "title", "id", "updated", "links", "entries" })
 public class PackageFeed implements XmlWritable
 {
 
@@ -78,11 +79,15 @@ public class PackageFeed implements XmlWritable
     @XmlElement(name = "updated", type = Date.class, namespace = ATOM_XML_NAMESPACE)
     private Date updated;
 
+    public static final String SELF_LINK = "self";
+
+    public static final String NEXT_LINK = "next";
+
     /**
-     * Link to packages
+     * Link to packages, and to the next page of them if there is one
      */
     @XmlElement(name = "link", namespace = ATOM_XML_NAMESPACE)
-    private Link link = new Link("self", "Packages", "Packages");
+    private List<Link> links = new ArrayList<>(Collections.singletonList(new Link(SELF_LINK, "Packages", "Packages")));
 
     /**
      * Packet descriptions
@@ -146,7 +151,7 @@ public class PackageFeed implements XmlWritable
      */
     public String getLink()
     {
-        return link.getHref();
+        return getLink(SELF_LINK);
     }
 
     /**
@@ -155,7 +160,39 @@ public class PackageFeed implements XmlWritable
      */
     public void setLink(String link)
     {
-        this.link = new Link("self", "Packages", link);
+        setLink(new Link(SELF_LINK, "Packages", link));
+    }
+
+    /**
+     * @return link to the next page of packages, or `null` if it's the last page
+     */
+    public String getNextLink()
+    {
+        return getLink(NEXT_LINK);
+    }
+
+    /**
+     * @param link
+     *            link to the next page of packages
+     */
+    public void setNextLink(String link)
+    {
+        setLink(new Link(NEXT_LINK, null, link));
+    }
+
+    private String getLink(String rel)
+    {
+        return links.stream()
+                    .filter(l -> rel.equals(l.getRel()))
+                    .map(Link::getHref)
+                    .findFirst()
+                    .orElse(null);
+    }
+
+    private void setLink(Link link)
+    {
+        links.removeIf(l -> link.getRel().equals(l.getRel()));
+        links.add(SELF_LINK.equals(link.getRel()) ? 0 : links.size(), link);
     }
 
     /**
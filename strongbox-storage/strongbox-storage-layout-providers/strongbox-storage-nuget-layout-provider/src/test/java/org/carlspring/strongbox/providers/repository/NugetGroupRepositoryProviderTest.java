@@ -3,7 +3,9 @@ package org.carlspring.strongbox.providers.repository;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
 
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -12,6 +14,9 @@ import org.carlspring.strongbox.config.NugetLayoutProviderTestConfig;
 import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
 import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.data.service.support.search.PagingCursor;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
 import org.carlspring.strongbox.testing.artifact.NugetTestArtifact;
@@ -49,6 +54,12 @@ public class NugetGroupRepositoryProviderTest
 
     private static final String REPOSITORY_GROUP_WITH_NESTED_GROUP_2 = "ngrpt-releases-group-with-nested-group-level-2";
 
+    private static final String REPOSITORY_KEYSET_RELEASES_1 = "ngrpt-keyset-releases-1";
+
+    private static final String REPOSITORY_KEYSET_RELEASES_2 = "ngrpt-keyset-releases-2";
+
+    private static final String REPOSITORY_KEYSET_GROUP = "ngrpt-keyset-releases-group";
+
     @Inject
     private RepositoryProviderRegistry repositoryProviderRegistry;
 
@@ -166,4 +177,76 @@ public class NugetGroupRepositoryProviderTest
         assertThat(count).isEqualTo(Long.valueOf(12));
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testGroupKeysetSearch(@NugetRepository(repositoryId = REPOSITORY_KEYSET_RELEASES_1)
+                                      Repository repository1,
+                                      @NugetTestArtifact(repositoryId = REPOSITORY_KEYSET_RELEASES_1,
+                                                         id = "ngrpt.keyset.package",
+                                                         versions = { "1.0.0",
+                                                                      "1.0.1",
+                                                                      "1.0.2",
+                                                                      "1.0.3",
+                                                                      "1.0.4" })
+                                      Path artifactPath1,
+                                      @NugetRepository(repositoryId = REPOSITORY_KEYSET_RELEASES_2)
+                                      Repository repository2,
+                                      @NugetTestArtifact(repositoryId = REPOSITORY_KEYSET_RELEASES_2,
+                                                         id = "ngrpt.keyset.package",
+                                                         versions = { "1.0.3",
+                                                                      "1.0.4",
+                                                                      "1.0.5",
+                                                                      "1.0.6",
+                                                                      "1.0.7" })
+                                      Path artifactPath2,
+                                      @Group(repositories = { REPOSITORY_KEYSET_RELEASES_1,
+                                                              REPOSITORY_KEYSET_RELEASES_2 })
+                                      @NugetRepository(repositoryId = REPOSITORY_KEYSET_GROUP)
+                                      @RepositoryAttributes(allowsRedeployment = false,
+                                                            allowsDelete = false)
+                                      Repository repositoryGroup)
+            throws IOException
+    {
+        RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(repositoryGroup.getType());
+
+        Predicate predicate = Predicate.empty();
+        predicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.extension", "nupkg")));
+
+        Paginator paginator = new Paginator();
+        paginator.setLimit(3);
+        paginator.setProperty(RepositoryProvider.KEYSET_PROPERTY);
+        paginator.setKeyset(true);
+
+        // Every next page starts after the last path of the previous one.
+        List<String> result = new ArrayList<>();
+        List<Path> page;
+        do
+        {
+            page = repositoryProvider.search(repositoryGroup.getStorage().getId(),
+                                             repositoryGroup.getId(),
+                                             predicate,
+                                             paginator);
+            assertThat(page.size()).isLessThanOrEqualTo(3);
+
+            for (Path path : page)
+            {
+                result.add(RepositoryFiles.readCoordinates((RepositoryPath) path).toPath());
+            }
+            if (!page.isEmpty())
+            {
+                paginator.setAfter(PagingCursor.of(result.get(result.size() - 1)));
+            }
+        }
+        while (page.size() == 3);
+
+        // The paths of the same versions within both members are merged.
+        assertThat(result).hasSize(8)
+                          .doesNotHaveDuplicates()
+                          .isSorted();
+        assertThat(Long.valueOf(result.size())).isEqualTo(repositoryProvider.count(repositoryGroup.getStorage().getId(),
+                                                                                   repositoryGroup.getId(),
+                                                                                   predicate));
+    }
+
 }
@@ -7,7 +7,9 @@ import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecution
 import org.carlspring.strongbox.testing.artifact.NugetTestArtifact;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Date;
@@ -100,4 +102,31 @@ import static org.assertj.core.api.Assertions.assertThat;
             assertThat(resultXml).contains("name>" + author + "<");
         }
     }
+
+    /**
+     * Checking the link to the next page of the feed
+     *
+     * @throws Exception
+     *             error during the test
+     */
+    @Test
+    public void testNextLink()
+            throws Exception
+    {
+        // GIVEN
+        PackageFeed feed = new PackageFeed();
+        feed.setLink("http://localhost:48080/storages/nuget/Packages()");
+        feed.setNextLink("http://localhost:48080/storages/nuget/Packages()?$top=2&$skiptoken=AQFfbnVuaXQ");
+
+        // WHEN
+        String resultXml = feed.getXml();
+        PackageFeed packageFeed = PackageFeed.parse(new ByteArrayInputStream(resultXml.getBytes(StandardCharsets.UTF_8)));
+
+        // THEN
+        assertThat(resultXml).contains("rel=\"next\"");
+        assertThat(packageFeed.getLink()).isEqualTo("http://localhost:48080/storages/nuget/Packages()");
+        assertThat(packageFeed.getNextLink()).isEqualTo(
+                "http://localhost:48080/storages/nuget/Packages()?$top=2&$skiptoken=AQFfbnVuaXQ");
+        assertThat(new PackageFeed().getNextLink()).isNull();
+    }
 }
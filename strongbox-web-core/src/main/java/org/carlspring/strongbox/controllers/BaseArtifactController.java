@@ -1,14 +1,21 @@
 package org.carlspring.strongbox.controllers;
 
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryInputStream;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryStreamingContext;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryStreamingExecutor;
 import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.utils.ArtifactControllerHelper;
 
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.InputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 
+import org.eclipse.jetty.server.Request;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -20,6 +27,130 @@ public abstract class BaseArtifactController
     @Inject
     protected ArtifactManagementService artifactManagementService;
 
+    @Inject
+    private ProxyRepositoryStreamingExecutor proxyRepositoryStreamingExecutor;
+
+    @Value("${strongbox.proxy.streaming.enabled:false}")
+    private boolean proxyStreamingEnabled;
+
+    /**
+     * Resolves the artifact path and provides the download response.
+     * <br>
+     * If the artifact should be fetched from remote repository, then it will be
+     * streamed to the client while it's being cached (if proxy streaming
+     * enabled), otherwise the client will wait until the whole artifact will be
+     * downloaded.
+     */
+    protected boolean provideArtifactDownloadResponse(HttpServletRequest request,
+                                                      HttpServletResponse response,
+                                                      HttpHeaders httpHeaders,
+                                                      Repository repository,
+                                                      String path)
+            throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        if (!isProxyStreamingAllowed(request, httpHeaders))
+        {
+            RepositoryPath repositoryPath = artifactResolutionService.resolvePath(storageId, repositoryId, path);
+
+            return provideArtifactDownloadResponse(request, response, httpHeaders, repositoryPath);
+        }
+
+        RepositoryPath repositoryPath;
+        try (ProxyRepositoryStreamingContext ctx = ProxyRepositoryStreamingContext.open(path,
+                                                                                          proxyRepositoryStreamingExecutor,
+                                                                                          (p, length) -> openStreamingResponse(response, p, length)))
+        {
+            try
+            {
+                repositoryPath = artifactResolutionService.resolvePath(storageId, repositoryId, path);
+            }
+            catch (Exception e)
+            {
+                if (ctx.isStreaming())
+                {
+                    abortStreamingResponse(request, response, ctx, e);
+                }
+
+                throw e;
+            }
+
+            if (ctx.isStreaming())
+            {
+                // The fetch locks are released, so the client can be served the rest of the artifact.
+                ctx.finish(repositoryPath);
+                if (ctx.isFailed())
+                {
+                    // The artifact is cached anyway, there is just no one to flush the response to.
+                    logger.debug("Client detached while streaming [{}] from remote.", repositoryPath);
+
+                    return true;
+                }
+
+                logger.debug("Streamed [{}] from remote.", repositoryPath);
+                response.flushBuffer();
+
+                return true;
+            }
+        }
+
+        return provideArtifactDownloadResponse(request, response, httpHeaders, repositoryPath);
+    }
+
+    private boolean isProxyStreamingAllowed(HttpServletRequest request,
+                                            HttpHeaders httpHeaders)
+    {
+        return proxyStreamingEnabled
+               && request.getMethod().equals(RequestMethod.GET.name())
+               && !ArtifactControllerHelper.isRangedRequest(httpHeaders);
+    }
+
+    /**
+     * The fetch failed (e.g. the strict checksum validation failed) after the response was started with the
+     * `Content-Length` of the remote artifact, so the client connection is aborted, otherwise the client would get the
+     * truncated artifact without an error.
+     */
+    private void abortStreamingResponse(HttpServletRequest request,
+                                        HttpServletResponse response,
+                                        ProxyRepositoryStreamingContext ctx,
+                                        Exception cause)
+        throws IOException
+    {
+        ctx.abort();
+
+        if (!response.isCommitted())
+        {
+            response.reset();
+
+            return;
+        }
+
+        logger.warn("Aborting the streamed response of [{}]: [{}]", request.getRequestURI(), cause.getMessage());
+
+        Request baseRequest = Request.getBaseRequest(request);
+        if (baseRequest != null)
+        {
+            baseRequest.getHttpChannel().abort(cause);
+        }
+    }
+
+    private OutputStream openStreamingResponse(HttpServletResponse response,
+                                               RepositoryPath repositoryPath,
+                                               long contentLength)
+        throws IOException
+    {
+        ArtifactControllerHelper.provideContentType(response, repositoryPath);
+        if (contentLength >= 0)
+        {
+            response.setHeader(HttpHeaders.CONTENT_LENGTH, Long.toString(contentLength));
+        }
+        response.setStatus(HttpStatus.OK.value());
+
+        return response.getOutputStream();
+    }
+
     protected boolean provideArtifactDownloadResponse(HttpServletRequest request,
                                                       HttpServletResponse response,
                                                       HttpHeaders httpHeaders,
@@ -38,16 +169,18 @@ public abstract class BaseArtifactController
         }
 
         
-        try (InputStream is = artifactResolutionService.getInputStream(repositoryPath);)
+        try (RepositoryInputStream is = artifactResolutionService.getInputStream(repositoryPath))
         {
             if (ArtifactControllerHelper.isRangedRequest(httpHeaders))
             {
                 logger.debug("Detected ranged request.");
 
-                ArtifactControllerHelper.handlePartialDownload(is, httpHeaders, response);
+                ArtifactControllerHelper.handlePartialDownload(is, repositoryPath, httpHeaders, response);
+            }
+            else
+            {
+                transferToResponse(is, response);
             }
-            
-            copyToResponse(is, response);
         }
 
         return true;
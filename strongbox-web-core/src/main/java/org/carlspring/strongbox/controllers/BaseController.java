@@ -8,10 +8,12 @@ import org.carlspring.strongbox.controllers.support.ListEntityBody;
 import org.carlspring.strongbox.controllers.support.ResponseEntityBody;
 import org.carlspring.strongbox.exception.ExceptionHandlingOutputStream;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryInputStream;
 import org.carlspring.strongbox.services.ArtifactResolutionService;
 import org.carlspring.strongbox.services.ConfigurationManagementService;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.utils.ArtifactControllerHelper;
 
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletResponse;
@@ -41,6 +43,8 @@ import org.springframework.http.ResponseEntity;
 public abstract class BaseController
 {
 
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     @Inject
@@ -295,12 +299,11 @@ public abstract class BaseController
             long totalBytes = 0L;
 
             int readLength;
-            byte[] bytes = new byte[4096];
+            byte[] bytes = new byte[COPY_BUFFER_SIZE];
             while ((readLength = is.read(bytes, 0, bytes.length)) != -1)
             {
                 // Write the artifact
                 os.write(bytes, 0, readLength);
-                os.flush();
 
                 totalBytes += readLength;
             }
@@ -309,4 +312,20 @@ public abstract class BaseController
             response.flushBuffer();
         }
     }
+
+    /**
+     * Sends the whole artifact file to the client directly from the file
+     * channel, without reading it through the {@link InputStream} decorators.
+     * Download events are still fired by the underlying
+     * {@link RepositoryInputStream}.
+     */
+    protected void transferToResponse(RepositoryInputStream is,
+                                      HttpServletResponse response)
+            throws IOException
+    {
+        is.transferTo(ArtifactControllerHelper.openResponseChannel(response));
+
+        response.flushBuffer();
+    }
+
 }
@@ -1,7 +1,9 @@
 package org.carlspring.strongbox.controllers.configuration;
 
 import org.carlspring.strongbox.controllers.support.NumberOfConnectionsEntityBody;
+import org.carlspring.strongbox.controllers.support.PoolMetricsEntityBody;
 import org.carlspring.strongbox.controllers.support.PoolStatsEntityBody;
+import org.carlspring.strongbox.service.ConnectionPoolMetrics;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
 import org.carlspring.strongbox.services.ConfigurationManagementService;
 import org.carlspring.strongbox.storage.repository.RepositoryData;
@@ -102,6 +104,33 @@ public class HttpConnectionPoolConfigurationManagementController
         return ResponseEntity.ok(getPoolStatsEntityBody(poolStats, accept));
     }
 
+    @ApiOperation(value = "Get proxy repository pool lease time and queue wait histograms")
+    @ApiResponses(value = { @ApiResponse(code = 200,
+                                         message = "Proxy repository pool metrics where retrieved."),
+                            @ApiResponse(code = 400,
+                                         message = "Repository doesn't have remote repository!"),
+                            @ApiResponse(code = 404,
+                                    message = "The (storage/repository) does not exist!") })
+    @GetMapping(value = "{storageId}/{repositoryId}/metrics",
+                produces = { MediaType.TEXT_PLAIN_VALUE,
+                             MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity getPoolMetricsForProxyRepository(@RepositoryMapping Repository repository,
+                                                           @RequestHeader(HttpHeaders.ACCEPT) String accept)
+    {
+        final RepositoryData immutableRepository = (RepositoryData) repository;
+        if (immutableRepository.getRemoteRepository() == null)
+        {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                 .body(getResponseEntityBody("Repository doesn't have remote repository!", accept));
+        }
+
+        ConnectionPoolMetrics poolMetrics = proxyRepositoryConnectionPoolConfigurationService
+                                                    .getPoolMetrics(immutableRepository.getRemoteRepository()
+                                                                                       .getUrl());
+
+        return ResponseEntity.ok(getPoolMetricsEntityBody(poolMetrics, accept));
+    }
+
     @ApiOperation(value = "Update default number of connections for proxy repository")
     @ApiResponses(value = { @ApiResponse(code = 200,
                                          message = "Default number of connections for proxy repository was updated successfully."),
@@ -188,4 +217,16 @@ public class HttpConnectionPoolConfigurationManagementController
         }
     }
 
+    private Object getPoolMetricsEntityBody(ConnectionPoolMetrics poolMetrics, String accept)
+    {
+        if (MediaType.APPLICATION_JSON_VALUE.equals(accept))
+        {
+            return new PoolMetricsEntityBody(poolMetrics);
+        }
+        else
+        {
+            return String.valueOf(poolMetrics);
+        }
+    }
+
 }
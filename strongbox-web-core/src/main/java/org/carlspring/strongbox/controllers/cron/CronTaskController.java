@@ -9,6 +9,7 @@ import org.carlspring.strongbox.cron.jobs.CronJobsDefinitionsRegistry;
 import org.carlspring.strongbox.cron.jobs.GroovyCronJob;
 import org.carlspring.strongbox.cron.services.CronJobSchedulerService;
 import org.carlspring.strongbox.cron.services.CronTaskConfigurationService;
+import org.carlspring.strongbox.cron.services.JobManager;
 import org.carlspring.strongbox.forms.cron.CronTaskConfigurationForm;
 import org.carlspring.strongbox.validation.RequestBodyValidationException;
 
@@ -19,6 +20,8 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import io.swagger.annotations.ApiOperation;
@@ -70,6 +73,9 @@ public class CronTaskController
     private static final String SUCCESSFUL_GET_CONFIGURATION = "The configuration retrieved successfully.";
     private static final String NOT_FOUND_CONFIGURATION = "Cron task config not found by this uuid!";
 
+    private static final String SUCCESSFUL_GET_STATISTICS = "The statistics retrieved successfully.";
+    private static final String NOT_FOUND_STATISTICS = "There are no statistics for this cron task.";
+
     private static final String SUCCESSFUL_UPLOAD_GROOVY_SCRIPT = "The groovy script uploaded successfully.";
     private static final String FAILED_UPLOAD_GROOVY_SCRIPT = "Could not upload the groovy script.";
 
@@ -90,6 +96,9 @@ public class CronTaskController
     @Inject
     private PropertiesBooter propertiesBooter;
 
+    @Inject
+    private JobManager jobManager;
+
 
     @ApiOperation(value = "Used to save a new cron task job")
     @ApiResponses(value = { @ApiResponse(code = 200, message = SUCCESSFUL_SAVE_CONFIGURATION),
@@ -237,6 +246,30 @@ public class CronTaskController
         return ResponseEntity.ok(config);
     }
 
+    @ApiOperation(value = "Used to get the statistics (progress, throughput) of the last execution of the given cron task UUID")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = SUCCESSFUL_GET_STATISTICS),
+                            @ApiResponse(code = 404, message = NOT_FOUND_CONFIGURATION + " / " + NOT_FOUND_STATISTICS) })
+    @GetMapping(value = "/{UUID}/statistics",
+                produces = { MediaType.APPLICATION_JSON_VALUE,
+                             APPLICATION_YAML_VALUE })
+    public ResponseEntity getStatistics(@PathVariable("UUID") UUID uuid,
+                                        @RequestHeader(HttpHeaders.ACCEPT) String acceptHeader)
+    {
+        CronTaskConfigurationDto config = cronTaskConfigurationService.getTaskConfigurationDto(uuid);
+        if (config == null)
+        {
+            return getNotFoundResponseEntity(NOT_FOUND_CONFIGURATION, acceptHeader);
+        }
+
+        Optional<Map<String, Object>> statistics = jobManager.getJobStatistics(uuid.toString());
+        if (!statistics.isPresent())
+        {
+            return getNotFoundResponseEntity(NOT_FOUND_STATISTICS, acceptHeader);
+        }
+
+        return ResponseEntity.ok(statistics.get());
+    }
+
     @ApiOperation(value = "Used to get list of all the configurations")
     @ApiResponses(value = { @ApiResponse(code = 200, message = SUCCESSFUL_GET_CONFIGURATIONS),
                             @ApiResponse(code = 404, message = NOT_FOUND_CONFIGURATIONS) })
@@ -68,9 +68,8 @@ public class MavenArtifactController
         logger.debug("Requested /{}/{}/{}.", storageId, repositoryId, artifactPath);
 
         artifactPath = correctIndexPathIfNecessary(repository, artifactPath);
-        RepositoryPath repositoryPath = artifactResolutionService.resolvePath(storageId, repositoryId, artifactPath);
         
-        provideArtifactDownloadResponse(request, response, httpHeaders, repositoryPath);
+        provideArtifactDownloadResponse(request, response, httpHeaders, repository, artifactPath);
     }
 
     @ApiOperation(value = "Used to deploy an artifact")
@@ -7,10 +7,12 @@ import org.carlspring.strongbox.controllers.BaseArtifactController;
 import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
 import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.data.service.support.search.PagingCursor;
 import org.carlspring.strongbox.npm.NpmSearchRequest;
 import org.carlspring.strongbox.npm.NpmViewRequest;
 import org.carlspring.strongbox.npm.metadata.*;
 import org.carlspring.strongbox.providers.ProviderImplementationException;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.NpmPackageDesc;
 import org.carlspring.strongbox.providers.layout.NpmPackageSupplier;
@@ -19,8 +21,11 @@ import org.carlspring.strongbox.providers.repository.RepositoryProvider;
 import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
 import org.carlspring.strongbox.repository.NpmRepositoryFeatures.SearchPackagesEventListener;
 import org.carlspring.strongbox.repository.NpmRepositoryFeatures.ViewPackageEventListener;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.storage.metadata.NpmPackageFeedManager;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.validation.artifact.ArtifactCoordinatesValidationException;
+import org.carlspring.strongbox.utils.ArtifactControllerHelper;
 import org.carlspring.strongbox.web.LayoutRequestMapping;
 import org.carlspring.strongbox.web.RepositoryMapping;
 
@@ -30,15 +35,20 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.MediaType;
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
@@ -95,6 +105,12 @@ public class NpmArtifactController
     
     @Inject
     private SearchPackagesEventListener searcPackagesEventListener;
+
+    @Inject
+    private NpmPackageFeedManager npmPackageFeedManager;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
     
     @GetMapping(path = { "{storageId}/{repositoryId}/npm" })
     public ResponseEntity<String> greet()
@@ -125,9 +141,13 @@ public class NpmArtifactController
         predicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.extension", "tgz")));
         predicate.and(Predicate.of(ExpOperator.CONTAINS.of("tagSet.name", ArtifactTag.LAST_VERSION)));
         
+        // The packages are looked up by the coordinates search index, so only the matched ones are checked.
+        artifactEntryService.findCoordinatePrefixMatches(text, "name", "scope")
+                            .ifPresent(ids -> predicate.and(Predicate.of(ExpOperator.IN.of("@rid", ids))));
+
         Predicate lkePredicate = Predicate.empty().nested();
-        lkePredicate.or(Predicate.of(ExpOperator.LIKE.of("artifactCoordinates.coordinates.name.toLowerCase()", text + "%")));
-        lkePredicate.or(Predicate.of(ExpOperator.LIKE.of("artifactCoordinates.coordinates.scope.toLowerCase()", text + "%")));
+        lkePredicate.or(Predicate.of(ExpOperator.LIKE.of("artifactCoordinates.coordinates.name.toLowerCase()", text.toLowerCase() + "%")));
+        lkePredicate.or(Predicate.of(ExpOperator.LIKE.of("artifactCoordinates.coordinates.scope.toLowerCase()", text.toLowerCase() + "%")));
         predicate.or(lkePredicate);
         
         
@@ -195,6 +215,7 @@ public class NpmArtifactController
     public void viewPackageFeedWithScope(@RepositoryMapping Repository repository,
                                          @PathVariable(name = "packageScope") String packageScope,
                                          @PathVariable(name = "packageName") String packageName,
+                                         @RequestHeader HttpHeaders httpHeaders,
                                          HttpServletResponse response)
         throws Exception
     {
@@ -207,61 +228,158 @@ public class NpmArtifactController
         npmSearchRequest.setPackageId(packageId);
         viewPackageEventListener.setNpmSearchRequest(npmSearchRequest);
 
-        PackageFeed packageFeed = new PackageFeed();
-
-        packageFeed.setName(packageId);
-        packageFeed.setAdditionalProperty("_id", packageId);
-        
         Predicate predicate = createSearchPredicate(packageScope, packageName);
 
         RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
 
-        Paginator paginator = new Paginator();
-        paginator.setProperty("version");
+        if (repository.isGroupRepository())
+        {
+            // The group feeds are merged from the member repositories on each request.
+            List<Path> searchResult = searchAll(provider, storageId, repositoryId, predicate);
+            PackageFeed packageFeed = npmPackageFeedManager.createPackageFeed(packageId, searchResult.stream());
 
-        List<Path> searchResult = provider.search(storageId, repositoryId, predicate, paginator);
+            response.setContentType(MediaType.APPLICATION_JSON);
+            response.getOutputStream().write(npmJacksonMapper.writeValueAsBytes(packageFeed));
 
-        Versions versions = new Versions();
-        packageFeed.setVersions(versions);
+            return;
+        }
 
-        Time npmTime = new Time();
-        packageFeed.setTime(npmTime);
+        if (repository.isProxyRepository())
+        {
+            // Let the remote package versions be fetched, they update the stored package feed.
+            Paginator paginator = new Paginator();
+            paginator.setLimit(1);
+            provider.search(storageId, repositoryId, predicate, paginator);
+        }
 
-        DistTags distTags = new DistTags();
-        packageFeed.setDistTags(distTags);
+        RepositoryPath packagePath;
+        try
+        {
+            packagePath = npmPackageFeedManager.resolvePackagePath(repository, packageScope, packageName);
+        }
+        catch (IllegalArgumentException e)
+        {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
 
-        searchResult.stream().map(npmPackageSupplier).forEach(p -> {
-            PackageVersion npmPackage = p.getNpmPackage();
-            versions.setAdditionalProperty(npmPackage.getVersion(), npmPackage);
+            return;
+        }
 
-            npmTime.setAdditionalProperty(npmPackage.getVersion(), p.getReleaseDate());
+        // The packages stored before the package feeds were introduced get their feeds on the first request.
+        if (npmPackageFeedManager.readETag(packagePath) == null && npmPackageFeedManager.update(packagePath) == null)
+        {
+            PackageFeed packageFeed = npmPackageFeedManager.createPackageFeed(packageId, Stream.empty());
 
-            Date created = npmTime.getCreated();
-            npmTime.setCreated(created == null || created.before(p.getReleaseDate()) ? p.getReleaseDate() : created);
+            response.setContentType(MediaType.APPLICATION_JSON);
+            response.getOutputStream().write(npmJacksonMapper.writeValueAsBytes(packageFeed));
 
-            Date modified = npmTime.getModified();
-            npmTime.setModified(modified == null || modified.before(p.getReleaseDate()) ? p.getReleaseDate()
-                    : modified);
+            return;
+        }
+
+        writePackageFeed(packagePath, httpHeaders, response);
+    }
 
-            if (p.isLastVersion())
+    private void writePackageFeed(RepositoryPath packagePath,
+                                  HttpHeaders httpHeaders,
+                                  HttpServletResponse response)
+        throws IOException
+    {
+        Lock lock = npmPackageFeedManager.readLock(packagePath);
+        lock.lock();
+        try
+        {
+            String eTag = npmPackageFeedManager.readETag(packagePath);
+            if (eTag == null)
             {
-                distTags.setLatest(npmPackage.getVersion());
+                response.setStatus(HttpStatus.NOT_FOUND.value());
+
+                return;
             }
 
-        });
+            String quotedETag = "\"" + eTag + "\"";
+            response.setHeader(HttpHeaders.ETAG, quotedETag);
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
 
-        response.setContentType(MediaType.APPLICATION_JSON);
-        response.getOutputStream().write(npmJacksonMapper.writeValueAsBytes(packageFeed));
+            List<String> ifNoneMatch = httpHeaders.getIfNoneMatch();
+            if (ifNoneMatch.contains(quotedETag) || ifNoneMatch.contains("*"))
+            {
+                response.setStatus(HttpStatus.NOT_MODIFIED.value());
+
+                return;
+            }
+
+            RepositoryPath feedPath = npmPackageFeedManager.getPackageFeedPath(packagePath, false);
+
+            List<String> acceptEncoding = httpHeaders.get(HttpHeaders.ACCEPT_ENCODING);
+            RepositoryPath gzipFeedPath = npmPackageFeedManager.getPackageFeedPath(packagePath, true);
+            if (acceptEncoding != null && acceptEncoding.stream().anyMatch(e -> e.contains("gzip"))
+                    && Files.exists(gzipFeedPath))
+            {
+                feedPath = gzipFeedPath;
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+
+            response.setContentType(MediaType.APPLICATION_JSON);
+
+            try (FileChannel channel = FileChannel.open(feedPath, StandardOpenOption.READ))
+            {
+                long size = channel.size();
+                response.setContentLengthLong(size);
+
+                WritableByteChannel responseChannel = ArtifactControllerHelper.openResponseChannel(response);
+                for (long position = 0; position < size; )
+                {
+                    position += channel.transferTo(position, size - position, responseChannel);
+                }
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
     }
 
     @GetMapping(path = "{storageId}/{repositoryId}/{packageName}")
     @PreAuthorize("hasAuthority('ARTIFACTS_VIEW')")
     public void viewPackageFeed(@RepositoryMapping Repository repository,
                                 @PathVariable(name = "packageName") String packageName,
+                                @RequestHeader HttpHeaders httpHeaders,
                                 HttpServletResponse response)
         throws Exception
     {
-        viewPackageFeedWithScope(repository, null, packageName, response);
+        viewPackageFeedWithScope(repository, null, packageName, httpHeaders, response);
+    }
+
+    /**
+     * Reads all the package versions, so the packages with many versions are not truncated to a single page. Each
+     * page starts after the last path of the previous one, instead of skipping the previous pages.
+     */
+    private List<Path> searchAll(RepositoryProvider provider,
+                                 String storageId,
+                                 String repositoryId,
+                                 Predicate predicate)
+        throws IOException
+    {
+        Paginator paginator = new Paginator();
+        paginator.setProperty(RepositoryProvider.KEYSET_PROPERTY);
+        paginator.setKeyset(true);
+
+        List<Path> result = new ArrayList<>();
+        List<Path> page;
+        do
+        {
+            page = provider.search(storageId, repositoryId, predicate, paginator);
+            if (page.isEmpty())
+            {
+                break;
+            }
+            result.addAll(page);
+
+            RepositoryPath lastPath = (RepositoryPath) page.get(page.size() - 1);
+            paginator.setAfter(PagingCursor.of(RepositoryFiles.readCoordinates(lastPath).toPath()));
+        }
+        while (page.size() == paginator.getLimit());
+
+        return result;
     }
 
     private Predicate createSearchPredicate(String packageScope,
@@ -292,9 +410,6 @@ public class NpmArtifactController
                                          HttpServletResponse response)
         throws Exception
     {
-        final String storageId = repository.getStorage().getId();
-        final String repositoryId = repository.getId();
-
         NpmArtifactCoordinates coordinates;
         try
         {
@@ -307,8 +422,7 @@ public class NpmArtifactController
             return;
         }
 
-        RepositoryPath path = artifactResolutionService.resolvePath(storageId, repositoryId, coordinates.toPath());
-        provideArtifactDownloadResponse(request, response, httpHeaders, path);
+        provideArtifactDownloadResponse(request, response, httpHeaders, repository, coordinates.toPath());
     }
 
     @PreAuthorize("hasAuthority('ARTIFACTS_RESOLVE')")
@@ -323,9 +437,6 @@ public class NpmArtifactController
                                 HttpServletResponse response)
         throws Exception
     {
-        final String storageId = repository.getStorage().getId();
-        final String repositoryId = repository.getId();
-
         NpmArtifactCoordinates coordinates;
         try
         {
@@ -338,8 +449,7 @@ public class NpmArtifactController
             return;
         }
 
-        RepositoryPath path = artifactResolutionService.resolvePath(storageId, repositoryId, coordinates.toPath());
-        provideArtifactDownloadResponse(request, response, httpHeaders, path);
+        provideArtifactDownloadResponse(request, response, httpHeaders, repository, coordinates.toPath());
     }
 
     @PreAuthorize("hasAuthority('ARTIFACTS_DEPLOY')")
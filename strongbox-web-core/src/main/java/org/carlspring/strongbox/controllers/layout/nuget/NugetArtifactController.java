@@ -8,11 +8,13 @@ import org.carlspring.strongbox.controllers.BaseArtifactController;
 import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
 import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.data.service.support.search.PagingCursor;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.io.ReplacingInputStream;
 import org.carlspring.strongbox.nuget.NugetSearchRequest;
 import org.carlspring.strongbox.nuget.filter.NugetODataFilterQueryParser;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.repository.RepositoryProvider;
 import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
@@ -63,8 +65,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 /**
  * This Controller used to handle Nuget requests.
@@ -153,8 +154,10 @@ public class NugetArtifactController
                                             @RequestParam(name = "$orderby", required = false, defaultValue = "Id") String orderBy,
                                             @RequestParam(name = "$skip", required = false) Integer skip,
                                             @RequestParam(name = "$top", required = false) Integer top,
+                                            @RequestParam(name = "$skiptoken", required = false) String skipToken,
                                             @RequestParam(name = "searchTerm", required = false) String searchTerm,
                                             @RequestParam(name = "targetFramework", required = false) String targetFramework,
+                                            HttpServletRequest request,
                                             HttpServletResponse response)
             throws JAXBException, IOException
     {
@@ -169,20 +172,22 @@ public class NugetArtifactController
         nugetSearchRequest.setTargetFramework(targetFramework);
         repositorySearchEventListener.setNugetSearchRequest(nugetSearchRequest);
         
-        String feedId = getFeedUri(((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest(),
-                                   storageId,
-                                   repositoryId);
+        String feedId = getFeedUri(request, storageId, repositoryId);
 
-        Collection<? extends Nupkg> files;
-        files = getPackages(repository,
-                            filter,
-                            orderBy,
-                            normalizedSearchTerm,
-                            targetFramework,
-                            skip,
-                            top);
+        Paginator paginator;
+        try
+        {
+            paginator = createPaginator(orderBy, skip, top, skipToken);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        List<Path> paths = getPackages(repository, filter, normalizedSearchTerm, targetFramework, paginator);
 
-        PackageFeed feed = transform(feedId, files);
+        PackageFeed feed = transform(feedId, toNupkg(paths));
+        feed.setNextLink(getNextLink(request, paginator, paths));
 
         response.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML);
         feed.writeXml(response.getOutputStream());
@@ -267,6 +272,8 @@ public class NugetArtifactController
     @GetMapping(path = { "{storageId}/{repositoryId}/FindPackagesById()" }, produces = MediaType.APPLICATION_XML)
     public ResponseEntity<?> searchPackageById(@RepositoryMapping Repository repository,
                                                @RequestParam(name = "id", required = true) String packageId,
+                                               @RequestParam(name = "$skiptoken", required = false) String skipToken,
+                                               HttpServletRequest request,
                                                HttpServletResponse response)
             throws JAXBException, IOException
     {
@@ -281,18 +288,25 @@ public class NugetArtifactController
 
         RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
 
-        Paginator paginator = new Paginator();
-        paginator.setProperty("artifactCoordinates.coordinates.version");
+        // The package paths are ordered by the versions, as they follow the package ID.
+        Paginator paginator;
+        try
+        {
+            paginator = createPaginator(null, null, null, skipToken);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
 
         Predicate predicate = Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.id", normalisedPackageId));
 
-        Collection<? extends Nupkg> files = searchNupkg(storageId, repositoryId, provider, paginator, predicate);
+        List<Path> paths = provider.search(storageId, repositoryId, predicate, paginator);
 
-        String feedId = getFeedUri(((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest(),
-                                   storageId,
-                                   repositoryId);
+        String feedId = getFeedUri(request, storageId, repositoryId);
 
-        PackageFeed feed = transform(feedId, files);
+        PackageFeed feed = transform(feedId, toNupkg(paths));
+        feed.setNextLink(getNextLink(request, paginator, paths));
 
         response.setHeader("Content-Type", MediaType.APPLICATION_XML);
         feed.writeXml(response.getOutputStream());
@@ -300,49 +314,100 @@ public class NugetArtifactController
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
-    public Collection<? extends Nupkg> getPackages(Repository repository,
-                                                   String filter,
-                                                   String orderBy,
-                                                   String searchTerm,
-                                                   String targetFramework,
-                                                   Integer skip,
-                                                   Integer top)
+    public List<Path> getPackages(Repository repository,
+                                  String filter,
+                                  String searchTerm,
+                                  String targetFramework,
+                                  Paginator paginator)
     {
         final String storageId = repository.getStorage().getId();
         final String repositoryId = repository.getId();
 
         RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
 
+        Predicate rootPredicate = createSearchPredicate(filter, searchTerm);
+
+        return provider.search(storageId, repositoryId, rootPredicate, paginator);
+    }
+
+    /**
+     * The default `Id` ordered feeds are paged by the package paths, which start with the IDs, and the next pages
+     * start after the `$skiptoken` of the previous ones, so the deep pages cost the same as the first one. The feeds
+     * ordered by the other properties or paged by `$skip` are paged by skipping the previous pages, so the
+     * `$skiptoken` can't be combined with them.
+     *
+     * @throws IllegalArgumentException if the `$skiptoken` is malformed, or combined with the `$orderby` or `$skip`
+     */
+    private Paginator createPaginator(String orderBy,
+                                      Integer skip,
+                                      Integer top,
+                                      String skipToken)
+    {
         Paginator paginator = new Paginator();
-        paginator.setSkip(skip);
         paginator.setLimit(top);
+
+        if (skipToken != null && orderBy != null && !"Id".equals(orderBy))
+        {
+            throw new IllegalArgumentException(String.format("The $skiptoken can't be used with the $orderby [%s].",
+                                                             orderBy));
+        }
+        if (skipToken != null && skip != null && skip > 0)
+        {
+            throw new IllegalArgumentException("The $skiptoken can't be used with the $skip.");
+        }
+
+        if (skipToken != null || ((skip == null || skip == 0) && (orderBy == null || "Id".equals(orderBy))))
+        {
+            paginator.setProperty(RepositoryProvider.KEYSET_PROPERTY);
+            paginator.setKeyset(true);
+            paginator.setAfter(skipToken == null ? null : PagingCursor.fromToken(skipToken));
+
+            return paginator;
+        }
+
+        paginator.setSkip(skip);
         paginator.setProperty(orderBy);
 
-        Predicate rootPredicate = createSearchPredicate(filter, searchTerm);
+        return paginator;
+    }
+
+    /**
+     * @return the link to the next page of the keyset paged feed, or `null` if it's the last page
+     */
+    private String getNextLink(HttpServletRequest request,
+                               Paginator paginator,
+                               List<Path> paths)
+            throws IOException
+    {
+        if (!paginator.isKeyset() || paths.size() < paginator.getLimit())
+        {
+            return null;
+        }
+
+        RepositoryPath lastPath = (RepositoryPath) paths.get(paths.size() - 1);
+        String skipToken = PagingCursor.of(RepositoryFiles.readCoordinates(lastPath).toPath()).toToken();
 
-        return searchNupkg(storageId, repositoryId, provider, paginator, rootPredicate);
+        return ServletUriComponentsBuilder.fromRequest(request)
+                                          .replaceQueryParam("$skiptoken", skipToken)
+                                          .build()
+                                          .toUriString();
     }
 
-    private List<PathNupkg> searchNupkg(String storageId,
-                                        String repositoryId,
-                                        RepositoryProvider provider,
-                                        Paginator paginator,
-                                        Predicate predicate)
+    private List<PathNupkg> toNupkg(List<Path> paths)
     {
-        return provider.search(storageId, repositoryId, predicate, paginator)
-                       .stream()
-                       .map(p -> {
-                           try
-                           {
-                               return new PathNupkg((RepositoryPath) p);
-                           }
-                           catch (Exception e)
-                           {
-                               logger.error(String.format("Failed to resolve Nuget package path [%s]", p), e);
-                               return null;
-                           }
-                       })
-                       .collect(Collectors.toList());
+        return paths.stream()
+                    .map(p -> {
+                        try
+                        {
+                            return new PathNupkg((RepositoryPath) p);
+                        }
+                        catch (Exception e)
+                        {
+                            logger.error(String.format("Failed to resolve Nuget package path [%s]", p), e);
+                            return null;
+                        }
+                    })
+                    .collect(Collectors.toList());
     }
 
     private Predicate createSearchPredicate(String filter,
@@ -0,0 +1,110 @@
+package org.carlspring.strongbox.controllers.support;
+
+import org.carlspring.strongbox.service.ConnectionPoolMetrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PoolMetricsEntityBody
+{
+
+    @JsonProperty("leaseTime")
+    private final HistogramEntityBody leaseTime;
+
+    @JsonProperty("queueWait")
+    private final HistogramEntityBody queueWait;
+
+    public PoolMetricsEntityBody(ConnectionPoolMetrics poolMetrics)
+    {
+        this.leaseTime = new HistogramEntityBody(poolMetrics.getLeaseTime());
+        this.queueWait = new HistogramEntityBody(poolMetrics.getQueueWait());
+    }
+
+    public HistogramEntityBody getLeaseTime()
+    {
+        return leaseTime;
+    }
+
+    public HistogramEntityBody getQueueWait()
+    {
+        return queueWait;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class HistogramEntityBody
+    {
+
+        @JsonProperty("count")
+        private final long count;
+
+        @JsonProperty("meanMillis")
+        private final double meanMillis;
+
+        @JsonProperty("p50Millis")
+        private final long p50Millis;
+
+        @JsonProperty("p95Millis")
+        private final long p95Millis;
+
+        @JsonProperty("p99Millis")
+        private final long p99Millis;
+
+        /**
+         * Number of the values by the inclusive upper bound of the bucket in milliseconds, `+Inf` being the last one.
+         */
+        @JsonProperty("buckets")
+        private final Map<String, Long> buckets = new LinkedHashMap<>();
+
+        public HistogramEntityBody(ConnectionPoolMetrics.Histogram histogram)
+        {
+            this.count = histogram.getCount();
+            this.meanMillis = histogram.getMeanMillis();
+            this.p50Millis = histogram.getPercentileMillis(50);
+            this.p95Millis = histogram.getPercentileMillis(95);
+            this.p99Millis = histogram.getPercentileMillis(99);
+
+            long[] bounds = histogram.getBucketBoundsMillis();
+            long[] counts = histogram.getBucketCounts();
+            for (int i = 0; i < bounds.length; i++)
+            {
+                buckets.put(bounds[i] == Long.MAX_VALUE ? "+Inf" : String.valueOf(bounds[i]), counts[i]);
+            }
+        }
+
+        public long getCount()
+        {
+            return count;
+        }
+
+        public double getMeanMillis()
+        {
+            return meanMillis;
+        }
+
+        public long getP50Millis()
+        {
+            return p50Millis;
+        }
+
+        public long getP95Millis()
+        {
+            return p95Millis;
+        }
+
+        public long getP99Millis()
+        {
+            return p99Millis;
+        }
+
+        public Map<String, Long> getBuckets()
+        {
+            return buckets;
+        }
+
+    }
+
+}
@@ -28,6 +28,11 @@ public enum RemoteRepositoryFormConverter
         result.setCheckIntervalSeconds(source.getCheckIntervalSeconds());
         result.setAllowsDirectoryBrowsing(source.isAllowsDirectoryBrowsing());
         result.setAutoImportRemoteSSLCertificate(source.isAutoImportRemoteSSLCertificate());
+        result.setCacheQuotaInBytes(source.getCacheQuotaInBytes());
+        if (source.getCacheEvictionPolicy() != null)
+        {
+            result.setCacheEvictionPolicy(source.getCacheEvictionPolicy());
+        }
         return result;
     }
 }
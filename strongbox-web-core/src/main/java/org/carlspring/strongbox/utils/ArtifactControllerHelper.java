@@ -1,23 +1,30 @@
 package org.carlspring.strongbox.utils;
 
-import org.carlspring.commons.http.range.ByteRange;
-import org.carlspring.commons.http.range.ByteRangeHeaderParser;
-import org.carlspring.strongbox.io.ByteRangeInputStream;
-import org.carlspring.strongbox.io.StreamUtils;
+import org.carlspring.strongbox.exception.ExceptionHandlingOutputStream;
+import org.carlspring.strongbox.exception.Http202PropogateException;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributes;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryInputStream;
 
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
-import java.io.FilterInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
+import org.eclipse.jetty.io.EofException;
+import org.eclipse.jetty.server.HttpOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
@@ -31,6 +38,8 @@ public class ArtifactControllerHelper
 
     public static final String HEADER_NAME_RANGE = "Range";
 
+    public static final String MULTIPART_BYTERANGES = "multipart/byteranges";
+
     private static final Logger logger = LoggerFactory.getLogger(ArtifactControllerHelper.class);
 
 
@@ -38,92 +47,153 @@ public class ArtifactControllerHelper
     {
     }
 
-    public static void handlePartialDownload(InputStream is,
+    /**
+     * Provides the partial content response for the <code>Range</code>
+     * request. The ranges are read with positioned reads, so the skipped bytes
+     * are not read at all. <br>
+     * The whole content is provided if the <code>Range</code> header is
+     * invalid or the <code>If-Range</code> condition doesn't match.
+     */
+    public static void handlePartialDownload(RepositoryInputStream is,
+                                             RepositoryPath path,
                                              HttpHeaders headers,
                                              HttpServletResponse response)
             throws IOException
     {
-        ByteRangeHeaderParser parser = new ByteRangeHeaderParser(headers.getFirst(HEADER_NAME_RANGE));
-        List<ByteRange> ranges = parser.getRanges();
-        if (ranges.size() == 1)
+        long length = Files.size(path);
+        List<HttpByteRange> ranges = HttpByteRange.parse(headers.getFirst(HEADER_NAME_RANGE), length);
+        if (ranges == null || !isIfRangeSatisfied(path, headers))
+        {
+            logger.debug("Range ignored, provide the whole content.");
+
+            is.transferTo(openResponseChannel(response));
+        }
+        else if (ranges.isEmpty())
+        {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, HttpByteRange.toUnsatisfiedContentRange(length));
+            response.setHeader(HttpHeaders.CONTENT_LENGTH, "0");
+            response.setStatus(REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        }
+        else if (ranges.size() == 1)
         {
             logger.debug("Received request for a partial download with a single range.");
-            handlePartialDownloadWithSingleRange(is, (ByteRange) ranges.get(0), response);
+
+            handlePartialDownloadWithSingleRange(is, ranges.get(0), response);
         }
         else
         {
             logger.debug("Received request for a partial download with multiple ranges.");
+
             handlePartialDownloadWithMultipleRanges(is, ranges, response);
         }
+
+        response.flushBuffer();
     }
 
-    public static void handlePartialDownloadWithSingleRange(InputStream is,
-                                                            ByteRange byteRange,
-                                                            HttpServletResponse response)
+    private static void handlePartialDownloadWithSingleRange(RepositoryInputStream is,
+                                                             HttpByteRange range,
+                                                             HttpServletResponse response)
             throws IOException
     {
-        ByteRangeInputStream bris = StreamUtils.findSource(ByteRangeInputStream.class, (FilterInputStream)is);
-        long length = StreamUtils.getLength(bris);
-        if (byteRange.getOffset() < length)
-        {
-            long partialLength = calculatePartialRangeLength(byteRange, length);
+        response.setHeader(HttpHeaders.CONTENT_RANGE, range.toContentRange());
+        response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(range.getLength()));
+        response.setStatus(PARTIAL_CONTENT.value());
 
-            logger.debug("Calculated partial range length ->>> " + partialLength + "\n");
-
-            StreamUtils.setCurrentByteRange(bris, byteRange);
+        is.transferTo(range.getFirst(), range.getLength(), openResponseChannel(response));
+    }
 
-            response.setHeader("Content-Length", partialLength + "");
-            response.setStatus(PARTIAL_CONTENT.value());
+    private static void handlePartialDownloadWithMultipleRanges(RepositoryInputStream is,
+                                                                List<HttpByteRange> ranges,
+                                                                HttpServletResponse response)
+            throws IOException
+    {
+        String boundary = UUID.randomUUID().toString();
+        String contentType = Optional.ofNullable(response.getContentType())
+                                     .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE);
 
-            prepareResponseBuilderForPartialRequest(byteRange, length, response);
+        List<byte[]> partHeaders = new ArrayList<>();
+        long contentLength = 0;
+        for (HttpByteRange range : ranges)
+        {
+            byte[] partHeader = String.format("\r\n--%s\r\n%s: %s\r\n%s: %s\r\n\r\n",
+                                              boundary,
+                                              HttpHeaders.CONTENT_TYPE, contentType,
+                                              HttpHeaders.CONTENT_RANGE, range.toContentRange())
+                                      .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + range.getLength();
         }
-        else
+        byte[] end = String.format("\r\n--%s--\r\n", boundary).getBytes(StandardCharsets.US_ASCII);
+        contentLength += end.length;
+
+        response.setContentType(MULTIPART_BYTERANGES + "; boundary=" + boundary);
+        response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(contentLength));
+        response.setStatus(PARTIAL_CONTENT.value());
+
+        WritableByteChannel target = openResponseChannel(response);
+        for (int i = 0; i < ranges.size(); i++)
         {
-            response.setStatus(REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            HttpByteRange range = ranges.get(i);
+
+            write(target, partHeaders.get(i));
+            is.transferTo(range.getFirst(), range.getLength(), target);
         }
+        write(target, end);
     }
 
-    public static void handlePartialDownloadWithMultipleRanges(InputStream is,
-                                                               List<ByteRange> byteRanges,
-                                                               HttpServletResponse response)
+    private static void write(WritableByteChannel target,
+                              byte[] bytes)
             throws IOException
     {
-        // XXX: this is not implemented yet
-        response.setStatus(REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining())
+        {
+            target.write(buffer);
+        }
     }
 
-    public static long calculatePartialRangeLength(ByteRange byteRange,
-                                                   long length)
+    /**
+     * We don't provide ETags, so only the <code>Last-Modified</code> date can
+     * be matched.
+     */
+    private static boolean isIfRangeSatisfied(RepositoryPath path,
+                                              HttpHeaders headers)
+            throws IOException
     {
-        if (byteRange.getLimit() > 0L && byteRange.getOffset() > 0L)
+        String ifRange = headers.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange == null)
         {
-            logger.debug("Partial content byteRange.getOffset: " + byteRange.getOffset());
-            logger.debug("Partial content byteRange.getLimit: " + byteRange.getLimit());
-            logger.debug("Partial content length: " + (byteRange.getLimit() - byteRange.getOffset()));
-
-            return byteRange.getLimit() - byteRange.getOffset();
+            return true;
         }
-        else if (length > 0L && byteRange.getOffset() > 0L && byteRange.getLimit() == 0L)
+
+        long ifRangeDate;
+        try
         {
-            logger.debug("Partial content length: " + (length - byteRange.getOffset()));
-            return length - byteRange.getOffset();
+            ifRangeDate = headers.getFirstDate(HttpHeaders.IF_RANGE);
         }
-        else
+        catch (IllegalArgumentException e)
         {
-            return -1L;
+            return false;
         }
+
+        return ifRangeDate / 1000 == Files.getLastModifiedTime(path).toMillis() / 1000;
     }
 
-    public static void prepareResponseBuilderForPartialRequest(ByteRange br,
-                                                               long length,
-                                                               HttpServletResponse response)
+    /**
+     * Provides the {@link WritableByteChannel} for the response content. Jetty
+     * can write {@link ByteBuffer}s to the socket directly, so we don't need to
+     * copy them into byte arrays.
+     */
+    public static WritableByteChannel openResponseChannel(HttpServletResponse response)
+            throws IOException
     {
-        response.setHeader("Accept-Ranges", "bytes");
-        response.setHeader("Content-Range",
-                           "bytes " + br.getOffset() + "-" + (length - 1L) + "/" + length);
+        ServletOutputStream os = response.getOutputStream();
+        if (os instanceof HttpOutput)
+        {
+            return new HttpOutputChannel((HttpOutput) os);
+        }
 
-        logger.debug("Content-Range HEADER ->>> " + response.getHeader("Content-Range"));
-        response.setHeader("Pragma", "no-cache");
+        return Channels.newChannel(new ExceptionHandlingOutputStream(os));
     }
 
     public static boolean isRangedRequest(HttpHeaders headers)
@@ -140,21 +210,10 @@ public class ArtifactControllerHelper
         }
     }
 
-    public static void provideArtifactHeaders(HttpServletResponse response,
-                                              RepositoryPath path)
+    public static void provideContentType(HttpServletResponse response,
+                                          RepositoryPath path)
         throws IOException
     {
-        if (path == null || !Files.exists(path) || Files.isDirectory(path))
-        {
-            response.setStatus(HttpStatus.NOT_FOUND.value());
-            return;
-        }
-        RepositoryFileAttributes fileAttributes = Files.readAttributes(path, RepositoryFileAttributes.class);
-
-        response.setHeader("Content-Length", String.valueOf(fileAttributes.size()));
-        response.setHeader("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME.format(
-                ZonedDateTime.ofInstant(fileAttributes.lastModifiedTime().toInstant(), ZoneId.systemDefault())));
-
         // TODO: This is far from optimal and will need to have a content type approach at some point:
         if (RepositoryFiles.isChecksum(path) || (path.getFileName().toString().endsWith(".properties")))
         {
@@ -172,6 +231,24 @@ public class ArtifactControllerHelper
         {
             response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
         }
+    }
+
+    public static void provideArtifactHeaders(HttpServletResponse response,
+                                              RepositoryPath path)
+        throws IOException
+    {
+        if (path == null || !Files.exists(path) || Files.isDirectory(path))
+        {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        RepositoryFileAttributes fileAttributes = Files.readAttributes(path, RepositoryFileAttributes.class);
+
+        response.setHeader("Content-Length", String.valueOf(fileAttributes.size()));
+        response.setHeader("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.ofInstant(fileAttributes.lastModifiedTime().toInstant(), ZoneId.systemDefault())));
+
+        provideContentType(response, path);
 
         response.setHeader("Accept-Ranges", "bytes");
 
@@ -193,4 +270,46 @@ public class ArtifactControllerHelper
         
     }
 
+    private static class HttpOutputChannel implements WritableByteChannel
+    {
+
+        private final HttpOutput out;
+
+        private HttpOutputChannel(HttpOutput out)
+        {
+            this.out = out;
+        }
+
+        @Override
+        public int write(ByteBuffer src)
+                throws IOException
+        {
+            int length = src.remaining();
+            try
+            {
+                out.write(src);
+            }
+            catch (EofException e)
+            {
+                throw new Http202PropogateException("Socket has been closed. Possibly, user cancelled download.", e);
+            }
+
+            return length;
+        }
+
+        @Override
+        public boolean isOpen()
+        {
+            return !out.isClosed();
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            out.close();
+        }
+
+    }
+
 }
@@ -0,0 +1,143 @@
+package org.carlspring.strongbox.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Satisfiable byte range of the HTTP <code>Range</code> request header, resolved
+ * against the actual resource length (see RFC 7233).
+ */
+public class HttpByteRange
+{
+
+    public static final String BYTES_UNIT = "bytes";
+
+    /**
+     * Protects from the requests with huge number of small ranges.
+     */
+    private static final int MAX_RANGES = 64;
+
+    private final long first;
+
+    private final long last;
+
+    private final long resourceLength;
+
+    HttpByteRange(long first,
+                  long last,
+                  long resourceLength)
+    {
+        this.first = first;
+        this.last = last;
+        this.resourceLength = resourceLength;
+    }
+
+    public long getFirst()
+    {
+        return first;
+    }
+
+    public long getLast()
+    {
+        return last;
+    }
+
+    public long getLength()
+    {
+        return last - first + 1;
+    }
+
+    public String toContentRange()
+    {
+        return String.format("%s %s-%s/%s", BYTES_UNIT, first, last, resourceLength);
+    }
+
+    public static String toUnsatisfiedContentRange(long resourceLength)
+    {
+        return String.format("%s */%s", BYTES_UNIT, resourceLength);
+    }
+
+    /**
+     * Parses the <code>Range</code> header value.
+     *
+     * @param range
+     *            the <code>Range</code> header value
+     * @param resourceLength
+     * @return the satisfiable ranges (empty list if there are no satisfiable
+     *         ranges) or <code>null</code> if the header is invalid and should
+     *         be ignored
+     */
+    public static List<HttpByteRange> parse(String range,
+                                            long resourceLength)
+    {
+        if (range == null)
+        {
+            return null;
+        }
+
+        int i = range.indexOf('=');
+        if (i < 0 || !BYTES_UNIT.equalsIgnoreCase(range.substring(0, i).trim()))
+        {
+            return null;
+        }
+
+        String[] rangeSpecs = range.substring(i + 1).split(",");
+        if (rangeSpecs.length > MAX_RANGES)
+        {
+            return null;
+        }
+
+        List<HttpByteRange> result = new ArrayList<>();
+        for (String rangeSpec : rangeSpecs)
+        {
+            String spec = rangeSpec.trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0)
+            {
+                return null;
+            }
+
+            String firstValue = spec.substring(0, dash).trim();
+            String lastValue = spec.substring(dash + 1).trim();
+            try
+            {
+                if (firstValue.isEmpty())
+                {
+                    // Suffix range: "-500" means the last 500 bytes.
+                    long suffixLength = Long.parseLong(lastValue);
+                    if (suffixLength < 0)
+                    {
+                        return null;
+                    }
+                    if (suffixLength > 0 && resourceLength > 0)
+                    {
+                        result.add(new HttpByteRange(Math.max(resourceLength - suffixLength, 0),
+                                                     resourceLength - 1,
+                                                     resourceLength));
+                    }
+
+                    continue;
+                }
+
+                long first = Long.parseLong(firstValue);
+                long last = lastValue.isEmpty() ? Long.MAX_VALUE : Long.parseLong(lastValue);
+                if (first < 0 || last < first)
+                {
+                    return null;
+                }
+                if (first < resourceLength)
+                {
+                    result.add(new HttpByteRange(first, Math.min(last, resourceLength - 1), resourceLength));
+                }
+            }
+            catch (NumberFormatException e)
+            {
+                return null;
+            }
+        }
+
+        return Collections.unmodifiableList(result);
+    }
+
+}
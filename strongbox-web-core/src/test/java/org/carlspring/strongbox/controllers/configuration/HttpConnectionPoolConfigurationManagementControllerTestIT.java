@@ -21,6 +21,7 @@ import org.springframework.http.MediaType;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
 
 /**
  * @author Pablo Tirado
@@ -157,6 +158,45 @@ public class HttpConnectionPoolConfigurationManagementControllerTestIT
         validateResponseBodyPoolStats(acceptHeader, response, expectedPoolStats);
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = { MediaType.APPLICATION_JSON_VALUE,
+                             MediaType.TEXT_PLAIN_VALUE })
+    void testGetPoolMetricsForProxyRepository(String acceptHeader)
+    {
+        Repository repository = configurationManager.getConfiguration()
+                                                    .getStorages()
+                                                    .values()
+                                                    .stream()
+                                                    .filter(stg -> MapUtils.isNotEmpty(stg.getRepositories()))
+                                                    .flatMap(stg -> stg.getRepositories().values().stream())
+                                                    .filter(r -> r.getRemoteRepository() != null &&
+                                                                 r.getRemoteRepository().getUrl() != null)
+                                                    .findAny()
+                                                    .get();
+
+        String url = getContextBaseUrl() + "/api/configuration/proxy/connection-pool/" +
+                     repository.getStorage().getId() + "/" +
+                     repository.getId() + "/metrics";
+
+        ValidatableMockMvcResponse response = mockMvc.accept(acceptHeader)
+                                                     .when()
+                                                     .get(url)
+                                                     .peek()
+                                                     .then()
+                                                     .statusCode(HttpStatus.OK.value());
+
+        if (acceptHeader.equals(MediaType.APPLICATION_JSON_VALUE))
+        {
+            response.body("leaseTime.count", notNullValue())
+                    .body("queueWait.buckets", notNullValue());
+        }
+        else
+        {
+            response.body(containsString("leaseTime: count: "))
+                    .body(containsString("queueWait: count: "));
+        }
+    }
+
     private void validateResponseBodyConnections(ValidatableMockMvcResponse response,
                                                  String acceptHeader,
                                                  int newMaxNumberOfConnections)
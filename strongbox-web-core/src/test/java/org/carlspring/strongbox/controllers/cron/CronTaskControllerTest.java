@@ -4,10 +4,13 @@ import org.carlspring.strongbox.config.IntegrationTest;
 import org.carlspring.strongbox.cron.domain.CronTaskConfigurationDto;
 import org.carlspring.strongbox.cron.domain.CronTasksConfigurationDto;
 import org.carlspring.strongbox.cron.jobs.*;
+import org.carlspring.strongbox.cron.services.JobManager;
 import org.carlspring.strongbox.forms.cron.CronTaskConfigurationForm;
 import org.carlspring.strongbox.forms.cron.CronTaskConfigurationFormField;
 import org.carlspring.strongbox.rest.common.RestAssuredBaseTest;
+import org.carlspring.strongbox.services.support.ChecksumRegenerationStatistics;
 
+import javax.inject.Inject;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
@@ -42,6 +45,9 @@ public class CronTaskControllerTest
 
     private static final File GROOVY_TASK_FILE = new File("target/test-classes/groovy/GroovyTask.groovy");
 
+    @Inject
+    private JobManager jobManager;
+
     @Override
     @BeforeEach
     public void init()
@@ -420,6 +426,62 @@ public class CronTaskControllerTest
         deleteConfig(cronUuid);
     }
 
+    @Test
+    public void testCronTaskStatistics()
+    {
+        CronTaskConfigurationForm cronTaskConfigurationForm = new CronTaskConfigurationForm();
+        cronTaskConfigurationForm.setJobClass(RegenerateChecksumCronJob.class.getName());
+        cronTaskConfigurationForm.setCronExpression("0 11 11 11 11 ? 2100");
+        cronTaskConfigurationForm.setFields(
+                Arrays.asList(new CronTaskConfigurationFormField[]{ CronTaskConfigurationFormField.newBuilder().name(
+                        "forceRegeneration").value("false").build() }));
+
+        Headers headers = mockMvc.contentType(MediaType.APPLICATION_JSON_VALUE)
+                                 .accept(MediaType.APPLICATION_JSON_VALUE)
+                                 .body(cronTaskConfigurationForm)
+                                 .when()
+                                 .put(getContextBaseUrl())
+                                 .peek()
+                                 .then()
+                                 .statusCode(HttpStatus.OK.value())
+                                 .and()
+                                 .extract()
+                                 .headers();
+
+        UUID cronUuid = UUID.fromString(headers.getValue(HEADER_NAME_CRON_TASK_ID));
+
+        // The cron task wasn't executed yet.
+        getCronStatistics(cronUuid).then()
+                                   .statusCode(HttpStatus.NOT_FOUND.value());
+
+        ChecksumRegenerationStatistics statistics = new ChecksumRegenerationStatistics();
+        statistics.start();
+        statistics.regenerated(1024);
+        statistics.skipped();
+        jobManager.registerJobStatistics(cronUuid.toString(), statistics::toMap);
+
+        getCronStatistics(cronUuid).then()
+                                   .statusCode(HttpStatus.OK.value())
+                                   .expect(MockMvcResultMatchers.jsonPath("running").value(equalTo(true)))
+                                   .expect(MockMvcResultMatchers.jsonPath("regeneratedFiles").value(equalTo(1)))
+                                   .expect(MockMvcResultMatchers.jsonPath("skippedFiles").value(equalTo(1)))
+                                   .expect(MockMvcResultMatchers.jsonPath("bytes").value(equalTo(1024)));
+
+        // The statistics are requested from the running job every time.
+        statistics.regenerated(1024);
+        statistics.stop();
+
+        getCronStatistics(cronUuid).then()
+                                   .statusCode(HttpStatus.OK.value())
+                                   .expect(MockMvcResultMatchers.jsonPath("running").value(equalTo(false)))
+                                   .expect(MockMvcResultMatchers.jsonPath("regeneratedFiles").value(equalTo(2)));
+
+        deleteConfig(cronUuid);
+
+        getCronStatistics(cronUuid).then()
+                                   .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
     @Test
     public void testGroovyCronTaskConfiguration()
             throws Exception
@@ -514,6 +576,14 @@ public class CronTaskControllerTest
                       .peek();
     }
 
+    private MockMvcResponse getCronStatistics(UUID uuid)
+    {
+        return mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+                      .when()
+                      .get(getContextBaseUrl() + "/" + uuid + "/statistics")
+                      .peek();
+    }
+
     private MockMvcResponse getCronConfig(UUID uuid)
     {
         return mockMvc.contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -22,6 +22,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 
 /**
  * @author Pablo Tirado
@@ -125,4 +127,116 @@ public class NpmArtifactControllerTest
                .header(HttpHeaders.CONTENT_LENGTH, equalTo(String.valueOf(Files.size(packagePath))));
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testViewPackageFeed(@NpmRepository(repositoryId = REPOSITORY_RELEASES)
+                                    Repository repository,
+                                    @NpmTestArtifact(repositoryId = REPOSITORY_RELEASES,
+                                                     id = "npm-test-feed",
+                                                     versions = "1.0.0",
+                                                     scope = "@carlspring")
+                                    Path packagePath)
+            throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        RepositoryPath normPackagePath = (RepositoryPath) packagePath.normalize();
+        NpmArtifactCoordinates coordinates = (NpmArtifactCoordinates) RepositoryFiles.readCoordinates(normPackagePath);
+
+        // View the stored package feed
+        String url = getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/{artifactId}";
+        String eTag = mockMvc.contentType(MediaType.APPLICATION_JSON_VALUE)
+                             .when()
+                             .get(url, storageId, repositoryId, coordinates.getId())
+                             .peek()
+                             .then()
+                             .statusCode(HttpStatus.OK.value())
+                             .header(HttpHeaders.ETAG, notNullValue())
+                             .body("name", equalTo(coordinates.getId()))
+                             .body("dist-tags.latest", equalTo(coordinates.getVersion()))
+                             .extract()
+                             .header(HttpHeaders.ETAG);
+
+        // Not modified
+        mockMvc.contentType(MediaType.APPLICATION_JSON_VALUE)
+               .header(HttpHeaders.IF_NONE_MATCH, eTag)
+               .when()
+               .get(url, storageId, repositoryId, coordinates.getId())
+               .then()
+               .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        // Gzipped
+        mockMvc.contentType(MediaType.APPLICATION_JSON_VALUE)
+               .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+               .when()
+               .get(url, storageId, repositoryId, coordinates.getId())
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .header(HttpHeaders.CONTENT_ENCODING, equalTo("gzip"))
+               .header(HttpHeaders.ETAG, equalTo(eTag));
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testUnpublishedVersionIsRemovedFromPackageFeed(@NpmRepository(repositoryId = REPOSITORY_RELEASES)
+                                                               Repository repository,
+                                                               @NpmTestArtifact(repositoryId = REPOSITORY_RELEASES,
+                                                                                id = "npm-test-unpublish",
+                                                                                versions = { "1.0.0",
+                                                                                             "1.0.1" },
+                                                                                scope = "@carlspring")
+                                                               Path packagePath)
+            throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        RepositoryPath normPackagePath = (RepositoryPath) packagePath.normalize();
+        NpmArtifactCoordinates coordinates = (NpmArtifactCoordinates) RepositoryFiles.readCoordinates(normPackagePath);
+
+        String url = getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/{artifactId}";
+        mockMvc.contentType(MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get(url, storageId, repositoryId, coordinates.getId())
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("versions.'1.0.0'", notNullValue())
+               .body("versions.'1.0.1'", notNullValue());
+
+        // The whole version directory is deleted on unpublish.
+        RepositoryPath versionPath = normPackagePath.getParent().getParent().resolve("1.0.0");
+        RepositoryFiles.delete(versionPath, true);
+
+        // The package feed is updated in the background.
+        for (int i = 0; i < 100; i++)
+        {
+            Object version = mockMvc.contentType(MediaType.APPLICATION_JSON_VALUE)
+                                    .when()
+                                    .get(url, storageId, repositoryId, coordinates.getId())
+                                    .then()
+                                    .extract()
+                                    .path("versions.'1.0.0'");
+            if (version == null)
+            {
+                break;
+            }
+
+            Thread.sleep(100);
+        }
+
+        mockMvc.contentType(MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get(url, storageId, repositoryId, coordinates.getId())
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("versions.'1.0.0'", nullValue())
+               .body("versions.'1.0.1'", notNullValue())
+               .body("time.'1.0.0'", nullValue())
+               .body("dist-tags.latest", equalTo("1.0.1"));
+    }
+
 }
@@ -16,10 +16,12 @@ import org.carlspring.strongbox.testing.repository.NugetRepository;
 import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
 
 import javax.inject.Inject;
+import java.io.ByteArrayInputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +36,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -56,6 +59,8 @@ public class NugetArtifactControllerTest extends NugetRestAssuredBaseTest
 
     private static final String REPOSITORY_RELEASES_1 = "nuget-test-releases";
 
+    private static final String REPOSITORY_SKIP_TOKEN_RELEASES = "nuget-test-skip-token-releases";
+
     @Inject
     private ArtifactEntryService artifactEntryService;
 
@@ -413,6 +418,83 @@ public class NugetArtifactControllerTest extends NugetRestAssuredBaseTest
                .body("feed.entry[0].properties.Version", equalTo("2.0.0"));
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testPackageSearchSkipToken(@NugetRepository(storageId = STORAGE_ID,
+                                                            repositoryId = REPOSITORY_SKIP_TOKEN_RELEASES)
+                                           Repository repository,
+                                           @NugetTestArtifact(storageId = STORAGE_ID,
+                                                              repositoryId = REPOSITORY_SKIP_TOKEN_RELEASES,
+                                                              id = "Org.Carlspring.Strongbox.Nuget.Test.SkipToken",
+                                                              versions = { "1.0.0",
+                                                                           "1.0.1",
+                                                                           "1.0.2",
+                                                                           "1.0.3",
+                                                                           "1.0.4" })
+                                           List<Path> packagePaths)
+        throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        String url = getContextBaseUrl() +
+                     "/storages/{storageId}/{repositoryId}/Search()?$top={top}&searchTerm={searchTerm}&targetFramework=";
+        PackageFeed feed = searchPackages(url, storageId, repositoryId, 2, "Test.SkipToken");
+
+        // Every next page starts after the `$skiptoken` of the next link of the previous one.
+        List<String> versions = new ArrayList<>();
+        for (int i = 0; ; i++)
+        {
+            assertThat(i).isLessThan(packagePaths.size());
+            assertThat(feed.getEntries().size()).isLessThanOrEqualTo(2);
+            feed.getEntries().forEach(e -> versions.add(e.getProperties().getVersion().toString()));
+
+            if (feed.getNextLink() == null)
+            {
+                break;
+            }
+
+            String skipToken = UriComponentsBuilder.fromUriString(feed.getNextLink())
+                                                   .build()
+                                                   .getQueryParams()
+                                                   .getFirst("$skiptoken");
+            assertThat(skipToken).isNotNull();
+
+            url = getContextBaseUrl() +
+                  "/storages/{storageId}/{repositoryId}/Search()?$top={top}&$skiptoken={skipToken}" +
+                  "&searchTerm={searchTerm}&targetFramework=";
+            feed = searchPackages(url, storageId, repositoryId, 2, skipToken, "Test.SkipToken");
+        }
+
+        assertThat(versions).containsExactlyInAnyOrder("1.0.0", "1.0.1", "1.0.2", "1.0.3", "1.0.4");
+
+        // The `$skiptoken` pages are ordered by the package paths only.
+        url = getContextBaseUrl() +
+              "/storages/{storageId}/{repositoryId}/Search()?$orderby={orderBy}&$skiptoken={skipToken}" +
+              "&searchTerm={searchTerm}&targetFramework=";
+        mockMvc.header(HttpHeaders.USER_AGENT, "NuGet/*")
+               .when()
+               .get(url, storageId, repositoryId, "Version", "AQ", "Test.SkipToken")
+               .then()
+               .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    private PackageFeed searchPackages(String url,
+                                       Object... pathParams)
+        throws Exception
+    {
+        byte[] body = mockMvc.header(HttpHeaders.USER_AGENT, "NuGet/*")
+                             .when()
+                             .get(url, pathParams)
+                             .then()
+                             .statusCode(HttpStatus.OK.value())
+                             .extract()
+                             .asByteArray();
+
+        return PackageFeed.parse(new ByteArrayInputStream(body));
+    }
+
     public MockMvcRequestSpecification createPushRequest(byte[] packageContent)
     {
         return mockMvc.header(HttpHeaders.USER_AGENT, "NuGet/*")
@@ -0,0 +1,52 @@
+package org.carlspring.strongbox.utils;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpByteRangeTest
+{
+
+    private static final long LENGTH = 1000;
+
+    @Test
+    public void testSingleRange()
+    {
+        List<HttpByteRange> ranges = HttpByteRange.parse("bytes=100-199", LENGTH);
+
+        assertThat(ranges).hasSize(1);
+        assertThat(ranges.get(0).getLength()).isEqualTo(100);
+        assertThat(ranges.get(0).toContentRange()).isEqualTo("bytes 100-199/1000");
+    }
+
+    @Test
+    public void testOpenAndSuffixRanges()
+    {
+        List<HttpByteRange> ranges = HttpByteRange.parse("bytes=900-, -50, 990-2000, -5000", LENGTH);
+
+        assertThat(ranges).extracting(HttpByteRange::toContentRange)
+                          .containsExactly("bytes 900-999/1000",
+                                           "bytes 950-999/1000",
+                                           "bytes 990-999/1000",
+                                           "bytes 0-999/1000");
+    }
+
+    @Test
+    public void testUnsatisfiableRanges()
+    {
+        assertThat(HttpByteRange.parse("bytes=1000-", LENGTH)).isEmpty();
+        assertThat(HttpByteRange.parse("bytes=-0", LENGTH)).isEmpty();
+        assertThat(HttpByteRange.toUnsatisfiedContentRange(LENGTH)).isEqualTo("bytes */1000");
+    }
+
+    @Test
+    public void testInvalidRanges()
+    {
+        assertThat(HttpByteRange.parse("items=0-1", LENGTH)).isNull();
+        assertThat(HttpByteRange.parse("bytes=5-1", LENGTH)).isNull();
+        assertThat(HttpByteRange.parse("bytes=a-b", LENGTH)).isNull();
+        assertThat(HttpByteRange.parse("bytes=10", LENGTH)).isNull();
+    }
+
+}
@@ -33,6 +33,11 @@ public class RemoteRepositoryForm
 
     private boolean autoImportRemoteSSLCertificate;
 
+    @PositiveOrZero(message = "A cacheQuotaInBytes must be positive or zero.")
+    private Long cacheQuotaInBytes;
+
+    private String cacheEvictionPolicy;
+
     public String getUrl()
     {
         return url;
@@ -92,4 +97,24 @@ public class RemoteRepositoryForm
     {
         return autoImportRemoteSSLCertificate;
     }
+
+    public Long getCacheQuotaInBytes()
+    {
+        return cacheQuotaInBytes;
+    }
+
+    public void setCacheQuotaInBytes(Long cacheQuotaInBytes)
+    {
+        this.cacheQuotaInBytes = cacheQuotaInBytes;
+    }
+
+    public String getCacheEvictionPolicy()
+    {
+        return cacheEvictionPolicy;
+    }
+
+    public void setCacheEvictionPolicy(String cacheEvictionPolicy)
+    {
+        this.cacheEvictionPolicy = cacheEvictionPolicy;
+    }
 }